@@ -10,6 +10,7 @@ import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.jar.JarFile;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -404,7 +405,8 @@ public class CommandLineHelper {
 
   /**
    * Given a command line, return an initialized IOHelper. The --prefix, --add-prefix, --prefixes,
-   * --add-prefixes, --noprefixes, --xml-entities, and --base options are handled.
+   * --add-prefixes, --noprefixes, --xml-entities, --strict, --cache, and --no-cache options are
+   * handled.
    *
    * @param line the command line to use
    * @return an initialized IOHelper
@@ -434,9 +436,32 @@ public class CommandLineHelper {
     ioHelper.setXMLEntityFlag(line.hasOption("xml-entities"));
     ioHelper.setStrict(line.hasOption("strict"));
 
+    // The ontology cache is opt-in, with --cache or the ROBOT_CACHE environment variable
+    if (!line.hasOption("no-cache")) {
+      String cachePath = getOptionalValue(line, "cache");
+      if (cachePath == null) {
+        cachePath = System.getenv("ROBOT_CACHE");
+      }
+      if (cachePath != null && !cachePath.trim().isEmpty()) {
+        ioHelper.setCache(new OntologyCache(new File(cachePath.trim())));
+      }
+    }
+
     return ioHelper;
   }
 
+  /**
+   * Given a command line, return the number of threads to use for work that can be run in
+   * parallel, from the --threads option. Defaults to 1.
+   *
+   * @param line the command line to use
+   * @return the number of threads, at least 1
+   * @throws IllegalArgumentException if the value is not a positive integer or 'auto'
+   */
+  public static int getThreads(CommandLine line) throws IllegalArgumentException {
+    return ThreadHelper.parseThreads(getOptionalValue(line, "threads"));
+  }
+
   /**
    * Given an IOHelper and a command line, check for required options and return a loaded input
    * ontology. Currently handles --input and --input-iri options.
@@ -929,6 +954,9 @@ public class CommandLineHelper {
     o.addOption(null, "add-prefixes", true, "add JSON-LD prefixes to the output");
     o.addOption("x", "xml-entities", false, "use entity substitution with ontology XML output");
     o.addOption(null, "strict", false, "use strict parsing when loading an ontology");
+    o.addOption(null, "threads", true, "number of threads to use for parallel work, or 'auto'");
+    o.addOption(null, "cache", true, "cache parsed input ontologies in the given directory");
+    o.addOption(null, "no-cache", false, "do not use the ontology cache");
     return o;
   }
 
@@ -1080,26 +1108,26 @@ public class CommandLineHelper {
    */
   public static List<OWLOntology> getInputOntologies(IOHelper ioHelper, CommandLine line)
       throws IllegalArgumentException, IOException {
-    List<OWLOntology> inputOntologies = new ArrayList<>();
+    List<Callable<OWLOntology>> loaders = new ArrayList<>();
     String inputFormat = getOptionalValue(line, "input-format");
     // Check for input files
     List<String> inputOntologyPaths = getOptionalValues(line, "input");
     for (String inputOntologyPath : inputOntologyPaths) {
-      inputOntologies.add(ioHelper.loadOntology(inputOntologyPath, true, inputFormat));
+      loaders.add(() -> ioHelper.loadOntology(inputOntologyPath, true, inputFormat));
     }
     // Check for input IRIs
     List<String> inputOntologyIRIs = getOptionalValues(line, "input-iri");
     for (String inputOntologyIRI : inputOntologyIRIs) {
-      inputOntologies.add(ioHelper.loadOntology(IRI.create(inputOntologyIRI), null, inputFormat));
+      loaders.add(() -> ioHelper.loadOntology(IRI.create(inputOntologyIRI), null, inputFormat));
     }
     // Check for input patterns (wildcard)
     String pattern = getOptionalValue(line, "inputs");
     if (pattern != null) {
       for (File inputOntologyFile : getFilesByPattern(pattern)) {
-        inputOntologies.add(ioHelper.loadOntology(inputOntologyFile, true, inputFormat));
+        loaders.add(() -> ioHelper.loadOntology(inputOntologyFile, true, inputFormat));
       }
     }
-    return inputOntologies;
+    return loadInputOntologies(loaders, getThreads(line));
   }
 
   /**
@@ -1114,28 +1142,50 @@ public class CommandLineHelper {
    */
   public static List<OWLOntology> getInputOntologies(
       IOHelper ioHelper, CommandLine line, String catalogPath) throws IOException {
-    List<OWLOntology> inputOntologies = new ArrayList<>();
+    List<Callable<OWLOntology>> loaders = new ArrayList<>();
     String inputFormat = getOptionalValue(line, "input-format");
     // Check for input files
     List<String> inputOntologyPaths = getOptionalValues(line, "input");
     for (String inputOntologyPath : inputOntologyPaths) {
-      inputOntologies.add(ioHelper.loadOntology(inputOntologyPath, catalogPath, inputFormat));
+      loaders.add(() -> ioHelper.loadOntology(inputOntologyPath, catalogPath, inputFormat));
     }
     // Check for input IRIs
     List<String> inputOntologyIRIs = getOptionalValues(line, "input-iri");
     for (String inputOntologyIRI : inputOntologyIRIs) {
-      inputOntologies.add(
-          ioHelper.loadOntology(IRI.create(inputOntologyIRI), catalogPath, inputFormat));
+      loaders.add(
+          () -> ioHelper.loadOntology(IRI.create(inputOntologyIRI), catalogPath, inputFormat));
     }
     // Check for input patterns (wildcard)
     String pattern = getOptionalValue(line, "inputs");
     if (pattern != null) {
       File catalogFile = new File(catalogPath);
       for (File inputOntologyFile : getFilesByPattern(pattern)) {
-        inputOntologies.add(ioHelper.loadOntology(inputOntologyFile, catalogFile, inputFormat));
+        loaders.add(() -> ioHelper.loadOntology(inputOntologyFile, catalogFile, inputFormat));
       }
     }
-    return inputOntologies;
+    return loadInputOntologies(loaders, getThreads(line));
+  }
+
+  /**
+   * Given a list of ontology loaders and a number of threads, run the loaders and return the loaded
+   * ontologies in the same order as the loaders. Each loader uses its own OWLOntologyManager, so
+   * when more than one thread is requested the inputs are parsed concurrently. If any input fails
+   * to load, the error for the first failed input is thrown.
+   *
+   * @param loaders list of tasks that each load one ontology
+   * @param threads maximum number of ontologies to load at once
+   * @return the list of loaded ontologies, in input order
+   * @throws IOException if an ontology cannot be loaded
+   */
+  private static List<OWLOntology> loadInputOntologies(
+      List<Callable<OWLOntology>> loaders, int threads) throws IOException {
+    try {
+      return ThreadHelper.invokeAll(loaders, threads);
+    } catch (IOException | RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
   }
 
   /**
@@ -184,8 +184,16 @@ public class CommandManager implements Command {
       throw new IllegalArgumentException(missingCommandError);
     }
 
-    while (arguments.size() > 0) {
-      state = executeCommand(state, globalOptionArgs, arguments);
+    // The reasoner is only reused within one chain of commands,
+    // and is disposed even when a command fails
+    try {
+      while (arguments.size() > 0) {
+        state = executeCommand(state, globalOptionArgs, arguments);
+      }
+    } finally {
+      if (state != null) {
+        state.disposeReasoner();
+      }
     }
 
     return state;
@@ -1,6 +1,14 @@
 package org.obolibrary.robot;
 
+import java.util.List;
+import java.util.Set;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * A simple state container for communicating between Commands.
@@ -8,6 +16,9 @@ import org.semanticweb.owlapi.model.OWLOntology;
  * @author <a href="mailto:james@overton.ca">James A. Overton</a>
  */
 public class CommandState {
+  /** Logger. */
+  private static final Logger logger = LoggerFactory.getLogger(CommandState.class);
+
   /** An ontology to pass between commands. */
   private OWLOntology ontology = null;
 
@@ -17,6 +28,18 @@ public class CommandState {
   /** The path to the catalog. */
   private String catalogPath = null;
 
+  /** A reasoner for the ontology to pass between commands, or null. */
+  private OWLReasoner reasoner = null;
+
+  /** The reasoner name of the factory that created the reasoner. */
+  private String reasonerName = null;
+
+  /** Number of changes to the reasoner's ontologies since the reasoner was last used. */
+  private int reasonerChanges = 0;
+
+  /** Listener that counts changes to the reasoner's ontologies. */
+  private final OWLOntologyChangeListener changeListener = this::countChanges;
+
   /**
    * Get the catalog path.
    *
@@ -44,6 +67,49 @@ public class CommandState {
     return ontologyPath;
   }
 
+  /**
+   * Get a reasoner for the ontology. If a reasoner from the same factory was created for the
+   * ontology by a previous command, it is reused. If the ontology has changed since then, the
+   * reasoner is flushed, which lets reasoners that support it (such as ELK) update their
+   * inferences incrementally instead of starting over. Otherwise, a new reasoner is created.
+   *
+   * @param reasonerFactory the factory to create a new reasoner from
+   * @return reasoner for the ontology
+   */
+  public OWLReasoner getReasoner(OWLReasonerFactory reasonerFactory) {
+    String name = reasonerFactory.getReasonerName();
+    if (reasoner != null && !name.equals(reasonerName)) {
+      disposeReasoner();
+    }
+    if (reasoner == null) {
+      reasoner = reasonerFactory.createReasoner(ontology);
+      reasonerName = name;
+      reasonerChanges = 0;
+      ontology.getOWLOntologyManager().addOntologyChangeListener(changeListener);
+      return reasoner;
+    }
+    if (reasonerChanges > 0) {
+      logger.info("Updating reasoner with {} ontology changes", reasonerChanges);
+      reasoner.flush();
+      reasonerChanges = 0;
+    } else {
+      logger.info("Reusing reasoner from previous command");
+    }
+    return reasoner;
+  }
+
+  /** Dispose of the reasoner for the ontology, if there is one. */
+  public void disposeReasoner() {
+    if (reasoner == null) {
+      return;
+    }
+    reasoner.getRootOntology().getOWLOntologyManager().removeOntologyChangeListener(changeListener);
+    reasoner.dispose();
+    reasoner = null;
+    reasonerName = null;
+    reasonerChanges = 0;
+  }
+
   /**
    * Set the catalog path.
    *
@@ -54,11 +120,14 @@ public class CommandState {
   }
 
   /**
-   * Set the ontology.
+   * Set the ontology. If it is not the ontology of the current reasoner, the reasoner is disposed.
    *
    * @param ontology the ontology to store
    */
   public void setOntology(OWLOntology ontology) {
+    if (ontology != this.ontology) {
+      disposeReasoner();
+    }
     this.ontology = ontology;
   }
 
@@ -70,4 +139,22 @@ public class CommandState {
   public void setOntologyPath(String ontologyPath) {
     this.ontologyPath = ontologyPath;
   }
+
+  /**
+   * Count the changes to the ontologies of the current reasoner. The imports closure is taken for
+   * each list of changes, so that ontologies imported after the reasoner was created are counted.
+   *
+   * @param changes list of ontology changes
+   */
+  private void countChanges(List<? extends OWLOntologyChange> changes) {
+    if (reasoner == null) {
+      return;
+    }
+    Set<OWLOntology> reasonerOntologies = reasoner.getRootOntology().getImportsClosure();
+    for (OWLOntologyChange change : changes) {
+      if (reasonerOntologies.contains(change.getOntology())) {
+        reasonerChanges++;
+      }
+    }
+  }
 }
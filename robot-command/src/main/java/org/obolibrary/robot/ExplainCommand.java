@@ -133,10 +133,14 @@ public class ExplainCommand implements Command {
 
     switch (modeString) {
       case "inconsistency":
-        explanations.addAll(handleInconsistentOntology(line, ontology, max, reasonerFactory));
+        explanations.addAll(
+            handleInconsistentOntology(
+                line, ontology, max, reasonerFactory, state.getReasoner(reasonerFactory)));
         break;
       case "unsatisfiability":
-        explanations.addAll(handleUnsatisfiableMode(line, ontology, max, reasonerFactory));
+        explanations.addAll(
+            handleUnsatisfiableMode(
+                line, ontology, max, reasonerFactory, state.getReasoner(reasonerFactory)));
         break;
       case "entailment":
         explanations.addAll(handleEntailmentCheck(line, ontology, max, reasonerFactory));
@@ -151,9 +155,12 @@ public class ExplainCommand implements Command {
   }
 
   private Set<Explanation<OWLAxiom>> handleUnsatisfiableMode(
-      CommandLine line, OWLOntology ontology, int max, OWLReasonerFactory reasonerFactory)
+      CommandLine line,
+      OWLOntology ontology,
+      int max,
+      OWLReasonerFactory reasonerFactory,
+      OWLReasoner r)
       throws IOException {
-    OWLReasoner r = reasonerFactory.createReasoner(ontology);
     Set<Explanation<OWLAxiom>> explanations = new HashSet<>();
     String unsatisfiableString = CommandLineHelper.getOptionalValue(line, "unsatisfiable");
     boolean listmode = false;
@@ -231,10 +238,13 @@ public class ExplainCommand implements Command {
   }
 
   private Set<Explanation<OWLAxiom>> handleInconsistentOntology(
-      CommandLine line, OWLOntology ontology, int max, OWLReasonerFactory reasonerFactory)
+      CommandLine line,
+      OWLOntology ontology,
+      int max,
+      OWLReasonerFactory reasonerFactory,
+      OWLReasoner r)
       throws IOException {
     Set<Explanation<OWLAxiom>> explanations = new HashSet<>();
-    OWLReasoner r = reasonerFactory.createReasoner(ontology);
     if (!r.isConsistent()) {
       Set<Explanation<OWLAxiom>> inconsistencyExplanations =
           ExplainOperation.explainInconsistent(ontology, reasonerFactory, max);
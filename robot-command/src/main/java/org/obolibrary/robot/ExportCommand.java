@@ -47,6 +47,7 @@ public class ExportCommand implements Command {
         "standalone",
         true,
         "If true, and the output format is HTML, generate the HTML report as a standalone file (this option is ignored if the output format is not HTML)");
+    o.addOption(null, "stream", true, "if true, write rows as they are created");
 
     options = o;
   }
@@ -162,6 +163,10 @@ public class ExportCommand implements Command {
     // Get the split columns
     List<String> columns = Arrays.asList(headerString.split("\\|"));
 
+    if (OptionsHelper.optionIsTrue(exportOptions, "stream")) {
+      ExportOperation.export(ontology, ioHelper, columns, exportPath, exportOptions);
+      return state;
+    }
     Table t = ExportOperation.createExportTable(ontology, ioHelper, columns, exportOptions);
     ExportOperation.saveTable(t, exportPath, exportOptions);
     return state;
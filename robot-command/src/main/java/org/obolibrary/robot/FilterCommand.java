@@ -192,12 +192,7 @@ public class FilterCommand implements Command {
     manager.addAxioms(
         outputOntology,
         RelatedObjectsHelper.filterAxioms(
-            inputOntology.getAxioms(),
-            relatedObjects,
-            axiomSelectors,
-            baseNamespaces,
-            !trim,
-            signature));
+            inputOntology, relatedObjects, axiomSelectors, baseNamespaces, !trim, signature));
 
     boolean internal = false;
     boolean external = false;
@@ -140,7 +140,8 @@ public class MeasureCommand implements Command {
         metricsType,
         format,
         output_file,
-        ioHelper.getPrefixes());
+        ioHelper.getPrefixes(),
+        CommandLineHelper.getThreads(line));
 
     return state;
   }
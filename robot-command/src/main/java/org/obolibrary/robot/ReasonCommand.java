@@ -5,6 +5,7 @@ import java.util.Map;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Options;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -190,7 +191,9 @@ public class ReasonCommand implements Command {
     if (!Arrays.asList("true", "false", "all", "none", "asserted-only").contains(eqClassOpt)) {
       throw new IllegalArgumentException(String.format(equivalentClassesOptionError, eqClassOpt));
     }
-    ReasonOperation.reason(ontology, reasonerFactory, reasonerOptions);
+    // Reuse the reasoner from a previous command, if there is one
+    OWLReasoner reasoner = state.getReasoner(reasonerFactory);
+    ReasonOperation.reason(ontology, reasoner, reasonerOptions);
 
     CommandLineHelper.maybeSaveOutput(line, ontology);
 
@@ -4,6 +4,7 @@ import java.util.Map;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Options;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -123,7 +124,13 @@ public class ReduceCommand implements Command {
       }
     }
 
-    ReduceOperation.reduce(ontology, reasonerFactory, reasonerOptions);
+    if (OptionsHelper.optionIsTrue(reasonerOptions, "named-classes-only")) {
+      // Reuse the reasoner from a previous command, if there is one
+      OWLReasoner reasoner = state.getReasoner(reasonerFactory);
+      ReduceOperation.reduceNamedClasses(ontology, reasoner, reasonerOptions);
+    } else {
+      ReduceOperation.reduce(ontology, reasonerFactory, reasonerOptions);
+    }
 
     CommandLineHelper.maybeSaveOutput(line, ontology);
 
@@ -184,7 +184,7 @@ public class RemoveCommand implements Command {
     manager.removeAxioms(
         ontology,
         RelatedObjectsHelper.filterAxioms(
-            ontology.getAxioms(), relatedObjects, axiomSelectors, baseNamespaces, trim, signature));
+            ontology, relatedObjects, axiomSelectors, baseNamespaces, trim, signature));
 
     boolean internal = false;
     boolean external = false;
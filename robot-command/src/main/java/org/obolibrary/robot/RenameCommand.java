@@ -194,7 +194,13 @@ public class RenameCommand implements Command {
           mappings.put(rn.get(0), rn.get(1));
         }
       }
-      RenameOperation.renameFull(ontology, ioHelper, mappings, labels, allowMissingEntities);
+      RenameOperation.renameFull(
+          ontology,
+          ioHelper,
+          mappings,
+          labels,
+          allowMissingEntities,
+          CommandLineHelper.getThreads(line));
     }
     // Process prefix renames (no need to fail on duplicates)
     if (prefixFile != null) {
@@ -203,7 +209,8 @@ public class RenameCommand implements Command {
           parseTableMappings(new File(prefixFile), separator, true).entrySet()) {
         mappings.put(map.getKey(), map.getValue().get(0));
       }
-      RenameOperation.renamePrefixes(ontology, ioHelper, mappings);
+      RenameOperation.renamePrefixes(
+          ontology, ioHelper, mappings, CommandLineHelper.getThreads(line));
     }
 
     CommandLineHelper.maybeSaveOutput(line, ontology);
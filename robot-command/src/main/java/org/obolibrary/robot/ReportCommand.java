@@ -42,6 +42,9 @@ public class ReportCommand implements Command {
     o.addOption("k", "keep-tdb-mappings", true, "if true, do not remove the TDB directory");
     o.addOption("d", "tdb-directory", true, "directory to put TDB mappings (default: .tdb)");
     o.addOption("L", "limit", true, "specify a number of results to limit queries to");
+    o.addOption(
+        null, "incremental", true, "store report state in a file and only re-check changes");
+    o.addOption(null, "stream", true, "if true, write violations as they are found");
     o.addOption(
         null,
         "standalone",
@@ -1,6 +1,9 @@
 package org.obolibrary.robot;
 
+import com.opencsv.CSVReader;
+import java.io.*;
 import java.util.*;
+import java.util.zip.GZIPOutputStream;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Options;
 import org.semanticweb.owlapi.model.IRI;
@@ -36,6 +39,16 @@ public class TemplateCommand implements Command {
       NS
           + "MISMATCHED ROBOT HEADER mismatched template file header and external template file header";
 
+  /** Error message when --stream is used without --output. */
+  private static final String streamOutputError =
+      NS + "STREAM OUTPUT ERROR --stream requires an --output file";
+
+  /** Error message when --stream is combined with options that need the whole ontology. */
+  private static final String streamMergeError =
+      NS
+          + "STREAM MERGE ERROR --stream cannot be used with "
+          + "--ancestors, --merge-before, or --merge-after";
+
   /** Store the command-line options for the command. */
   private Options options;
 
@@ -58,6 +71,7 @@ public class TemplateCommand implements Command {
     o.addOption("f", "force", true, "if true, do not exit on error");
     o.addOption("e", "errors", true, "write errors to this path (TSV or CSV)");
     o.addOption("E", "external-template", true, "external robot template data file");
+    o.addOption(null, "stream", true, "if true, write axioms to the output as rows are read");
 
     options = o;
   }
@@ -142,11 +156,16 @@ public class TemplateCommand implements Command {
       }
     }
 
-    // Read the whole CSV into a nested list of strings.
     List<String> templatePaths = CommandLineHelper.getOptionalValues(line, "template");
     if (templatePaths.size() == 0) {
       throw new IllegalArgumentException(missingTemplateError);
     }
+    if (OptionsHelper.optionIsTrue(templateOptions, "stream")) {
+      streamTemplates(line, ioHelper, inputOntology, templatePaths, templateOptions);
+      return state;
+    }
+
+    // Read the whole CSV into a nested list of strings.
     Map<String, List<List<String>>> tables = new LinkedHashMap<>();
     for (String templatePath : templatePaths) {
       tables.put(templatePath, TemplateHelper.readTable(templatePath));
@@ -229,6 +248,113 @@ public class TemplateCommand implements Command {
     return state;
   }
 
+  /**
+   * Generate axioms from the templates and write them straight to the output file as the rows are
+   * read, without building an output ontology. The output must be OFN or N-Triples.
+   *
+   * @param line the command line
+   * @param ioHelper IOHelper to resolve prefixes
+   * @param inputOntology OWLOntology to use to get existing entities, or null
+   * @param templatePaths paths to the templates
+   * @param templateOptions map of template options
+   * @throws Exception on any problem
+   */
+  private void streamTemplates(
+      CommandLine line,
+      IOHelper ioHelper,
+      OWLOntology inputOntology,
+      List<String> templatePaths,
+      Map<String, String> templateOptions)
+      throws Exception {
+    String outputPath = CommandLineHelper.getOptionalValue(line, "output");
+    if (outputPath == null) {
+      throw new IllegalArgumentException(streamOutputError);
+    }
+    if (CommandLineHelper.getBooleanValue(line, "ancestors", false, true)
+        || CommandLineHelper.getBooleanValue(line, "merge-before", false, true)
+        || CommandLineHelper.getBooleanValue(line, "merge-after", false, true)) {
+      throw new IllegalArgumentException(streamMergeError);
+    }
+
+    // Only read the first row of each template to check it against the external template
+    List<String> externalTemplate = null;
+    List<String> externalTemplatePath =
+        CommandLineHelper.getOptionValues(line, "external-template");
+    if (externalTemplatePath.size() > 0) {
+      List<List<String>> external = TemplateHelper.readTable(externalTemplatePath.get(0));
+      if (external.size() == 0) {
+        throw new IllegalArgumentException(missingRobotHeaderError);
+      }
+      for (String templatePath : templatePaths) {
+        List<String> header = new ArrayList<>();
+        try (CSVReader reader = TemplateHelper.openTable(templatePath)) {
+          String[] first = reader.readNext();
+          if (first != null) {
+            header = Arrays.asList(first);
+          }
+        }
+        if (!compareHeaders(header, external.get(0))) {
+          throw new IllegalArgumentException(mismatchedRobotHeaderError);
+        }
+      }
+      externalTemplate = external.get(1);
+    }
+
+    String ontologyIRI = CommandLineHelper.getOptionalValue(line, "ontology-iri");
+    String versionIRI = CommandLineHelper.getOptionalValue(line, "version-iri");
+    String path = outputPath;
+    if (path.endsWith(".gz")) {
+      path = path.substring(0, path.length() - 3);
+    }
+    String format = path.substring(path.lastIndexOf(".") + 1);
+
+    File file = new File(outputPath);
+    OutputStream output = new BufferedOutputStream(new FileOutputStream(file));
+    if (outputPath.endsWith(".gz")) {
+      output = new GZIPOutputStream(output);
+    }
+    List<String[]> errors;
+    try (OutputStream out = output;
+        AxiomStreamWriter writer =
+            new AxiomStreamWriter(
+                out,
+                format,
+                ontologyIRI == null ? null : IRI.create(ontologyIRI),
+                versionIRI == null ? null : IRI.create(versionIRI),
+                ioHelper.getPrefixManager())) {
+      errors =
+          TemplateOperation.streamTemplates(
+              inputOntology, ioHelper, templatePaths, externalTemplate, writer, templateOptions);
+    } catch (Exception e) {
+      removePartialOutput(file);
+      throw e;
+    }
+
+    // The output is closed now, so it can be removed before writing errors and exiting
+    String errorsPath = OptionsHelper.getOption(templateOptions, "errors", null);
+    if (errors.size() > 1 && errorsPath != null) {
+      boolean force = OptionsHelper.optionIsTrue(templateOptions, "force");
+      if (!force) {
+        removePartialOutput(file);
+      }
+      IOHelper.writeTable(errors, errorsPath);
+      if (!force) {
+        System.exit(1);
+      }
+    }
+  }
+
+  /**
+   * Remove an output file that was not completely written.
+   *
+   * @param file the output file
+   */
+  private static void removePartialOutput(File file) {
+    if (file.exists() && !file.delete()) {
+      logger.debug("Unable to remove partially written file {}", file);
+    }
+  }
+
   /**
    * Compare the headers for the template file and the external template file. Return true if they
    * match, false otherwise.
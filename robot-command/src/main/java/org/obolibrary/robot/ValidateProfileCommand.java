@@ -2,13 +2,13 @@ package org.obolibrary.robot;
 
 import java.io.File;
 import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Options;
 import org.semanticweb.owlapi.model.OWLOntology;
-import org.semanticweb.owlapi.profiles.OWL2Profile;
-import org.semanticweb.owlapi.profiles.OWLProfile;
 import org.semanticweb.owlapi.profiles.OWLProfileReport;
-import org.semanticweb.owlapi.profiles.Profiles;
 
 /** */
 public class ValidateProfileCommand implements Command {
@@ -23,10 +23,6 @@ public class ValidateProfileCommand implements Command {
   private static final String missingProfileError =
       NS + "MISSING PROFILE ERROR a profile is required";
 
-  /** Error message when an invalid profile is provided. Expects profile. */
-  private static final String invalidProfileError =
-      NS + "INVALID PROFILE ERROR unknown profile: %s";
-
   /** Error message when the ontology validates provided profile. Expects ontology IRI, profile. */
   private static final String profileViolationError =
       NS + "PROFILE VIOLATION ERROR %s violates profile %s";
@@ -79,41 +75,34 @@ public class ValidateProfileCommand implements Command {
     IOHelper ioHelper = CommandLineHelper.getIOHelper(line);
     state = CommandLineHelper.updateInputOntology(ioHelper, state, line);
     OWLOntology ontology = state.getOntology();
-    String profile = CommandLineHelper.getRequiredValue(line, "profile", missingProfileError);
-    profile = profile.toUpperCase();
-    final OWLProfile owlProfile;
-    switch (profile) {
-      case "DL":
-        owlProfile = Profiles.OWL2_DL;
-        break;
-      case "EL":
-        owlProfile = Profiles.OWL2_EL;
-        break;
-      case "RL":
-        owlProfile = Profiles.OWL2_RL;
-        break;
-      case "QL":
-        owlProfile = Profiles.OWL2_QL;
-        break;
-      case "FULL":
-        owlProfile = new OWL2Profile();
-        break; // #162
-      default:
-        throw new IllegalArgumentException(String.format(invalidProfileError, profile));
+    CommandLineHelper.getRequiredValue(line, "profile", missingProfileError);
+    List<String> profiles = CommandLineHelper.getOptionValues(line, "profile");
+    Map<String, OWLProfileReport> reports =
+        ProfileHelper.checkProfiles(ontology, profiles, CommandLineHelper.getThreads(line));
+
+    // Each report starts with the name of its profile
+    StringBuilder output = new StringBuilder();
+    List<String> violated = new ArrayList<>();
+    for (Map.Entry<String, OWLProfileReport> entry : reports.entrySet()) {
+      output.append(entry.getValue().toString());
+      if (!entry.getValue().isInProfile()) {
+        violated.add(entry.getKey());
+      }
     }
-    OWLProfileReport report = owlProfile.checkOntology(ontology);
     File outputFile = CommandLineHelper.getOutputFile(line);
     if (outputFile != null) {
       FileWriter writer = new FileWriter(outputFile);
-      writer.write(report.toString());
+      writer.write(output.toString());
       writer.close();
     } else {
-      System.out.println(report.toString());
+      System.out.println(output.toString());
     }
-    if (!report.isInProfile()) {
+    if (!violated.isEmpty()) {
       throw new Exception(
           String.format(
-              profileViolationError, ontology.getOntologyID().getOntologyIRI().orNull(), profile));
+              profileViolationError,
+              ontology.getOntologyID().getOntologyIRI().orNull(),
+              String.join(", ", violated)));
     }
     return state;
   }
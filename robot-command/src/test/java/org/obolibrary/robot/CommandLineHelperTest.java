@@ -3,11 +3,13 @@ package org.obolibrary.robot;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Options;
 import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLOntology;
 
 /** Tests for CommandLineHelper. */
 public class CommandLineHelperTest {
@@ -68,4 +70,45 @@ public class CommandLineHelperTest {
     CommandLineHelper.getInputOntology(ioHelper, line);
     assert true;
   }
+
+  /**
+   * Test that loading multiple inputs on several threads returns the ontologies in input order,
+   * and that a failed input is reported.
+   *
+   * @throws Exception on parsing problem
+   */
+  @Test
+  public void testGetInputOntologiesParallel() throws Exception {
+    String resources = "../robot-core/src/test/resources/";
+    String[] inputs = {"simple.owl", "simple_parts.owl", "simple_logic.owl"};
+    List<String> args = new ArrayList<>();
+    for (String input : inputs) {
+      args.add("--input");
+      args.add(resources + input);
+    }
+    Options o = CommandLineHelper.getCommonOptions();
+    o.addOption("i", "input", true, "load ontology from a file");
+    o.addOption("I", "input-iri", true, "load ontology from an IRI");
+    o.addOption("p", "inputs", true, "load ontologies matching wildcard pattern");
+
+    CommandLine line = CommandLineHelper.getCommandLine("usage", o, args.toArray(new String[0]));
+    IOHelper ioHelper = CommandLineHelper.getIOHelper(line);
+    List<OWLOntology> sequential = CommandLineHelper.getInputOntologies(ioHelper, line, false);
+
+    args.add("--threads");
+    args.add("3");
+    line = CommandLineHelper.getCommandLine("usage", o, args.toArray(new String[0]));
+    List<OWLOntology> parallel = CommandLineHelper.getInputOntologies(ioHelper, line, false);
+
+    assertEquals(inputs.length, parallel.size());
+    for (int i = 0; i < inputs.length; i++) {
+      assertEquals(sequential.get(i).getAxioms(), parallel.get(i).getAxioms());
+    }
+
+    args.add("--input");
+    args.add(resources + "does-not-exist.owl");
+    CommandLine badLine = CommandLineHelper.getCommandLine("usage", o, args.toArray(new String[0]));
+    assertThrows(
+        IOException.class, () -> CommandLineHelper.getInputOntologies(ioHelper, badLine, false));
+  }
 }
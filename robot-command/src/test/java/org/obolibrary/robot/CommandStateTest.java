@@ -0,0 +1,88 @@
+package org.obolibrary.robot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.semanticweb.elk.owlapi.ElkReasonerFactory;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+
+/** Tests for CommandState. */
+public class CommandStateTest {
+
+  /**
+   * Test that the reasoner is reused for the same ontology, updated after changes, and disposed
+   * when the ontology is replaced.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testReuseReasoner() throws Exception {
+    OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+    OWLDataFactory df = manager.getOWLDataFactory();
+    OWLOntology ontology = manager.createOntology();
+    OWLClass a = df.getOWLClass(IRI.create("http://example.com/A"));
+    OWLClass b = df.getOWLClass(IRI.create("http://example.com/B"));
+    OWLClass c = df.getOWLClass(IRI.create("http://example.com/C"));
+    manager.addAxiom(ontology, df.getOWLSubClassOfAxiom(a, b));
+
+    CommandState state = new CommandState();
+    state.setOntology(ontology);
+    OWLReasonerFactory reasonerFactory = new ElkReasonerFactory();
+    OWLReasoner reasoner = state.getReasoner(reasonerFactory);
+    assertTrue(reasoner.getSuperClasses(a, false).containsEntity(b));
+    assertSame(reasoner, state.getReasoner(new ElkReasonerFactory()));
+
+    // A change to the ontology is seen by the reused reasoner
+    manager.addAxiom(ontology, df.getOWLSubClassOfAxiom(b, c));
+    OWLReasoner updated = state.getReasoner(reasonerFactory);
+    assertSame(reasoner, updated);
+    assertTrue(updated.getSuperClasses(a, false).containsEntity(c));
+
+    // A new ontology gets a new reasoner
+    OWLOntology other = manager.createOntology();
+    state.setOntology(other);
+    OWLReasoner otherReasoner = state.getReasoner(reasonerFactory);
+    assertNotSame(reasoner, otherReasoner);
+    assertEquals(other, otherReasoner.getRootOntology());
+    state.disposeReasoner();
+  }
+
+  /**
+   * Test that changes to an ontology that is imported after the reasoner was created are seen by
+   * the reused reasoner.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testReuseReasonerNewImport() throws Exception {
+    OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+    OWLDataFactory df = manager.getOWLDataFactory();
+    OWLOntology ontology = manager.createOntology(IRI.create("http://example.com/main"));
+    IRI importIRI = IRI.create("http://example.com/imported");
+    OWLOntology imported = manager.createOntology(importIRI);
+    OWLClass a = df.getOWLClass(IRI.create("http://example.com/A"));
+    OWLClass b = df.getOWLClass(IRI.create("http://example.com/B"));
+    OWLClass c = df.getOWLClass(IRI.create("http://example.com/C"));
+    manager.addAxiom(ontology, df.getOWLSubClassOfAxiom(a, b));
+
+    CommandState state = new CommandState();
+    state.setOntology(ontology);
+    OWLReasonerFactory reasonerFactory = new ElkReasonerFactory();
+    OWLReasoner reasoner = state.getReasoner(reasonerFactory);
+    assertTrue(reasoner.getSuperClasses(a, false).containsEntity(b));
+
+    manager.applyChange(new AddImport(ontology, df.getOWLImportsDeclaration(importIRI)));
+    state.getReasoner(reasonerFactory);
+    manager.addAxiom(imported, df.getOWLSubClassOfAxiom(b, c));
+    OWLReasoner updated = state.getReasoner(reasonerFactory);
+    assertSame(reasoner, updated);
+    assertTrue(updated.getSuperClasses(a, false).containsEntity(c));
+    state.disposeReasoner();
+  }
+}
@@ -0,0 +1,141 @@
+package org.obolibrary.robot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.obolibrary.robot.exceptions.RowParseException;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/** Tests for TemplateCommand. */
+public class TemplateCommandTest {
+
+  /**
+   * Write a template table to a temporary file.
+   *
+   * @param lines lines of the CSV table
+   * @return the template file
+   * @throws IOException on issue writing the file
+   */
+  private static File writeTemplate(String... lines) throws IOException {
+    File file = File.createTempFile("template", ".csv");
+    file.deleteOnExit();
+    Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+    return file;
+  }
+
+  /**
+   * Return a temporary path that does not exist yet.
+   *
+   * @param suffix file suffix
+   * @return the path
+   * @throws IOException on issue creating the file
+   */
+  private static File getOutput(String suffix) throws IOException {
+    File file = File.createTempFile("template-output", suffix);
+    file.deleteOnExit();
+    assertTrue(file.delete());
+    return file;
+  }
+
+  /**
+   * Test that streaming a template to N-Triples gives the same axioms as without streaming.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testStreamNTriples() throws Exception {
+    File template =
+        writeTemplate(
+            "ID,Label,Parent",
+            "ID,LABEL,SC %",
+            "GO:0000100,test 0,GO:0000001",
+            "GO:0000101,test 1,'test 0'",
+            "GO:0000102,test 2,'test 1' and 'test 0'");
+    File expected = getOutput(".ofn");
+    File actual = getOutput(".nt");
+    new TemplateCommand()
+        .execute(
+            null, new String[] {"--template", template.getPath(), "--output", expected.getPath()});
+    new TemplateCommand()
+        .execute(
+            null,
+            new String[] {
+              "--template",
+              template.getPath(),
+              "--stream",
+              "true",
+              "--threads",
+              "2",
+              "--output",
+              actual.getPath()
+            });
+
+    OWLOntology expectedOntology =
+        OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(expected);
+    OWLOntology actualOntology =
+        OWLManager.createOWLOntologyManager().loadOntologyFromOntologyDocument(actual);
+    assertEquals(expectedOntology.getAxioms(), actualOntology.getAxioms());
+  }
+
+  /**
+   * Test that streaming a template with errors writes the errors table and keeps the output with
+   * --force, and removes the output without it.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testStreamErrors() throws Exception {
+    File template =
+        writeTemplate(
+            "ID,Label,Parent",
+            "ID,LABEL,SC %",
+            "GO:0000100,test 0,GO:0000001",
+            "GO:0000101,test 1,GO:0000001 and",
+            "GO:0000102,test 2,'test 0'");
+    File output = getOutput(".ofn");
+    File errors = getOutput(".tsv");
+    new TemplateCommand()
+        .execute(
+            null,
+            new String[] {
+              "--template",
+              template.getPath(),
+              "--stream",
+              "true",
+              "--force",
+              "true",
+              "--errors",
+              errors.getPath(),
+              "--output",
+              output.getPath()
+            });
+    assertTrue(output.exists());
+    List<List<String>> table = TemplateHelper.readTSV(errors.getPath());
+    assertEquals(2, table.size());
+    assertEquals(template.getPath(), table.get(1).get(0));
+
+    // Without --force or --errors, the first error fails and the partial output is removed
+    File failed = getOutput(".ofn");
+    try {
+      new TemplateCommand()
+          .execute(
+              null,
+              new String[] {
+                "--template", template.getPath(), "--stream", "true", "--output", failed.getPath()
+              });
+    } catch (RowParseException e) {
+      assertFalse(failed.exists());
+      return;
+    }
+    throw new AssertionError("Expected a RowParseException");
+  }
+}
@@ -0,0 +1,107 @@
+package org.obolibrary.robot;
+
+import java.util.*;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An inverted index from each OWLObject (named or anonymous) and each IRI to the axioms of an
+ * ontology that reference it. Selecting the axioms about a small set of objects then only looks at
+ * the axioms that could match, instead of every axiom in the ontology.
+ *
+ * <p>Indexes are built once per ontology and shared by everything that selects axioms from it. When
+ * the ontology changes, its index is dropped and built again on the next use.
+ */
+public class AxiomIndex {
+  /** Logger. */
+  private static final Logger logger = LoggerFactory.getLogger(AxiomIndex.class);
+
+  /** Index of each ontology that has been indexed and has not changed since. */
+  private static final OntologyIndexCache<AxiomIndex> indexes =
+      new OntologyIndexCache<>(
+          ontology -> {
+            logger.debug("Indexing axioms of {}", ontology.getOntologyID());
+            return new AxiomIndex(ontology.getAxioms(Imports.EXCLUDED));
+          });
+
+  /** Map from each object or IRI to the axioms that reference it. */
+  private final Map<OWLObject, Set<OWLAxiom>> objectAxioms = new HashMap<>();
+
+  /** Axioms that do not reference any named object, which are always candidates. */
+  private final Set<OWLAxiom> unnamedAxioms = new HashSet<>();
+
+  /**
+   * Create a new index over a set of axioms.
+   *
+   * @param axioms set of OWLAxioms to index
+   */
+  public AxiomIndex(Set<OWLAxiom> axioms) {
+    for (OWLAxiom axiom : axioms) {
+      OWLAxiom unannotated = axiom.getAxiomWithoutAnnotations();
+      Set<IRI> iris = OntologyHelper.getIRIsInSignature(unannotated);
+      if (iris.isEmpty()) {
+        unnamedAxioms.add(axiom);
+      }
+      for (IRI iri : iris) {
+        add(iri, axiom);
+      }
+      for (OWLObject object : OntologyHelper.getObjects(unannotated)) {
+        add(object, axiom);
+      }
+      if (axiom instanceof OWLAnnotationAssertionAxiom) {
+        OWLAnnotationAssertionAxiom a = (OWLAnnotationAssertionAxiom) axiom;
+        add(a.getSubject(), axiom);
+        add(a.getValue(), axiom);
+      }
+      for (OWLAnnotation annotation : axiom.getAnnotations()) {
+        add(annotation.getProperty(), axiom);
+        add(annotation.getProperty().getIRI(), axiom);
+        add(annotation.getValue(), axiom);
+      }
+    }
+  }
+
+  /**
+   * Return the index of the axioms of an ontology (excluding imports). The index is built on the
+   * first call and reused until the ontology changes.
+   *
+   * @param ontology OWLOntology to index
+   * @return AxiomIndex for the ontology
+   */
+  public static AxiomIndex getIndex(OWLOntology ontology) {
+    return indexes.get(ontology);
+  }
+
+  /**
+   * Given a set of OWLObjects, return the axioms that might reference at least one of them, either
+   * directly or by IRI. This always includes the axioms that do not reference any named objects.
+   * The axioms still need to be checked, but every axiom that does reference the objects is
+   * included.
+   *
+   * @param objects set of OWLObjects
+   * @return set of candidate OWLAxioms
+   */
+  public Set<OWLAxiom> getCandidateAxioms(Set<OWLObject> objects) {
+    Set<OWLAxiom> axioms = new HashSet<>(unnamedAxioms);
+    for (OWLObject object : objects) {
+      axioms.addAll(objectAxioms.getOrDefault(object, Collections.emptySet()));
+      if (object instanceof OWLNamedObject) {
+        IRI iri = ((OWLNamedObject) object).getIRI();
+        axioms.addAll(objectAxioms.getOrDefault(iri, Collections.emptySet()));
+      }
+    }
+    return axioms;
+  }
+
+  /**
+   * Add an axiom for an object or IRI.
+   *
+   * @param object OWLObject or IRI
+   * @param axiom OWLAxiom that references it
+   */
+  private void add(OWLObject object, OWLAxiom axiom) {
+    objectAxioms.computeIfAbsent(object, k -> new HashSet<>()).add(axiom);
+  }
+}
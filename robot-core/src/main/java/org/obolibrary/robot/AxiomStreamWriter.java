@@ -0,0 +1,213 @@
+package org.obolibrary.robot;
+
+import com.google.common.base.Optional;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.formats.FunctionalSyntaxDocumentFormat;
+import org.semanticweb.owlapi.functional.renderer.FunctionalSyntaxObjectRenderer;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.rio.RioRenderer;
+import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
+
+/**
+ * Write axioms to an OWL Functional Syntax or N-Triples output stream as they are created, without
+ * building an ontology that holds all of them. Axioms are written in batches: each batch is
+ * rendered and written, and can then be discarded.
+ *
+ * <p>The same axiom may be written more than once if it is in more than one batch, which does not
+ * change the ontology that is read back. Closing the writer ends the ontology, but does not close
+ * the underlying output stream.
+ */
+public class AxiomStreamWriter implements Closeable {
+
+  /** Namespace for error messages. */
+  private static final String NS = "template#";
+
+  /** Error message when the format cannot be streamed. Expects: format name. */
+  private static final String streamFormatError =
+      NS + "STREAM FORMAT ERROR --stream cannot write '%s' format, only OFN or N-Triples";
+
+  private static final String rdfType = OWLRDFVocabulary.RDF_TYPE.getIRI().toString();
+
+  private static final String owlOntology = OWLRDFVocabulary.OWL_ONTOLOGY.getIRI().toString();
+
+  /** Manager for the header ontology and the ontology of each batch. */
+  private final OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+
+  /** Writer for OWL Functional Syntax, or null for N-Triples. */
+  private Writer writer = null;
+
+  /** Renderer for OWL Functional Syntax axioms, or null for N-Triples. */
+  private FunctionalSyntaxObjectRenderer renderer = null;
+
+  /** Stream for N-Triples, or null for OWL Functional Syntax. */
+  private StreamRDF stream = null;
+
+  /**
+   * Create a new writer and write the start of the ontology.
+   *
+   * @param output OutputStream to write to
+   * @param format name of the format, "ofn" or "nt"
+   * @param ontologyIRI IRI of the ontology, or null
+   * @param versionIRI version IRI of the ontology, or null
+   * @param prefixManager prefixes to use for OWL Functional Syntax, or null
+   * @throws IOException on issue creating the ontology header or writing it
+   */
+  public AxiomStreamWriter(
+      OutputStream output,
+      String format,
+      IRI ontologyIRI,
+      IRI versionIRI,
+      PrefixManager prefixManager)
+      throws IOException {
+    format = format.trim().toLowerCase();
+    if (format.equals("ofn")) {
+      OWLOntology header;
+      try {
+        if (ontologyIRI == null) {
+          header = manager.createOntology();
+        } else {
+          header =
+              manager.createOntology(
+                  new OWLOntologyID(Optional.of(ontologyIRI), Optional.fromNullable(versionIRI)));
+        }
+      } catch (OWLOntologyCreationException e) {
+        throw new IOException(e);
+      }
+      FunctionalSyntaxDocumentFormat ofn = new FunctionalSyntaxDocumentFormat();
+      if (prefixManager != null) {
+        ofn.copyPrefixesFrom(prefixManager);
+      }
+      manager.setOntologyFormat(header, ofn);
+      writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+      renderer = new FunctionalSyntaxObjectRenderer(header, writer);
+      renderer.writePrefixes();
+      writer.write("\n\nOntology(");
+      if (ontologyIRI != null) {
+        writer.write(ontologyIRI.toQuotedString());
+        if (versionIRI != null) {
+          writer.write(" " + versionIRI.toQuotedString());
+        }
+      }
+      writer.write("\n");
+    } else if (format.equals("nt")) {
+      stream = StreamRDFWriter.getWriterStream(output, Lang.NTRIPLES);
+      stream.start();
+      Node ontology;
+      if (ontologyIRI == null) {
+        ontology = NodeFactory.createBlankNode();
+      } else {
+        ontology = NodeFactory.createURI(ontologyIRI.toString());
+      }
+      stream.triple(
+          Triple.create(
+              ontology, NodeFactory.createURI(rdfType), NodeFactory.createURI(owlOntology)));
+      if (versionIRI != null) {
+        stream.triple(
+            Triple.create(
+                ontology,
+                NodeFactory.createURI(OWLRDFVocabulary.OWL_VERSION_IRI.getIRI().toString()),
+                NodeFactory.createURI(versionIRI.toString())));
+      }
+    } else {
+      throw new IllegalArgumentException(String.format(streamFormatError, format));
+    }
+  }
+
+  /**
+   * Write a batch of axioms.
+   *
+   * @param axioms set of OWLAxioms to write
+   * @throws IOException on issue rendering or writing the axioms
+   */
+  public void write(Set<OWLAxiom> axioms) throws IOException {
+    if (axioms.isEmpty()) {
+      return;
+    }
+    if (renderer != null) {
+      List<OWLAxiom> sorted = new ArrayList<>(axioms);
+      Collections.sort(sorted);
+      for (OWLAxiom axiom : sorted) {
+        axiom.accept(renderer);
+        writer.write("\n");
+      }
+      return;
+    }
+    OWLOntology batch;
+    try {
+      batch = manager.createOntology(axioms);
+    } catch (OWLOntologyCreationException e) {
+      throw new IOException(e);
+    }
+    try {
+      new RioRenderer(batch, new BatchHandler(), null).render();
+    } finally {
+      manager.removeOntology(batch);
+    }
+  }
+
+  /**
+   * Write the end of the ontology and flush the output stream.
+   *
+   * @throws IOException on issue writing
+   */
+  @Override
+  public void close() throws IOException {
+    if (writer != null) {
+      writer.write(")\n");
+      writer.flush();
+    } else {
+      stream.finish();
+    }
+  }
+
+  /**
+   * Sesame RDFHandler which passes the triples of one batch to the N-Triples stream, leaving out
+   * the ontology header of the batch.
+   */
+  private class BatchHandler implements RDFHandler {
+    // Blank node IDs must not clash with blank nodes rendered from another batch
+    private final String blankNodePrefix = UUID.randomUUID().toString();
+
+    private final Set<Resource> headers = new HashSet<>();
+
+    @Override
+    public void handleStatement(Statement triple) {
+      if (triple.getPredicate().stringValue().equals(rdfType)
+          && triple.getObject().stringValue().equals(owlOntology)) {
+        headers.add(triple.getSubject());
+      }
+      if (headers.contains(triple.getSubject())) {
+        return;
+      }
+      stream.triple(
+          Triple.create(
+              OntologyGraph.toNode(triple.getSubject(), blankNodePrefix),
+              NodeFactory.createURI(triple.getPredicate().stringValue()),
+              OntologyGraph.toNode(triple.getObject(), blankNodePrefix)));
+    }
+
+    @Override
+    public void startRDF() {}
+
+    @Override
+    public void endRDF() {}
+
+    @Override
+    public void handleNamespace(String prefix, String uri) {}
+
+    @Override
+    public void handleComment(String comment) {}
+  }
+}
@@ -2,6 +2,7 @@ package org.obolibrary.robot;
 
 import com.google.common.collect.Lists;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -42,6 +43,9 @@ public class ExportOperation {
   private static final String unknownTagError =
       NS + "UNKNOWN TAG ERROR Column '%s' contains an unknown rendering tag: %s";
 
+  /** Number of rows to create at once when streaming, spread over the worker threads. */
+  private static final int streamBatchSize = 1000;
+
   private static final OWLDataFactory dataFactory = OWLManager.getOWLDataFactory();
 
   protected static final EmptyShortFormProvider emptyProvider = new EmptyShortFormProvider();
@@ -76,6 +80,8 @@ public class ExportOperation {
     options.put("entity-format", "NAME");
     options.put("entity-select", "ANY");
     options.put("standalone", "true");
+    options.put("stream", "false");
+    options.put("threads", null);
     return options;
   }
 
@@ -97,6 +103,119 @@ public class ExportOperation {
       List<String> columnNames,
       Map<String, String> options)
       throws Exception {
+    Table table = createTable(ontology, ioHelper, columnNames, options);
+
+    // Get the entities to include in the spreadsheet
+    List<OWLEntity> entities = new ArrayList<>(getEntities(ontology, options));
+
+    // Get the cell values based on columns
+    int threads = ThreadHelper.getThreads(options);
+    for (Row row : getRows(ontology, table, table.getColumns(), entities, threads)) {
+      table.addRow(row);
+    }
+
+    // Sort the rows by sort column or columns
+    table.sortRows();
+    return table;
+  }
+
+  /**
+   * Given an ontology, an ioHelper, a list of columns, an output export file, and a map of options,
+   * export details about the entities in the ontology to the export file without holding all the
+   * rows in memory. First the values of the sort columns are found for each entity and sorted, then
+   * each row is created and written to the file in sorted order.
+   *
+   * @param ontology OWLOntology to export to table
+   * @param ioHelper IOHelper to handle labels
+   * @param columnNames List of column names, in order
+   * @param exportPath path to export file
+   * @param options Map of Export options
+   * @throws Exception on writing file, if format is unknown, or if a column is not a valid property
+   */
+  public static void export(
+      OWLOntology ontology,
+      IOHelper ioHelper,
+      List<String> columnNames,
+      String exportPath,
+      Map<String, String> options)
+      throws Exception {
+    Table table = createTable(ontology, ioHelper, columnNames, options);
+    List<OWLEntity> entities = new ArrayList<>(getEntities(ontology, options));
+    int threads = ThreadHelper.getThreads(options);
+
+    // Only the sort values are kept for each entity
+    List<Column> sortColumns = table.getSortColumns();
+    String[][] keys = new String[entities.size()][];
+    Integer[] order = new Integer[entities.size()];
+    for (int start = 0; start < keys.length; start += streamBatchSize) {
+      int end = Math.min(start + streamBatchSize, keys.length);
+      List<OWLEntity> batch = entities.subList(start, end);
+      List<Row> sortRows = getRows(ontology, table, sortColumns, batch, threads);
+      for (int i = 0; i < sortRows.size(); i++) {
+        keys[start + i] = table.getSortKey(sortRows.get(i));
+        order[start + i] = start + i;
+      }
+    }
+    Comparator<String[]> comparator = table.getSortKeyComparator();
+    Arrays.sort(order, (i1, i2) -> comparator.compare(keys[i1], keys[i2]));
+
+    // Create the rows in batches as they are written
+    Iterator<Row> rows =
+        new Iterator<Row>() {
+          private int next = 0;
+          private Iterator<Row> batch = Collections.emptyIterator();
+
+          @Override
+          public boolean hasNext() {
+            return batch.hasNext() || next < order.length;
+          }
+
+          @Override
+          public Row next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            if (!batch.hasNext()) {
+              List<OWLEntity> batchEntities = new ArrayList<>();
+              while (next < order.length && batchEntities.size() < streamBatchSize) {
+                batchEntities.add(entities.get(order[next++]));
+              }
+              try {
+                batch =
+                    getRows(ontology, table, table.getColumns(), batchEntities, threads).iterator();
+              } catch (Exception e) {
+                throw new RuntimeException(e);
+              }
+            }
+            return batch.next();
+          }
+        };
+
+    String format = OptionsHelper.getOption(options, "format", "tsv").toLowerCase();
+    String split = OptionsHelper.getOption(options, "split", "|");
+    boolean standalone = OptionsHelper.optionIsTrue(options, "standalone");
+    if (!table.write(exportPath, split, standalone, rows)) {
+      throw new Exception(String.format(unknownFormatError, format));
+    }
+  }
+
+  /**
+   * Given an ontology, an ioHelper, a list of columns, and a map of options, create a Table with
+   * the columns and their sort order, but no rows.
+   *
+   * @param ontology OWLOntology to export to table
+   * @param ioHelper IOHelper to handle labels
+   * @param columnNames List of column names, in order
+   * @param options Map of Export options
+   * @return Table object without rows
+   * @throws Exception if a column is not a valid property
+   */
+  private static Table createTable(
+      OWLOntology ontology,
+      IOHelper ioHelper,
+      List<String> columnNames,
+      Map<String, String> options)
+      throws Exception {
     // Get column or columns to sort on
     // If not provided, use the first column
     String sortColumn = OptionsHelper.getOption(options, "sort", columnNames.get(0));
@@ -312,17 +431,6 @@ public class ExportOperation {
     }
     // Order the sort columns
     table.setSortColumns();
-
-    // Get the entities to include in the spreadsheet
-    Set<OWLEntity> entities = getEntities(ontology, options);
-
-    // Get the cell values based on columns
-    for (OWLEntity entity : entities) {
-      table.addRow(getRow(ontology, table, entity));
-    }
-
-    // Sort the rows by sort column or columns
-    table.sortRows();
     return table;
   }
 
@@ -525,6 +633,7 @@ public class ExportOperation {
    * @param rt RendererType to use to render Manchester
    * @param provider ShortFormProvider to resolve entities
    * @param entity OWLEntity to get relations of
+   * @param relations ClassRelations of the entity, or null if it is not a class
    * @param dp OWLDataProperty to get the value(s) of
    * @param includeNamed if true, include named classes in output
    * @param includeAnonymous if true, include anonymous classes in output
@@ -535,6 +644,7 @@ public class ExportOperation {
       RendererType rt,
       ShortFormProvider provider,
       OWLEntity entity,
+      ClassRelations relations,
       OWLDataProperty dp,
       boolean includeNamed,
       boolean includeAnonymous) {
@@ -545,8 +655,7 @@ public class ExportOperation {
     } else if (entity.isOWLClass()) {
       // Find super class expressions that use this property
       List<String> vals = new ArrayList<>();
-      for (OWLClassExpression expr :
-          EntitySearcher.getSuperClasses(entity.asOWLClass(), ontology)) {
+      for (OWLClassExpression expr : relations.getSuperClasses()) {
         if (!expr.isAnonymous()) {
           continue;
         }
@@ -556,8 +665,7 @@ public class ExportOperation {
                 expr.asConjunctSet(), dp, rt, provider, includeNamed, includeAnonymous));
       }
       // Find equivalent class expressions that use this property
-      for (OWLClassExpression expr :
-          EntitySearcher.getEquivalentClasses(entity.asOWLClass(), ontology)) {
+      for (OWLClassExpression expr : relations.getEquivalentClasses()) {
         if (!expr.isAnonymous()) {
           continue;
         }
@@ -581,6 +689,7 @@ public class ExportOperation {
    * @param rt RendererType to use to render Manchester
    * @param provider ShortFormProvider to resolve entities
    * @param entity OWLEntity to get annotations on
+   * @param relations ClassRelations of the entity, or null if it is not a class
    * @param op OWLObjectProperty to get the value(s) of
    * @param includeNamed if true, include named classes in output
    * @param includeAnonymous if true, include anonymous classes in output
@@ -591,6 +700,7 @@ public class ExportOperation {
       RendererType rt,
       ShortFormProvider provider,
       OWLEntity entity,
+      ClassRelations relations,
       OWLObjectProperty op,
       boolean includeNamed,
       boolean includeAnonymous) {
@@ -604,8 +714,7 @@ public class ExportOperation {
     } else if (entity.isOWLClass()) {
       // Find super class expressions that use this property
       List<String> exprs = new ArrayList<>();
-      for (OWLClassExpression expr :
-          EntitySearcher.getSuperClasses(entity.asOWLClass(), ontology)) {
+      for (OWLClassExpression expr : relations.getSuperClasses()) {
         if (!expr.isAnonymous()) {
           continue;
         }
@@ -615,8 +724,7 @@ public class ExportOperation {
                 expr.asConjunctSet(), op, rt, provider, includeNamed, includeAnonymous));
       }
       // Find equivalent class expressions that use this property
-      for (OWLClassExpression expr :
-          EntitySearcher.getEquivalentClasses(entity.asOWLClass(), ontology)) {
+      for (OWLClassExpression expr : relations.getEquivalentClasses()) {
         if (!expr.isAnonymous()) {
           continue;
         }
@@ -875,23 +983,101 @@ public class ExportOperation {
   }
 
   /**
-   * Return a Row for an OWLEntity from an ontology.
+   * Return the Rows for a list of entities from an ontology, in the same order as the entities,
+   * with cells for some of the columns. The entities are split into chunks that are rendered on up
+   * to the given number of threads. Each chunk is rendered with its own copies of the columns, so
+   * that a ShortFormProvider is never used by two threads at once.
    *
    * @param ontology OWLOntology to get details from
-   * @param table Table to get rendering information and columns
+   * @param table Table to get rendering information
+   * @param columns Columns of the table to get cells for
+   * @param entities list of OWLEntities to get details of
+   * @param threads maximum number of worker threads
+   * @return list of Row objects in the same order as the entities
+   * @throws Exception on invalid column
+   */
+  private static List<Row> getRows(
+      OWLOntology ontology,
+      Table table,
+      List<Column> columns,
+      List<OWLEntity> entities,
+      int threads)
+      throws Exception {
+    List<Row> rows = new ArrayList<>();
+    if (threads <= 1) {
+      for (OWLEntity entity : entities) {
+        rows.add(getRow(ontology, table, columns, entity));
+      }
+      return rows;
+    }
+
+    List<Callable<List<Row>>> tasks = new ArrayList<>();
+    for (List<OWLEntity> chunk : ThreadHelper.partition(entities, threads)) {
+      tasks.add(
+          () -> {
+            List<Column> chunkColumns = copyColumns(columns);
+            List<Row> chunkRows = new ArrayList<>();
+            for (OWLEntity entity : chunk) {
+              chunkRows.add(getRow(ontology, table, chunkColumns, entity));
+            }
+            return chunkRows;
+          });
+    }
+    for (List<Row> chunkRows : ThreadHelper.invokeAll(tasks, threads)) {
+      rows.addAll(chunkRows);
+    }
+    return rows;
+  }
+
+  /**
+   * Return copies of columns that can be used on a different thread than the originals. A
+   * QuotedAnnotationValueShortFormProvider changes while it renders, so each one is copied, once
+   * for all the columns that share it. Other providers are only read and are kept.
+   *
+   * @param columns Columns to copy
+   * @return list of copied Columns, in the same order
+   */
+  private static List<Column> copyColumns(List<Column> columns) {
+    Map<ShortFormProvider, ShortFormProvider> providers = new IdentityHashMap<>();
+    List<Column> copies = new ArrayList<>();
+    for (Column column : columns) {
+      ShortFormProvider provider = column.getShortFormProvider();
+      if (provider instanceof QuotedAnnotationValueShortFormProvider) {
+        provider =
+            providers.computeIfAbsent(
+                provider, p -> ((QuotedAnnotationValueShortFormProvider) p).copy());
+      }
+      copies.add(new Column(column, provider));
+    }
+    return copies;
+  }
+
+  /**
+   * Return a Row for an OWLEntity from an ontology, with cells for only some of the columns.
+   *
+   * @param ontology OWLOntology to get details from
+   * @param table Table to get rendering information
+   * @param columns Columns of the table to get cells for
    * @param entity OWLEntity to get details of
    * @return Row object for the OWLEntity
    * @throws Exception on invalid column
    */
-  private static Row getRow(OWLOntology ontology, Table table, OWLEntity entity) throws Exception {
+  private static Row getRow(
+      OWLOntology ontology, Table table, List<Column> columns, OWLEntity entity) throws Exception {
 
     String format = table.getFormat();
 
     RendererType displayRendererType = table.getDisplayRendererType();
     RendererType sortRendererType = table.getSortRendererType();
 
+    // Class axioms are looked up once for all the columns of the row
+    ClassRelations relations = null;
+    if (entity.isOWLClass()) {
+      relations = new ClassRelations(ontology, entity.asOWLClass());
+    }
+
     Row row = new Row(entity.getIRI());
-    for (Column col : table.getColumns()) {
+    for (Column col : columns) {
 
       boolean includeNamed = col.getIncludeNamed();
       boolean includeAnonymous = col.getIncludeAnonymous();
@@ -938,11 +1124,9 @@ public class ExportOperation {
           continue;
         case "SUBCLASSES":
           if (entity.isOWLClass()) {
-            Collection<OWLClassExpression> subclasses =
-                EntitySearcher.getSubClasses(entity.asOWLClass(), ontology);
             row.add(
                 getObjectCell(
-                    subclasses,
+                    relations.getSubClasses(),
                     col,
                     displayRendererType,
                     sortRendererType,
@@ -976,6 +1160,7 @@ public class ExportOperation {
                   displayRendererType,
                   provider,
                   entity,
+                  relations,
                   dp,
                   includeNamed,
                   includeAnonymous);
@@ -987,6 +1172,7 @@ public class ExportOperation {
                     sortRendererType,
                     provider,
                     entity,
+                    relations,
                     dp,
                     includeNamed,
                     includeAnonymous);
@@ -1005,6 +1191,7 @@ public class ExportOperation {
                   displayRendererType,
                   provider,
                   entity,
+                  relations,
                   op,
                   includeNamed,
                   includeAnonymous);
@@ -1016,6 +1203,7 @@ public class ExportOperation {
                     sortRendererType,
                     provider,
                     entity,
+                    relations,
                     op,
                     includeNamed,
                     includeAnonymous);
@@ -1042,8 +1230,7 @@ public class ExportOperation {
         case "http://www.w3.org/2000/01/rdf-schema#subClassOf":
           // SubClass Of
           if (entity.isOWLClass()) {
-            Collection<OWLClassExpression> supers =
-                EntitySearcher.getSuperClasses(entity.asOWLClass(), ontology);
+            Collection<OWLClassExpression> supers = new ArrayList<>(relations.getSuperClasses());
             // owl:Thing should not be included in the subclass of column
             supers.remove(dataFactory.getOWLThing());
             row.add(
@@ -1103,11 +1290,9 @@ public class ExportOperation {
         case "http://www.w3.org/2002/07/owl#equivalentClass":
           // Equivalent Classes
           if (entity.isOWLClass()) {
-            Collection<OWLClassExpression> eqs =
-                EntitySearcher.getEquivalentClasses(entity.asOWLClass(), ontology);
             row.add(
                 getObjectCell(
-                    eqs,
+                    relations.getEquivalentClasses(),
                     col,
                     displayRendererType,
                     sortRendererType,
@@ -1423,4 +1608,55 @@ public class ExportOperation {
     labelMap.put("domain", IRI.create("http://www.w3.org/2000/01/rdf-schema#domain"));
     labelMap.put("range", IRI.create("http://www.w3.org/2000/01/rdf-schema#range"));
   }
+
+  /**
+   * The asserted subclasses, superclasses, and equivalent classes of a class. Each is looked up at
+   * most once, and then shared by all the columns of the class's row that need it.
+   */
+  private static class ClassRelations {
+    private final OWLOntology ontology;
+    private final OWLClass cls;
+
+    private Collection<OWLClassExpression> subClasses = null;
+    private Collection<OWLClassExpression> superClasses = null;
+    private Collection<OWLClassExpression> equivalentClasses = null;
+
+    /**
+     * Create the relations of a class in an ontology.
+     *
+     * @param ontology OWLOntology to get relations from
+     * @param cls OWLClass to get relations of
+     */
+    ClassRelations(OWLOntology ontology, OWLClass cls) {
+      this.ontology = ontology;
+      this.cls = cls;
+    }
+
+    /** @return unmodifiable collection of the asserted subclasses */
+    Collection<OWLClassExpression> getSubClasses() {
+      if (subClasses == null) {
+        subClasses =
+            Collections.unmodifiableCollection(EntitySearcher.getSubClasses(cls, ontology));
+      }
+      return subClasses;
+    }
+
+    /** @return unmodifiable collection of the asserted superclasses */
+    Collection<OWLClassExpression> getSuperClasses() {
+      if (superClasses == null) {
+        superClasses =
+            Collections.unmodifiableCollection(EntitySearcher.getSuperClasses(cls, ontology));
+      }
+      return superClasses;
+    }
+
+    /** @return unmodifiable collection of the asserted equivalent classes */
+    Collection<OWLClassExpression> getEquivalentClasses() {
+      if (equivalentClasses == null) {
+        equivalentClasses =
+            Collections.unmodifiableCollection(EntitySearcher.getEquivalentClasses(cls, ontology));
+      }
+      return equivalentClasses;
+    }
+  }
 }
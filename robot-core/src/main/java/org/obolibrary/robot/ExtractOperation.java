@@ -325,12 +325,7 @@ public class ExtractOperation {
     mng.addAxioms(
         outputOntology,
         RelatedObjectsHelper.filterAxioms(
-            inputOntology.getAxioms(),
-            relatedObjects,
-            axiomSelectors,
-            new ArrayList<>(),
-            false,
-            true));
+            inputOntology, relatedObjects, axiomSelectors, new ArrayList<>(), false, true));
 
     // Add annotations on the related objects
     manager.addAxioms(
@@ -0,0 +1,249 @@
+package org.obolibrary.robot;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.search.EntitySearcher;
+
+/**
+ * The asserted class and property hierarchies of an ontology (excluding imports), with their
+ * ancestor and descendant closures. The direct superclasses, super properties, subclasses, and sub
+ * properties of each entity are looked up once and kept as an adjacency index. Closures are found
+ * by an iterative breadth-first search over the index, so deep hierarchies do not overflow the
+ * stack, and the closure of each entity is kept so that it is only found once.
+ *
+ * <p>Closures are built once per ontology and shared by everything that selects ancestors or
+ * descendants from it. When the ontology changes, its closures are dropped and built again on the
+ * next use.
+ */
+public class HierarchyClosure {
+
+  /** Closures of each ontology that has been used and has not changed since. */
+  private static final OntologyIndexCache<HierarchyClosure> closures =
+      new OntologyIndexCache<>(HierarchyClosure::new);
+
+  /**
+   * The ontology to get the hierarchies from. The closures are cached for the ontology, so they
+   * must not keep it from being collected.
+   */
+  private final WeakReference<OWLOntology> ontology;
+
+  /** Map from entity to its direct superclasses or super properties. */
+  private final Map<OWLEntity, Collection<? extends OWLObject>> superObjects = new HashMap<>();
+
+  /** Map from entity to its direct subclasses or sub properties. */
+  private final Map<OWLEntity, Collection<? extends OWLObject>> subObjects = new HashMap<>();
+
+  /** Map from entity to all of its ancestors. */
+  private final Map<OWLEntity, Set<OWLObject>> ancestors = new HashMap<>();
+
+  /** Map from entity to all of its descendants. */
+  private final Map<OWLEntity, Set<OWLObject>> descendants = new HashMap<>();
+
+  /**
+   * Create a new closure over the asserted hierarchies of an ontology.
+   *
+   * @param ontology OWLOntology to get the hierarchies from
+   */
+  public HierarchyClosure(OWLOntology ontology) {
+    this.ontology = new WeakReference<>(ontology);
+  }
+
+  /**
+   * Return the closures of an ontology (excluding imports). The closures are reused until the
+   * ontology changes.
+   *
+   * @param ontology OWLOntology to get the hierarchies from
+   * @return HierarchyClosure for the ontology
+   */
+  public static HierarchyClosure getClosure(OWLOntology ontology) {
+    return closures.get(ontology);
+  }
+
+  /**
+   * Return all the ancestors of a class or property: its superclasses or super properties, their
+   * superclasses or super properties, and so on. Anonymous expressions are included, but not
+   * followed. The top entity is not followed. The entity itself is only included if it is in a
+   * cycle. Other entities do not have ancestors.
+   *
+   * @param entity OWLEntity to get ancestors of
+   * @return unmodifiable set of ancestors
+   */
+  public synchronized Set<OWLObject> getAncestors(OWLEntity entity) {
+    return findClosure(entity, superObjects, ancestors, true);
+  }
+
+  /**
+   * Return all the descendants of a class or property: its subclasses or sub properties, their
+   * subclasses or sub properties, and so on. Anonymous expressions are included, but not followed.
+   * The entity itself is only included if it is in a cycle. Other entities do not have
+   * descendants.
+   *
+   * @param entity OWLEntity to get descendants of
+   * @return unmodifiable set of descendants
+   */
+  public synchronized Set<OWLObject> getDescendants(OWLEntity entity) {
+    return findClosure(entity, subObjects, descendants, false);
+  }
+
+  /**
+   * Return the asserted direct superclasses of a class. This is the same as <code>
+   * EntitySearcher.getSuperClasses(cls, ontology)</code>.
+   *
+   * @param cls OWLClass to get superclasses of
+   * @return collection of superclass expressions
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized Collection<OWLClassExpression> getSuperClasses(OWLClass cls) {
+    return (Collection<OWLClassExpression>) getAdjacent(cls, superObjects);
+  }
+
+  /**
+   * Return the asserted direct super properties of an annotation property. This is the same as
+   * <code>EntitySearcher.getSuperProperties(property, ontology)</code>.
+   *
+   * @param property OWLAnnotationProperty to get super properties of
+   * @return collection of super properties
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized Collection<OWLAnnotationProperty> getSuperProperties(
+      OWLAnnotationProperty property) {
+    return (Collection<OWLAnnotationProperty>) getAdjacent(property, superObjects);
+  }
+
+  /**
+   * Return the asserted direct super properties of a data property. This is the same as <code>
+   * EntitySearcher.getSuperProperties(property, ontology)</code>.
+   *
+   * @param property OWLDataProperty to get super properties of
+   * @return collection of super property expressions
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized Collection<OWLDataPropertyExpression> getSuperProperties(
+      OWLDataProperty property) {
+    return (Collection<OWLDataPropertyExpression>) getAdjacent(property, superObjects);
+  }
+
+  /**
+   * Return the asserted direct super properties of an object property. This is the same as <code>
+   * EntitySearcher.getSuperProperties(property, ontology)</code>.
+   *
+   * @param property OWLObjectProperty to get super properties of
+   * @return collection of super property expressions
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized Collection<OWLObjectPropertyExpression> getSuperProperties(
+      OWLObjectProperty property) {
+    return (Collection<OWLObjectPropertyExpression>) getAdjacent(property, superObjects);
+  }
+
+  /**
+   * Return the closure of an entity in one direction, finding it with a breadth-first search if it
+   * has not been found before. The search stops at any entity whose closure is already known and
+   * uses that closure instead.
+   *
+   * @param entity OWLEntity to get the closure of
+   * @param adjacency map of direct superclasses/properties or subclasses/properties
+   * @param memo map of known closures in the same direction
+   * @param up true when getting ancestors, so that the top entity is not followed
+   * @return unmodifiable set of objects in the closure
+   */
+  private Set<OWLObject> findClosure(
+      OWLEntity entity,
+      Map<OWLEntity, Collection<? extends OWLObject>> adjacency,
+      Map<OWLEntity, Set<OWLObject>> memo,
+      boolean up) {
+    Set<OWLObject> closure = memo.get(entity);
+    if (closure != null) {
+      return closure;
+    }
+    closure = new HashSet<>();
+    Set<OWLEntity> visited = new HashSet<>();
+    Deque<OWLEntity> queue = new ArrayDeque<>();
+    visited.add(entity);
+    queue.add(entity);
+    while (!queue.isEmpty()) {
+      OWLEntity current = queue.remove();
+      for (OWLObject object : getAdjacent(current, adjacency)) {
+        closure.add(object);
+        if (!(object instanceof OWLEntity)) {
+          // Anonymous expressions are not followed
+          continue;
+        }
+        OWLEntity next = (OWLEntity) object;
+        if ((up && next.isTopEntity()) || !visited.add(next)) {
+          continue;
+        }
+        Set<OWLObject> known = memo.get(next);
+        if (known != null) {
+          closure.addAll(known);
+        } else {
+          queue.add(next);
+        }
+      }
+    }
+    closure = Collections.unmodifiableSet(closure);
+    memo.put(entity, closure);
+    return closure;
+  }
+
+  /**
+   * Return the direct superclasses/properties or subclasses/properties of an entity, looking them
+   * up in the ontology the first time.
+   *
+   * @param entity OWLEntity to get adjacent objects of
+   * @param adjacency map of direct superclasses/properties or subclasses/properties
+   * @return collection of adjacent objects
+   */
+  private Collection<? extends OWLObject> getAdjacent(
+      OWLEntity entity, Map<OWLEntity, Collection<? extends OWLObject>> adjacency) {
+    Collection<? extends OWLObject> adjacent = adjacency.get(entity);
+    if (adjacent == null) {
+      adjacent = Collections.unmodifiableList(lookup(entity, adjacency == superObjects));
+      adjacency.put(entity, adjacent);
+    }
+    return adjacent;
+  }
+
+  /**
+   * Look up the direct superclasses/properties or subclasses/properties of an entity in the
+   * ontology.
+   *
+   * @param entity OWLEntity to look up
+   * @param up true to look up superclasses/properties, false for subclasses/properties
+   * @return list of adjacent objects
+   */
+  private List<? extends OWLObject> lookup(OWLEntity entity, boolean up) {
+    OWLOntology ontology = this.ontology.get();
+    if (ontology == null) {
+      // A collected ontology has no hierarchies left to look up
+      return Collections.emptyList();
+    }
+    if (entity instanceof OWLClass) {
+      OWLClass cls = (OWLClass) entity;
+      return new ArrayList<>(
+          up
+              ? EntitySearcher.getSuperClasses(cls, ontology)
+              : EntitySearcher.getSubClasses(cls, ontology));
+    } else if (entity instanceof OWLAnnotationProperty) {
+      OWLAnnotationProperty p = (OWLAnnotationProperty) entity;
+      return new ArrayList<>(
+          up
+              ? EntitySearcher.getSuperProperties(p, ontology)
+              : EntitySearcher.getSubProperties(p, ontology));
+    } else if (entity instanceof OWLDataProperty) {
+      OWLDataProperty p = (OWLDataProperty) entity;
+      return new ArrayList<>(
+          up
+              ? EntitySearcher.getSuperProperties(p, ontology)
+              : EntitySearcher.getSubProperties(p, ontology));
+    } else if (entity instanceof OWLObjectProperty) {
+      OWLObjectProperty p = (OWLObjectProperty) entity;
+      return new ArrayList<>(
+          up
+              ? EntitySearcher.getSuperProperties(p, ontology)
+              : EntitySearcher.getSubProperties(p, ontology));
+    }
+    return Collections.emptyList();
+  }
+}
@@ -1,6 +1,7 @@
 package org.obolibrary.robot;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.github.jsonldjava.core.Context;
@@ -16,6 +17,7 @@ import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.regex.Pattern;
 import java.util.zip.*;
@@ -29,7 +31,6 @@ import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.shared.JenaException;
 import org.apache.jena.tdb.TDBFactory;
-import org.geneontology.obographs.core.io.OgJsonGenerator;
 import org.geneontology.obographs.core.model.GraphDocument;
 import org.geneontology.obographs.owlapi.FromOwl;
 import org.geneontology.obographs.owlapi.OboGraphJsonDocumentFormat;
@@ -155,6 +156,16 @@ public class IOHelper {
   /** Store xml entities flag. */
   private Boolean useXMLEntities = false;
 
+  /** Buffer size in bytes for writing compressed ontology files. */
+  private static final int compressedBufferSize = 64 * 1024;
+
+  /** Optional cache of parsed ontologies; null when caching is disabled. */
+  private OntologyCache cache = null;
+
+  /** File extensions that are never loaded from the ontology cache. */
+  private static final Set<String> cacheExcludedExtensions =
+      Sets.newHashSet("yml", "yaml", "js", "json", "jsonld");
+
   /**
    * Create a new IOHelper with the default prefixes.
    *
@@ -220,6 +231,26 @@ public class IOHelper {
     this.strict = strict;
   }
 
+  /**
+   * Set the cache of parsed ontologies. When set, ontologies loaded from local files are stored in
+   * the cache, and unchanged files are loaded from the cache instead of being parsed again. Use
+   * null to disable caching.
+   *
+   * @param cache OntologyCache to use, or null
+   */
+  public void setCache(OntologyCache cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * Get the cache of parsed ontologies.
+   *
+   * @return OntologyCache, or null if caching is disabled
+   */
+  public OntologyCache getCache() {
+    return cache;
+  }
+
   /**
    * Given an ontology, a file, and a list of prefixes, save the ontology to the file and include
    * the prefixes in the header.
@@ -445,6 +476,38 @@ public class IOHelper {
    */
   public OWLOntology loadOntology(File ontologyFile, File catalogFile, String inputFormat)
       throws IOException {
+    String extension = FilenameUtils.getExtension(ontologyFile.getName()).trim().toLowerCase();
+    // JSON and YAML inputs depend on the current context, so they are never cached
+    boolean useCache =
+        cache != null && ontologyFile.isFile() && !cacheExcludedExtensions.contains(extension);
+    String cacheKey = null;
+    if (useCache) {
+      cacheKey = cache.getKey(ontologyFile, catalogFile, inputFormat, strict);
+      OWLOntology cached = cache.get(cacheKey, ontologyFile);
+      if (cached != null) {
+        logger.debug("Loaded ontology {} from cache", ontologyFile);
+        return cached;
+      }
+    }
+    OWLOntology ontology = parseOntology(ontologyFile, catalogFile, inputFormat);
+    if (useCache) {
+      cache.put(cacheKey, ontology);
+    }
+    return ontology;
+  }
+
+  /**
+   * Parse an ontology from a File, with optional catalog File and input format, without using the
+   * ontology cache.
+   *
+   * @param ontologyFile the ontology file to load
+   * @param catalogFile the catalog file to use
+   * @param inputFormat the expected format of the ontology or null
+   * @return a new ontology object, with a new OWLManager
+   * @throws IOException on any problem
+   */
+  private OWLOntology parseOntology(File ontologyFile, File catalogFile, String inputFormat)
+      throws IOException {
     logger.debug("Loading ontology {} with catalog file {}", ontologyFile, catalogFile);
     Object jsonObject = null;
     OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
@@ -997,10 +1060,9 @@ public class IOHelper {
     // Determine the format if not provided
     logger.debug("Saving ontology as {} with to IRI {}", format, ontologyIRI);
     XMLWriterPreferences.getInstance().setUseNamespaceEntities(getXMLEntityFlag());
-    // If saving in compressed format, get byte data then save to gzip
+    // If saving in compressed format, stream the rendered ontology through gzip
     if (ontologyIRI.toString().endsWith(".gz")) {
-      byte[] data = getOntologyFileData(ontology, format, checkOBO, cleanOBO);
-      saveCompressedOntology(data, ontologyIRI);
+      saveCompressedOntology(ontology, format, ontologyIRI, checkOBO, cleanOBO);
       return ontology;
     }
     OWLDocumentFormat previousFormat = ontology.getOWLOntologyManager().getOntologyFormat(ontology);
@@ -1757,49 +1819,50 @@ public class IOHelper {
   }
 
   /**
-   * Given an ontology, a document format, a boolean indicating to check OBO formatting, and a set
-   * of options for OBO output, return the ontology file in the OWLDocumentFormat as a byte array.
+   * Given an ontology, a document format, a boolean indicating to check OBO formatting, a set of
+   * options for OBO output, and an output stream, render the ontology in the OWLDocumentFormat
+   * directly to the stream. The stream is flushed but not closed.
    *
    * @param ontology OWLOntology to save
    * @param format OWLDocumentFormat to save in
    * @param checkOBO boolean indicating to check OBO formatting
    * @param cleanOBO optional parameters for OBO output
-   * @return byte array of formatted ontology data
+   * @param outputStream OutputStream to write to
    * @throws IOException on any problem
    */
-  private byte[] getOntologyFileData(
+  private void writeOntologyData(
       final OWLOntology ontology,
       OWLDocumentFormat format,
       boolean checkOBO,
-      EnumSet<OBOWriteOption> cleanOBO)
+      EnumSet<OBOWriteOption> cleanOBO,
+      OutputStream outputStream)
       throws IOException {
-    byte[] data;
     // first handle any non-official output formats.
     // currently this is just OboGraphs JSON format
     if (format instanceof OboGraphJsonDocumentFormat) {
+      // The graph document is built in memory, but the JSON is written straight to the stream
       FromOwl fromOwl = new FromOwl();
       GraphDocument gd = fromOwl.generateGraphDocument(ontology);
-      String doc = OgJsonGenerator.render(gd);
-      data = doc.getBytes();
+      ObjectMapper mapper = new ObjectMapper();
+      mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+      mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+      mapper.writerWithDefaultPrettyPrinter().writeValue(outputStream, gd);
     } else if (format instanceof OBODocumentFormat && (!checkOBO || !cleanOBO.isEmpty())) {
       OBODoc oboOntology = makeCleanOBODocument(ontology, cleanOBO, format);
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(baos))) {
-        OBOFormatWriter oboWriter = new OBOFormatWriter();
-        oboWriter.setCheckStructure(checkOBO);
-        oboWriter.write(oboOntology, bw);
-      }
-      data = baos.toByteArray();
+      BufferedWriter bw =
+          new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+      OBOFormatWriter oboWriter = new OBOFormatWriter();
+      oboWriter.setCheckStructure(checkOBO);
+      oboWriter.write(oboOntology, bw);
+      bw.flush();
     } else {
-      try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-        ontology.getOWLOntologyManager().saveOntology(ontology, format, baos);
-        data = baos.toByteArray();
-      } catch (IOException | OWLOntologyStorageException e) {
-        // TODO
+      try {
+        ontology.getOWLOntologyManager().saveOntology(ontology, format, outputStream);
+      } catch (OWLOntologyStorageException e) {
         throw new IOException(e);
       }
     }
-    return data;
+    outputStream.flush();
   }
 
   /**
@@ -1957,24 +2020,38 @@ public class IOHelper {
   }
 
   /**
-   * Given a formatted ontology as a byte array and an IRI, save the data to the IRI as a gzipped
-   * file.
+   * Given an ontology, a format, an IRI to save to, a boolean indicating to check OBO formatting
+   * and a set of options for OBO output, save the ontology to the IRI as a gzipped file. The
+   * rendered ontology is written straight into the compressed stream, so the uncompressed document
+   * is never held in memory. If writing fails and the file did not exist before, the partially
+   * written file is removed.
    *
-   * @param data byte array of ontology
+   * @param ontology OWLOntology to save
+   * @param format OWLDocumentFormat to save in
    * @param ontologyIRI IRI to save to
+   * @param checkOBO boolean indicating to check OBO formatting
+   * @param cleanOBO optional parameters for OBO output
    * @throws IOException on any problem
    */
-  private void saveCompressedOntology(byte[] data, IRI ontologyIRI) throws IOException {
+  private void saveCompressedOntology(
+      final OWLOntology ontology,
+      OWLDocumentFormat format,
+      IRI ontologyIRI,
+      boolean checkOBO,
+      EnumSet<OBOWriteOption> cleanOBO)
+      throws IOException {
     File f = new File(ontologyIRI.toURI());
-    boolean newFile = f.createNewFile();
-    FileOutputStream fos = new FileOutputStream(f);
-    BufferedOutputStream bos = new BufferedOutputStream(fos);
-    try (GZIPOutputStream gos = new GZIPOutputStream(bos)) {
-      gos.write(data, 0, data.length);
-    } catch (IOException e) {
-      if (!newFile) {
-        f.delete();
+    boolean newFile = !f.exists();
+    try (GZIPOutputStream gos =
+        new GZIPOutputStream(
+            new BufferedOutputStream(new FileOutputStream(f), compressedBufferSize),
+            compressedBufferSize)) {
+      writeOntologyData(ontology, format, checkOBO, cleanOBO, gos);
+    } catch (IOException | RuntimeException e) {
+      if (newFile && f.exists() && !f.delete()) {
+        logger.debug("Unable to remove partially written file {}", f);
       }
+      throw e;
     }
   }
 
@@ -0,0 +1,433 @@
+package org.obolibrary.robot;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Callable;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.obolibrary.robot.checks.ReportQuery;
+import org.obolibrary.robot.checks.ReportRule;
+import org.obolibrary.robot.checks.Violation;
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Run report rules incrementally. The results of each rule and a fingerprint of the axioms about
+ * each entity are stored in a state file. On the next run, rules that only look at the triples
+ * about a single entity are re-run for the entities whose fingerprints have changed, and the
+ * stored results are reused for all other entities. The results are the same as a full run.
+ */
+public class IncrementalReport {
+
+  /** Logger. */
+  private static final Logger logger = LoggerFactory.getLogger(IncrementalReport.class);
+
+  /** Version of the state file format. Increment when the format or the fingerprints change. */
+  private static final int STATE_VERSION = 1;
+
+  /**
+   * Default rules whose results for an entity only depend on the triples about that entity, and
+   * which are ordered by entity.
+   */
+  private static final Set<String> entityRules =
+      new HashSet<>(
+          Arrays.asList(
+              "annotation_whitespace",
+              "deprecated_boolean_datatype",
+              "duplicate_scoped_synonym",
+              "equivalent_class_axiom_no_genus",
+              "equivalent_pair",
+              "invalid_entity_uri",
+              "invalid_xref",
+              "label_formatting",
+              "label_whitespace",
+              "lowercase_definition",
+              "missing_definition",
+              "missing_label",
+              "missing_obsolete_label",
+              "missing_superclass",
+              "misused_obsolete_label",
+              "misused_replaced_by",
+              "multiple_asserted_superclasses",
+              "multiple_definitions",
+              "multiple_equivalent_class_definitions",
+              "multiple_equivalent_classes",
+              "multiple_labels"));
+
+  /**
+   * Default rules that also depend on which properties are declared, and so must be re-run in full
+   * when the property declarations change.
+   */
+  private static final Set<String> vocabularyRules =
+      new HashSet<>(Collections.singletonList("annotation_whitespace"));
+
+  /** The stored state of a previous report. */
+  static class State {
+    /** Version of the state file format. */
+    int version;
+
+    /** Fingerprint of the property declarations. */
+    String vocabulary;
+
+    /** Fingerprint of the axioms about each entity, by entity IRI. */
+    Map<String, Long> fingerprints = new HashMap<>();
+
+    /** Results of each rule, by rule name. */
+    Map<String, RuleResults> rules = new HashMap<>();
+  }
+
+  /** The stored results of one rule. */
+  static class RuleResults {
+    /** Hash of the query that produced the results. */
+    String query;
+
+    /** Results, each an array of entity, property, and value (or null). */
+    List<String[]> results;
+  }
+
+  /**
+   * Given an IOHelper, an ontology, the ontology as a dataset, a list of report queries, a state
+   * file, and a map of options, return the violations for each query (in the same order as the
+   * queries) and update the state file. If the state file does not exist or cannot be used, all
+   * rules are run in full.
+   *
+   * @param ioHelper IOHelper to resolve IRIs
+   * @param ontology OWLOntology to report on
+   * @param dataset the ontology as a dataset
+   * @param reportQueries list of ReportQuery objects to run
+   * @param stateFile file to read the previous state from and write the new state to
+   * @param options map of report options
+   * @return list of violations for each query
+   * @throws Exception on any query error
+   */
+  public static List<List<Violation>> getViolations(
+      IOHelper ioHelper,
+      OWLOntology ontology,
+      Dataset dataset,
+      List<ReportQuery> reportQueries,
+      File stateFile,
+      Map<String, String> options)
+      throws Exception {
+    State previous = readState(stateFile);
+    State current = new State();
+    current.version = STATE_VERSION;
+    current.vocabulary = getVocabularyFingerprint(ontology);
+    current.fingerprints = getFingerprints(ontology);
+
+    Set<String> changed = null;
+    if (previous != null) {
+      changed = getChangedEntities(previous.fingerprints, current.fingerprints);
+      logger.info(
+          String.format(
+              "%d of %d entities have changed since the last report",
+              changed.size(), current.fingerprints.size()));
+      // If most entities have changed, a full run is faster
+      if (changed.size() * 2 > current.fingerprints.size()) {
+        changed = null;
+      }
+    }
+
+    List<Callable<List<String[]>>> tasks = new ArrayList<>();
+    List<String> queryHashes = new ArrayList<>();
+    for (ReportQuery rq : reportQueries) {
+      String queryName = rq.getRuleName();
+      String queryString = ReportOperation.stripComments(rq.getQuery());
+      String queryHash = sha256(queryString);
+      queryHashes.add(queryHash);
+
+      ReportRule rule = ReportOperation.getNativeRule(rq);
+      if (rule != null) {
+        tasks.add(() -> rule.getResults(ontology));
+        continue;
+      }
+
+      List<String[]> previousResults = null;
+      if (changed != null && rq.getRuleURL() != null && entityRules.contains(queryName)) {
+        previousResults = getPreviousResults(previous, current, queryName, queryHash);
+      }
+      if (previousResults == null) {
+        tasks.add(() -> ReportOperation.getResults(dataset, queryName, queryString));
+      } else {
+        List<String[]> reused = previousResults;
+        Set<String> entities = changed;
+        tasks.add(() -> updateResults(dataset, queryName, queryString, reused, entities));
+      }
+    }
+
+    int threads = ThreadHelper.getThreads(options);
+    List<List<String[]>> results = ThreadHelper.invokeAll(tasks, threads);
+
+    List<List<Violation>> violations = new ArrayList<>();
+    for (int i = 0; i < reportQueries.size(); i++) {
+      RuleResults ruleResults = new RuleResults();
+      ruleResults.query = queryHashes.get(i);
+      ruleResults.results = results.get(i);
+      current.rules.put(reportQueries.get(i).getRuleName(), ruleResults);
+      violations.add(ReportOperation.getViolations(ioHelper, results.get(i), options));
+    }
+    writeState(current, stateFile);
+    return violations;
+  }
+
+  /**
+   * Given an ontology, return a fingerprint of the axioms about each entity, by entity IRI. An
+   * axiom is about every entity in its signature, and an annotation assertion is also about its
+   * subject and IRI value. The ontology annotations and imports are about the ontology IRI.
+   *
+   * @param ontology OWLOntology to fingerprint
+   * @return map of entity IRI to fingerprint
+   */
+  public static Map<String, Long> getFingerprints(OWLOntology ontology) {
+    Map<String, Long> fingerprints = new HashMap<>();
+    for (OWLAxiom axiom : ontology.getAxioms()) {
+      long hash = hash(axiom.toString());
+      Set<IRI> iris = new HashSet<>();
+      for (OWLEntity entity : axiom.getSignature()) {
+        iris.add(entity.getIRI());
+      }
+      if (axiom instanceof OWLAnnotationAssertionAxiom) {
+        OWLAnnotationAssertionAxiom ax = (OWLAnnotationAssertionAxiom) axiom;
+        if (ax.getSubject() instanceof IRI) {
+          iris.add((IRI) ax.getSubject());
+        }
+        if (ax.getValue() instanceof IRI) {
+          iris.add((IRI) ax.getValue());
+        }
+      }
+      // Adding the hashes makes the fingerprint independent of axiom order
+      for (IRI iri : iris) {
+        fingerprints.merge(iri.toString(), hash, Long::sum);
+      }
+    }
+
+    OWLOntologyID id = ontology.getOntologyID();
+    if (id.getOntologyIRI().isPresent()) {
+      StringBuilder sb = new StringBuilder(id.toString());
+      for (OWLAnnotation annotation : ontology.getAnnotations()) {
+        sb.append('\n').append(annotation);
+      }
+      for (OWLImportsDeclaration importsDeclaration : ontology.getImportsDeclarations()) {
+        sb.append('\n').append(importsDeclaration);
+      }
+      fingerprints.merge(id.getOntologyIRI().get().toString(), hash(sb.toString()), Long::sum);
+    }
+    return fingerprints;
+  }
+
+  /**
+   * Given the previous and current fingerprints, return the IRIs of the entities that were added,
+   * removed, or changed.
+   *
+   * @param previous previous fingerprints
+   * @param current current fingerprints
+   * @return set of changed entity IRIs
+   */
+  public static Set<String> getChangedEntities(
+      Map<String, Long> previous, Map<String, Long> current) {
+    Set<String> changed = new HashSet<>();
+    for (Map.Entry<String, Long> entry : current.entrySet()) {
+      if (!entry.getValue().equals(previous.get(entry.getKey()))) {
+        changed.add(entry.getKey());
+      }
+    }
+    for (String iri : previous.keySet()) {
+      if (!current.containsKey(iri)) {
+        changed.add(iri);
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Given a query and a collection of entity IRIs, return the query restricted to those entities.
+   * The IRIs are added to the start of the WHERE clause as a VALUES block of IRI nodes, so the
+   * query never has to be written out with them. IRIs that are not valid in SPARQL syntax, such as
+   * IRIs with spaces, are matched like any other IRI.
+   *
+   * @param query query that binds ?entity
+   * @param entities IRIs to restrict ?entity to
+   * @return restricted query
+   * @throws IllegalArgumentException if the WHERE clause of the query is not a group
+   */
+  public static Query scopeQuery(String query, Collection<String> entities) {
+    Query scoped = QueryFactory.create(query);
+    if (!(scoped.getQueryPattern() instanceof ElementGroup)) {
+      throw new IllegalArgumentException("Query does not have a WHERE clause: " + query);
+    }
+    Var entity = Var.alloc("entity");
+    ElementData data = new ElementData();
+    data.add(entity);
+    for (String iri : entities) {
+      data.add(BindingFactory.binding(entity, NodeFactory.createURI(iri)));
+    }
+    ((ElementGroup) scoped.getQueryPattern()).getElements().add(0, data);
+    return scoped;
+  }
+
+  /**
+   * Given the previous and current state, a rule name, and the hash of its query, return the
+   * previous results of that rule if they can be reused, or null.
+   *
+   * @param previous previous state
+   * @param current current state
+   * @param queryName name of rule
+   * @param queryHash hash of the current query
+   * @return previous results or null
+   */
+  private static List<String[]> getPreviousResults(
+      State previous, State current, String queryName, String queryHash) {
+    RuleResults ruleResults = previous.rules.get(queryName);
+    if (ruleResults == null
+        || ruleResults.results == null
+        || !queryHash.equals(ruleResults.query)) {
+      return null;
+    }
+    if (vocabularyRules.contains(queryName) && !current.vocabulary.equals(previous.vocabulary)) {
+      return null;
+    }
+    // Every stored result must be about an entity with a fingerprint, otherwise it can't be updated
+    for (String[] result : ruleResults.results) {
+      if (result.length != 3 || !previous.fingerprints.containsKey(result[0])) {
+        return null;
+      }
+    }
+    return ruleResults.results;
+  }
+
+  /**
+   * Given a dataset, a query, the previous results of that query, and the changed entities, return
+   * the previous results for unchanged entities merged with new results for changed entities,
+   * ordered by entity.
+   *
+   * @param dataset the ontology as a dataset
+   * @param queryName name of query
+   * @param query the query
+   * @param previousResults results of the query on the previous version of the ontology
+   * @param changed IRIs of changed entities
+   * @return updated results
+   * @throws Exception on any query error
+   */
+  private static List<String[]> updateResults(
+      Dataset dataset,
+      String queryName,
+      String query,
+      List<String[]> previousResults,
+      Set<String> changed)
+      throws Exception {
+    List<String[]> results = new ArrayList<>();
+    for (String[] result : previousResults) {
+      if (!changed.contains(result[0])) {
+        results.add(result);
+      }
+    }
+    if (!changed.isEmpty()) {
+      results.addAll(ReportOperation.getResults(dataset, queryName, scopeQuery(query, changed)));
+    }
+    // The sort is stable, so results for the same entity keep their order
+    results.sort(Comparator.comparing((String[] r) -> r[0]));
+    return results;
+  }
+
+  /**
+   * Given an ontology, return a fingerprint of the property declarations.
+   *
+   * @param ontology OWLOntology to fingerprint
+   * @return fingerprint
+   */
+  private static String getVocabularyFingerprint(OWLOntology ontology) {
+    List<String> declarations = new ArrayList<>();
+    for (OWLDeclarationAxiom axiom : ontology.getAxioms(AxiomType.DECLARATION)) {
+      if (axiom.getEntity().isOWLAnnotationProperty()
+          || axiom.getEntity().isOWLObjectProperty()
+          || axiom.getEntity().isOWLDataProperty()) {
+        declarations.add(axiom.getEntity().toString());
+      }
+    }
+    Collections.sort(declarations);
+    return sha256(String.join("\n", declarations));
+  }
+
+  /**
+   * Given a string, return its SHA-256 hash as a hex string.
+   *
+   * @param str string to hash
+   * @return hex hash
+   */
+  private static String sha256(String str) {
+    return Hashing.sha256().hashString(str, StandardCharsets.UTF_8).toString();
+  }
+
+  /**
+   * Given a string, return a 64 bit hash.
+   *
+   * @param str string to hash
+   * @return hash
+   */
+  private static long hash(String str) {
+    return Hashing.sha256().hashString(str, StandardCharsets.UTF_8).asLong();
+  }
+
+  /**
+   * Given a state file, return the state, or null if it does not exist or cannot be used.
+   *
+   * @param stateFile file to read
+   * @return State or null
+   */
+  private static State readState(File stateFile) {
+    if (!stateFile.exists()) {
+      logger.info(
+          String.format("No previous report state at '%s', running full report", stateFile));
+      return null;
+    }
+    try (Reader reader =
+        new BufferedReader(
+            new InputStreamReader(new FileInputStream(stateFile), StandardCharsets.UTF_8))) {
+      State state = new Gson().fromJson(reader, State.class);
+      if (state == null
+          || state.version != STATE_VERSION
+          || state.fingerprints == null
+          || state.rules == null) {
+        logger.warn(
+            String.format("Report state at '%s' is out of date, running full report", stateFile));
+        return null;
+      }
+      return state;
+    } catch (IOException | JsonParseException e) {
+      logger.warn(
+          String.format(
+              "Could not read report state at '%s', running full report: %s",
+              stateFile, e.getMessage()));
+      return null;
+    }
+  }
+
+  /**
+   * Write the state to a file.
+   *
+   * @param state State to write
+   * @param stateFile file to write to
+   * @throws IOException on any problem writing the file
+   */
+  private static void writeState(State state, File stateFile) throws IOException {
+    File parent = stateFile.getAbsoluteFile().getParentFile();
+    if (parent != null && !parent.exists()) {
+      parent.mkdirs();
+    }
+    try (Writer writer =
+        new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(stateFile), StandardCharsets.UTF_8))) {
+      new Gson().toJson(state, writer);
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package org.obolibrary.robot;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An index from annotation property and subject IRI to the literal values of the annotation
+ * assertions of an ontology (excluding imports). The annotation assertions are scanned once for all
+ * the properties that are requested together, instead of searching the annotations of each entity
+ * separately. Values of properties that have not been requested are not kept.
+ *
+ * <p>Indexes are built once per ontology and shared by everything that looks up names in it, such
+ * as the QuotedEntityCheckers of several templates. When the ontology changes, its index is dropped
+ * and built again on the next use.
+ */
+public class LabelIndex {
+  /** Logger. */
+  private static final Logger logger = LoggerFactory.getLogger(LabelIndex.class);
+
+  /** Index of each ontology that has been indexed and has not changed since. */
+  private static final OntologyIndexCache<LabelIndex> indexes =
+      new OntologyIndexCache<>(LabelIndex::new);
+
+  /**
+   * The indexed ontology. The index is cached for the ontology, so it must not keep it from being
+   * collected.
+   */
+  private final WeakReference<OWLOntology> ontology;
+
+  /** Map from each indexed property to a map from subject IRI to literal values. */
+  private final Map<OWLAnnotationProperty, Map<IRI, List<String>>> values = new HashMap<>();
+
+  /**
+   * Create a new, empty index over the annotation assertions of an ontology.
+   *
+   * @param ontology OWLOntology to index
+   */
+  public LabelIndex(OWLOntology ontology) {
+    this.ontology = new WeakReference<>(ontology);
+  }
+
+  /**
+   * Return the label index of an ontology (excluding imports). The index is reused until the
+   * ontology changes.
+   *
+   * @param ontology OWLOntology to index
+   * @return LabelIndex for the ontology
+   */
+  public static LabelIndex getIndex(OWLOntology ontology) {
+    return indexes.get(ontology);
+  }
+
+  /**
+   * Make sure that the values of the given annotation properties are indexed, scanning the
+   * annotation assertions once for all the properties that have not been indexed yet.
+   *
+   * @param properties annotation properties to index
+   */
+  public synchronized void index(Collection<OWLAnnotationProperty> properties) {
+    Set<OWLAnnotationProperty> missing = new HashSet<>();
+    for (OWLAnnotationProperty property : properties) {
+      if (!values.containsKey(property)) {
+        missing.add(property);
+        values.put(property, new HashMap<>());
+      }
+    }
+    if (missing.isEmpty()) {
+      return;
+    }
+    OWLOntology ontology = this.ontology.get();
+    if (ontology == null) {
+      // A collected ontology has no annotations left to index
+      return;
+    }
+    logger.debug("Indexing {} of {}", missing, ontology.getOntologyID());
+    for (OWLAnnotationAssertionAxiom axiom : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION)) {
+      if (!missing.contains(axiom.getProperty()) || !(axiom.getSubject() instanceof IRI)) {
+        continue;
+      }
+      OWLLiteral value = axiom.getValue().asLiteral().orNull();
+      if (value != null) {
+        values
+            .get(axiom.getProperty())
+            .computeIfAbsent((IRI) axiom.getSubject(), k -> new ArrayList<>(1))
+            .add(value.getLiteral());
+      }
+    }
+  }
+
+  /**
+   * Return the literal values of an annotation property for a subject. The property is indexed
+   * first if needed.
+   *
+   * @param property OWLAnnotationProperty to get values of
+   * @param subject IRI of the annotated subject
+   * @return unmodifiable list of literal values, which may be empty
+   */
+  public synchronized List<String> getValues(OWLAnnotationProperty property, IRI subject) {
+    Map<IRI, List<String>> subjects = values.get(property);
+    if (subjects == null) {
+      index(Collections.singleton(property));
+      subjects = values.get(property);
+    }
+    return Collections.unmodifiableList(subjects.getOrDefault(subject, Collections.emptyList()));
+  }
+}
@@ -80,12 +80,37 @@ public class MeasureOperation {
       File output,
       Map<String, String> prefixes)
       throws IOException {
+    measure(ontology, rf, metricsType, format, output, prefixes, 1);
+  }
+
+  /**
+   * Running the measure command, splitting the walk over the axioms over threads.
+   *
+   * @param ontology input ontology
+   * @param rf reasoner factory to be used for reasoning metrics
+   * @param metricsType The type of metrics that should be generated, like 'essential', 'extended'
+   *     or all
+   * @param format the name of the file format to write the results to
+   * @param output the file to write to
+   * @param prefixes prefix map to be used for computing metrics
+   * @param threads maximum number of threads to use
+   * @throws IOException if writing file failed
+   */
+  public static void measure(
+      OWLOntology ontology,
+      OWLReasonerFactory rf,
+      String metricsType,
+      String format,
+      File output,
+      Map<String, String> prefixes,
+      int threads)
+      throws IOException {
     MeasureResult metrics = new MeasureResult();
     CURIEShortFormProvider curieShortFormProvider = new CURIEShortFormProvider(prefixes);
     if (metricsType.contains("reasoner")) {
-      metrics.importMetrics(getMetrics(ontology, rf, metricsType, curieShortFormProvider));
+      metrics.importMetrics(getMetrics(ontology, rf, metricsType, curieShortFormProvider, threads));
     } else {
-      metrics.importMetrics(getMetrics(ontology, metricsType, curieShortFormProvider));
+      metrics.importMetrics(getMetrics(ontology, metricsType, curieShortFormProvider, threads));
     }
     boolean wroteData = MeasureOperation.maybeWriteResult(metrics, format, output);
     if (!wroteData) {
@@ -103,7 +128,26 @@ public class MeasureOperation {
    */
   public static MeasureResult getMetrics(
       OWLOntology ontology, String metricsType, CURIEShortFormProvider curieShortFormProvider) {
+    return getMetrics(ontology, metricsType, curieShortFormProvider, 1);
+  }
+
+  /**
+   * Compute metrics for a given ontology. The axioms are walked once for all the axiom metrics, and
+   * the walk is split over the given number of threads.
+   *
+   * @param ontology Ontology to run metrics
+   * @param metricsType what kind of metrics to harvest
+   * @param curieShortFormProvider Shortformprovider to be used for computation of CURIEs
+   * @param threads maximum number of threads to use
+   * @return Metrics, if successful
+   */
+  public static MeasureResult getMetrics(
+      OWLOntology ontology,
+      String metricsType,
+      CURIEShortFormProvider curieShortFormProvider,
+      int threads) {
     OntologyMetrics ontologyMetrics = new OntologyMetrics(ontology, curieShortFormProvider);
+    ontologyMetrics.setThreads(threads);
     MeasureResult metrics;
     switch (metricsType) {
       case "essential":
@@ -137,6 +181,26 @@ public class MeasureOperation {
       OWLReasonerFactory rf,
       String metricsType,
       CURIEShortFormProvider curieShortFormProvider) {
+    return getMetrics(ontology, rf, metricsType, curieShortFormProvider, 1);
+  }
+
+  /**
+   * Run the metrics command using the reasoner factory, splitting the walk over the axioms over
+   * threads.
+   *
+   * @param ontology Ontology to run metrics
+   * @param rf reasoner factory, in case reasoner metrics should be collected
+   * @param metricsType what kind of metrics to harvest
+   * @param curieShortFormProvider short form provider
+   * @param threads maximum number of threads to use
+   * @return Metrics, if successful
+   */
+  public static MeasureResult getMetrics(
+      OWLOntology ontology,
+      OWLReasonerFactory rf,
+      String metricsType,
+      CURIEShortFormProvider curieShortFormProvider,
+      int threads) {
     OntologyMetrics ontologyMetrics = new OntologyMetrics(ontology);
     MeasureResult metrics = new MeasureResult();
     OWLReasoner r = rf.createReasoner(ontology);
@@ -144,20 +208,20 @@ public class MeasureOperation {
     if (metricsType.contains("reasoner")) {
       switch (metricsType) {
         case "essential-reasoner":
-          metrics.importMetrics(getMetrics(ontology, "essential", curieShortFormProvider));
+          metrics.importMetrics(getMetrics(ontology, "essential", curieShortFormProvider, threads));
           break;
         case "extended-reasoner":
-          metrics.importMetrics(getMetrics(ontology, "extended", curieShortFormProvider));
+          metrics.importMetrics(getMetrics(ontology, "extended", curieShortFormProvider, threads));
           break;
         case "all-reasoner":
-          metrics.importMetrics(getMetrics(ontology, "all", curieShortFormProvider));
+          metrics.importMetrics(getMetrics(ontology, "all", curieShortFormProvider, threads));
           break;
         default:
           throw new IllegalArgumentException(String.format(METRICS_TYPE_ERROR, metricsType));
       }
       return metrics;
     } else {
-      metrics.importMetrics(getMetrics(ontology, metricsType, curieShortFormProvider));
+      metrics.importMetrics(getMetrics(ontology, metricsType, curieShortFormProvider, threads));
     }
     return metrics;
   }
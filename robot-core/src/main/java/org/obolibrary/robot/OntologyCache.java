@@ -0,0 +1,444 @@
+package org.obolibrary.robot;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.formats.FunctionalSyntaxDocumentFormat;
+import org.semanticweb.owlapi.formats.PrefixDocumentFormat;
+import org.semanticweb.owlapi.formats.RDFXMLDocumentFormat;
+import org.semanticweb.owlapi.io.FileDocumentSource;
+import org.semanticweb.owlapi.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An on-disk cache of parsed ontologies. Each entry stores a loaded ontology as an OWL Functional
+ * Syntax document, which is much faster to parse than RDF/XML, with a small text file beside it
+ * holding a checksum of the document, the original document format, and the original prefixes.
+ * Entries are keyed by a hash of the source file contents, the catalog file, the input format, and
+ * the strict parsing flag. An entry is only parsed when its document matches its checksum, which
+ * detects truncated or corrupted entries but not deliberate changes, so the cache directory must
+ * only be writable by trusted users. Entries are text rather than Java serialization, so that
+ * reading an entry never creates arbitrary objects.
+ *
+ * <p>Only ontologies without import declarations are cached, since the contents of imported
+ * ontologies are not part of the cache key. Imported ontologies are loaded by the manager and never
+ * go through the cache. Entries older than the maximum age are removed, and
+ * when the cache grows larger than the maximum size, the least recently used entries are removed.
+ */
+public class OntologyCache {
+  /** Logger. */
+  private static final Logger logger = LoggerFactory.getLogger(OntologyCache.class);
+
+  /** Version of the cache entry format. Change this when the entry layout changes. */
+  private static final int cacheVersion = 2;
+
+  /** File extension for cache entry documents. */
+  private static final String extension = ".ofn";
+
+  /** File extension for the checksum and format file of a cache entry. */
+  private static final String metadataExtension = ".sha256";
+
+  /** Default maximum total size of the cache: 2 GB. */
+  public static final long DEFAULT_MAX_SIZE = 2L * 1024 * 1024 * 1024;
+
+  /** Default maximum age of a cache entry: 30 days. */
+  public static final long DEFAULT_MAX_AGE = 30L * 24 * 60 * 60 * 1000;
+
+  /** Directory holding the cache entries. */
+  private final File directory;
+
+  /** Maximum total size of the cache in bytes. */
+  private long maxSize = DEFAULT_MAX_SIZE;
+
+  /** Maximum age of a cache entry in milliseconds. */
+  private long maxAge = DEFAULT_MAX_AGE;
+
+  /** Total size of the cache entries in bytes, or -1 until the directory has been listed. */
+  private long totalSize = -1;
+
+  /**
+   * Create a new cache in the default location, '.robot/cache' in the user's home directory.
+   *
+   * @throws IOException if the cache directory cannot be created
+   */
+  public OntologyCache() throws IOException {
+    this(getDefaultDirectory());
+  }
+
+  /**
+   * Create a new cache in the given directory. The directory is created if it does not exist.
+   *
+   * @param directory directory to store cache entries in
+   * @throws IOException if the cache directory cannot be created
+   */
+  public OntologyCache(File directory) throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException(
+          String.format("Unable to create ontology cache directory: %s", directory));
+    }
+    this.directory = directory;
+  }
+
+  /**
+   * Return the default cache directory, '.robot/cache' in the user's home directory.
+   *
+   * @return default cache directory
+   */
+  public static File getDefaultDirectory() {
+    return new File(new File(System.getProperty("user.home"), ".robot"), "cache");
+  }
+
+  /**
+   * Return the directory holding the cache entries.
+   *
+   * @return cache directory
+   */
+  public File getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Set the maximum total size of the cache in bytes.
+   *
+   * @param maxSize maximum size in bytes
+   */
+  public void setMaxSize(long maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Set the maximum age of a cache entry in milliseconds.
+   *
+   * @param maxAge maximum age in milliseconds
+   */
+  public void setMaxAge(long maxAge) {
+    this.maxAge = maxAge;
+  }
+
+  /**
+   * Given an ontology file, an optional catalog file, an optional input format, and the strict
+   * parsing flag, return the key for the cache entry.
+   *
+   * @param ontologyFile the ontology file to be loaded
+   * @param catalogFile the catalog file to use or null
+   * @param inputFormat the expected format of the ontology or null
+   * @param strict true if strict parsing is used
+   * @return cache key as a hex string
+   * @throws IOException if the files cannot be read
+   */
+  public String getKey(File ontologyFile, File catalogFile, String inputFormat, boolean strict)
+      throws IOException {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putInt(cacheVersion);
+    hasher.putBytes(Files.asByteSource(ontologyFile).hash(Hashing.sha256()).asBytes());
+    if (catalogFile != null && catalogFile.isFile()) {
+      hasher.putString(catalogFile.getAbsolutePath(), StandardCharsets.UTF_8);
+      hasher.putBytes(Files.asByteSource(catalogFile).hash(Hashing.sha256()).asBytes());
+    }
+    hasher.putString(String.valueOf(inputFormat), StandardCharsets.UTF_8);
+    hasher.putBoolean(strict);
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Given a cache key and the source file, return the cached ontology with a new
+   * OWLOntologyManager, or null if there is no valid entry for the key.
+   *
+   * @param key the cache key from {@link #getKey(File, File, String, boolean)}
+   * @param ontologyFile the source file, used as the document IRI of the ontology
+   * @return the cached ontology or null
+   */
+  public OWLOntology get(String key, File ontologyFile) {
+    File entry = getEntryFile(key);
+    File metadata = getMetadataFile(entry);
+    if (!entry.isFile() || !metadata.isFile()) {
+      return null;
+    }
+    long now = System.currentTimeMillis();
+    if (now - entry.lastModified() > maxAge) {
+      logger.debug("Removing expired ontology cache entry {}", entry);
+      deleteEntry(entry);
+      return null;
+    }
+    try {
+      List<String> lines = Files.readLines(metadata, StandardCharsets.UTF_8);
+      if (lines.size() < 3 || !lines.get(0).equals(String.valueOf(cacheVersion))) {
+        logger.debug("Discarding ontology cache entry {} from another version", entry);
+        deleteEntry(entry);
+        return null;
+      }
+      // Skip truncated or corrupted documents; the checksum is not keyed, so it cannot tell
+      // whether the document was written by ROBOT
+      String checksum = Files.asByteSource(entry).hash(Hashing.sha256()).toString();
+      if (!checksum.equals(lines.get(1))) {
+        logger.warn("Discarding ontology cache entry {} that does not match its checksum", entry);
+        deleteEntry(entry);
+        return null;
+      }
+      String formatClass = lines.get(2).isEmpty() ? null : lines.get(2);
+      Map<String, String> prefixes = new HashMap<>();
+      for (String line : lines.subList(3, lines.size())) {
+        String[] prefix = line.split("\t", 2);
+        if (prefix.length == 2) {
+          prefixes.put(prefix[0], prefix[1]);
+        }
+      }
+
+      OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+      OWLOntology ontology =
+          manager.loadOntologyFromOntologyDocument(
+              new FileDocumentSource(entry, new FunctionalSyntaxDocumentFormat()));
+      if (!ontology.getImportsDeclarations().isEmpty()) {
+        logger.warn("Discarding ontology cache entry {} with imports", entry);
+        deleteEntry(entry);
+        return null;
+      }
+      manager.setOntologyFormat(ontology, createFormat(formatClass, prefixes));
+      manager.setOntologyDocumentIRI(ontology, IRI.create(ontologyFile));
+
+      // Mark the entry as recently used
+      if (!entry.setLastModified(now)) {
+        logger.debug("Unable to update modification time of ontology cache entry {}", entry);
+      }
+      logger.debug("Loaded {} from ontology cache entry {}", ontologyFile, entry);
+      return ontology;
+    } catch (IOException | OWLOntologyCreationException e) {
+      logger.debug(String.format("Discarding unreadable ontology cache entry %s", entry), e);
+      deleteEntry(entry);
+      return null;
+    }
+  }
+
+  /**
+   * Given a cache key and a loaded ontology, store the ontology in the cache. Ontologies with
+   * import declarations are not stored. When the cache grows beyond its maximum size, expired and
+   * least recently used entries are removed to keep the cache within its limits. Failures to write
+   * the cache are logged and ignored.
+   *
+   * @param key the cache key from {@link #getKey(File, File, String, boolean)}
+   * @param ontology the loaded ontology to store
+   */
+  public void put(String key, OWLOntology ontology) {
+    if (!ontology.getImportsDeclarations().isEmpty()) {
+      logger.debug("Not caching ontology with imports: {}", ontology.getOntologyID());
+      return;
+    }
+    OWLDocumentFormat format = ontology.getOWLOntologyManager().getOntologyFormat(ontology);
+    String formatClass = format == null ? null : format.getClass().getName();
+    HashMap<String, String> prefixes = new HashMap<>();
+    if (format != null && format.isPrefixOWLOntologyFormat()) {
+      prefixes.putAll(format.asPrefixOWLOntologyFormat().getPrefixName2PrefixMap());
+    }
+
+    File entry = getEntryFile(key);
+    File metadata = getMetadataFile(entry);
+    File temp = null;
+    File metadataTemp = null;
+    try {
+      temp = File.createTempFile(key, ".tmp", directory);
+      FunctionalSyntaxDocumentFormat ofn = new FunctionalSyntaxDocumentFormat();
+      for (Map.Entry<String, String> prefix : prefixes.entrySet()) {
+        ofn.setPrefix(prefix.getKey(), prefix.getValue());
+      }
+      try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+        ontology.getOWLOntologyManager().saveOntology(ontology, ofn, out);
+      }
+      StringBuilder sb = new StringBuilder();
+      sb.append(cacheVersion).append("\n");
+      sb.append(Files.asByteSource(temp).hash(Hashing.sha256())).append("\n");
+      sb.append(formatClass == null ? "" : formatClass).append("\n");
+      for (Map.Entry<String, String> prefix : prefixes.entrySet()) {
+        sb.append(prefix.getKey()).append("\t").append(prefix.getValue()).append("\n");
+      }
+      metadataTemp = File.createTempFile(key, ".tmp", directory);
+      Files.asCharSink(metadataTemp, StandardCharsets.UTF_8).write(sb);
+
+      long oldSize = entrySize(entry);
+      move(metadataTemp, metadata);
+      move(temp, entry);
+      logger.debug("Stored ontology cache entry {}", entry);
+      addSize(entrySize(entry) - oldSize);
+    } catch (IOException | OWLOntologyStorageException e) {
+      logger.warn("Unable to write ontology cache entry: {}", e.getMessage());
+      if (temp != null) {
+        delete(temp);
+      }
+      if (metadataTemp != null) {
+        delete(metadataTemp);
+      }
+    }
+  }
+
+  /**
+   * Add to the total size of the cache, listing the directory the first time. When the total size
+   * grows beyond the maximum size, remove entries to keep the cache within its limits.
+   *
+   * @param size number of bytes added, or removed if negative
+   */
+  private synchronized void addSize(long size) {
+    if (totalSize < 0) {
+      evict();
+      return;
+    }
+    totalSize += size;
+    if (totalSize > maxSize) {
+      evict();
+    }
+  }
+
+  /**
+   * Remove expired entries, then remove the least recently used entries until the total size of
+   * the cache is within the maximum size.
+   */
+  public synchronized void evict() {
+    File[] files = directory.listFiles((dir, name) -> name.endsWith(extension));
+    if (files == null) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    List<File> entries = new ArrayList<>();
+    totalSize = 0;
+    for (File file : files) {
+      if (now - file.lastModified() > maxAge) {
+        deleteEntry(file);
+      } else {
+        entries.add(file);
+        totalSize += entrySize(file);
+      }
+    }
+    if (totalSize <= maxSize) {
+      return;
+    }
+    // Oldest first
+    entries.sort(Comparator.comparingLong(File::lastModified));
+    for (File file : entries) {
+      if (totalSize <= maxSize) {
+        break;
+      }
+      totalSize -= entrySize(file);
+      deleteEntry(file);
+    }
+  }
+
+  /** Remove all entries from the cache. */
+  public synchronized void clear() {
+    File[] files = directory.listFiles((dir, name) -> name.endsWith(extension));
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      deleteEntry(file);
+    }
+    totalSize = 0;
+  }
+
+  /**
+   * Given a format class name and a map of prefixes, create a new document format. If the class
+   * cannot be instantiated, use RDF/XML.
+   *
+   * @param formatClass name of the OWLDocumentFormat class, or null
+   * @param prefixes map of prefix names to prefixes
+   * @return new OWLDocumentFormat
+   */
+  private static OWLDocumentFormat createFormat(String formatClass, Map<String, String> prefixes) {
+    OWLDocumentFormat format = null;
+    if (formatClass != null) {
+      try {
+        format = (OWLDocumentFormat) Class.forName(formatClass).getConstructor().newInstance();
+      } catch (ReflectiveOperationException | ClassCastException e) {
+        logger.debug("Unable to create document format {}", formatClass);
+      }
+    }
+    if (format == null) {
+      format = new RDFXMLDocumentFormat();
+    }
+    if (format.isPrefixOWLOntologyFormat()) {
+      PrefixDocumentFormat pf = format.asPrefixOWLOntologyFormat();
+      for (Map.Entry<String, String> prefix : prefixes.entrySet()) {
+        pf.setPrefix(prefix.getKey(), prefix.getValue());
+      }
+    }
+    return format;
+  }
+
+  /**
+   * Given a cache key, return the file for the cache entry.
+   *
+   * @param key cache key
+   * @return cache entry file
+   */
+  private File getEntryFile(String key) {
+    return new File(directory, key + extension);
+  }
+
+  /**
+   * Given a cache entry file, return the file holding its checksum, format, and prefixes.
+   *
+   * @param entry cache entry file
+   * @return metadata file
+   */
+  private static File getMetadataFile(File entry) {
+    String name = entry.getName();
+    return new File(
+        entry.getParentFile(),
+        name.substring(0, name.length() - extension.length()) + metadataExtension);
+  }
+
+  /**
+   * Given a cache entry file, return the size of the entry and its metadata file in bytes.
+   *
+   * @param entry cache entry file
+   * @return size in bytes, 0 if the entry does not exist
+   */
+  private static long entrySize(File entry) {
+    return entry.length() + getMetadataFile(entry).length();
+  }
+
+  /**
+   * Move a file, replacing the target, atomically when the file system supports it.
+   *
+   * @param source file to move
+   * @param target file to replace
+   * @throws IOException on issue moving the file
+   */
+  private static void move(File source, File target) throws IOException {
+    try {
+      java.nio.file.Files.move(
+          source.toPath(),
+          target.toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      java.nio.file.Files.move(
+          source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Delete a cache entry file and its metadata file.
+   *
+   * @param entry cache entry file
+   */
+  private static void deleteEntry(File entry) {
+    delete(entry);
+    delete(getMetadataFile(entry));
+  }
+
+  /**
+   * Delete a file, logging a failure.
+   *
+   * @param file file to delete
+   */
+  private static void delete(File file) {
+    if (file.exists() && !file.delete()) {
+      logger.debug("Unable to delete ontology cache file {}", file);
+    }
+  }
+}
@@ -0,0 +1,484 @@
+package org.obolibrary.robot;
+
+import java.io.IOException;
+import java.util.*;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyStorageException;
+import org.semanticweb.owlapi.rio.RioRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A read-only Jena Graph backed by the RDF rendering of an OWLOntology (imports are ignored).
+ *
+ * <p>The triple index is built lazily, on the first call to find. The ontology is rendered to
+ * triples once, each distinct node is stored once in a node table, and each triple is stored as
+ * three integer node ids. Three sorted permutations of the triples (SPO, POS, and OSP) answer any
+ * find(s, p, o) pattern with a binary search. This avoids building a full Jena Model with its
+ * statement, resource, and triple map objects, which uses several times more memory.
+ *
+ * <p>Like the default Jena in-memory graph, literal objects in find patterns are matched by value
+ * (e.g. "1"^^xsd:integer matches "01"^^xsd:integer). The ontology must not be changed while the
+ * graph is in use. Once built, the index is immutable and the graph can be queried from several
+ * threads.
+ */
+public class OntologyGraph extends GraphBase {
+  /** Logger. */
+  private static final Logger logger = LoggerFactory.getLogger(OntologyGraph.class);
+
+  /** Position of the subject in a triple. */
+  private static final int S = 0;
+
+  /** Position of the predicate in a triple. */
+  private static final int P = 1;
+
+  /** Position of the object in a triple. */
+  private static final int O = 2;
+
+  /** Component orders of the three triple permutations. */
+  private static final int[][] orders = {{S, P, O}, {P, O, S}, {O, S, P}};
+
+  /** The ontology to render. */
+  private final OWLOntology ontology;
+
+  /** The index, or null if not yet built. */
+  private volatile Index index = null;
+
+  /**
+   * Create a new graph for an ontology. The ontology is not rendered until the graph is queried.
+   *
+   * @param ontology OWLOntology to view as a graph
+   */
+  public OntologyGraph(OWLOntology ontology) {
+    this.ontology = ontology;
+  }
+
+  /**
+   * Build the triple index, if it has not been built yet.
+   *
+   * @throws OWLOntologyStorageException on issue rendering ontology to triples
+   */
+  public void buildIndex() throws OWLOntologyStorageException {
+    getIndex();
+  }
+
+  @Override
+  protected ExtendedIterator<Triple> graphBaseFind(Triple pattern) {
+    Index idx;
+    try {
+      idx = getIndex();
+    } catch (OWLOntologyStorageException e) {
+      throw new IllegalStateException("Unable to render ontology as RDF triples", e);
+    }
+    return idx.find(pattern);
+  }
+
+  @Override
+  protected int graphBaseSize() {
+    try {
+      return getIndex().size;
+    } catch (OWLOntologyStorageException e) {
+      throw new IllegalStateException("Unable to render ontology as RDF triples", e);
+    }
+  }
+
+  /**
+   * Return the index, building it on first use.
+   *
+   * @return the triple index
+   * @throws OWLOntologyStorageException on issue rendering ontology to triples
+   */
+  private Index getIndex() throws OWLOntologyStorageException {
+    Index idx = index;
+    if (idx == null) {
+      synchronized (this) {
+        idx = index;
+        if (idx == null) {
+          idx = buildIndex(ontology);
+          index = idx;
+        }
+      }
+    }
+    return idx;
+  }
+
+  /**
+   * Render an ontology to triples and build the index.
+   *
+   * @param ontology OWLOntology to render
+   * @return new Index
+   * @throws OWLOntologyStorageException on issue rendering ontology to triples
+   */
+  private static Index buildIndex(OWLOntology ontology) throws OWLOntologyStorageException {
+    long start = System.currentTimeMillis();
+    IndexBuilder builder = new IndexBuilder();
+    RioRenderer renderer = new RioRenderer(ontology, builder, null);
+    try {
+      renderer.render();
+    } catch (IOException e) {
+      throw new OWLOntologyStorageException(e);
+    }
+    Index idx = builder.build();
+    long end = System.currentTimeMillis();
+    logger.debug(
+        String.format(
+            "Indexed %d triples from ontology - took %s seconds",
+            idx.size, String.valueOf((end - start) / 1000.0)));
+    return idx;
+  }
+
+  /**
+   * Convert a Sesame value to a Jena node.
+   *
+   * @param value Value to convert
+   * @param blankNodePrefix prefix for blank node labels, so they do not clash with other blank
+   *     nodes
+   * @return Node
+   */
+  static Node toNode(Value value, String blankNodePrefix) {
+    if (value instanceof BNode) {
+      return NodeFactory.createBlankNode(blankNodePrefix + ((BNode) value).getID());
+    } else if (value instanceof org.eclipse.rdf4j.model.IRI) {
+      return NodeFactory.createURI(value.stringValue());
+    }
+    Literal literal = (Literal) value;
+    if (literal.getLanguage().isPresent()) {
+      return NodeFactory.createLiteral(literal.getLabel(), literal.getLanguage().get());
+    } else if (literal.getDatatype() != null) {
+      return NodeFactory.createLiteral(
+          literal.getLabel(),
+          TypeMapper.getInstance().getSafeTypeByName(literal.getDatatype().stringValue()));
+    }
+    return NodeFactory.createLiteral(literal.getLabel());
+  }
+
+  /** Sesame RDFHandler which collects triples as node ids. */
+  private static class IndexBuilder implements RDFHandler {
+    // Blank node IDs must not clash with blank nodes rendered from another ontology
+    private final String blankNodePrefix = UUID.randomUUID().toString();
+
+    private final Map<Node, Integer> ids = new HashMap<>();
+    private final List<Node> nodes = new ArrayList<>();
+    private int[][] columns = new int[3][1024];
+    private int size = 0;
+
+    @Override
+    public void handleStatement(Statement triple) {
+      if (size == columns[S].length) {
+        int capacity = columns[S].length * 2;
+        for (int c = 0; c < 3; c++) {
+          columns[c] = Arrays.copyOf(columns[c], capacity);
+        }
+      }
+      columns[S][size] = getId(toNode(triple.getSubject(), blankNodePrefix));
+      columns[P][size] = getId(NodeFactory.createURI(triple.getPredicate().stringValue()));
+      columns[O][size] = getId(toNode(triple.getObject(), blankNodePrefix));
+      size++;
+    }
+
+    @Override
+    public void startRDF() {}
+
+    @Override
+    public void endRDF() {}
+
+    @Override
+    public void handleNamespace(String prefix, String uri) {}
+
+    @Override
+    public void handleComment(String comment) {}
+
+    /**
+     * Return the id of a node, adding it to the node table if needed.
+     *
+     * @param node Node to get id for
+     * @return node id
+     */
+    private int getId(Node node) {
+      Integer id = ids.get(node);
+      if (id == null) {
+        id = nodes.size();
+        nodes.add(node);
+        ids.put(node, id);
+      }
+      return id;
+    }
+
+    /**
+     * Sort and de-duplicate the collected triples and build the index.
+     *
+     * @return new Index
+     */
+    private Index build() {
+      int[] spo = sortedPermutation(columns, orders[0], size);
+      // Remove duplicate triples
+      int unique = 0;
+      int[][] deduped = new int[3][];
+      for (int c = 0; c < 3; c++) {
+        deduped[c] = new int[size];
+      }
+      for (int i = 0; i < size; i++) {
+        int t = spo[i];
+        if (unique > 0
+            && deduped[S][unique - 1] == columns[S][t]
+            && deduped[P][unique - 1] == columns[P][t]
+            && deduped[O][unique - 1] == columns[O][t]) {
+          continue;
+        }
+        for (int c = 0; c < 3; c++) {
+          deduped[c][unique] = columns[c][t];
+        }
+        unique++;
+      }
+      columns = null;
+      for (int c = 0; c < 3; c++) {
+        deduped[c] = Arrays.copyOf(deduped[c], unique);
+      }
+      // The de-duplicated triples are already in SPO order
+      int[][] permutations = new int[3][];
+      permutations[0] = new int[unique];
+      for (int i = 0; i < unique; i++) {
+        permutations[0][i] = i;
+      }
+      permutations[1] = sortedPermutation(deduped, orders[1], unique);
+      permutations[2] = sortedPermutation(deduped, orders[2], unique);
+      return new Index(nodes.toArray(new Node[0]), ids, deduped, permutations, unique);
+    }
+  }
+
+  /** Immutable triple index. */
+  private static class Index {
+    /** Node table: node id to node. */
+    private final Node[] nodes;
+
+    /** Node id lookup for exact node matches. */
+    private final Map<Node, Integer> ids;
+
+    /** Literal node ids by indexing value, for matching literals by value. */
+    private final Map<Object, List<Integer>> literalIds = new HashMap<>();
+
+    /** Subject, predicate, and object node ids for each triple. */
+    private final int[][] columns;
+
+    /** Triple ids in SPO, POS, and OSP order. */
+    private final int[][] permutations;
+
+    /** Number of triples. */
+    private final int size;
+
+    private Index(
+        Node[] nodes, Map<Node, Integer> ids, int[][] columns, int[][] permutations, int size) {
+      this.nodes = nodes;
+      this.ids = ids;
+      this.columns = columns;
+      this.permutations = permutations;
+      this.size = size;
+      for (int id = 0; id < nodes.length; id++) {
+        if (nodes[id].isLiteral()) {
+          literalIds.computeIfAbsent(nodes[id].getIndexingValue(), k -> new ArrayList<>()).add(id);
+        }
+      }
+    }
+
+    /**
+     * Find all triples matching a pattern.
+     *
+     * @param pattern Triple pattern, with ANY or variables as wildcards
+     * @return iterator over matching triples
+     */
+    private ExtendedIterator<Triple> find(Triple pattern) {
+      int[] key = new int[3];
+      key[S] = getId(pattern.getSubject());
+      key[P] = getId(pattern.getPredicate());
+      if (key[S] == -2 || key[P] == -2) {
+        return NiceIterator.emptyIterator();
+      }
+      Node object = pattern.getObject();
+      if (object.isLiteral()) {
+        // Match literals by value, which may match more than one literal node
+        ExtendedIterator<Triple> result = NiceIterator.emptyIterator();
+        List<Integer> candidates = literalIds.get(object.getIndexingValue());
+        if (candidates != null) {
+          for (int id : candidates) {
+            if (nodes[id].sameValueAs(object)) {
+              int[] literalKey = {key[S], key[P], id};
+              result = result.andThen(find(literalKey));
+            }
+          }
+        }
+        return result;
+      }
+      key[O] = getId(object);
+      if (key[O] == -2) {
+        return NiceIterator.emptyIterator();
+      }
+      return find(key);
+    }
+
+    /**
+     * Find all triples matching a key of node ids, where -1 is a wildcard.
+     *
+     * @param key subject, predicate, and object node ids
+     * @return iterator over matching triples
+     */
+    private ExtendedIterator<Triple> find(int[] key) {
+      // Choose the permutation in which the bound components form the longest prefix
+      int best = 0;
+      int bestLength = -1;
+      for (int p = 0; p < orders.length; p++) {
+        int length = 0;
+        while (length < 3 && key[orders[p][length]] != -1) {
+          length++;
+        }
+        if (length > bestLength) {
+          best = p;
+          bestLength = length;
+        }
+      }
+      int[] order = orders[best];
+      int[] perm = permutations[best];
+      int lo = bound(perm, order, key, bestLength, false);
+      int hi = bound(perm, order, key, bestLength, true);
+      if (lo >= hi) {
+        return NiceIterator.emptyIterator();
+      }
+      final int from = lo;
+      final int to = hi;
+      return WrappedIterator.create(
+          new Iterator<Triple>() {
+            private int i = from;
+
+            @Override
+            public boolean hasNext() {
+              return i < to;
+            }
+
+            @Override
+            public Triple next() {
+              if (i >= to) {
+                throw new NoSuchElementException();
+              }
+              int t = perm[i++];
+              return Triple.create(
+                  nodes[columns[S][t]], nodes[columns[P][t]], nodes[columns[O][t]]);
+            }
+          });
+    }
+
+    /**
+     * Return the id of a concrete node, -1 for a wildcard, or -2 if the node is not in the graph.
+     *
+     * @param node Node from a pattern
+     * @return node id, -1, or -2
+     */
+    private int getId(Node node) {
+      if (node == null || !node.isConcrete()) {
+        return -1;
+      }
+      Integer id = ids.get(node);
+      return id == null ? -2 : id;
+    }
+
+    /**
+     * Binary search for the first position in a permutation whose prefix is not less than (or, if
+     * upper is true, greater than) the key prefix.
+     *
+     * @param perm permutation of triple ids
+     * @param order component order of the permutation
+     * @param key subject, predicate, and object node ids
+     * @param length length of the key prefix to compare
+     * @param upper if true, return the upper bound instead of the lower bound
+     * @return position in the permutation
+     */
+    private int bound(int[] perm, int[] order, int[] key, int length, boolean upper) {
+      int lo = 0;
+      int hi = perm.length;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        int cmp = 0;
+        for (int c = 0; c < length && cmp == 0; c++) {
+          cmp = Integer.compare(columns[order[c]][perm[mid]], key[order[c]]);
+        }
+        if (cmp < 0 || (upper && cmp == 0)) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      return lo;
+    }
+  }
+
+  /**
+   * Return the permutation of triple ids sorted by the given component order.
+   *
+   * @param columns subject, predicate, and object node ids for each triple
+   * @param order component order to sort by
+   * @param size number of triples
+   * @return sorted triple ids
+   */
+  private static int[] sortedPermutation(int[][] columns, int[] order, int size) {
+    int[] perm = new int[size];
+    for (int i = 0; i < size; i++) {
+      perm[i] = i;
+    }
+    int[] buffer = new int[size];
+    // Bottom-up merge sort of triple ids
+    for (int width = 1; width < size; width *= 2) {
+      for (int lo = 0; lo < size - width; lo += 2 * width) {
+        int mid = lo + width;
+        int hi = Math.min(lo + 2 * width, size);
+        int i = lo;
+        int j = mid;
+        int k = lo;
+        while (i < mid && j < hi) {
+          if (compare(columns, order, perm[j], perm[i]) < 0) {
+            buffer[k++] = perm[j++];
+          } else {
+            buffer[k++] = perm[i++];
+          }
+        }
+        while (i < mid) {
+          buffer[k++] = perm[i++];
+        }
+        while (j < hi) {
+          buffer[k++] = perm[j++];
+        }
+        System.arraycopy(buffer, lo, perm, lo, hi - lo);
+      }
+    }
+    return perm;
+  }
+
+  /**
+   * Compare two triples by the given component order.
+   *
+   * @param columns subject, predicate, and object node ids for each triple
+   * @param order component order
+   * @param a first triple id
+   * @param b second triple id
+   * @return negative, zero, or positive
+   */
+  private static int compare(int[][] columns, int[] order, int a, int b) {
+    for (int c : order) {
+      int cmp = Integer.compare(columns[c][a], columns[c][b]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,121 @@
+package org.obolibrary.robot;
+
+import com.google.common.collect.MapMaker;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.function.Function;
+import org.semanticweb.owlapi.model.*;
+
+/**
+ * A cache of values built from an ontology, such as indexes and closures, that are kept until the
+ * ontology changes. Ontologies are compared by identity, since copies of an ontology are equal to
+ * it, and are not kept from being collected. Cached values must not hold a strong reference to
+ * their ontology, or the ontology is never collected.
+ *
+ * <p>All caches share one change listener for each ontology manager. The listener drops every
+ * cached value of a changed ontology, and removes itself once the manager has no cached ontologies
+ * left.
+ *
+ * @param <V> type of the cached values
+ */
+public class OntologyIndexCache<V> {
+
+  /** Map from each ontology with cached values to a map from cache to value. */
+  private static final Map<OWLOntology, Map<OntologyIndexCache<?>, Object>> values =
+      new MapMaker().weakKeys().makeMap();
+
+  /** The listener registered with each manager that has cached ontologies. */
+  private static final Map<OWLOntologyManager, Invalidator> invalidators =
+      new MapMaker().weakKeys().makeMap();
+
+  /** Function that builds the value for an ontology. */
+  private final Function<OWLOntology, V> builder;
+
+  /**
+   * Create a new cache.
+   *
+   * @param builder function that builds the value for an ontology
+   */
+  public OntologyIndexCache(Function<OWLOntology, V> builder) {
+    this.builder = builder;
+  }
+
+  /**
+   * Return the value for an ontology. The value is built on the first call and reused until the
+   * ontology changes. The value is built without holding the lock, so building values for other
+   * ontologies is not blocked. If the ontology changes while the value is built, the value is
+   * returned but not cached.
+   *
+   * @param ontology OWLOntology to get the value for
+   * @return the cached or newly built value
+   */
+  @SuppressWarnings("unchecked")
+  public V get(OWLOntology ontology) {
+    Map<OntologyIndexCache<?>, Object> cached;
+    synchronized (values) {
+      cached = values.get(ontology);
+      if (cached == null) {
+        cached = new HashMap<>();
+        values.put(ontology, cached);
+      }
+      V value = (V) cached.get(this);
+      if (value != null) {
+        return value;
+      }
+      // Listen for changes before building, so a change during the build is not missed
+      OWLOntologyManager manager = ontology.getOWLOntologyManager();
+      if (manager != null && !invalidators.containsKey(manager)) {
+        Invalidator invalidator = new Invalidator(manager);
+        invalidators.put(manager, invalidator);
+        manager.addOntologyChangeListener(invalidator);
+      }
+    }
+
+    V value = builder.apply(ontology);
+
+    synchronized (values) {
+      // A change replaces the map of cached values, so only cache the value if there was none
+      if (values.get(ontology) != cached) {
+        return value;
+      }
+      V existing = (V) cached.putIfAbsent(this, value);
+      return existing != null ? existing : value;
+    }
+  }
+
+  /**
+   * Listener that drops the cached values of each ontology that changes, and removes itself from
+   * its manager when none of the manager's ontologies have cached values.
+   */
+  private static class Invalidator implements OWLOntologyChangeListener {
+    /** The manager, which the listener should not keep from being collected. */
+    private final WeakReference<OWLOntologyManager> manager;
+
+    /**
+     * Create a new listener for a manager.
+     *
+     * @param manager the manager of the cached ontologies
+     */
+    Invalidator(OWLOntologyManager manager) {
+      this.manager = new WeakReference<>(manager);
+    }
+
+    @Override
+    public void ontologiesChanged(List<? extends OWLOntologyChange> changes) {
+      OWLOntologyManager m = manager.get();
+      synchronized (values) {
+        for (OWLOntologyChange change : changes) {
+          values.remove(change.getOntology());
+        }
+        for (OWLOntology ontology : values.keySet()) {
+          if (ontology.getOWLOntologyManager() == m) {
+            return;
+          }
+        }
+        if (m != null && invalidators.remove(m) == this) {
+          m.removeOntologyChangeListener(this);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package org.obolibrary.robot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.profiles.OWL2Profile;
+import org.semanticweb.owlapi.profiles.OWLProfile;
+import org.semanticweb.owlapi.profiles.OWLProfileReport;
+import org.semanticweb.owlapi.profiles.Profiles;
+
+/** Convenience methods for checking an ontology against OWL 2 profiles. */
+public class ProfileHelper {
+
+  /** Namespace for error messages. */
+  private static final String NS = "validate-profile#";
+
+  /** Error message when an invalid profile is provided. Expects profile. */
+  private static final String invalidProfileError =
+      NS + "INVALID PROFILE ERROR unknown profile: %s";
+
+  /** Names of all the profiles that can be checked. */
+  public static final List<String> PROFILES =
+      Collections.unmodifiableList(Arrays.asList("FULL", "DL", "EL", "QL", "RL"));
+
+  /**
+   * Given the name of a profile (DL, EL, RL, QL, or Full, ignoring case), return the OWLProfile.
+   *
+   * @param name name of the profile
+   * @return OWLProfile to check an ontology with
+   * @throws IllegalArgumentException if the name is not a known profile
+   */
+  public static OWLProfile getProfile(String name) throws IllegalArgumentException {
+    switch (name.toUpperCase()) {
+      case "DL":
+        return Profiles.OWL2_DL;
+      case "EL":
+        return Profiles.OWL2_EL;
+      case "RL":
+        return Profiles.OWL2_RL;
+      case "QL":
+        return Profiles.OWL2_QL;
+      case "FULL":
+        return new OWL2Profile(); // #162
+      default:
+        throw new IllegalArgumentException(String.format(invalidProfileError, name));
+    }
+  }
+
+  /**
+   * Check an ontology against several profiles and return a combined report. Each profile is a
+   * separate pass over the ontology, so the profiles are checked at the same time on up to the
+   * given number of threads.
+   *
+   * @param ontology OWLOntology to check
+   * @param names names of the profiles to check (DL, EL, RL, QL, or Full, ignoring case)
+   * @param threads maximum number of threads to use
+   * @return map from upper case profile name to its report, in the order of the names
+   * @throws IllegalArgumentException if a name is not a known profile
+   */
+  public static Map<String, OWLProfileReport> checkProfiles(
+      OWLOntology ontology, List<String> names, int threads) throws IllegalArgumentException {
+    Set<String> profiles = new LinkedHashSet<>();
+    for (String name : names) {
+      profiles.add(name.toUpperCase());
+    }
+    List<Callable<OWLProfileReport>> tasks = new ArrayList<>();
+    for (String name : profiles) {
+      OWLProfile profile = getProfile(name);
+      tasks.add(() -> profile.checkOntology(ontology));
+    }
+    List<OWLProfileReport> reports = ThreadHelper.invokeAllUnchecked(tasks, threads);
+    Map<String, OWLProfileReport> results = new LinkedHashMap<>();
+    int i = 0;
+    for (String name : profiles) {
+      results.put(name, reports.get(i++));
+    }
+    return results;
+  }
+}
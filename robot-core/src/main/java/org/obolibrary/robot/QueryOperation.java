@@ -80,6 +80,10 @@ public class QueryOperation {
    * Given an ontology and a boolean indicating if imports should be included as graphs, return a
    * dataset either with just the ontology, or the ontology and its imports as separate graphs.
    *
+   * <p>Each graph is a read-only {@link OntologyGraph} view of an ontology, which is indexed the
+   * first time it is queried. Use {@link #loadOntologyAsModel(OWLOntology)} for a model that can
+   * be updated.
+   *
    * @param ontology ontology to query
    * @param useGraphs if true, load imports as separate graphs
    * @return dataset to query
@@ -97,7 +101,7 @@ public class QueryOperation {
     Dataset dataset = DatasetFactory.createGeneral();
     // Load each ontology in the set as a named model
     for (OWLOntology ont : ontologies) {
-      Model m = loadOntologyAsModel(ont);
+      Model m = ModelFactory.createModelForGraph(new OntologyGraph(ont));
       // Get the name of the graph as the ontology IRI
       IRI iri = ont.getOntologyID().getOntologyIRI().orNull();
       String name;
@@ -114,7 +118,7 @@ public class QueryOperation {
     long end = System.currentTimeMillis();
     logger.debug(
         String.format(
-            "Loaded ontology into Jena dataset - took %s seconds",
+            "Created Jena dataset for ontology - took %s seconds",
             String.valueOf((end - start) / 1000.0)));
     return dataset;
   }
@@ -389,6 +393,17 @@ public class QueryOperation {
     return qExec.execSelect();
   }
 
+  /**
+   * Execute a parsed SPARQL SELECT query on a dataset and return a result set.
+   *
+   * @param dataset the Dataset to query over
+   * @param query the SPARQL query
+   * @return the result set
+   */
+  public static ResultSet execQuery(Dataset dataset, Query query) {
+    return QueryExecutionFactory.create(query, dataset).execSelect();
+  }
+
   /**
    * Given a Model and a SPARQL update (as string), update the model.
    *
@@ -1,27 +1,24 @@
 package org.obolibrary.robot;
 
-import com.google.common.collect.Sets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import org.semanticweb.owlapi.expression.OWLEntityChecker;
 import org.semanticweb.owlapi.model.IRI;
-import org.semanticweb.owlapi.model.OWLAnnotation;
 import org.semanticweb.owlapi.model.OWLAnnotationProperty;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLDataProperty;
 import org.semanticweb.owlapi.model.OWLDatatype;
 import org.semanticweb.owlapi.model.OWLEntity;
-import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLOntology;
-import org.semanticweb.owlapi.search.EntitySearcher;
 import org.semanticweb.owlapi.util.ReferencedEntitySetProvider;
 import org.semanticweb.owlapi.util.ShortFormProvider;
 import org.slf4j.Logger;
@@ -109,6 +106,49 @@ public class QuotedEntityChecker implements OWLEntityChecker {
     properties.add(property);
   }
 
+  /**
+   * Return a view of this checker that can be used on another thread at the same time as other
+   * views. The view shares the names of this checker, which must not be added to while the view is
+   * in use, and entities must not be added to the view. Looking up data and object properties that
+   * are not known yet will create them, so the view keeps its own copy of those names, which can be
+   * added back with addViewProperties(view).
+   *
+   * @return a new QuotedEntityChecker view
+   */
+  public QuotedEntityChecker getView() {
+    QuotedEntityChecker view = new QuotedEntityChecker();
+    view.ioHelper = ioHelper;
+    view.providers = providers;
+    view.properties = properties;
+    view.annotationProperties = annotationProperties;
+    view.classes = classes;
+    view.dataProperties = new HashMap<>(dataProperties);
+    view.datatypes = datatypes;
+    view.namedIndividuals = namedIndividuals;
+    view.objectProperties = new HashMap<>(objectProperties);
+    view.labels = labels;
+    view.iris = iris;
+    return view;
+  }
+
+  /**
+   * Add the data and object properties that a view of this checker created while it was in use,
+   * and that this checker does not know yet.
+   *
+   * @param view a view returned by getView()
+   * @return true if the view created any properties that this checker did not know
+   */
+  public boolean addViewProperties(QuotedEntityChecker view) {
+    boolean added = false;
+    for (Map.Entry<String, IRI> entry : view.dataProperties.entrySet()) {
+      added |= dataProperties.putIfAbsent(entry.getKey(), entry.getValue()) == null;
+    }
+    for (Map.Entry<String, IRI> entry : view.objectProperties.entrySet()) {
+      added |= objectProperties.putIfAbsent(entry.getKey(), entry.getValue()) == null;
+    }
+    return added;
+  }
+
   /**
    * Escape single quotations marks inside a string.
    *
@@ -155,12 +195,36 @@ public class QuotedEntityChecker implements OWLEntityChecker {
     Set<OWLOntology> ontologies = new HashSet<>();
     ontologies.add(ontology);
     ontologies.addAll(ontology.getImports());
+    List<LabelIndex> indexes = getLabelIndexes(ontology);
     ReferencedEntitySetProvider resp = new ReferencedEntitySetProvider(ontologies);
     for (OWLEntity entity : resp.getEntities()) {
-      add(ontology, entity);
+      add(entity, indexes);
     }
   }
 
+  /**
+   * Get the label indexes of an ontology and its imports, with the annotation properties of this
+   * checker indexed in one pass over each ontology.
+   *
+   * @param ontology the ontology to get label indexes for
+   * @return list of label indexes, for the ontology and then its imports
+   */
+  private List<LabelIndex> getLabelIndexes(OWLOntology ontology) {
+    List<LabelIndex> indexes = new ArrayList<>();
+    if (ontology == null || properties == null) {
+      return indexes;
+    }
+    Set<OWLOntology> ontologies = new LinkedHashSet<>();
+    ontologies.add(ontology);
+    ontologies.addAll(ontology.getImports());
+    for (OWLOntology o : ontologies) {
+      LabelIndex index = LabelIndex.getIndex(o);
+      index.index(properties);
+      indexes.add(index);
+    }
+    return indexes;
+  }
+
   /**
    * Given an entity, return the right map for it.
    *
@@ -204,35 +268,41 @@ public class QuotedEntityChecker implements OWLEntityChecker {
     if (entity == null) {
       return;
     }
+    add(entity, getLabelIndexes(parentOntology));
+  }
 
+  /**
+   * Use annotation properties and the short form provider to add mappings for a single entity.
+   *
+   * @param entity the entity to add mappings for
+   * @param indexes label indexes of an ontology and its imports, with annotations for the entity
+   */
+  private void add(OWLEntity entity, List<LabelIndex> indexes) {
     Map<String, IRI> map = pickMap(entity);
     if (map == null) {
       logger.info("Unknown OWL entity type for: " + entity);
       return;
     }
 
+    IRI iri = entity.getIRI();
     if (providers != null) {
       for (ShortFormProvider provider : providers) {
-        labels.put(entity.getIRI(), provider.getShortForm(entity));
-        iris.put(provider.getShortForm(entity), entity.getIRI());
-        map.put(provider.getShortForm(entity), entity.getIRI());
+        String shortForm = provider.getShortForm(entity);
+        labels.put(iri, shortForm);
+        iris.put(shortForm, iri);
+        map.put(shortForm, iri);
       }
     }
 
-    if (parentOntology != null && properties != null) {
-      // Get a set of the parent ontology and its imports
-      Set<OWLOntology> ontologies = Sets.newHashSet(parentOntology);
-      ontologies.addAll(parentOntology.getImports());
+    if (properties != null) {
       for (OWLAnnotationProperty property : properties) {
         // Get the labels for all entities
-        for (OWLAnnotation ann :
-            EntitySearcher.getAnnotationObjects(entity, ontologies, property)) {
-          OWLLiteral value = ann.getValue().asLiteral().orNull();
+        for (LabelIndex index : indexes) {
           // If it has a label, add it to the map (will replace short form)
-          if (value != null) {
-            labels.put(entity.getIRI(), value.getLiteral());
-            iris.put(value.getLiteral(), entity.getIRI());
-            map.put(value.getLiteral(), entity.getIRI());
+          for (String value : index.getValues(property, iri)) {
+            labels.put(iri, value);
+            iris.put(value, iri);
+            map.put(value, iri);
           }
         }
       }
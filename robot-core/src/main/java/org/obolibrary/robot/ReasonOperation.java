@@ -3,6 +3,7 @@ package org.obolibrary.robot;
 import static org.obolibrary.robot.reason.EquivalentClassReasoningMode.ALL;
 
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 import org.geneontology.reasoner.ExpressionMaterializingReasoner;
 import org.obolibrary.robot.checks.InvalidReferenceChecker;
@@ -10,13 +11,13 @@ import org.obolibrary.robot.checks.InvalidReferenceViolation;
 import org.obolibrary.robot.exceptions.*;
 import org.obolibrary.robot.reason.EquivalentClassReasoning;
 import org.obolibrary.robot.reason.EquivalentClassReasoningMode;
+import org.obolibrary.robot.reason.InferredClassHierarchy;
 import org.obolibrary.robot.reason.InferredSubClassAxiomGeneratorIncludingIndirect;
 import org.semanticweb.HermiT.ReasonerFactory;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.model.parameters.Imports;
 import org.semanticweb.owlapi.reasoner.InferenceType;
-import org.semanticweb.owlapi.reasoner.Node;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 import org.semanticweb.owlapi.util.*;
@@ -58,6 +59,7 @@ public class ReasonOperation {
     options.put("axiom-generators", "subclass");
     options.put("include-indirect", "false");
     options.put("exclude-tautologies", "false");
+    options.put("threads", null);
 
     return options;
   }
@@ -93,16 +95,37 @@ public class ReasonOperation {
   public static void reason(
       OWLOntology ontology, OWLReasonerFactory reasonerFactory, Map<String, String> options)
       throws OntologyLogicException, OWLOntologyCreationException, InvalidReferenceException {
+    OWLReasoner reasoner = reasonerFactory.createReasoner(ontology);
+    try {
+      reason(ontology, reasoner, options);
+    } finally {
+      reasoner.dispose();
+    }
+  }
+
+  /**
+   * Given an ontology, a reasoner for that ontology, and a map of options, return the ontology with
+   * inferred axioms added after reasoning. The reasoner is not disposed, so that it can be reused.
+   *
+   * @param ontology the ontology to reason over
+   * @param reasoner the reasoner for the ontology
+   * @param options a map of option strings, or null
+   * @throws OntologyLogicException if the ontology contains unsatisfiable classes, properties or
+   *     inconsistencies
+   * @throws OWLOntologyCreationException if ontology cannot be created
+   * @throws InvalidReferenceException if the reference checker fails
+   */
+  public static void reason(OWLOntology ontology, OWLReasoner reasoner, Map<String, String> options)
+      throws OntologyLogicException, OWLOntologyCreationException, InvalidReferenceException {
     logger.info("Ontology has {} axioms.", ontology.getAxioms().size());
 
     // Check the ontology for reference violations
     // Maybe fail if prevent-invalid-references
     checkReferenceViolations(ontology, options);
 
-    // Get the reasoner and run initial reasoning
+    // Run initial reasoning
     // No axioms are asserted in this step
-    OWLReasoner reasoner = reasonerFactory.createReasoner(ontology);
-    reason(ontology, reasoner, options);
+    precompute(ontology, reasoner, options);
 
     // Get the axiom generators
     // If none are provided, just default to subclass=
@@ -187,6 +210,68 @@ public class ReasonOperation {
     return false;
   }
 
+  /**
+   * Given a collection of OWLAxioms, a structural boolean, and a number of threads, return the
+   * axioms that are tautological. The result is the same as calling isTautological on each axiom,
+   * but axioms that match a structural pattern are not sent to the tautology checker, and each
+   * distinct axiom (ignoring annotations) is only checked once. The remaining axioms are split into
+   * chunks that are checked in parallel, each with its own tautology checker.
+   *
+   * @param axioms OWLAxioms to check
+   * @param structural if true, only check for hard-coded structural patterns
+   * @param threads maximum number of tautology checkers to run at once
+   * @return tautological OWLAxioms from the collection
+   * @throws OWLOntologyCreationException on issue creating empty ontology for tautology checker
+   */
+  public static Set<OWLAxiom> getTautologies(
+      Collection<OWLAxiom> axioms, boolean structural, int threads)
+      throws OWLOntologyCreationException {
+    Set<OWLAxiom> tautologies = new HashSet<>();
+    // Map of axiom without annotations to the axioms that the checker must decide
+    Map<OWLAxiom, List<OWLAxiom>> unknown = new LinkedHashMap<>();
+    for (OWLAxiom axiom : axioms) {
+      if (isTautological(axiom, null, true)) {
+        // Every structural tautology is also entailed by the empty ontology
+        tautologies.add(axiom);
+      } else if (!structural && axiom instanceof OWLLogicalAxiom && !isNamedClassAxiom(axiom)) {
+        unknown
+            .computeIfAbsent(axiom.getAxiomWithoutAnnotations(), k -> new ArrayList<>())
+            .add(axiom);
+      }
+    }
+    if (unknown.isEmpty()) {
+      return tautologies;
+    }
+    logger.debug("Checking {} axioms with the tautology checker", unknown.size());
+
+    // HermiT is not thread-safe, so each chunk gets its own checker
+    List<OWLAxiom> keys = new ArrayList<>(unknown.keySet());
+    List<Callable<List<OWLAxiom>>> tasks = new ArrayList<>();
+    for (List<OWLAxiom> chunk : ThreadHelper.partition(keys, threads)) {
+      tasks.add(
+          () -> {
+            OWLReasoner tautologyChecker = getTautologyChecker(false);
+            try {
+              List<OWLAxiom> entailed = new ArrayList<>();
+              for (OWLAxiom axiom : chunk) {
+                if (tautologyChecker.isEntailed(axiom)) {
+                  entailed.add(axiom);
+                }
+              }
+              return entailed;
+            } finally {
+              tautologyChecker.dispose();
+            }
+          });
+    }
+    for (List<OWLAxiom> entailed : ThreadHelper.invokeAllUnchecked(tasks, threads)) {
+      for (OWLAxiom axiom : entailed) {
+        tautologies.addAll(unknown.get(axiom));
+      }
+    }
+    return tautologies;
+  }
+
   /**
    * Remove subClassAxioms where there is a more direct axiom, and the subClassAxiom does not have
    * any annotations.
@@ -220,45 +305,65 @@ public class ReasonOperation {
     OWLOntology ontology = reasoner.getRootOntology();
     OWLOntologyManager manager = ontology.getOWLOntologyManager();
     OWLDataFactory dataFactory = manager.getOWLDataFactory();
-
-    for (OWLClass thisClass : ontology.getClassesInSignature()) {
-      if (thisClass.isOWLNothing() || thisClass.isOWLThing()) {
+    boolean preserveAnnotatedAxioms =
+        OptionsHelper.optionIsTrue(options, "preserve-annotated-axioms");
+
+    // Take the direct superclasses of each class from the reasoner once,
+    // the transitive reduction of the inferred hierarchy
+    InferredClassHierarchy hierarchy = new InferredClassHierarchy(reasoner);
+
+    // Find each subclass axiom that
+    // does not have any annotations (if preserving annotated axioms),
+    // and has a named subclass and a named (not anonymous) superclass
+    List<OWLSubClassOfAxiom> subClassAxioms = new ArrayList<>();
+    for (OWLSubClassOfAxiom subClassAxiom : ontology.getAxioms(AxiomType.SUBCLASS_OF)) {
+      OWLClassExpression subClass = subClassAxiom.getSubClass();
+      if (subClass.isAnonymous() || subClass.isOWLNothing() || subClass.isOWLThing()) {
         continue;
       }
-
-      // Use the reasoner to get all
-      // the direct superclasses of this class.
-      Set<OWLClass> inferredSuperClasses = new HashSet<>();
-      for (Node<OWLClass> node : reasoner.getSuperClasses(thisClass, true)) {
-        for (OWLClass inferredSuperClass : node) {
-          inferredSuperClasses.add(inferredSuperClass);
-        }
+      if (preserveAnnotatedAxioms && subClassAxiom.getAnnotations().size() > 0) {
+        // TODO make this configurable
+        continue;
       }
+      if (subClassAxiom.getSuperClass().isAnonymous()) {
+        continue;
+      }
+      subClassAxioms.add(subClassAxiom);
+    }
 
-      // For each subClassAxiom,
-      // if the subclass axiom does not have any annotations,
-      // and the superclass is named (not anonymous),
-      // and the superclass is not in the set of inferred super classes,
-      // then remove that axiom.
-      for (OWLSubClassOfAxiom subClassAxiom : ontology.getSubClassAxiomsForSubClass(thisClass)) {
-        if (OptionsHelper.optionIsTrue(options, "preserve-annotated-axioms")) {
-
-          if (subClassAxiom.getAnnotations().size() > 0) {
-            // TODO make this configurable
-            continue;
-          }
-        }
-        if (subClassAxiom.getSuperClass().isAnonymous()) {
-          continue;
-        }
-        OWLClass assertedSuperClass = subClassAxiom.getSuperClass().asOWLClass();
-        if (inferredSuperClasses.contains(assertedSuperClass)) {
-          continue;
-        }
-        manager.removeAxiom(
-            ontology, dataFactory.getOWLSubClassOfAxiom(thisClass, assertedSuperClass));
+    // Check chunks of axioms in parallel:
+    // if the superclass is not a direct inferred superclass, the axiom is redundant.
+    // Superclasses that are equivalent to the subclass are kept,
+    // so that reciprocal subclass axioms are not both removed.
+    int threads = ThreadHelper.getThreads(options);
+    List<Callable<List<OWLSubClassOfAxiom>>> tasks = new ArrayList<>();
+    for (List<OWLSubClassOfAxiom> chunk : ThreadHelper.partition(subClassAxioms, threads)) {
+      tasks.add(
+          () -> {
+            List<OWLSubClassOfAxiom> redundant = new ArrayList<>();
+            for (OWLSubClassOfAxiom subClassAxiom : chunk) {
+              OWLClass subClass = subClassAxiom.getSubClass().asOWLClass();
+              OWLClass superClass = subClassAxiom.getSuperClass().asOWLClass();
+              if (!hierarchy.isDirectSuperClass(superClass, subClass)
+                  && !hierarchy.isEquivalentClass(subClass, superClass)) {
+                redundant.add(subClassAxiom);
+              }
+            }
+            return redundant;
+          });
+    }
+    List<List<OWLSubClassOfAxiom>> results = ThreadHelper.invokeAllUnchecked(tasks, threads);
+
+    // Remove the axioms without annotations all at once
+    Set<OWLAxiom> removeAxioms = new HashSet<>();
+    for (List<OWLSubClassOfAxiom> redundant : results) {
+      for (OWLSubClassOfAxiom subClassAxiom : redundant) {
+        removeAxioms.add(
+            dataFactory.getOWLSubClassOfAxiom(
+                subClassAxiom.getSubClass(), subClassAxiom.getSuperClass()));
       }
     }
+    manager.removeAxioms(ontology, removeAxioms);
     logger.info("Ontology now has {} axioms.", ontology.getAxioms().size());
   }
 
@@ -452,14 +557,13 @@ public class ReasonOperation {
       value = dataFactory.getOWLLiteral("true");
     }
 
-    // If we will need a tautology checker, create it only once
     String tautologiesOption = OptionsHelper.getOption(options, "exclude-tautologies", "false");
     boolean excludeTautologies = !tautologiesOption.equalsIgnoreCase("false");
     boolean structural = tautologiesOption.equalsIgnoreCase("structural");
-    OWLReasoner tautologyChecker = getTautologyChecker(structural);
 
     // Look at each inferred axiom
-    // Check the options, and maybe add the inferred axiom to the ontology
+    // Check the options, and maybe keep the inferred axiom to add to the ontology
+    List<OWLAxiom> inferredAxioms = new ArrayList<>();
     for (OWLAxiom a : newAxiomOntology.getAxioms()) {
 
       if (OptionsHelper.optionIsTrue(options, "exclude-external-entities")) {
@@ -504,11 +608,19 @@ public class ReasonOperation {
         }
       }
 
-      // Maybe exclude tautologies
-      if (excludeTautologies && isTautological(a, tautologyChecker, structural)) {
+      inferredAxioms.add(a);
+    }
+
+    // Maybe exclude tautologies, checking all the remaining axioms at once
+    Set<OWLAxiom> tautologies = new HashSet<>();
+    if (excludeTautologies) {
+      tautologies = getTautologies(inferredAxioms, structural, ThreadHelper.getThreads(options));
+    }
+
+    for (OWLAxiom a : inferredAxioms) {
+      if (tautologies.contains(a)) {
         continue;
       }
-
       // If the axiom has not been skipped, add it to the ontology
       manager.addAxiom(ontology, a);
       // If propertyIRI isn't null, we are annotating the inferred axioms
@@ -519,6 +631,29 @@ public class ReasonOperation {
     }
   }
 
+  /**
+   * Given an OWLAxiom that does not match a structural tautology pattern, return true if it only
+   * relates named classes (or a named class and an individual). Such an axiom is never entailed by
+   * the empty ontology, so it does not need to be checked by the tautology checker.
+   *
+   * @param axiom OWLAxiom to check
+   * @return true if the axiom is a class axiom or class assertion over named classes only
+   */
+  private static boolean isNamedClassAxiom(OWLAxiom axiom) {
+    if (axiom instanceof OWLSubClassOfAxiom) {
+      OWLSubClassOfAxiom subClassOfAxiom = (OWLSubClassOfAxiom) axiom;
+      return !subClassOfAxiom.getSubClass().isAnonymous()
+          && !subClassOfAxiom.getSuperClass().isAnonymous();
+    } else if (axiom instanceof OWLEquivalentClassesAxiom) {
+      OWLEquivalentClassesAxiom equivAxiom = (OWLEquivalentClassesAxiom) axiom;
+      return equivAxiom.getClassExpressions().stream().noneMatch(OWLClassExpression::isAnonymous);
+    } else if (axiom instanceof OWLClassAssertionAxiom) {
+      OWLClassAssertionAxiom classAssertion = (OWLClassAssertionAxiom) axiom;
+      return !classAssertion.getClassExpression().isAnonymous();
+    }
+    return false;
+  }
+
   /**
    * Given an ontology and a map of options, find any reference violations in the ontology. If
    * prevent-invalid-references, fail on any invalid reference violations.
@@ -530,7 +665,8 @@ public class ReasonOperation {
   private static void checkReferenceViolations(OWLOntology ontology, Map<String, String> options)
       throws InvalidReferenceException {
     Set<InvalidReferenceViolation> referenceViolations =
-        InvalidReferenceChecker.getInvalidReferenceViolations(ontology, false);
+        InvalidReferenceChecker.getInvalidReferenceViolations(
+            ontology, false, ThreadHelper.getThreads(options));
     Set<InvalidReferenceViolation> filteredViolations = new HashSet<>();
 
     if (referenceViolations.size() > 0) {
@@ -609,7 +745,7 @@ public class ReasonOperation {
    * @param options Map of reason options
    * @throws OntologyLogicException on invalid ontology
    */
-  private static void reason(
+  private static void precompute(
       OWLOntology ontology, OWLReasoner reasoner, Map<String, String> options)
       throws OntologyLogicException {
     long startTime = System.currentTimeMillis();
@@ -3,6 +3,8 @@ package org.obolibrary.robot;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import java.util.*;
+import java.util.concurrent.Callable;
+import org.obolibrary.robot.reason.InferredClassHierarchy;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.model.parameters.Imports;
@@ -56,6 +58,7 @@ public class ReduceOperation {
     options.put("preserve-annotated-axioms", "false");
     options.put("named-classes-only", "false");
     options.put("include-subproperties", "false");
+    options.put("threads", null);
     return options;
   }
 
@@ -89,11 +92,28 @@ public class ReduceOperation {
       reduceNamedOnly(ontology, reasonerFactory, preserveAnnotatedAxioms);
     } else {
       boolean includeSubproperties = OptionsHelper.optionIsTrue(options, "include-subproperties");
+      int threads = ThreadHelper.getThreads(options);
       reduceAllClassExpressions(
-          ontology, reasonerFactory, preserveAnnotatedAxioms, includeSubproperties);
+          ontology, reasonerFactory, preserveAnnotatedAxioms, includeSubproperties, threads);
     }
   }
 
+  /**
+   * Remove redundant SubClassOf axioms between named classes, using an existing reasoner for the
+   * ontology. The reasoner is not disposed, so that it can be reused. This is the same as reduce
+   * with the named-classes-only option.
+   *
+   * @param ontology The ontology to reduce.
+   * @param reasoner The reasoner for the ontology.
+   * @param options A map of options for the operation.
+   */
+  public static void reduceNamedClasses(
+      OWLOntology ontology, OWLReasoner reasoner, Map<String, String> options) {
+    boolean preserveAnnotatedAxioms =
+        OptionsHelper.optionIsTrue(options, "preserve-annotated-axioms");
+    reduceNamedOnly(ontology, reasoner, preserveAnnotatedAxioms);
+  }
+
   /**
    * Remove redundant SubClassOf axioms.
    *
@@ -102,13 +122,15 @@ public class ReduceOperation {
    * @param preserveAnnotatedAxioms Whether to not remove redundant, but annotated, axioms.
    * @param includeSubproperties Whether to include subPropertyOf axioms (including property chains)
    *     for evaluating redundancy.
+   * @param threads The maximum number of threads to test axioms on.
    * @throws OWLOntologyCreationException on ontology problem
    */
   private static void reduceAllClassExpressions(
       OWLOntology ontology,
       OWLReasonerFactory reasonerFactory,
       boolean preserveAnnotatedAxioms,
-      boolean includeSubproperties)
+      boolean includeSubproperties,
+      int threads)
       throws OWLOntologyCreationException {
 
     OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
@@ -185,7 +207,10 @@ public class ReduceOperation {
       }
     }
 
-    Set<OWLSubClassOfAxiom> rmAxioms = new HashSet<>();
+    // Get the inferred hierarchy once, so that each test is a lookup
+    InferredClassHierarchy hierarchy = new InferredClassHierarchy(reasoner);
+
+    List<OWLSubClassOfAxiom> testAxioms = new ArrayList<>();
     for (OWLSubClassOfAxiom ax : assertedSubClassAxioms) {
       if (preserveAnnotatedAxioms) {
         if (ax.getAnnotations().size() > 0) {
@@ -193,79 +218,33 @@ public class ReduceOperation {
           continue;
         }
       }
+      testAxioms.add(ax);
+    }
 
-      logger.debug("Testing: " + ax);
-      OWLClassExpression subClassExpr = ax.getSubClass();
-      OWLClassExpression superClassExpr = ax.getSuperClass();
-      OWLClass subClass = exprToNamedClassMap.get(subClassExpr);
-      OWLClass superClass = exprToNamedClassMap.get(superClassExpr);
-      boolean isRedundant = false;
-
-      for (OWLClass assertedSuper : assertedSubClassMap.get(subClass)) {
-        if (reasoner.getSuperClasses(assertedSuper, false).containsEntity(superClass)) {
-          isRedundant = true;
-          // (Previous) DUMB CODE FOR DEBUGGING
-          /*
-          OWLClassExpression assertedSuperX = assertedSuper;
-          for (OWLClassExpression x : exprToNamedClassMap.keySet()) {
-            if (exprToNamedClassMap.get(x).equals(assertedSuper)) {
-              assertedSuperX = x;
-            }
-          }
-          */
-
-          // Optimized codes that will run only if the debugging mode is enabled
-          if (logger.isDebugEnabled()) {
-            Collection<OWLClassExpression> classExprs = revExprToNamedClassMap.get(assertedSuper);
-            for (OWLClassExpression assertedSuperX : classExprs) {
-              logger.debug(
-                  "Redundant: "
-                      + ax
-                      + ", because "
-                      + assertedSuper
-                      + "("
-                      + assertedSuperX
-                      + ") "
-                      + " subClassOf "
-                      + superClass
-                      + " ("
-                      + superClassExpr
-                      + ")");
-            }
-          }
-
-          break;
-        }
-      }
-
-      // Special case for GCIs
-      if (subClassExpr.isAnonymous()) {
-        logger.debug("GCI:" + subClassExpr);
-        for (OWLClass intermediateParent :
-            reasoner.getSuperClasses(subClass, false).getFlattened()) {
-          if (assertedSubClassMap.containsKey(intermediateParent)) {
-            logger.debug("GCI intermediate parent:" + intermediateParent);
-            if (reasoner.getSuperClasses(intermediateParent, false).containsEntity(superClass)) {
-              isRedundant = true;
-              break;
+    // Test chunks of axioms in parallel
+    List<Callable<List<OWLSubClassOfAxiom>>> tasks = new ArrayList<>();
+    for (List<OWLSubClassOfAxiom> chunk : ThreadHelper.partition(testAxioms, threads)) {
+      tasks.add(
+          () -> {
+            List<OWLSubClassOfAxiom> redundant = new ArrayList<>();
+            for (OWLSubClassOfAxiom ax : chunk) {
+              if (isRedundant(
+                  ax,
+                  hierarchy,
+                  assertedSubClassMap,
+                  exprToNamedClassMap,
+                  revExprToNamedClassMap)) {
+                redundant.add(ax);
+              }
             }
-            //                   for (OWLClass assertedSuper
-            //                           : subClassMap.get(intermediateParent)) {
-            //                       logger.info("  DOES: " + assertedSuper
-            //                           + "  CONTAIN:"+superClass);
-            //                       logger.info("   SUPES="
-            //                           + reasoner.getSuperClasses(assertedSuper, false));
-            //                       if (reasoner.getSuperClasses(assertedSuper, false)
-            //                             .containsEntity(superClass)) {
-            //                           isRedundant = true;
-            //                           break;
-            //                       }
-            //                   }
-          }
-        }
-      }
+            return redundant;
+          });
+    }
+    List<List<OWLSubClassOfAxiom>> results = ThreadHelper.invokeAllUnchecked(tasks, threads);
 
-      if (isRedundant) {
+    Set<OWLSubClassOfAxiom> rmAxioms = new HashSet<>();
+    for (List<OWLSubClassOfAxiom> redundant : results) {
+      for (OWLSubClassOfAxiom ax : redundant) {
         logger.info("REMOVING REDUNDANT: " + ax);
         rmAxioms.add(ax);
       }
@@ -278,6 +257,70 @@ public class ReduceOperation {
     reasoner.dispose();
   }
 
+  /**
+   * Test if an asserted SubClassOf axiom is redundant, i.e. one of the other asserted superclasses
+   * of its subclass is a proper subclass of its superclass. If the subclass is anonymous, the
+   * asserted superclasses of its inferred superclasses are also tested.
+   *
+   * @param ax The SubClassOf axiom to test.
+   * @param hierarchy The inferred class hierarchy, including the mapped classes.
+   * @param assertedSubClassMap A map from mapped subclass to asserted mapped superclasses.
+   * @param exprToNamedClassMap A map from class expressions to mapped classes.
+   * @param revExprToNamedClassMap A map from mapped classes to class expressions, for debugging.
+   * @return true if the axiom is redundant
+   */
+  private static boolean isRedundant(
+      OWLSubClassOfAxiom ax,
+      InferredClassHierarchy hierarchy,
+      Map<OWLClass, Set<OWLClass>> assertedSubClassMap,
+      Map<OWLClassExpression, OWLClass> exprToNamedClassMap,
+      Multimap<OWLClass, OWLClassExpression> revExprToNamedClassMap) {
+    logger.debug("Testing: " + ax);
+    OWLClassExpression subClassExpr = ax.getSubClass();
+    OWLClassExpression superClassExpr = ax.getSuperClass();
+    OWLClass subClass = exprToNamedClassMap.get(subClassExpr);
+    OWLClass superClass = exprToNamedClassMap.get(superClassExpr);
+
+    for (OWLClass assertedSuper : assertedSubClassMap.get(subClass)) {
+      if (hierarchy.isSuperClass(superClass, assertedSuper)) {
+        // Optimized codes that will run only if the debugging mode is enabled
+        if (logger.isDebugEnabled()) {
+          Collection<OWLClassExpression> classExprs = revExprToNamedClassMap.get(assertedSuper);
+          for (OWLClassExpression assertedSuperX : classExprs) {
+            logger.debug(
+                "Redundant: "
+                    + ax
+                    + ", because "
+                    + assertedSuper
+                    + "("
+                    + assertedSuperX
+                    + ") "
+                    + " subClassOf "
+                    + superClass
+                    + " ("
+                    + superClassExpr
+                    + ")");
+          }
+        }
+        return true;
+      }
+    }
+
+    // Special case for GCIs
+    if (subClassExpr.isAnonymous()) {
+      logger.debug("GCI:" + subClassExpr);
+      for (OWLClass intermediateParent : hierarchy.getSuperClasses(subClass)) {
+        if (assertedSubClassMap.containsKey(intermediateParent)) {
+          logger.debug("GCI intermediate parent:" + intermediateParent);
+          if (hierarchy.isSuperClass(superClass, intermediateParent)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
   /**
    * Map a class expression to an equivalent named class; creates temp class plus axiom if not
    * already present.
@@ -312,6 +355,24 @@ public class ReduceOperation {
    */
   private static void reduceNamedOnly(
       OWLOntology ontology, OWLReasonerFactory reasonerFactory, boolean preserveAnnotatedAxioms) {
+    OWLReasoner reasoner = reasonerFactory.createReasoner(ontology);
+    try {
+      reduceNamedOnly(ontology, reasoner, preserveAnnotatedAxioms);
+    } finally {
+      reasoner.dispose();
+    }
+  }
+
+  /**
+   * Remove redundant SubClassOf axioms, only considering named classes, using a reasoner for the
+   * ontology.
+   *
+   * @param ontology The ontology to reduce.
+   * @param reasoner The reasoner for the ontology.
+   * @param preserveAnnotatedAxioms Whether to not remove redundant, but annotated, axioms.
+   */
+  private static void reduceNamedOnly(
+      OWLOntology ontology, OWLReasoner reasoner, boolean preserveAnnotatedAxioms) {
     // Map<superclass, Map<subclass, axioms>>
     Map<OWLClass, Map<OWLClass, Set<OWLSubClassOfAxiom>>> assertions = new HashMap<>();
     Set<OWLSubClassOfAxiom> assertedSubClassAxioms = ontology.getAxioms(AxiomType.SUBCLASS_OF);
@@ -330,7 +391,6 @@ public class ReduceOperation {
         axioms.add(ax);
       }
     }
-    OWLReasoner reasoner = reasonerFactory.createReasoner(ontology);
     if (!reasoner.isConsistent()) {
       logger.info("Ontology is not consistent!");
       return;
@@ -362,7 +422,6 @@ public class ReduceOperation {
         }
       }
     }
-    reasoner.dispose();
   }
 
   private static void findNonRedundant(
@@ -3,13 +3,13 @@ package org.obolibrary.robot;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.model.parameters.Imports;
-import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.search.EntitySearcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -107,6 +107,72 @@ public class RelatedObjectsHelper {
       boolean partial,
       boolean namedOnly)
       throws OWLOntologyCreationException {
+    return filterAxioms(
+        () -> inputAxioms,
+        inputAxioms,
+        objects,
+        axiomSelectors,
+        baseNamespaces,
+        partial,
+        namedOnly);
+  }
+
+  /**
+   * Filter the axioms of an ontology (excluding imports) based on the provided arguments. Axioms
+   * selected by type are found with the AxiomIndex of the ontology, so only the axioms that
+   * reference the objects are checked.
+   *
+   * @param ontology OWLOntology to get axioms from
+   * @param objects Set of OWLObjects to get axioms for
+   * @param axiomSelectors List of string selectors for types of axioms
+   * @param baseNamespaces List of string base namespaces used for internal/external selections
+   * @param partial if true, get any axiom containing at least one OWLObject from objects
+   * @param namedOnly if true, ignore anonymous OWLObjects in axioms
+   * @return set of filtered OWLAxioms
+   * @throws OWLOntologyCreationException on issue creating empty ontology for tautology checker
+   */
+  public static Set<OWLAxiom> filterAxioms(
+      OWLOntology ontology,
+      Set<OWLObject> objects,
+      List<String> axiomSelectors,
+      List<String> baseNamespaces,
+      boolean partial,
+      boolean namedOnly)
+      throws OWLOntologyCreationException {
+    Set<OWLAxiom> candidateAxioms = AxiomIndex.getIndex(ontology).getCandidateAxioms(objects);
+    return filterAxioms(
+        ontology::getAxioms,
+        candidateAxioms,
+        objects,
+        axiomSelectors,
+        baseNamespaces,
+        partial,
+        namedOnly);
+  }
+
+  /**
+   * Filter axioms based on the provided arguments. The internal, external, and tautology selectors
+   * look at all the input axioms, and the axiom type selectors only look at the candidate axioms.
+   *
+   * @param inputAxioms Supplier of all the OWLAxioms to filter
+   * @param candidateAxioms OWLAxioms that might reference the objects
+   * @param objects Set of OWLObjects to get axioms for
+   * @param axiomSelectors List of string selectors for types of axioms
+   * @param baseNamespaces List of string base namespaces used for internal/external selections
+   * @param partial if true, get any axiom containing at least one OWLObject from objects
+   * @param namedOnly if true, ignore anonymous OWLObjects in axioms
+   * @return set of filtered OWLAxioms
+   * @throws OWLOntologyCreationException on issue creating empty ontology for tautology checker
+   */
+  private static Set<OWLAxiom> filterAxioms(
+      Supplier<Set<OWLAxiom>> inputAxioms,
+      Set<OWLAxiom> candidateAxioms,
+      Set<OWLObject> objects,
+      List<String> axiomSelectors,
+      List<String> baseNamespaces,
+      boolean partial,
+      boolean namedOnly)
+      throws OWLOntologyCreationException {
 
     // Go through the axiom selectors in order and process selections
     boolean internal = false;
@@ -120,7 +186,7 @@ public class RelatedObjectsHelper {
           continue;
         }
         filteredAxioms.addAll(
-            RelatedObjectsHelper.filterInternalAxioms(inputAxioms, baseNamespaces));
+            RelatedObjectsHelper.filterInternalAxioms(inputAxioms.get(), baseNamespaces));
         internal = true;
       } else if (axiomSelector.equalsIgnoreCase("external")) {
         if (internal) {
@@ -128,18 +194,20 @@ public class RelatedObjectsHelper {
               "ignoring 'external' axiom selector - 'internal' and 'external' together will remove all axioms");
         }
         filteredAxioms.addAll(
-            RelatedObjectsHelper.filterExternalAxioms(inputAxioms, baseNamespaces));
+            RelatedObjectsHelper.filterExternalAxioms(inputAxioms.get(), baseNamespaces));
         external = true;
       } else if (axiomSelector.equalsIgnoreCase("tautologies")) {
-        filteredAxioms.addAll(RelatedObjectsHelper.filterTautologicalAxioms(inputAxioms, false));
+        filteredAxioms.addAll(
+            RelatedObjectsHelper.filterTautologicalAxioms(inputAxioms.get(), false));
       } else if (axiomSelector.equalsIgnoreCase("structural-tautologies")) {
-        filteredAxioms.addAll(RelatedObjectsHelper.filterTautologicalAxioms(inputAxioms, true));
+        filteredAxioms.addAll(
+            RelatedObjectsHelper.filterTautologicalAxioms(inputAxioms.get(), true));
       } else {
         // Assume this is a normal OWLAxiom type
         Set<Class<? extends OWLAxiom>> axiomTypes =
             RelatedObjectsHelper.getAxiomValues(axiomSelector);
         filteredAxioms.addAll(
-            filterAxiomsByAxiomType(inputAxioms, objects, axiomTypes, partial, namedOnly));
+            filterAxiomsByAxiomType(candidateAxioms, objects, axiomTypes, partial, namedOnly));
       }
     }
     return filteredAxioms;
@@ -271,15 +339,7 @@ public class RelatedObjectsHelper {
    */
   public static Set<OWLAxiom> filterTautologicalAxioms(Set<OWLAxiom> axioms, boolean structural)
       throws OWLOntologyCreationException {
-    // If structural, checker will be null
-    OWLReasoner tautologyChecker = ReasonOperation.getTautologyChecker(structural);
-    Set<OWLAxiom> tautologies = new HashSet<>();
-    for (OWLAxiom a : axioms) {
-      if (ReasonOperation.isTautological(a, tautologyChecker, structural)) {
-        tautologies.add(a);
-      }
-    }
-    return tautologies;
+    return ReasonOperation.getTautologies(axioms, structural, 1);
   }
 
   /**
@@ -377,8 +437,8 @@ public class RelatedObjectsHelper {
 
   /**
    * Given an ontology, a set of objects, and a set of axiom types, return a set of axioms where all
-   * the objects in those axioms are in the set of objects. Prefer {@link #filterCompleteAxioms(Set,
-   * Set, Set, boolean)}.
+   * the objects in those axioms are in the set of objects. Only the axioms that reference the
+   * objects in the AxiomIndex of the ontology are checked.
    *
    * @param ontology OWLOntology to get axioms from
    * @param objects Set of objects to match in axioms
@@ -387,13 +447,13 @@ public class RelatedObjectsHelper {
    */
   public static Set<OWLAxiom> getCompleteAxioms(
       OWLOntology ontology, Set<OWLObject> objects, Set<Class<? extends OWLAxiom>> axiomTypes) {
-    return filterCompleteAxioms(ontology.getAxioms(), objects, axiomTypes, false);
+    return getCompleteAxioms(ontology, objects, axiomTypes, false);
   }
 
   /**
    * Given an ontology, a set of objects, and a set of axiom types, return a set of axioms where all
-   * the objects in those axioms are in the set of objects. Prefer {@link #filterCompleteAxioms(Set,
-   * Set, Set, boolean)}.
+   * the objects in those axioms are in the set of objects. Only the axioms that reference the
+   * objects in the AxiomIndex of the ontology are checked.
    *
    * @param ontology OWLOntology to get axioms from
    * @param objects Set of objects to match in axioms
@@ -406,13 +466,14 @@ public class RelatedObjectsHelper {
       Set<OWLObject> objects,
       Set<Class<? extends OWLAxiom>> axiomTypes,
       boolean namedOnly) {
-    return filterCompleteAxioms(ontology.getAxioms(), objects, axiomTypes, namedOnly);
+    Set<OWLAxiom> candidateAxioms = AxiomIndex.getIndex(ontology).getCandidateAxioms(objects);
+    return filterCompleteAxioms(candidateAxioms, objects, axiomTypes, namedOnly);
   }
 
   /**
    * Given an ontology, a set of objects, and a set of axiom types, return a set of axioms where at
-   * least one object in those axioms is also in the set of objects. Prefer {@link
-   * #filterPartialAxioms(Set, Set, Set, boolean)}.
+   * least one object in those axioms is also in the set of objects. Only the axioms that reference
+   * the objects in the AxiomIndex of the ontology are checked.
    *
    * @param ontology OWLOntology to get axioms from
    * @param objects Set of objects to match in axioms
@@ -421,13 +482,13 @@ public class RelatedObjectsHelper {
    */
   public static Set<OWLAxiom> getPartialAxioms(
       OWLOntology ontology, Set<OWLObject> objects, Set<Class<? extends OWLAxiom>> axiomTypes) {
-    return filterPartialAxioms(ontology.getAxioms(), objects, axiomTypes, false);
+    return getPartialAxioms(ontology, objects, axiomTypes, false);
   }
 
   /**
    * Given an ontology, a set of objects, and a set of axiom types, return a set of axioms where at
-   * least one object in those axioms is also in the set of objects. Prefer {@link
-   * #filterPartialAxioms(Set, Set, Set, boolean)}.
+   * least one object in those axioms is also in the set of objects. Only the axioms that reference
+   * the objects in the AxiomIndex of the ontology are checked.
    *
    * @param ontology OWLOntology to get axioms from
    * @param objects Set of objects to match in axioms
@@ -440,7 +501,8 @@ public class RelatedObjectsHelper {
       Set<OWLObject> objects,
       Set<Class<? extends OWLAxiom>> axiomTypes,
       boolean namedOnly) {
-    return filterPartialAxioms(ontology.getAxioms(), objects, axiomTypes, namedOnly);
+    Set<OWLAxiom> candidateAxioms = AxiomIndex.getIndex(ontology).getCandidateAxioms(objects);
+    return filterPartialAxioms(candidateAxioms, objects, axiomTypes, namedOnly);
   }
 
   /**
@@ -564,16 +626,19 @@ public class RelatedObjectsHelper {
    * @return set of ancestors of the starting set
    */
   public static Set<OWLObject> selectAncestors(OWLOntology ontology, Set<OWLObject> objects) {
+    HierarchyClosure closure = HierarchyClosure.getClosure(ontology);
     Set<OWLObject> relatedObjects = new HashSet<>();
     for (OWLObject object : objects) {
-      if (object instanceof OWLClass) {
-        selectClassAncestors(ontology, (OWLClass) object, relatedObjects);
-      } else if (object instanceof OWLAnnotationProperty) {
-        selectAnnotationPropertyAncestors(ontology, (OWLAnnotationProperty) object, relatedObjects);
-      } else if (object instanceof OWLDataProperty) {
-        selectDataPropertyAncestors(ontology, (OWLDataProperty) object, relatedObjects);
-      } else if (object instanceof OWLObjectProperty) {
-        selectObjectPropertyAncestors(ontology, (OWLObjectProperty) object, relatedObjects);
+      if (object instanceof OWLClass
+          || object instanceof OWLAnnotationProperty
+          || object instanceof OWLDataProperty
+          || object instanceof OWLObjectProperty) {
+        OWLEntity entity = (OWLEntity) object;
+        if (relatedObjects.contains(entity) && !entity.isTopEntity()) {
+          // Already found from another object, along with all of its ancestors
+          continue;
+        }
+        relatedObjects.addAll(closure.getAncestors(entity));
       }
     }
     return relatedObjects;
@@ -721,17 +786,19 @@ public class RelatedObjectsHelper {
    * @return set of descendants of the starting set
    */
   public static Set<OWLObject> selectDescendants(OWLOntology ontology, Set<OWLObject> objects) {
+    HierarchyClosure closure = HierarchyClosure.getClosure(ontology);
     Set<OWLObject> relatedObjects = new HashSet<>();
     for (OWLObject object : objects) {
-      if (object instanceof OWLClass) {
-        selectClassDescendants(ontology, (OWLClass) object, relatedObjects);
-      } else if (object instanceof OWLAnnotationProperty) {
-        selectAnnotationPropertyDescendants(
-            ontology, (OWLAnnotationProperty) object, relatedObjects);
-      } else if (object instanceof OWLDataProperty) {
-        selectDataPropertyDescendants(ontology, (OWLDataProperty) object, relatedObjects);
-      } else if (object instanceof OWLObjectProperty) {
-        selectObjectPropertyDescendants(ontology, (OWLObjectProperty) object, relatedObjects);
+      if (object instanceof OWLClass
+          || object instanceof OWLAnnotationProperty
+          || object instanceof OWLDataProperty
+          || object instanceof OWLObjectProperty) {
+        OWLEntity entity = (OWLEntity) object;
+        if (relatedObjects.contains(entity) && !entity.isTopEntity()) {
+          // Already found from another object, along with all of its descendants
+          continue;
+        }
+        relatedObjects.addAll(closure.getDescendants(entity));
       }
     }
     return relatedObjects;
@@ -1042,18 +1109,17 @@ public class RelatedObjectsHelper {
     Set<OWLAxiom> axioms = new HashSet<>();
 
     // Iterate through objects to generate sub-super pairs
+    HierarchyClosure closure = HierarchyClosure.getClosure(ontology);
     for (OWLObject object : objects) {
       if (object instanceof OWLAnnotationProperty) {
         OWLAnnotationProperty p = (OWLAnnotationProperty) object;
-        spanGapsHelper(
-            ontology, objects, aPropPairs, p, EntitySearcher.getSuperProperties(p, ontology));
+        spanGapsHelper(ontology, objects, aPropPairs, p, closure.getSuperProperties(p));
       } else if (object instanceof OWLClass) {
         OWLClass cls = (OWLClass) object;
         spanGapsHelper(ontology, objects, classPairs, cls, getSuperClasses(ontology, cls));
       } else if (object instanceof OWLDataProperty) {
         OWLDataProperty p = (OWLDataProperty) object;
-        spanGapsHelper(
-            ontology, objects, dPropPairs, p, EntitySearcher.getSuperProperties(p, ontology));
+        spanGapsHelper(ontology, objects, dPropPairs, p, closure.getSuperProperties(p));
       } else if (object instanceof OWLObjectProperty) {
         OWLObjectProperty p = (OWLObjectProperty) object;
         Set<OWLObjectPropertyExpression> superProps = new HashSet<>();
@@ -1832,7 +1898,7 @@ public class RelatedObjectsHelper {
     // So compare the eqs to the superclasses and don't add a super if it's also an eq
     Collection<OWLClassExpression> eqs = EntitySearcher.getEquivalentClasses(cls, ontology);
 
-    for (OWLClassExpression expr : EntitySearcher.getSuperClasses(cls, ontology)) {
+    for (OWLClassExpression expr : HierarchyClosure.getClosure(ontology).getSuperClasses(cls)) {
       if (expr.isAnonymous()) {
         superclasses.add(expr);
         continue;
@@ -1869,7 +1935,8 @@ public class RelatedObjectsHelper {
     Collection<OWLObjectPropertyExpression> eqs =
         EntitySearcher.getEquivalentProperties(property, ontology);
 
-    for (OWLObjectPropertyExpression expr : EntitySearcher.getSuperProperties(property, ontology)) {
+    for (OWLObjectPropertyExpression expr :
+        HierarchyClosure.getClosure(ontology).getSuperProperties(property)) {
       if (expr.isAnonymous()) {
         superProperties.add(expr);
         continue;
@@ -2038,197 +2105,6 @@ public class RelatedObjectsHelper {
     return relatedObjects;
   }
 
-  /**
-   * Given an ontology, an annotation property, and a set, recursively fill the set with the
-   * ancestors of the annotation property.
-   *
-   * @param ontology OWLOntology to get ancestors from
-   * @param property OWLAnnotationProperty to get ancestors of
-   * @param ancestors Set of OWLObjects to fill with ancestors
-   */
-  private static void selectAnnotationPropertyAncestors(
-      OWLOntology ontology, OWLAnnotationProperty property, Set<OWLObject> ancestors) {
-    for (OWLAnnotationProperty superProperty :
-        EntitySearcher.getSuperProperties(property, ontology)) {
-      ancestors.add(superProperty);
-      if (!superProperty.isTopEntity()) {
-        selectAnnotationPropertyAncestors(ontology, superProperty, ancestors);
-      }
-    }
-  }
-
-  /**
-   * Given an ontology, an annotation property, and a set, recursively fill the set with the
-   * descendants of the annotation property.
-   *
-   * @param ontology OWLOntology to get descendants from
-   * @param property OWLAnnotationProperty to get descendants of
-   * @param descendants Set of OWLObjects to fill with descendants
-   */
-  private static void selectAnnotationPropertyDescendants(
-      OWLOntology ontology, OWLAnnotationProperty property, Set<OWLObject> descendants) {
-    for (OWLAnnotationProperty subProperty : EntitySearcher.getSubProperties(property, ontology)) {
-      descendants.add(subProperty);
-      if (!EntitySearcher.getSubProperties(subProperty, ontology).isEmpty()) {
-        selectAnnotationPropertyAncestors(ontology, subProperty, descendants);
-      }
-    }
-  }
-
-  /**
-   * Given an ontology, a class, and a set, recursively fill the set with the ancestors of the
-   * class.
-   *
-   * @param ontology OWLOntology to get ancestors from
-   * @param cls OWLClass to get ancestors of
-   * @param ancestors Set of OWLObjects to fill with ancestors
-   */
-  private static void selectClassAncestors(
-      OWLOntology ontology, OWLClass cls, Set<OWLObject> ancestors) {
-    for (OWLClassExpression classExpression : EntitySearcher.getSuperClasses(cls, ontology)) {
-      if (!classExpression.isAnonymous()) {
-        OWLClass superClass = classExpression.asOWLClass();
-        if (ancestors.contains(superClass)) {
-          // Subclass of/equivalent class can cause a loop - see #976
-          continue;
-        }
-        ancestors.add(superClass);
-        if (!superClass.isTopEntity()) {
-          selectClassAncestors(ontology, superClass, ancestors);
-        }
-      } else {
-        ancestors.add(classExpression);
-      }
-    }
-  }
-
-  /**
-   * Given an ontology, a class, and a set, recursively fill the set with the descendants of the
-   * class.
-   *
-   * @param ontology OWLOntology to get descendants from
-   * @param cls OWLClass to get descendants of
-   * @param descendants Set of OWLObjects to fill with descendants
-   */
-  private static void selectClassDescendants(
-      OWLOntology ontology, OWLClass cls, Set<OWLObject> descendants) {
-    for (OWLClassExpression classExpression : EntitySearcher.getSubClasses(cls, ontology)) {
-      if (!classExpression.isAnonymous()) {
-        OWLClass subClass = classExpression.asOWLClass();
-        if (descendants.contains(subClass)) {
-          // Subclass of/equivalent class can cause a loop - see #976
-          continue;
-        }
-        descendants.add(subClass);
-        if (!EntitySearcher.getSubClasses(subClass, ontology).isEmpty()) {
-          selectClassDescendants(ontology, subClass, descendants);
-        }
-      } else {
-        descendants.add(classExpression);
-      }
-    }
-  }
-
-  /**
-   * Given an ontology, a data property, and a set, recursively fill the set with the ancestors of
-   * the property.
-   *
-   * @param ontology OWLOntology to get ancestors from
-   * @param property OWLDataProperty to get ancestors of
-   * @param ancestors Set of OWLObjects to fill with ancestors
-   */
-  private static void selectDataPropertyAncestors(
-      OWLOntology ontology, OWLDataProperty property, Set<OWLObject> ancestors) {
-    for (OWLDataPropertyExpression propertyExpression :
-        EntitySearcher.getSuperProperties(property, ontology)) {
-      if (!propertyExpression.isAnonymous()) {
-        OWLDataProperty superProperty =
-            propertyExpression.getDataPropertiesInSignature().iterator().next();
-        ancestors.add(superProperty);
-        if (!superProperty.isTopEntity()) {
-          selectDataPropertyAncestors(ontology, superProperty, ancestors);
-        }
-      } else {
-        ancestors.add(propertyExpression);
-      }
-    }
-  }
-
-  /**
-   * Given an ontology, a data property, and a set, recursively fill the set with the descendants of
-   * the property.
-   *
-   * @param ontology OWLOntology to get descendants from
-   * @param property OWLDataProperty to get descendants of
-   * @param descendants Set of OWLObjects to fill with descendants
-   */
-  private static void selectDataPropertyDescendants(
-      OWLOntology ontology, OWLDataProperty property, Set<OWLObject> descendants) {
-    for (OWLDataPropertyExpression propertyExpression :
-        EntitySearcher.getSubProperties(property, ontology)) {
-      if (!propertyExpression.isAnonymous()) {
-        OWLDataProperty subProperty =
-            propertyExpression.getDataPropertiesInSignature().iterator().next();
-        descendants.add(subProperty);
-        if (!EntitySearcher.getSubProperties(subProperty, ontology).isEmpty()) {
-          selectDataPropertyDescendants(ontology, subProperty, descendants);
-        }
-      } else {
-        descendants.add(propertyExpression);
-      }
-    }
-  }
-
-  /**
-   * Given an ontology, an object property, and a set, recursively fill the set with the ancestors
-   * of the property.
-   *
-   * @param ontology OWLOntology to get ancestors from
-   * @param property OWLObjectProperty to get ancestors of
-   * @param ancestors Set of OWLObjects to fill with ancestors
-   */
-  private static void selectObjectPropertyAncestors(
-      OWLOntology ontology, OWLObjectProperty property, Set<OWLObject> ancestors) {
-    for (OWLObjectPropertyExpression propertyExpression :
-        EntitySearcher.getSuperProperties(property, ontology)) {
-      if (!propertyExpression.isAnonymous()) {
-        OWLObjectProperty superProperty =
-            propertyExpression.getObjectPropertiesInSignature().iterator().next();
-        ancestors.add(superProperty);
-        if (!superProperty.isTopEntity()) {
-          selectObjectPropertyAncestors(ontology, superProperty, ancestors);
-        }
-      } else {
-        ancestors.add(propertyExpression);
-      }
-    }
-  }
-
-  /**
-   * Given an ontology, an object property, and a set, recursively fill the set with the descendants
-   * of the property.
-   *
-   * @param ontology OWLOntology to get descendants from
-   * @param property OWLObjectProperty to get descendants of
-   * @param descendants Set of OWLObjects to fill with descendants
-   */
-  private static void selectObjectPropertyDescendants(
-      OWLOntology ontology, OWLObjectProperty property, Set<OWLObject> descendants) {
-    for (OWLObjectPropertyExpression propertyExpression :
-        EntitySearcher.getSubProperties(property, ontology)) {
-      if (!propertyExpression.isAnonymous()) {
-        OWLObjectProperty subProperty =
-            propertyExpression.getObjectPropertiesInSignature().iterator().next();
-        descendants.add(subProperty);
-        if (!EntitySearcher.getSubProperties(subProperty, ontology).isEmpty()) {
-          selectObjectPropertyDescendants(ontology, subProperty, descendants);
-        }
-      } else {
-        descendants.add(propertyExpression);
-      }
-    }
-  }
-
   /**
    * Helper method to create subPropertyOf axioms that span gaps. This method fills in a list of
    * maps, each containing a sub-property/super-property pair. This list is used to generate the
@@ -2259,7 +2135,7 @@ public class RelatedObjectsHelper {
                 objects,
                 propPairs,
                 property,
-                EntitySearcher.getSuperProperties(property, ontology));
+                HierarchyClosure.getClosure(ontology).getSuperProperties(property));
           }
         }
       } else if (!sp.isAnonymous()) {
@@ -2268,7 +2144,7 @@ public class RelatedObjectsHelper {
             objects,
             propPairs,
             property,
-            EntitySearcher.getSuperProperties(sp, ontology));
+            HierarchyClosure.getClosure(ontology).getSuperProperties(sp));
       }
     }
   }
@@ -2343,7 +2219,7 @@ public class RelatedObjectsHelper {
                 objects,
                 propPairs,
                 property,
-                EntitySearcher.getSuperProperties(property, ontology));
+                HierarchyClosure.getClosure(ontology).getSuperProperties(property));
           }
         }
       } else if (!sp.isAnonymous()) {
@@ -2352,7 +2228,7 @@ public class RelatedObjectsHelper {
             objects,
             propPairs,
             property,
-            EntitySearcher.getSuperProperties(sp, ontology));
+            HierarchyClosure.getClosure(ontology).getSuperProperties(sp.asOWLDataProperty()));
       }
     }
   }
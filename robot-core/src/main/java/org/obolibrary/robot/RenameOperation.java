@@ -1,13 +1,18 @@
 package org.obolibrary.robot;
 
-import com.google.common.collect.Sets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.search.EntitySearcher;
-import org.semanticweb.owlapi.util.OWLEntityRenamer;
+import org.semanticweb.owlapi.util.OWLObjectDuplicator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
@@ -75,8 +80,33 @@ public class RenameOperation {
       Map<IRI, String> labels,
       boolean allowMissingEntities)
       throws Exception {
+    renameFull(ontology, ioHelper, mappings, labels, allowMissingEntities, 1);
+  }
+
+  /**
+   * Given an ontology, an IOHelper, and a map of old IRIs to new IRIs, rename each old IRI with the
+   * new IRI. All the IRIs are renamed at once, so each axiom is rewritten only once, and the axioms
+   * are rewritten on up to the given number of threads.
+   *
+   * @param ontology OWLOntology to rename entities in
+   * @param ioHelper IOHelper to create IRIs
+   * @param mappings map of old IRI to new IRI
+   * @param labels map of new IRI to new label
+   * @param allowMissingEntities if true, command will fail when an entity is in the rename map, but
+   *     does not appear in ontology
+   * @param threads maximum number of threads to use
+   * @throws Exception if the old IRI in a mapping does not exist
+   */
+  public static void renameFull(
+      OWLOntology ontology,
+      IOHelper ioHelper,
+      Map<String, String> mappings,
+      Map<IRI, String> labels,
+      boolean allowMissingEntities,
+      int threads)
+      throws Exception {
     OWLOntologyManager manager = ontology.getOWLOntologyManager();
-    OWLEntityRenamer entityRenamer = new OWLEntityRenamer(manager, Sets.newHashSet(ontology));
+    Map<IRI, IRI> renames = new LinkedHashMap<>();
     for (Map.Entry<String, String> mapping : mappings.entrySet()) {
       IRI oldIRI = ioHelper.createIRI(mapping.getKey());
       IRI newIRI = ioHelper.createIRI(mapping.getValue());
@@ -90,26 +120,37 @@ public class RenameOperation {
       if (newIRI == null) {
         throw new Exception(String.format(newIRIError, mapping.getValue()));
       }
-      // Update the IRI first
-      manager.applyChanges(entityRenamer.changeIRI(oldIRI, newIRI));
-      if (labels.containsKey(newIRI)) {
-        // Remove old label annotation(s)
-        for (OWLAnnotationAssertionAxiom ax :
-            EntitySearcher.getAnnotationAssertionAxioms(
-                OntologyHelper.getEntity(ontology, newIRI), ontology)) {
-          if (ax.getProperty()
-              .getIRI()
-              .toString()
-              .equals(dataFactory.getRDFSLabel().getIRI().toString())) {
-            manager.removeAxiom(ontology, ax);
-          }
+      renames.put(oldIRI, newIRI);
+    }
+    // Update the IRIs first
+    renameIRIs(ontology, renames, threads);
+
+    // Then replace the labels in one batch
+    List<OWLOntologyChange> changes = new ArrayList<>();
+    for (IRI newIRI : new LinkedHashSet<>(renames.values())) {
+      if (!labels.containsKey(newIRI)) {
+        continue;
+      }
+      // Remove old label annotation(s)
+      for (OWLAnnotationAssertionAxiom ax :
+          EntitySearcher.getAnnotationAssertionAxioms(
+              OntologyHelper.getEntity(ontology, newIRI), ontology)) {
+        if (ax.getProperty()
+            .getIRI()
+            .toString()
+            .equals(dataFactory.getRDFSLabel().getIRI().toString())) {
+          changes.add(new RemoveAxiom(ontology, ax));
         }
-        // Add the new label
-        OWLAnnotation newLabel =
-            dataFactory.getOWLAnnotation(
-                dataFactory.getRDFSLabel(), dataFactory.getOWLLiteral(labels.get(newIRI)));
-        manager.addAxiom(ontology, dataFactory.getOWLAnnotationAssertionAxiom(newIRI, newLabel));
       }
+      // Add the new label
+      OWLAnnotation newLabel =
+          dataFactory.getOWLAnnotation(
+              dataFactory.getRDFSLabel(), dataFactory.getOWLLiteral(labels.get(newIRI)));
+      changes.add(
+          new AddAxiom(ontology, dataFactory.getOWLAnnotationAssertionAxiom(newIRI, newLabel)));
+    }
+    if (!changes.isEmpty()) {
+      manager.applyChanges(changes);
     }
   }
 
@@ -137,9 +178,24 @@ public class RenameOperation {
    */
   public static void renamePrefixes(
       OWLOntology ontology, IOHelper ioHelper, Map<String, String> mappings) {
-    OWLOntologyManager manager = ontology.getOWLOntologyManager();
-    OWLEntityRenamer entityRenamer = new OWLEntityRenamer(manager, Sets.newHashSet(ontology));
+    renamePrefixes(ontology, ioHelper, mappings, 1);
+  }
+
+  /**
+   * Given an ontology, an IOHelper, and a map of old IRI bases to new IRI bases, rename each IRI
+   * with the 'old base' as a prefix, replacing it with the 'new base'. All the IRIs are renamed at
+   * once, so each axiom is rewritten only once, and the axioms are rewritten on up to the given
+   * number of threads.
+   *
+   * @param ontology OWLOntology to rename base prefixes in
+   * @param ioHelper IOHelper to create IRIs
+   * @param mappings map of old base to new base
+   * @param threads maximum number of threads to use
+   */
+  public static void renamePrefixes(
+      OWLOntology ontology, IOHelper ioHelper, Map<String, String> mappings, int threads) {
     Set<IRI> allIRIs = OntologyHelper.getIRIs(ontology);
+    Map<IRI, IRI> renames = new LinkedHashMap<>();
     for (Map.Entry<String, String> mapping : mappings.entrySet()) {
       String oldBase = mapping.getKey();
       String newBase = mapping.getValue();
@@ -152,9 +208,71 @@ public class RenameOperation {
         continue;
       }
       for (IRI iri : matchIRIs) {
-        IRI newIRI = ioHelper.createIRI(iri.toString().replace(oldBase, newBase));
-        manager.applyChanges(entityRenamer.changeIRI(iri, newIRI));
+        // If more than one base matches, the first one wins
+        renames.putIfAbsent(iri, ioHelper.createIRI(iri.toString().replace(oldBase, newBase)));
+      }
+    }
+    renameIRIs(ontology, renames, threads);
+  }
+
+  /**
+   * Given an ontology and a map of old IRIs to new IRIs, rename all the old IRIs at once. The
+   * axioms that reference an old IRI are collected once, each one is rewritten once with all the
+   * new IRIs, and all the changes are applied in one batch.
+   *
+   * @param ontology OWLOntology to rename IRIs in
+   * @param renames map of old IRI to new IRI
+   * @param threads maximum number of threads to rewrite the axioms on
+   */
+  private static void renameIRIs(OWLOntology ontology, Map<IRI, IRI> renames, int threads) {
+    if (renames.isEmpty()) {
+      return;
+    }
+    OWLOntologyManager manager = ontology.getOWLOntologyManager();
+    OWLDataFactory df = manager.getOWLDataFactory();
+
+    // The same axioms that OWLEntityRenamer changes for each IRI
+    Set<OWLAxiom> axioms = new HashSet<>();
+    for (IRI iri : renames.keySet()) {
+      for (OWLEntity entity : ontology.getEntitiesInSignature(iri)) {
+        axioms.addAll(ontology.getReferencingAxioms(entity));
+        axioms.addAll(ontology.getDeclarationAxioms(entity));
+      }
+      axioms.addAll(ontology.getAnnotationAssertionAxioms(iri));
+    }
+
+    // Each task has its own duplicator, which keeps state while rewriting an axiom
+    List<OWLAxiom> axiomList = new ArrayList<>(axioms);
+    List<Callable<Map<OWLAxiom, OWLAxiom>>> tasks = new ArrayList<>();
+    for (List<OWLAxiom> chunk : ThreadHelper.partition(axiomList, threads)) {
+      tasks.add(
+          () -> {
+            OWLObjectDuplicator duplicator = new OWLObjectDuplicator(df, renames);
+            Map<OWLAxiom, OWLAxiom> renamed = new HashMap<>();
+            for (OWLAxiom axiom : chunk) {
+              OWLAxiom newAxiom = duplicator.duplicateObject(axiom);
+              if (!newAxiom.equals(axiom)) {
+                renamed.put(axiom, newAxiom);
+              }
+            }
+            return renamed;
+          });
+    }
+    List<Map<OWLAxiom, OWLAxiom>> results = ThreadHelper.invokeAllUnchecked(tasks, threads);
+
+    // Remove all the old axioms before adding the new ones,
+    // so that swapped IRIs do not remove each other's new axioms
+    List<OWLOntologyChange> removes = new ArrayList<>();
+    List<OWLOntologyChange> adds = new ArrayList<>();
+    for (Map<OWLAxiom, OWLAxiom> renamed : results) {
+      for (Map.Entry<OWLAxiom, OWLAxiom> entry : renamed.entrySet()) {
+        removes.add(new RemoveAxiom(ontology, entry.getKey()));
+        adds.add(new AddAxiom(ontology, entry.getValue()));
       }
     }
+    logger.debug("Renaming {} IRIs in {} axioms", renames.size(), removes.size());
+    List<OWLOntologyChange> changes = new ArrayList<>(removes);
+    changes.addAll(adds);
+    manager.applyChanges(changes);
   }
 }
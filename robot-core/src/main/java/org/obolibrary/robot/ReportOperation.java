@@ -9,6 +9,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.stream.Collectors;
@@ -17,8 +19,11 @@ import org.apache.jena.query.*;
 import org.apache.jena.tdb.TDBFactory;
 import org.apache.jena.tdb.transaction.TDBTransactionException;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.obolibrary.robot.checks.NativeReportRules;
 import org.obolibrary.robot.checks.Report;
 import org.obolibrary.robot.checks.ReportQuery;
+import org.obolibrary.robot.checks.ReportRule;
+import org.obolibrary.robot.checks.ReportWriter;
 import org.obolibrary.robot.checks.Violation;
 import org.obolibrary.robot.export.Table;
 import org.semanticweb.owlapi.apibinding.OWLManager;
@@ -66,6 +71,10 @@ public class ReportOperation {
   private static final String reportLevelError =
       NS + "REPORT LEVEL ERROR '%s' is not a valid reporting level.";
 
+  /** Error message when the report format cannot be streamed. */
+  private static final String streamFormatError =
+      NS + "STREAM FORMAT ERROR --stream cannot write '%s' format, only TSV, CSV, or JSON";
+
   /** Error message when a report query name or path in report profile cannot be found. */
   private static final String unknownReportQuery =
       NS + "UNKNOWN REPORT QUERY one or more rule names ('%s') are not valid default rules";
@@ -96,6 +105,9 @@ public class ReportOperation {
     options.put("tdb-directory", ".tdb");
     options.put("keep-tdb-mappings", "false");
     options.put("standalone", "true");
+    options.put("threads", null);
+    options.put("incremental", null);
+    options.put("stream", "false");
     return options;
   }
 
@@ -234,11 +246,58 @@ public class ReportOperation {
   public static boolean report(
       OWLOntology ontology, IOHelper ioHelper, String outputPath, Map<String, String> options)
       throws Exception {
+    if (OptionsHelper.optionIsTrue(options, "stream")) {
+      return streamReport(ontology, ioHelper, outputPath, options);
+    }
     // Generate the report object with violation details
     Report report = getReport(ontology, ioHelper, options);
     return processReport(report, outputPath, options);
   }
 
+  /**
+   * Given an ontology, an IOHelper, an output path (or null), and a map of options, report on the
+   * ontology using the rules within the profile specified by the options and write each violation
+   * to the output as soon as it is found. Only the number of violations at each level is kept in
+   * memory. The output format must be TSV, CSV, or JSON. If the output path is null, the report is
+   * written to the terminal.
+   *
+   * @param ontology the OWLOntology to report
+   * @param ioHelper IOHelper to work with ontology
+   * @param outputPath string path to write report file to, or null
+   * @param options map of report options
+   * @return false if there are violations at or above the fail-on level, true otherwise
+   * @throws Exception on any reporting error
+   */
+  public static boolean streamReport(
+      OWLOntology ontology, IOHelper ioHelper, String outputPath, Map<String, String> options)
+      throws Exception {
+    // Get options specified in map or default options
+    if (options == null) {
+      options = getDefaultOptions();
+    }
+
+    String profilePath = OptionsHelper.getOption(options, "profile", null);
+    boolean useLabels = OptionsHelper.optionIsTrue(options, "labels");
+
+    // The profile is a map of rule name and reporting level
+    Map<String, String> profile = getProfile(profilePath);
+    // We get the queries for the rules from the profile
+    Set<ReportQuery> reportQueries = getReportQueries(profile);
+
+    Dataset dataset = QueryOperation.loadOntologyAsDataset(ontology, false);
+
+    // Create the report object, which is only used to render violations
+    Report report;
+    if (ioHelper != null) {
+      report = new Report(ontology, ioHelper, useLabels);
+    } else {
+      report = new Report(ontology, useLabels);
+    }
+
+    return streamReportQueries(
+        ioHelper, ontology, dataset, reportQueries, report, outputPath, options);
+  }
+
   /**
    * Given an ontology, an IOHelper, and a map of options, create a Report object and run the report
    * queries specified in a profile (from options, or default). Return the completed Report object.
@@ -274,28 +333,7 @@ public class ReportOperation {
       report = new Report(ontology, useLabels);
     }
 
-    for (ReportQuery rq : reportQueries) {
-      String queryName = rq.getRuleName();
-      String fullQueryString = rq.getQuery();
-      String queryString;
-      // Remove any comments
-      List<String> lines = new ArrayList<>();
-      for (String line : fullQueryString.split("\n")) {
-        if (!line.startsWith("#")) {
-          lines.add(line);
-        }
-      }
-      queryString = String.join("\n", lines);
-      // Use the query to get violations
-      List<Violation> violations =
-          getViolations(ioHelper, dataset, queryName, queryString, options);
-      // If violations is not returned properly, the query did not have the correct format
-      if (violations == null) {
-        throw new Exception(String.format(missingEntityBinding, queryName));
-      }
-      rq.addViolations(violations);
-      report.addReportQuery(rq);
-    }
+    runReportQueries(ioHelper, ontology, dataset, reportQueries, report, options);
     return report;
   }
 
@@ -313,10 +351,59 @@ public class ReportOperation {
    */
   public static boolean tdbReport(String inputPath, String outputPath, Map<String, String> options)
       throws Exception {
+    if (OptionsHelper.optionIsTrue(options, "stream")) {
+      return streamTDBReport(inputPath, outputPath, options);
+    }
     Report report = getTDBReport(inputPath, options);
     return processReport(report, outputPath, options);
   }
 
+  /**
+   * Given an input path, an output path (or null), and a map of options, report on the ontology
+   * using the rules within the profile specified by the options and write each violation to the
+   * output as soon as it is found. Ontology is loaded to dataset backed on disk. The output format
+   * must be TSV, CSV, or JSON.
+   *
+   * @param inputPath String path of ontology to load
+   * @param outputPath String path to write report file to, or null
+   * @param options map of report options
+   * @return false if there are violations at or above the fail-on level, true otherwise
+   * @throws Exception on any reporting error
+   */
+  public static boolean streamTDBReport(
+      String inputPath, String outputPath, Map<String, String> options) throws Exception {
+    // Get options specified in map or default options
+    if (options == null) {
+      options = getDefaultOptions();
+    }
+    String tdbDir = OptionsHelper.getOption(options, "tdb-directory", ".tdb");
+
+    // Load dataset
+    // Fail if the input path is not in RDF/XML or TTL
+    Dataset dataset = IOHelper.loadToTDBDataset(inputPath, tdbDir);
+
+    boolean keepMappings = OptionsHelper.optionIsTrue(options, "keep-tdb-mappings");
+    try {
+      // Make sure TDB is true here
+      options.put("tdb", "true");
+
+      String profilePath = OptionsHelper.getOption(options, "profile", null);
+
+      // The profile is a map of rule name and reporting level
+      Map<String, String> profile = getProfile(profilePath);
+      // We get the queries for the rules from the profile
+      Set<ReportQuery> reportQueries = getReportQueries(profile);
+
+      // Create the report object, which is only used to render violations
+      Report report = createTDBReport(dataset, options);
+
+      return streamReportQueries(
+          new IOHelper(), null, dataset, reportQueries, report, outputPath, options);
+    } finally {
+      releaseTDB(dataset, tdbDir, keepMappings);
+    }
+  }
+
   /**
    * Given an input path to an ontology and a map of options, create a Report object and run (on TDB
    * dataset) the report queries specified in a profile (from options, or default). Return the
@@ -340,26 +427,37 @@ public class ReportOperation {
     try {
       report = getTDBReport(dataset, options);
     } finally {
-      // Close and release
-      dataset.close();
-      try {
-        TDBFactory.release(dataset);
-      } catch (TDBTransactionException e) {
-        // Do nothing - already released
-      }
-
-      if (!keepMappings) {
-        // Maybe delete
-        boolean success = IOHelper.cleanTDB(tdbDir);
-        if (!success) {
-          logger.error(String.format("Unable to remove directory '%s'", tdbDir));
-        }
-      }
+      releaseTDB(dataset, tdbDir, keepMappings);
     }
 
     return report;
   }
 
+  /**
+   * Close and release a TDB dataset, and maybe remove the TDB directory.
+   *
+   * @param dataset TDB Dataset to release
+   * @param tdbDir TDB directory
+   * @param keepMappings if true, do not remove the TDB directory
+   */
+  private static void releaseTDB(Dataset dataset, String tdbDir, boolean keepMappings) {
+    // Close and release
+    dataset.close();
+    try {
+      TDBFactory.release(dataset);
+    } catch (TDBTransactionException e) {
+      // Do nothing - already released
+    }
+
+    if (!keepMappings) {
+      // Maybe delete
+      boolean success = IOHelper.cleanTDB(tdbDir);
+      if (!success) {
+        logger.error(String.format("Unable to remove directory '%s'", tdbDir));
+      }
+    }
+  }
+
   /**
    * Given a dataset and a map of options, create a Report object and run (on TDB dataset) the
    * report queries specified in a profile (from options, or default). Return the completed Report
@@ -402,6 +500,24 @@ public class ReportOperation {
     // We get the queries for the rules from the profile
     Set<ReportQuery> reportQueries = getReportQueries(profile);
 
+    // Create the report object (maybe using labels)
+    Report report = createTDBReport(dataset, options);
+
+    runReportQueries(ioHelper, null, dataset, reportQueries, report, options);
+    return report;
+  }
+
+  /**
+   * Given a TDB dataset and a map of options, create an empty Report object, using labels from the
+   * dataset if the labels option is true.
+   *
+   * @param dataset TDB Dataset to get labels from
+   * @param options Map of report options
+   * @return new Report object
+   * @throws IOException on problem creating the Report
+   */
+  private static Report createTDBReport(Dataset dataset, Map<String, String> options)
+      throws IOException {
     boolean useLabels = OptionsHelper.optionIsTrue(options, "labels");
     Map<IRI, String> labelMap = null;
     if (useLabels) {
@@ -423,32 +539,105 @@ public class ReportOperation {
       }
     }
 
-    // Create the report object (maybe using labels)
-    Report report = new Report(labelMap);
-
-    for (ReportQuery rq : reportQueries) {
-      String queryName = rq.getRuleName();
-      String fullQueryString = rq.getQuery();
-      String queryString;
-      // Remove any comments
-      List<String> lines = new ArrayList<>();
-      for (String line : fullQueryString.split("\n")) {
-        if (!line.startsWith("#")) {
-          lines.add(line);
+    return new Report(labelMap);
+  }
+
+  /**
+   * Given an IOHelper, an ontology (or null), a dataset, a set of report queries, a Report, and a
+   * map of options, run the queries over the dataset and add the results to the Report. When the
+   * ontology is provided, default rules that have a native implementation are checked directly on
+   * the ontology instead. Queries are run concurrently when the 'threads' option is greater than 1,
+   * but they are always added to the Report in order of rule name. On TDB, each query runs in its
+   * own read transaction on its worker thread.
+   *
+   * @param ioHelper IOHelper to resolve IRIs
+   * @param ontology OWLOntology for native rules, or null to run all rules as queries
+   * @param dataset Dataset to query
+   * @param reportQueries set of ReportQuery objects to run
+   * @param report Report to add ReportQuery results to
+   * @param options Map of report options
+   * @throws Exception on any query error
+   */
+  private static void runReportQueries(
+      IOHelper ioHelper,
+      OWLOntology ontology,
+      Dataset dataset,
+      Set<ReportQuery> reportQueries,
+      Report report,
+      Map<String, String> options)
+      throws Exception {
+    List<ReportQuery> sortedQueries = new ArrayList<>(reportQueries);
+    sortedQueries.sort(Comparator.comparing(ReportQuery::getRuleName));
+
+    String incrementalPath = OptionsHelper.getOption(options, "incremental", null);
+    if (ontology == null && incrementalPath != null) {
+      logger.warn("Incremental reports are not supported with TDB, running full report");
+    }
+    List<List<Violation>> results;
+    if (ontology != null && incrementalPath != null) {
+      results =
+          IncrementalReport.getViolations(
+              ioHelper, ontology, dataset, sortedQueries, new File(incrementalPath), options);
+    } else {
+      List<Callable<List<Violation>>> tasks = new ArrayList<>();
+      for (ReportQuery rq : sortedQueries) {
+        String queryName = rq.getRuleName();
+        ReportRule rule = ontology != null ? getNativeRule(rq) : null;
+        if (rule != null) {
+          tasks.add(() -> getViolations(ioHelper, ontology, rule, options));
+          continue;
         }
+        String queryString = stripComments(rq.getQuery());
+        // Use the query to get violations
+        tasks.add(
+            () -> {
+              List<Violation> violations =
+                  getViolations(ioHelper, dataset, queryName, queryString, options);
+              // If violations is not returned properly, the query did not have the correct format
+              if (violations == null) {
+                throw new Exception(String.format(missingEntityBinding, queryName));
+              }
+              return violations;
+            });
       }
-      queryString = String.join("\n", lines);
-      // Use the query to get violations
-      List<Violation> violations =
-          getViolations(ioHelper, dataset, queryName, queryString, options);
-      // If violations is not returned properly, the query did not have the correct format
-      if (violations == null) {
-        throw new Exception(String.format(missingEntityBinding, queryName));
-      }
-      rq.addViolations(violations);
+      int threads = ThreadHelper.getThreads(options);
+      results = ThreadHelper.invokeAll(tasks, threads);
+    }
+    for (int i = 0; i < sortedQueries.size(); i++) {
+      ReportQuery rq = sortedQueries.get(i);
+      rq.addViolations(results.get(i));
       report.addReportQuery(rq);
     }
-    return report;
+  }
+
+  /**
+   * Given a ReportQuery, return the native implementation of its rule, or null if there is none.
+   * Only default rules have a rule URL; user queries are always run as SPARQL.
+   *
+   * @param rq ReportQuery
+   * @return ReportRule or null
+   */
+  static ReportRule getNativeRule(ReportQuery rq) {
+    if (rq.getRuleURL() == null) {
+      return null;
+    }
+    return NativeReportRules.getRule(rq.getRuleName());
+  }
+
+  /**
+   * Given a query string, return it without comment lines.
+   *
+   * @param fullQueryString query string with comments
+   * @return query string without comments
+   */
+  static String stripComments(String fullQueryString) {
+    List<String> lines = new ArrayList<>();
+    for (String line : fullQueryString.split("\n")) {
+      if (!line.startsWith("#")) {
+        lines.add(line);
+      }
+    }
+    return String.join("\n", lines);
   }
 
   /**
@@ -464,36 +653,15 @@ public class ReportOperation {
   public static boolean processReport(Report report, String outputPath, Map<String, String> options)
       throws IOException {
     // Print violations to terminal
-    int violationCount = report.getTotalViolations();
-    if (violationCount != 0) {
-      System.out.println("Violations: " + violationCount);
-      System.out.println("-----------------");
-      System.out.println(ERROR + ":      " + report.getTotalViolations(ERROR));
-      System.out.println(WARN + ":       " + report.getTotalViolations(WARN));
-      System.out.println(INFO + ":       " + report.getTotalViolations(INFO));
-    } else {
-      System.out.println("No violations found.");
-    }
+    printViolationCounts(
+        report.getTotalViolations(ERROR),
+        report.getTotalViolations(WARN),
+        report.getTotalViolations(INFO));
 
     // Maybe print some of the lines
-    String printString = OptionsHelper.getOption(options, "print", "0").trim();
-    // Parse print N lines option to an int
-    int print;
-    try {
-      print = Integer.parseInt(printString);
-    } catch (NumberFormatException e) {
-      // Not a number
-      throw new IllegalArgumentException(String.format(printNumberError, printString));
-    }
+    int print = getPrint(options);
 
-    // Format is determined either by --format or the extension of the output path
-    String format = OptionsHelper.getOption(options, "format");
-    if (format == null && outputPath != null) {
-      format = outputPath.substring(outputPath.lastIndexOf(".") + 1);
-    } else if (format == null) {
-      // Null format means no output file, will be printed as TSV
-      format = "tsv";
-    }
+    String format = getFormat(outputPath, options);
 
     // Process different output formats while writing print lines if requested
     // First check if format is JSON or YAML
@@ -592,6 +760,224 @@ public class ReportOperation {
       }
     }
 
+    return isPassing(
+        options,
+        report.getTotalViolations(ERROR),
+        report.getTotalViolations(WARN),
+        report.getTotalViolations(INFO));
+  }
+
+  /**
+   * Given an IOHelper, an ontology (or null), a dataset, a set of report queries, a Report used to
+   * render violations, an output path (or null), and a map of options, run the queries over the
+   * dataset and write each violation to the output as soon as it is found. The queries are run one
+   * at a time, in the same order that the Report sorts them, so the output is the same as
+   * processReport would write.
+   *
+   * @param ioHelper IOHelper to resolve IRIs
+   * @param ontology OWLOntology for native rules, or null to run all rules as queries
+   * @param dataset Dataset to query
+   * @param reportQueries set of ReportQuery objects to run
+   * @param report Report used to render violations
+   * @param outputPath path to write report to, or null to write to the terminal
+   * @param options Map of report options
+   * @return true if report passed, false if it failed
+   * @throws Exception on any query or writing error
+   */
+  private static boolean streamReportQueries(
+      IOHelper ioHelper,
+      OWLOntology ontology,
+      Dataset dataset,
+      Set<ReportQuery> reportQueries,
+      Report report,
+      String outputPath,
+      Map<String, String> options)
+      throws Exception {
+    String format = getFormat(outputPath, options).toLowerCase();
+    if (!format.equals("tsv") && !format.equals("csv") && !format.equals("json")) {
+      throw new IllegalArgumentException(String.format(streamFormatError, format));
+    }
+    int print = getPrint(options);
+    if (OptionsHelper.getOption(options, "incremental", null) != null) {
+      logger.warn("Incremental reports are not supported when streaming, running full report");
+    }
+
+    // Sort by level and then by rule name, like the Report
+    List<ReportQuery> sortedQueries = new ArrayList<>();
+    for (String level : Arrays.asList(ERROR, WARN, INFO)) {
+      List<ReportQuery> levelQueries = new ArrayList<>();
+      for (ReportQuery rq : reportQueries) {
+        if (level.equals(rq.getLevel())) {
+          levelQueries.add(rq);
+        }
+      }
+      levelQueries.sort(Comparator.comparing(ReportQuery::getRuleName));
+      sortedQueries.addAll(levelQueries);
+    }
+
+    ReportWriter reportWriter;
+    if (outputPath != null) {
+      try (FileWriter fw = new FileWriter(outputPath);
+          BufferedWriter bw = new BufferedWriter(fw)) {
+        logger.debug("Writing report to: " + outputPath);
+        reportWriter =
+            writeViolations(
+                ioHelper, ontology, dataset, sortedQueries, report, format, bw, options);
+      }
+    } else {
+      // Do not close the terminal output
+      Writer w = new BufferedWriter(new OutputStreamWriter(System.out));
+      reportWriter =
+          writeViolations(ioHelper, ontology, dataset, sortedQueries, report, format, w, options);
+    }
+
+    printViolationCounts(
+        reportWriter.getTotalViolations(ERROR),
+        reportWriter.getTotalViolations(WARN),
+        reportWriter.getTotalViolations(INFO));
+    if (print > 0 && outputPath != null) {
+      String separator = format.equals("csv") ? "," : "\t";
+      printNViolations(reportWriter.getPrintRows(), print, separator);
+    }
+
+    return isPassing(
+        options,
+        reportWriter.getTotalViolations(ERROR),
+        reportWriter.getTotalViolations(WARN),
+        reportWriter.getTotalViolations(INFO));
+  }
+
+  /**
+   * Given an IOHelper, an ontology (or null), a dataset, a sorted list of report queries, a Report
+   * used to render violations, an output format, a writer, and a map of options, run each query
+   * and write its violations as soon as they are found. Return the closed ReportWriter with the
+   * violation counts.
+   *
+   * @param ioHelper IOHelper to resolve IRIs
+   * @param ontology OWLOntology for native rules, or null to run all rules as queries
+   * @param dataset Dataset to query
+   * @param sortedQueries list of ReportQuery objects to run, in output order
+   * @param report Report used to render violations
+   * @param format output format: tsv, csv, or json
+   * @param writer Writer to write to
+   * @param options Map of report options
+   * @return closed ReportWriter
+   * @throws Exception on any query or writing error
+   */
+  private static ReportWriter writeViolations(
+      IOHelper ioHelper,
+      OWLOntology ontology,
+      Dataset dataset,
+      List<ReportQuery> sortedQueries,
+      Report report,
+      String format,
+      Writer writer,
+      Map<String, String> options)
+      throws Exception {
+    try (ReportWriter reportWriter = new ReportWriter(report, format, writer)) {
+      reportWriter.setPrint(getPrint(options));
+      for (ReportQuery rq : sortedQueries) {
+        reportWriter.startRule(rq);
+        String queryName = rq.getRuleName();
+        ReportRule rule = ontology != null ? getNativeRule(rq) : null;
+        if (rule != null) {
+          for (Violation v : getViolations(ioHelper, ontology, rule, options)) {
+            reportWriter.addViolation(v);
+          }
+          continue;
+        }
+        String queryString = stripComments(rq.getQuery());
+        boolean success =
+            getViolations(
+                ioHelper,
+                dataset,
+                queryName,
+                queryString,
+                options,
+                v -> {
+                  try {
+                    reportWriter.addViolation(v);
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+        // If the query did not complete, it did not have the correct format
+        if (!success) {
+          throw new Exception(String.format(missingEntityBinding, queryName));
+        }
+      }
+      return reportWriter;
+    }
+  }
+
+  /**
+   * Print the number of violations at each level to the terminal.
+   *
+   * @param errorCount number of ERROR violations
+   * @param warnCount number of WARN violations
+   * @param infoCount number of INFO violations
+   */
+  private static void printViolationCounts(int errorCount, int warnCount, int infoCount) {
+    int violationCount = errorCount + warnCount + infoCount;
+    if (violationCount != 0) {
+      System.out.println("Violations: " + violationCount);
+      System.out.println("-----------------");
+      System.out.println(ERROR + ":      " + errorCount);
+      System.out.println(WARN + ":       " + warnCount);
+      System.out.println(INFO + ":       " + infoCount);
+    } else {
+      System.out.println("No violations found.");
+    }
+  }
+
+  /**
+   * Given a map of report options, return the number of violations to print.
+   *
+   * @param options Map of report options
+   * @return number of violations to print
+   */
+  private static int getPrint(Map<String, String> options) {
+    String printString = OptionsHelper.getOption(options, "print", "0").trim();
+    // Parse print N lines option to an int
+    try {
+      return Integer.parseInt(printString);
+    } catch (NumberFormatException e) {
+      // Not a number
+      throw new IllegalArgumentException(String.format(printNumberError, printString));
+    }
+  }
+
+  /**
+   * Given an output path (or null) and a map of report options, return the report format.
+   *
+   * @param outputPath path to save report to, or null
+   * @param options Map of report options
+   * @return report format
+   */
+  private static String getFormat(String outputPath, Map<String, String> options) {
+    // Format is determined either by --format or the extension of the output path
+    String format = OptionsHelper.getOption(options, "format");
+    if (format == null && outputPath != null) {
+      format = outputPath.substring(outputPath.lastIndexOf(".") + 1);
+    } else if (format == null) {
+      // Null format means no output file, will be printed as TSV
+      format = "tsv";
+    }
+    return format;
+  }
+
+  /**
+   * Given a map of report options and the number of violations at each level, return false if
+   * there are violations at or above the fail-on level.
+   *
+   * @param options Map of report options
+   * @param errorCount number of ERROR violations
+   * @param warnCount number of WARN violations
+   * @param infoCount number of INFO violations
+   * @return true if report passed, false if it failed
+   */
+  private static boolean isPassing(
+      Map<String, String> options, int errorCount, int warnCount, int infoCount) {
     String failOn = OptionsHelper.getOption(options, "fail-on", "error");
     // Set failOn if null to default
     if (failOn == null) {
@@ -602,11 +988,11 @@ public class ReportOperation {
     if (failOn.equalsIgnoreCase("none")) {
       return true;
     } else if (failOn.equalsIgnoreCase(ERROR)) {
-      return report.getTotalViolations(ERROR) <= 0;
+      return errorCount <= 0;
     } else if (failOn.equalsIgnoreCase(WARN)) {
-      return (report.getTotalViolations(ERROR) + report.getTotalViolations(WARN)) <= 0;
+      return (errorCount + warnCount) <= 0;
     } else if (failOn.equalsIgnoreCase(INFO)) {
-      return report.getTotalViolations() <= 0;
+      return (errorCount + warnCount + infoCount) <= 0;
     } else {
       throw new IllegalArgumentException(String.format(failOnError, failOn));
     }
@@ -857,67 +1243,206 @@ public class ReportOperation {
       String query,
       Map<String, String> options)
       throws Exception {
-    boolean tdb = OptionsHelper.optionIsTrue(options, "tdb");
-    String limitString = OptionsHelper.getOption(options, "limit", null);
-    Integer limit = null;
-    if (limitString != null) {
-      try {
-        limit = Integer.parseInt(limitString);
-      } catch (NumberFormatException e) {
-        throw new Exception(String.format(limitNumberError, limitString));
-      }
+    List<Violation> violations = new ArrayList<>();
+    if (!getViolations(ioHelper, dataset, queryName, query, options, violations::add)) {
+      return null;
     }
+    return violations;
+  }
+
+  /**
+   * Given an ontology as a Dataset and a query, pass each violation found by that query to a
+   * consumer as soon as it comes off the result set. Problems writing violations in the consumer
+   * should be thrown as UncheckedIOExceptions, which are rethrown as IOExceptions.
+   *
+   * @param ioHelper with namespaces, for creating IRIs
+   * @param dataset the ontology/ontologies as a dataset
+   * @param queryName name of query that produced result set
+   * @param query the query
+   * @param options map of additional option strings
+   * @param violations consumer of Violations
+   * @return true if the query completed, false otherwise
+   * @throws Exception on invalid limit option or problem in the consumer
+   */
+  public static boolean getViolations(
+      IOHelper ioHelper,
+      Dataset dataset,
+      String queryName,
+      String query,
+      Map<String, String> options,
+      Consumer<Violation> violations)
+      throws Exception {
+    boolean tdb = OptionsHelper.optionIsTrue(options, "tdb");
+    Integer limit = getLimit(options);
 
     if (tdb) {
       // If using TDB we must be in a read transaction to query
       dataset.begin(ReadWrite.READ);
-      try {
-        ResultSet violationSet = QueryOperation.execQuery(dataset, query);
-        return getViolationsFromResults(ioHelper, queryName, violationSet, limit);
-      } catch (Exception e) {
-        // If query fails, return null
-        // And warn that report may be incomplete
-        logger.error(
-            String.format(
-                "Could not complete query '%s' - report may be incomplete.\nCause:\n%s",
-                queryName, e.getMessage()));
-        return null;
-      } finally {
+    }
+    try {
+      ResultSet violationSet = QueryOperation.execQuery(dataset, query);
+      getViolationsFromResults(ioHelper, queryName, violationSet, limit, violations);
+      return true;
+    } catch (UncheckedIOException e) {
+      // Not a problem with the query
+      throw e.getCause();
+    } catch (Exception e) {
+      // If query fails, return false
+      // And warn that report may be incomplete
+      logger.error(
+          String.format(
+              "Could not complete query '%s' - report may be incomplete.\nCause:\n%s",
+              queryName, e.getMessage()));
+      return false;
+    } finally {
+      if (tdb) {
         // Always end the transaction
         dataset.end();
       }
-    } else {
-      try {
-        ResultSet violationSet = QueryOperation.execQuery(dataset, query);
-        return getViolationsFromResults(ioHelper, queryName, violationSet, limit);
-      } catch (Exception e) {
-        // If query fails, return null
-        // And warn that report may be incomplete
-        logger.error(
-            String.format(
-                "Could not complete query '%s' - report may be incomplete.\nCause:\n%s",
-                queryName, e.getMessage()));
-        return null;
+    }
+  }
+
+  /**
+   * Given an ontology and a native report rule, return the violations found by that rule. The
+   * results are filtered, converted, and limited in the same way as the results of a query.
+   *
+   * @param ioHelper with namespaces, for creating IRIs
+   * @param ontology the ontology to check
+   * @param rule the native rule
+   * @param options map of additional option strings
+   * @return List of Violations
+   * @throws Exception on invalid limit option
+   */
+  public static List<Violation> getViolations(
+      IOHelper ioHelper, OWLOntology ontology, ReportRule rule, Map<String, String> options)
+      throws Exception {
+    return getViolations(ioHelper, rule.getResults(ontology), options);
+  }
+
+  /**
+   * Given a list of results, each an array of entity, property, and value (or null), return the
+   * violations for those results. The results are filtered, converted, and limited in the same
+   * way as the results of a query.
+   *
+   * @param ioHelper with namespaces, for creating IRIs
+   * @param results list of results
+   * @param options map of additional option strings
+   * @return List of Violations
+   * @throws Exception on invalid limit option
+   */
+  static List<Violation> getViolations(
+      IOHelper ioHelper, List<String[]> results, Map<String, String> options) throws Exception {
+    Integer limit = getLimit(options);
+    List<Violation> violations = new ArrayList<>();
+    for (String[] result : results) {
+      if (limit != null && limit <= violations.size()) {
+        // Stop checking violations
+        break;
+      }
+      String entity = result[0];
+      if (!isReportedEntity(ioHelper, entity)) {
+        continue;
+      }
+      violations.add(createViolation(ioHelper, entity, result[1], result[2]));
+    }
+    return violations;
+  }
+
+  /**
+   * Given an ontology as a Dataset and a query, return all the results of that query, each as an
+   * array of entity, property, and value (or null). Unlike getViolations, the results are not
+   * filtered or limited.
+   *
+   * @param dataset the ontology as a dataset
+   * @param queryName name of query
+   * @param query the query
+   * @return list of results
+   * @throws Exception if the query does not bind ?entity
+   */
+  static List<String[]> getResults(Dataset dataset, String queryName, String query)
+      throws Exception {
+    return getResults(queryName, QueryOperation.execQuery(dataset, query));
+  }
+
+  /**
+   * Given an ontology as a Dataset and a parsed query, return all the results of that query, each
+   * as an array of entity, property, and value (or null).
+   *
+   * @param dataset the ontology as a dataset
+   * @param queryName name of query
+   * @param query the parsed query
+   * @return list of results
+   * @throws Exception if the query does not bind ?entity
+   */
+  static List<String[]> getResults(Dataset dataset, String queryName, Query query)
+      throws Exception {
+    return getResults(queryName, QueryOperation.execQuery(dataset, query));
+  }
+
+  /**
+   * Given a query name and a result set, return all the results, each as an array of entity,
+   * property, and value (or null).
+   *
+   * @param queryName name of query
+   * @param resultSet results of the query
+   * @return list of results
+   * @throws Exception if the query does not bind ?entity
+   */
+  private static List<String[]> getResults(String queryName, ResultSet resultSet)
+      throws Exception {
+    List<String[]> results = new ArrayList<>();
+    while (resultSet.hasNext()) {
+      QuerySolution qs = resultSet.next();
+      String entity = getQueryResultOrNull(qs, "entity");
+      if (entity == null) {
+        throw new Exception(String.format(missingEntityBinding, queryName));
       }
+      String property = getQueryResultOrNull(qs, "property");
+      String value = getQueryResultOrNull(qs, "value");
+      results.add(new String[] {entity, property, value});
+    }
+    return results;
+  }
+
+  /**
+   * Given a map of options, return the 'limit' option as an integer, or null if it is not set.
+   *
+   * @param options map of additional option strings
+   * @return limit or null
+   * @throws Exception if the limit is not a number
+   */
+  private static Integer getLimit(Map<String, String> options) throws Exception {
+    String limitString = OptionsHelper.getOption(options, "limit", null);
+    if (limitString == null) {
+      return null;
+    }
+    try {
+      return Integer.parseInt(limitString);
+    } catch (NumberFormatException e) {
+      throw new Exception(String.format(limitNumberError, limitString));
     }
   }
 
   private static final OWLDataFactory dataFactory = OWLManager.getOWLDataFactory();
 
   /**
-   * Given a query name, a result set, and a limit for results, return a list of Violation objects
-   * for those results.
+   * Given a query name, a result set, a limit for results, and a consumer, pass a Violation object
+   * for each of those results to the consumer.
    *
    * @param ioHelper with namespaces, for creating IRIs
    * @param queryName name of query that produced result set
    * @param violationSet ResultSet of query results
    * @param limit number of results to limit, or null for no limit
-   * @return list of Violation objects
+   * @param violations consumer of Violation objects
    * @throws Exception on malformed query
    */
-  private static List<Violation> getViolationsFromResults(
-      IOHelper ioHelper, String queryName, ResultSet violationSet, Integer limit) throws Exception {
-    List<Violation> violations = new ArrayList<>();
+  private static void getViolationsFromResults(
+      IOHelper ioHelper,
+      String queryName,
+      ResultSet violationSet,
+      Integer limit,
+      Consumer<Violation> violations)
+      throws Exception {
 
     boolean propertyWarning = false;
     boolean valueWarning = false;
@@ -940,7 +1465,7 @@ public class ReportOperation {
             String.format(
                 "Could not retrieve all results for query '%s' - report may be incomplete.\nCause:\n%s",
                 queryName, e.getMessage()));
-        return violations;
+        return;
       }
 
       // entity should never be null (missing entity binding error)
@@ -949,37 +1474,10 @@ public class ReportOperation {
         throw new Exception(String.format(missingEntityBinding, queryName));
       }
 
-      // skip RDFS and OWL terms
-      if (entity.contains("/rdf-schema#") || entity.contains("/owl#")) {
+      if (!isReportedEntity(ioHelper, entity)) {
         continue;
       }
 
-      if (!ioHelper.getBaseNamespaces().isEmpty()) {
-        boolean base = false;
-        for (String base_prefix : ioHelper.getBaseNamespaces()) {
-          if (entity.startsWith(base_prefix)) {
-            logger.info(
-                String.format(
-                    "Skipping entity '%s' from report because it follows the base-namespace.",
-                    entity));
-            base = true;
-            break;
-          }
-        }
-        if (!base) {
-          continue;
-        }
-      }
-
-      Violation violation;
-      try {
-        OWLClass cls = dataFactory.getOWLClass(ioHelper.createIRI(entity));
-        violation = new Violation(cls);
-      } catch (Exception e) {
-        // Blank node, use the string bnode ID
-        violation = new Violation("blank node");
-      }
-
       // Try and get a property and value from the query.
       // If none is found, print a warning, but only once.
       String property = getQueryResultOrNull(qs, "property");
@@ -998,27 +1496,80 @@ public class ReportOperation {
         valueWarning = true;
       }
 
-      // add details to Violation
-      if (property != null) {
-        OWLEntity e = dataFactory.getOWLClass(ioHelper.createIRI(property));
-        if (value != null) {
-          IRI valIRI = ioHelper.createIRI(value);
-          if (valIRI != null) {
-            OWLEntity v = dataFactory.getOWLClass(valIRI);
-            violation.addStatement(e, v);
-          } else {
-            violation.addStatement(e, value);
-          }
-        } else {
-          violation.addStatement(e, "");
-        }
-      }
-      violations.add(violation);
+      violations.accept(createViolation(ioHelper, entity, property, value));
 
       // Increase counter
       c++;
     }
-    return violations;
+  }
+
+  /**
+   * Given an IOHelper and an entity from a report result, return true if the entity should be
+   * included in the report. RDFS and OWL terms are always skipped, and when base namespaces are
+   * set, only entities in those namespaces are included.
+   *
+   * @param ioHelper with base namespaces
+   * @param entity string entity from a report result
+   * @return true if violations about the entity should be reported
+   */
+  public static boolean isReportedEntity(IOHelper ioHelper, String entity) {
+    // skip RDFS and OWL terms
+    if (entity.contains("/rdf-schema#") || entity.contains("/owl#")) {
+      return false;
+    }
+
+    if (!ioHelper.getBaseNamespaces().isEmpty()) {
+      for (String base_prefix : ioHelper.getBaseNamespaces()) {
+        if (entity.startsWith(base_prefix)) {
+          logger.info(
+              String.format(
+                  "Skipping entity '%s' from report because it follows the base-namespace.",
+                  entity));
+          return true;
+        }
+      }
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Given an IOHelper, an entity, a property (or null), and a value (or null) from a report result,
+   * return a Violation with those details.
+   *
+   * @param ioHelper with namespaces, for creating IRIs
+   * @param entity string entity from a report result
+   * @param property string property from a report result, or null
+   * @param value string value from a report result, or null
+   * @return new Violation
+   */
+  public static Violation createViolation(
+      IOHelper ioHelper, String entity, String property, String value) {
+    Violation violation;
+    try {
+      OWLClass cls = dataFactory.getOWLClass(ioHelper.createIRI(entity));
+      violation = new Violation(cls);
+    } catch (Exception e) {
+      // Blank node, use the string bnode ID
+      violation = new Violation("blank node");
+    }
+
+    // add details to Violation
+    if (property != null) {
+      OWLEntity e = dataFactory.getOWLClass(ioHelper.createIRI(property));
+      if (value != null) {
+        IRI valIRI = ioHelper.createIRI(value);
+        if (valIRI != null) {
+          OWLEntity v = dataFactory.getOWLClass(valIRI);
+          violation.addStatement(e, v);
+        } else {
+          violation.addStatement(e, value);
+        }
+      } else {
+        violation.addStatement(e, "");
+      }
+    }
+    return violation;
   }
 
   /**
@@ -1,6 +1,8 @@
 package org.obolibrary.robot;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
@@ -73,6 +75,9 @@ public class Template {
   /** Row number tracker. Start with 2 to skip headers. */
   private int rowNum = 2;
 
+  /** Number of threads to process rows on. */
+  private int threads = 1;
+
   /** Shared data factory. */
   private final OWLDataFactory dataFactory = OWLManager.getOWLDataFactory();
 
@@ -325,6 +330,35 @@ public class Template {
     parser.setOWLEntityChecker(this.checker);
   }
 
+  /**
+   * Create a worker copy of a template to process some of its rows on another thread. The copy
+   * shares the columns and settings of the template, but has its own axioms, its own view of the
+   * QuotedEntityChecker, and its own Manchester Syntax parser.
+   *
+   * @param template Template to copy, with all of its entities already added to the checker
+   * @param rowNum row number before the first row that the copy will process
+   */
+  private Template(Template template, int rowNum) {
+    this.name = template.name;
+    this.ioHelper = template.ioHelper;
+    this.checker = template.checker.getView();
+    this.rowNum = rowNum;
+    tableRows = new ArrayList<>();
+    templates = template.templates;
+    headers = template.headers;
+    axioms = new HashSet<>();
+    idColumn = template.idColumn;
+    labelColumn = template.labelColumn;
+    typeColumn = template.typeColumn;
+    classTypeColumn = template.classTypeColumn;
+    propertyTypeColumn = template.propertyTypeColumn;
+    characteristicColumn = template.characteristicColumn;
+    individualTypeColumn = template.individualTypeColumn;
+    characteristicSplit = template.characteristicSplit;
+    typeSplit = template.typeSplit;
+    createParser();
+  }
+
   /**
    * Return the QuotedEntityChecker.
    *
@@ -368,43 +402,12 @@ public class Template {
   public OWLOntology generateOutputOntology(String outputIRI, boolean force, String errorsPath)
       throws Exception {
     boolean exitOnException = !force && errorsPath == null;
-    // Set to true on first exception
-    boolean hasException = false;
-
     List<String[]> errors = new ArrayList<>();
     errors.add(new String[] {"table", "cell", "rule ID", "message"});
-    for (List<String> row : tableRows) {
-      try {
-        processRow(row);
-      } catch (RowParseException e) {
-        // Unless specified, fail on the first exception
-        if (exitOnException) {
-          throw e;
-        }
-
-        // otherwise print exceptions as they show up
-        hasException = true;
-        String message = e.getMessage().substring(e.getMessage().indexOf("#") + 1);
-        logger.error(message);
-
-        // Only add to errors table if we have a row & col num
-        if (e.rowNum != -1 && e.colNum != -1) {
-          errors.add(
-              new String[] {this.name, IOHelper.cellToA1(e.rowNum, e.colNum), e.ruleID, message});
-        }
-      }
-    }
-
+    boolean hasException = addErrors(processTableRows(exitOnException), exitOnException, errors);
     if (hasException) {
       logger.warn("Ontology created from template with errors");
-      if (errorsPath != null) {
-        // Write errors to file
-        IOHelper.writeTable(errors, errorsPath);
-        // Check if we want to force the output, otherwise exit now (as error)
-        if (!force) {
-          System.exit(1);
-        }
-      }
+      maybeWriteErrors(errors, errorsPath, force);
     }
 
     // Create a new ontology object to add axioms to
@@ -422,6 +425,69 @@ public class Template {
     return outputOntology;
   }
 
+  /**
+   * Generate axioms from rows that are read one at a time, instead of the rows of the template,
+   * and write them to an AxiomStreamWriter. The rows are processed in batches, and the axioms of
+   * each batch are written and then discarded, so only one batch of rows and axioms is held in
+   * memory. The entities of all the rows should already have been added with addEntities.
+   *
+   * <p>Unlike generateOutputOntology, the errors table is not written and this method does not
+   * exit, since the caller still has the output open. The caller should close the output, remove
+   * it unless force is true, and then write the returned errors.
+   *
+   * @param rows iterator over the rows to process, without the header and template rows
+   * @param writer AxiomStreamWriter to write the axioms to
+   * @param batchSize maximum number of rows to process at once
+   * @param force if true, do not fail on errors
+   * @param errorsPath path to errors table, or null
+   * @return rows of the errors table in row order, without the header row
+   * @throws Exception on issue parsing rows to axioms or writing axioms, or the first row that
+   *     cannot be parsed when force is false and there is no errors path
+   */
+  public List<String[]> streamOutputAxioms(
+      Iterator<List<String>> rows,
+      AxiomStreamWriter writer,
+      int batchSize,
+      boolean force,
+      String errorsPath)
+      throws Exception {
+    boolean exitOnException = !force && errorsPath == null;
+    List<String[]> errors = new ArrayList<>();
+    boolean hasException = false;
+    while (rows.hasNext()) {
+      tableRows = new ArrayList<>();
+      while (rows.hasNext() && tableRows.size() < batchSize) {
+        List<String> row = rows.next();
+        if (isTableRow(row)) {
+          tableRows.add(row);
+        }
+      }
+      hasException |= addErrors(processTableRows(exitOnException), exitOnException, errors);
+      writer.write(axioms);
+      axioms = new HashSet<>();
+    }
+    tableRows = new ArrayList<>();
+    if (hasException) {
+      logger.warn("Ontology written from template with errors");
+    }
+    return errors;
+  }
+
+  /**
+   * Add the entities from rows that are read one at a time to the QuotedEntityChecker, so that
+   * they can be found by label when the rows are streamed with streamOutputAxioms.
+   *
+   * @param rows iterator over the rows, without the header and template rows
+   */
+  public void addEntities(Iterator<List<String>> rows) {
+    while (rows.hasNext()) {
+      List<String> row = rows.next();
+      if (isTableRow(row)) {
+        addEntity(row);
+      }
+    }
+  }
+
   public int getRowNum() {
     return rowNum;
   }
@@ -429,6 +495,19 @@ public class Template {
   public void setRowNum(int rowNum) {
     this.rowNum = rowNum;
   }
+
+  /**
+   * Set the number of threads to process rows on. With more than one thread, the rows are split
+   * into consecutive chunks that are processed at the same time, each with its own Manchester
+   * Syntax parser and view of the QuotedEntityChecker. The axioms and errors are collected in row
+   * order.
+   *
+   * @param threads number of threads, at least 1
+   */
+  public void setThreads(int threads) {
+    this.threads = Math.max(1, threads);
+  }
+
   /**
    * Given a list of rows for a table, first validate the headers and template strings. Then, get
    * the location of important columns (e.g. IDs and labels). Finally, add all template rows to the
@@ -547,23 +626,35 @@ public class Template {
     // Add the rest of the tableRows to Template
     for (int rowNum = 2; rowNum < rows.size(); rowNum++) {
       List<String> row = rows.get(rowNum);
-      if (idColumn != -1) {
-        if (row.size() > idColumn && row.get(idColumn).trim().equals("")) {
-          continue;
-        } else if (row.size() <= idColumn) {
-          continue;
-        }
-      } else if (labelColumn != -1) {
-        if (row.size() > labelColumn && row.get(labelColumn).equals("")) {
-          continue;
-        } else if (row.size() <= labelColumn) {
-          continue;
-        }
+      if (isTableRow(row)) {
+        tableRows.add(row);
       }
-      tableRows.add(row);
     }
   }
 
+  /**
+   * Return true if a row has an ID, or a label when there is no ID column. Other rows are skipped.
+   *
+   * @param row list of template values
+   * @return true if the row should be processed
+   */
+  private boolean isTableRow(List<String> row) {
+    if (idColumn != -1) {
+      if (row.size() > idColumn && row.get(idColumn).trim().equals("")) {
+        return false;
+      } else if (row.size() <= idColumn) {
+        return false;
+      }
+    } else if (labelColumn != -1) {
+      if (row.size() > labelColumn && row.get(labelColumn).equals("")) {
+        return false;
+      } else if (row.size() <= labelColumn) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /** Add the entities from the rows of the template to the QuotedEntityChecker. */
   private void addEntities() {
     for (List<String> row : tableRows) {
@@ -670,6 +761,144 @@ public class Template {
     this.parser = new ManchesterOWLSyntaxClassExpressionParser(dataFactory, checker);
   }
 
+  /**
+   * Process the table rows, on several threads if more than one thread is set.
+   *
+   * @param stopOnException if true, stop at the first row that cannot be parsed
+   * @return list of exceptions in row order
+   * @throws Exception on issue creating axioms from template
+   */
+  private List<RowParseException> processTableRows(boolean stopOnException) throws Exception {
+    if (threads > 1 && tableRows.size() > 1) {
+      return processRowsInParallel(stopOnException);
+    }
+    return processRows(tableRows, stopOnException);
+  }
+
+  /**
+   * Given the exceptions from processing rows, throw the first one if exitOnException is true.
+   * Otherwise, log each one in row order and add it to the errors table.
+   *
+   * @param exceptions list of exceptions in row order
+   * @param exitOnException if true, throw the first exception
+   * @param errors errors table to add to
+   * @return true if there were any exceptions
+   * @throws RowParseException the first exception, if exitOnException is true
+   */
+  private boolean addErrors(
+      List<RowParseException> exceptions, boolean exitOnException, List<String[]> errors)
+      throws RowParseException {
+    for (RowParseException e : exceptions) {
+      // Unless specified, fail on the first exception
+      if (exitOnException) {
+        throw e;
+      }
+
+      // otherwise print exceptions in row order
+      String message = e.getMessage().substring(e.getMessage().indexOf("#") + 1);
+      logger.error(message);
+
+      // Only add to errors table if we have a row & col num
+      if (e.rowNum != -1 && e.colNum != -1) {
+        errors.add(
+            new String[] {this.name, IOHelper.cellToA1(e.rowNum, e.colNum), e.ruleID, message});
+      }
+    }
+    return !exceptions.isEmpty();
+  }
+
+  /**
+   * If there is an errors path, write the errors table to it, then exit unless force is true.
+   *
+   * @param errors errors table
+   * @param errorsPath path to errors table, or null
+   * @param force if true, do not exit
+   * @throws IOException on issue writing errors table
+   */
+  private void maybeWriteErrors(List<String[]> errors, String errorsPath, boolean force)
+      throws IOException {
+    if (errorsPath != null) {
+      // Write errors to file
+      IOHelper.writeTable(errors, errorsPath);
+      // Check if we want to force the output, otherwise exit now (as error)
+      if (!force) {
+        System.exit(1);
+      }
+    }
+  }
+
+  /**
+   * Process a list of rows in order, collecting the exceptions for rows that cannot be parsed.
+   *
+   * @param rows list of rows to process
+   * @param stopOnException if true, stop at the first row that cannot be parsed
+   * @return list of exceptions in row order
+   * @throws Exception on issue creating axioms from template
+   */
+  private List<RowParseException> processRows(List<List<String>> rows, boolean stopOnException)
+      throws Exception {
+    List<RowParseException> exceptions = new ArrayList<>();
+    for (List<String> row : rows) {
+      try {
+        processRow(row);
+      } catch (RowParseException e) {
+        exceptions.add(e);
+        if (stopOnException) {
+          break;
+        }
+      }
+    }
+    return exceptions;
+  }
+
+  /**
+   * Split the table rows into chunks and process the chunks at the same time on the threads, each
+   * with a worker copy of this template. The axioms of the workers are added to this template and
+   * their exceptions are returned, both in row order.
+   *
+   * <p>A worker that creates data or object properties for names that are not declared may parse
+   * the later rows differently than a single thread would, and the workers after it did not know
+   * about those properties. The properties are added to the checker of this template, and the rows
+   * after that worker's chunk are processed again here in order, so that the result is the same as
+   * with one thread.
+   *
+   * @param stopOnException if true, each worker stops at the first row that cannot be parsed
+   * @return list of exceptions in row order
+   * @throws Exception on issue creating axioms from template
+   */
+  private List<RowParseException> processRowsInParallel(boolean stopOnException) throws Exception {
+    List<List<List<String>>> chunks = ThreadHelper.partition(tableRows, threads);
+    List<Template> workers = new ArrayList<>();
+    List<Callable<List<RowParseException>>> tasks = new ArrayList<>();
+    int start = 0;
+    for (List<List<String>> rows : chunks) {
+      Template worker = new Template(this, rowNum + start);
+      workers.add(worker);
+      tasks.add(() -> worker.processRows(rows, stopOnException));
+      start += rows.size();
+    }
+    List<List<RowParseException>> results = ThreadHelper.invokeAll(tasks, threads);
+
+    List<RowParseException> exceptions = new ArrayList<>();
+    int done = 0;
+    for (int i = 0; i < workers.size(); i++) {
+      Template worker = workers.get(i);
+      axioms.addAll(worker.axioms);
+      exceptions.addAll(results.get(i));
+      done += chunks.get(i).size();
+      if (checker.addViewProperties(worker.checker)
+          && done < tableRows.size()
+          && !(stopOnException && !exceptions.isEmpty())) {
+        logger.debug("Processing rows after {} again with new properties", rowNum + done);
+        rowNum += done;
+        exceptions.addAll(processRows(tableRows.subList(done, tableRows.size()), stopOnException));
+        return exceptions;
+      }
+    }
+    rowNum += tableRows.size();
+    return exceptions;
+  }
+
   /**
    * Process each of the table rows. First, get an entity based on ID or label. If the template
    * contains an ID column, but it is empty, skip that row. If it does not contain an ID column,
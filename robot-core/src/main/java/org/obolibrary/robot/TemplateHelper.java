@@ -1010,6 +1010,31 @@ public class TemplateHelper {
    * @throws IOException on file or reading problems
    */
   public static List<List<String>> readTable(String path) throws IOException {
+    return readXSV(new FileReader(path), getSeparator(path));
+  }
+
+  /**
+   * Open a table from a path to read its rows one at a time, instead of reading the whole table.
+   *
+   * @param path file path to the CSV or TSV file
+   * @return a CSVReader over the rows, which must be closed
+   * @throws IOException on file or reading problems
+   */
+  public static CSVReader openTable(String path) throws IOException {
+    char separator = getSeparator(path);
+    return new CSVReaderBuilder(new FileReader(path))
+        .withCSVParser(new CSVParserBuilder().withSeparator(separator).build())
+        .build();
+  }
+
+  /**
+   * Given a path to a table, return the separator for its file extension.
+   *
+   * @param path file path to the CSV or TSV file
+   * @return comma or tab separator
+   * @throws IOException if the file extension is not a table extension
+   */
+  private static char getSeparator(String path) throws IOException {
     File file = new File(path);
     if (!file.exists()) {
       throw new IllegalArgumentException(String.format(templateFileError, file.getName()));
@@ -1018,10 +1043,10 @@ public class TemplateHelper {
     extension = extension.trim().toLowerCase();
     switch (extension) {
       case "csv":
-        return readCSV(new FileReader(path));
+        return ',';
       case "tsv":
       case "tab":
-        return readTSV(new FileReader(path));
+        return '\t';
       default:
         throw new IOException(String.format(fileTypeError, path));
     }
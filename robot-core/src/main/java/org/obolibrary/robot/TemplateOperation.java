@@ -1,6 +1,8 @@
 package org.obolibrary.robot;
 
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
+import com.opencsv.CSVReader;
 import java.util.*;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.manchestersyntax.parser.ManchesterOWLSyntaxClassExpressionParser;
@@ -42,6 +44,9 @@ public class TemplateOperation {
   /** Namespace for error messages. */
   private static final String NS = "template#";
 
+  /** Number of rows to read and convert to axioms at once when streaming. */
+  private static final int streamBatchSize = 10000;
+
   /**
    * Error message when an axiom annotation does not have the appropriate annotation or class
    * expression to the left. Expects: table name, row number, row id, column number, column name,
@@ -110,6 +115,8 @@ public class TemplateOperation {
     options.put("force", "false");
     options.put("errors", null);
     options.put("external-template", null);
+    options.put("threads", null);
+    options.put("stream", "false");
     return options;
   }
 
@@ -150,6 +157,7 @@ public class TemplateOperation {
       Map<String, String> options)
       throws Exception {
     Template template = new Template(tableName, table, inputOntology, ioHelper);
+    template.setThreads(ThreadHelper.getThreads(options));
     boolean force = OptionsHelper.optionIsTrue(options, "force");
     String errorsPath = OptionsHelper.getOption(options, "errors", null);
     return template.generateOutputOntology(null, force, errorsPath);
@@ -181,6 +189,7 @@ public class TemplateOperation {
       if (options.get("external-template") != null) {
         template.setRowNum(1);
       }
+      template.setThreads(ThreadHelper.getThreads(options));
       // Update the checker with new labels
       checker = template.getChecker();
       boolean force = OptionsHelper.optionIsTrue(options, "force");
@@ -192,6 +201,89 @@ public class TemplateOperation {
     return MergeOperation.merge(outputOntologies);
   }
 
+  /**
+   * Given an OWLOntology, an IOHelper, a list of paths to tables, an optional external template
+   * row, an AxiomStreamWriter, and a map of template options, use the tables as templates and
+   * write the generated axioms to the writer. Rows are read from the tables and converted to
+   * axioms in batches, so neither the tables nor the output ontology are held in memory.
+   *
+   * <p>Each table is read twice. The first pass adds the entities of every table to a shared label
+   * index, so that rows can refer to entities defined anywhere in the tables. The second pass
+   * generates and writes the axioms.
+   *
+   * <p>The errors of all the tables are returned instead of written, so that the caller can first
+   * close and remove the output.
+   *
+   * @param inputOntology OWLOntology to use to get existing entities
+   * @param ioHelper IOHelper to resolve prefixes
+   * @param tablePaths paths to the CSV or TSV tables
+   * @param externalTemplate ROBOT template row to use for every table, or null when each table has
+   *     its own template row
+   * @param writer AxiomStreamWriter to write the axioms to
+   * @param options map of template options
+   * @return errors table with a header row, which has no other rows if there were no errors
+   * @throws Exception on any issue
+   */
+  public static List<String[]> streamTemplates(
+      OWLOntology inputOntology,
+      IOHelper ioHelper,
+      List<String> tablePaths,
+      List<String> externalTemplate,
+      AxiomStreamWriter writer,
+      Map<String, String> options)
+      throws Exception {
+    boolean force = OptionsHelper.optionIsTrue(options, "force");
+    String errorsPath = OptionsHelper.getOption(options, "errors", null);
+
+    // Read the headers and add the entities of each table
+    QuotedEntityChecker checker = null;
+    List<Template> templates = new ArrayList<>();
+    for (String tablePath : tablePaths) {
+      try (CSVReader reader = TemplateHelper.openTable(tablePath)) {
+        Iterator<List<String>> rows = readRows(reader);
+        List<List<String>> headerRows = new ArrayList<>();
+        if (rows.hasNext()) {
+          headerRows.add(rows.next());
+        }
+        if (externalTemplate != null) {
+          headerRows.add(externalTemplate);
+        } else if (rows.hasNext()) {
+          headerRows.add(rows.next());
+        }
+        // The input ontology only needs to be added to the first checker, which is shared
+        Template template =
+            new Template(
+                tablePath,
+                headerRows,
+                checker == null ? inputOntology : null,
+                ioHelper,
+                checker);
+        checker = template.getChecker();
+        template.addEntities(rows);
+        templates.add(template);
+      }
+    }
+
+    // Generate and write the axioms of each table
+    List<String[]> errors = new ArrayList<>();
+    errors.add(new String[] {"table", "cell", "rule ID", "message"});
+    for (int i = 0; i < templates.size(); i++) {
+      Template template = templates.get(i);
+      if (externalTemplate != null) {
+        template.setRowNum(1);
+      }
+      template.setThreads(ThreadHelper.getThreads(options));
+      try (CSVReader reader = TemplateHelper.openTable(tablePaths.get(i))) {
+        Iterator<List<String>> rows = readRows(reader);
+        // Skip the header and template rows
+        Iterators.advance(rows, externalTemplate != null ? 1 : 2);
+        errors.addAll(
+            template.streamOutputAxioms(rows, writer, streamBatchSize, force, errorsPath));
+      }
+    }
+    return errors;
+  }
+
   /**
    * Find an annotation property with the given name or create one.
    *
@@ -844,4 +936,14 @@ public class TemplateOperation {
   public static boolean validateTemplateString(String template) {
     return TemplateHelper.validateTemplateString(template);
   }
+
+  /**
+   * Return an iterator over the rows of a table as lists of strings.
+   *
+   * @param reader CSVReader over the table
+   * @return iterator over rows
+   */
+  private static Iterator<List<String>> readRows(CSVReader reader) {
+    return Iterators.transform(reader.iterator(), row -> new ArrayList<>(Arrays.asList(row)));
+  }
 }
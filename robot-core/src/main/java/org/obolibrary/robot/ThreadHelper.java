@@ -0,0 +1,157 @@
+package org.obolibrary.robot;
+
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Convenience methods for running independent tasks on a bounded pool of worker threads. */
+public class ThreadHelper {
+  /** Logger. */
+  private static final Logger logger = LoggerFactory.getLogger(ThreadHelper.class);
+
+  /** Namespace for error messages. */
+  private static final String NS = "errors#";
+
+  /** Error message when the number of threads is not a positive integer. Expects the value. */
+  private static final String invalidThreadsError =
+      NS + "INVALID THREADS ERROR --threads must be a positive integer, not '%s'";
+
+  /** Number of chunks per thread, so that one slow chunk does not hold up the rest. */
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  /**
+   * Given a map of options, return the value of the 'threads' option as an integer. If the option
+   * is not set, return 1. The value 'auto' uses one thread per available processor.
+   *
+   * @param options map of options
+   * @return number of worker threads to use, at least 1
+   * @throws IllegalArgumentException if the value is not a positive integer or 'auto'
+   */
+  public static int getThreads(Map<String, String> options) throws IllegalArgumentException {
+    return parseThreads(OptionsHelper.getOption(options, "threads"));
+  }
+
+  /**
+   * Given a string value for the number of threads, return it as an integer. Null returns 1 and
+   * 'auto' returns the number of available processors.
+   *
+   * @param value string value, maybe null
+   * @return number of worker threads to use, at least 1
+   * @throws IllegalArgumentException if the value is not a positive integer or 'auto'
+   */
+  public static int parseThreads(String value) throws IllegalArgumentException {
+    if (value == null) {
+      return 1;
+    }
+    value = value.trim();
+    if (value.equalsIgnoreCase("auto")) {
+      return Runtime.getRuntime().availableProcessors();
+    }
+    int threads;
+    try {
+      threads = Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(String.format(invalidThreadsError, value), e);
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException(String.format(invalidThreadsError, value));
+    }
+    return threads;
+  }
+
+  /**
+   * Given a list of tasks and a maximum number of threads, run the tasks and return their results
+   * in the same order as the tasks. When only one thread is requested (or there is only one task),
+   * the tasks are run one after another on the calling thread. If any task fails, the remaining
+   * tasks are cancelled and the exception of the first failed task (in task order) is thrown.
+   *
+   * @param tasks list of tasks to run
+   * @param threads maximum number of worker threads
+   * @param <T> result type of the tasks
+   * @return list of results in task order
+   * @throws Exception the exception thrown by the first failed task
+   */
+  public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks, int threads)
+      throws Exception {
+    List<T> results = new ArrayList<>();
+    if (threads <= 1 || tasks.size() <= 1) {
+      for (Callable<T> task : tasks) {
+        results.add(task.call());
+      }
+      return results;
+    }
+
+    int poolSize = Math.min(threads, tasks.size());
+    logger.debug("Running {} tasks on {} threads", tasks.size(), poolSize);
+    ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+    try {
+      List<Future<T>> futures = new ArrayList<>();
+      for (Callable<T> task : tasks) {
+        futures.add(executor.submit(task));
+      }
+      for (Future<T> future : futures) {
+        try {
+          results.add(future.get());
+        } catch (ExecutionException e) {
+          for (Future<T> f : futures) {
+            f.cancel(true);
+          }
+          Throwable cause = e.getCause();
+          if (cause instanceof Exception) {
+            throw (Exception) cause;
+          } else if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          throw e;
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return results;
+  }
+
+  /**
+   * Given a list of tasks and a maximum number of threads, run the tasks and return their results
+   * in the same order as the tasks, like invokeAll. Checked exceptions thrown by a task are wrapped
+   * in a RuntimeException.
+   *
+   * @param tasks list of tasks to run
+   * @param threads maximum number of worker threads
+   * @param <T> result type of the tasks
+   * @return list of results in task order
+   */
+  public static <T> List<T> invokeAllUnchecked(List<? extends Callable<T>> tasks, int threads) {
+    try {
+      return invokeAll(tasks, threads);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Given a list of items and a maximum number of threads, split the items into consecutive chunks
+   * to process as separate tasks. There are a few chunks for each thread, so that one slow chunk
+   * does not hold up the rest.
+   *
+   * @param items list of items to split
+   * @param threads maximum number of worker threads
+   * @param <T> type of the items
+   * @return list of chunks, in the order of the items
+   */
+  public static <T> List<List<T>> partition(List<T> items, int threads) {
+    int chunks = Math.max(1, threads) * CHUNKS_PER_THREAD;
+    int chunkSize = Math.max(1, (items.size() + chunks - 1) / chunks);
+    return Lists.partition(items, chunkSize);
+  }
+}
@@ -1,7 +1,13 @@
 package org.obolibrary.robot.checks;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import org.obolibrary.robot.ThreadHelper;
 import org.obolibrary.robot.checks.InvalidReferenceViolation.Category;
 import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.model.parameters.Imports;
@@ -86,18 +92,55 @@ public class InvalidReferenceChecker {
    */
   public static Set<InvalidReferenceViolation> getInvalidReferenceViolations(
       OWLOntology ontology, Set<OWLAxiom> axioms, boolean ignoreDangling) {
+    return getInvalidReferenceViolations(ontology, axioms, ignoreDangling, 1);
+  }
+
+  /**
+   * Finds axioms that reference a deprecated or dangling entity, splitting the axioms over
+   * threads. The deprecated entities of the imports closure are indexed once, and each entity is
+   * only checked for being dangling once, no matter how many axioms reference it.
+   *
+   * <p>Declaration axioms that reference a deprecated class do not count.
+   *
+   * <p>Note that this does not count the value field of an annotation assertion, since these
+   * reference IRIs and not entities
+   *
+   * @param ontology the OWLOntology to check
+   * @param axioms set of OWLAxioms to check
+   * @param ignoreDangling if true, ignore dangling entities
+   * @param threads maximum number of threads to use
+   * @return all violations
+   */
+  public static Set<InvalidReferenceViolation> getInvalidReferenceViolations(
+      OWLOntology ontology, Set<OWLAxiom> axioms, boolean ignoreDangling, int threads) {
+    Set<IRI> deprecated = getDeprecatedIRIs(ontology);
+    Map<OWLEntity, Boolean> dangling = new ConcurrentHashMap<>();
+    List<OWLAxiom> axiomList = new ArrayList<>(axioms);
+    List<Callable<Set<InvalidReferenceViolation>>> tasks = new ArrayList<>();
+    for (List<OWLAxiom> chunk : ThreadHelper.partition(axiomList, threads)) {
+      tasks.add(
+          () -> {
+            Set<InvalidReferenceViolation> violations = new HashSet<>();
+            for (OWLAxiom axiom : chunk) {
+              for (OWLEntity e : expandedSignature(axiom, ontology)) {
+                if (!ignoreDangling
+                    && dangling.computeIfAbsent(e, k -> isDangling(ontology, k))) {
+                  violations.add(InvalidReferenceViolation.create(axiom, e, Category.DANGLING));
+                }
+                if (deprecated.contains(e.getIRI())) {
+                  if (!(axiom instanceof OWLDeclarationAxiom)) {
+                    violations.add(
+                        InvalidReferenceViolation.create(axiom, e, Category.DEPRECATED));
+                  }
+                }
+              }
+            }
+            return violations;
+          });
+    }
     Set<InvalidReferenceViolation> violations = new HashSet<>();
-    for (OWLAxiom axiom : axioms) {
-      for (OWLEntity e : expandedSignature(axiom, ontology)) {
-        if (!ignoreDangling && isDangling(ontology, e)) {
-          violations.add(InvalidReferenceViolation.create(axiom, e, Category.DANGLING));
-        }
-        if (isDeprecated(ontology, e)) {
-          if (!(axiom instanceof OWLDeclarationAxiom)) {
-            violations.add(InvalidReferenceViolation.create(axiom, e, Category.DEPRECATED));
-          }
-        }
-      }
+    for (Set<InvalidReferenceViolation> result : ThreadHelper.invokeAllUnchecked(tasks, threads)) {
+      violations.addAll(result);
     }
     return violations;
   }
@@ -109,8 +152,19 @@ public class InvalidReferenceChecker {
    */
   public static Set<InvalidReferenceViolation> getInvalidReferenceViolations(
       OWLOntology ontology, boolean ignoreDangling) {
+    return getInvalidReferenceViolations(ontology, ignoreDangling, 1);
+  }
+
+  /**
+   * @param ontology the OWLOntology to check
+   * @param ignoreDangling boolean to ignore dangling classes
+   * @param threads maximum number of threads to use
+   * @return all violations in ontology
+   */
+  public static Set<InvalidReferenceViolation> getInvalidReferenceViolations(
+      OWLOntology ontology, boolean ignoreDangling, int threads) {
     return getInvalidReferenceViolations(
-        ontology, ontology.getAxioms(Imports.INCLUDED), ignoreDangling);
+        ontology, ontology.getAxioms(Imports.INCLUDED), ignoreDangling, threads);
   }
 
   /**
@@ -127,6 +181,30 @@ public class InvalidReferenceChecker {
         importModule, baseOntology.getAxioms(Imports.INCLUDED), true);
   }
 
+  /**
+   * Get the IRIs of all the deprecated entities in the imports closure of an ontology, in one pass
+   * over the deprecation annotation assertions. These are the entities for which isDeprecated
+   * returns true.
+   *
+   * @param ontology the OWLOntology to check
+   * @return set of deprecated IRIs
+   */
+  private static Set<IRI> getDeprecatedIRIs(OWLOntology ontology) {
+    Set<IRI> iris = new HashSet<>();
+    for (OWLOntology o : ontology.getImportsClosure()) {
+      for (OWLAnnotationAssertionAxiom a : o.getAxioms(AxiomType.ANNOTATION_ASSERTION)) {
+        if (!a.isDeprecatedIRIAssertion() || !a.getSubject().isIRI()) {
+          continue;
+        }
+        OWLLiteral value = a.getValue().asLiteral().orNull();
+        if (value != null && value.parseBoolean()) {
+          iris.add((IRI) a.getSubject());
+        }
+      }
+    }
+    return iris;
+  }
+
   /**
    * Get the entity signature for an axiom. This expands the standard axiom signature to include
    * entities found in the ontology which have IRIs used as the subject for an annotation assertion
@@ -0,0 +1,470 @@
+package org.obolibrary.robot.checks;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
+import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
+
+/**
+ * Native implementations of default report rules that only need to look at annotations. Each rule
+ * makes one pass over the axioms of the ontology (excluding imports) and returns the same results
+ * as its report query, in the same order, without converting the ontology to a dataset.
+ */
+public class NativeReportRules {
+
+  /** IRI for rdfs:label. */
+  private static final IRI rdfsLabel = OWLRDFVocabulary.RDFS_LABEL.getIRI();
+
+  /** IRI for owl:deprecated. */
+  private static final IRI owlDeprecated = OWLRDFVocabulary.OWL_DEPRECATED.getIRI();
+
+  /** IRI for definition. */
+  private static final IRI definition = IRI.create("http://purl.obolibrary.org/obo/IAO_0000115");
+
+  /** IRI for elucidation. */
+  private static final IRI elucidation = IRI.create("http://purl.obolibrary.org/obo/IAO_0000600");
+
+  /** IRI for oboInOwl:SubsetProperty. */
+  private static final IRI subsetProperty =
+      IRI.create("http://www.geneontology.org/formats/oboInOwl#SubsetProperty");
+
+  /** Trailing whitespace, as matched by the label_whitespace query. */
+  private static final Pattern trailingWhitespace = Pattern.compile("[\\s\r\n]+$");
+
+  /** Leading whitespace, as matched by the label_whitespace query. */
+  private static final Pattern leadingWhitespace = Pattern.compile("^[\\s\r\n]+");
+
+  /** Native rules by rule name. */
+  private static final Map<String, ReportRule> rules = new HashMap<>();
+
+  static {
+    addRule(new DuplicateLabel());
+    addRule(new LabelWhitespace());
+    addRule(new MissingDefinition());
+    addRule(new MissingLabel());
+    addRule(new MultipleLabels());
+  }
+
+  /**
+   * Given a rule name, return the native implementation of that rule, or null if there is none.
+   *
+   * @param ruleName name of a default report rule
+   * @return ReportRule or null
+   */
+  public static ReportRule getRule(String ruleName) {
+    return rules.get(ruleName);
+  }
+
+  /**
+   * Return the names of all rules that have a native implementation.
+   *
+   * @return set of rule names
+   */
+  public static Set<String> getRuleNames() {
+    return new TreeSet<>(rules.keySet());
+  }
+
+  /**
+   * Add a rule to the map of native rules.
+   *
+   * @param rule ReportRule to add
+   */
+  private static void addRule(ReportRule rule) {
+    rules.put(rule.getRuleName(), rule);
+  }
+
+  /** Duplicate Label: two different subjects have been assigned the same label. */
+  private static class DuplicateLabel implements ReportRule {
+    @Override
+    public String getRuleName() {
+      return "duplicate_label";
+    }
+
+    @Override
+    public List<String[]> getResults(OWLOntology ontology) {
+      AnnotationScan scan = new AnnotationScan(ontology, false);
+      Map<OWLAnnotationValue, Set<IRI>> subjectsByLabel = new HashMap<>();
+      for (Map.Entry<IRI, Set<OWLAnnotationValue>> entry : scan.labels.entrySet()) {
+        for (OWLAnnotationValue value : entry.getValue()) {
+          subjectsByLabel.computeIfAbsent(value, v -> new HashSet<>()).add(entry.getKey());
+        }
+      }
+
+      List<Result> results = new ArrayList<>();
+      for (Map.Entry<OWLAnnotationValue, Set<IRI>> entry : subjectsByLabel.entrySet()) {
+        Set<IRI> subjects = entry.getValue();
+        if (subjects.size() < 2) {
+          continue;
+        }
+        // Only skip pairs of subjects that are both deprecated
+        long deprecatedCount = subjects.stream().filter(scan.deprecated::contains).count();
+        for (IRI subject : subjects) {
+          if (!scan.deprecated.contains(subject) || deprecatedCount < subjects.size()) {
+            results.add(new Result(subject, rdfsLabel, entry.getKey()));
+          }
+        }
+      }
+      // ORDER BY DESC(UCASE(str(?value)))
+      results.sort(
+          Comparator.comparing((Result r) -> r.str.toUpperCase(Locale.ROOT))
+              .reversed()
+              .thenComparing(r -> r.entity));
+      return render(results);
+    }
+  }
+
+  /** Label Whitespace: a label has leading or trailing whitespace. */
+  private static class LabelWhitespace implements ReportRule {
+    @Override
+    public String getRuleName() {
+      return "label_whitespace";
+    }
+
+    @Override
+    public List<String[]> getResults(OWLOntology ontology) {
+      AnnotationScan scan = new AnnotationScan(ontology, false);
+      List<Result> results = new ArrayList<>();
+      for (Map.Entry<IRI, Set<OWLAnnotationValue>> entry : scan.labels.entrySet()) {
+        for (OWLAnnotationValue value : entry.getValue()) {
+          String str = str(value);
+          if (trailingWhitespace.matcher(str).find() || leadingWhitespace.matcher(str).find()) {
+            results.add(new Result(entry.getKey(), rdfsLabel, value));
+          }
+        }
+      }
+      return sortByEntity(results);
+    }
+  }
+
+  /** Missing Definition: an entity does not have a definition or elucidation. */
+  private static class MissingDefinition implements ReportRule {
+    @Override
+    public String getRuleName() {
+      return "missing_definition";
+    }
+
+    @Override
+    public List<String[]> getResults(OWLOntology ontology) {
+      AnnotationScan scan = new AnnotationScan(ontology, true);
+      List<Result> results = new ArrayList<>();
+      for (IRI subject : scan.described) {
+        if (scan.defined.contains(subject)
+            || scan.isExcluded(subject)
+            || ontology.containsIndividualInSignature(subject, Imports.EXCLUDED)) {
+          continue;
+        }
+        results.add(new Result(subject, definition, null));
+      }
+      return sortByEntity(results);
+    }
+  }
+
+  /** Missing Label: an entity does not have a label or the label is empty. */
+  private static class MissingLabel implements ReportRule {
+    @Override
+    public String getRuleName() {
+      return "missing_label";
+    }
+
+    @Override
+    public List<String[]> getResults(OWLOntology ontology) {
+      AnnotationScan scan = new AnnotationScan(ontology, true);
+      List<Result> results = new ArrayList<>();
+      for (IRI subject : scan.described) {
+        if (scan.isExcluded(subject)) {
+          continue;
+        }
+        Set<OWLAnnotationValue> labels = scan.labels.getOrDefault(subject, Collections.emptySet());
+        if (labels.stream().allMatch(v -> str(v).isEmpty())) {
+          results.add(new Result(subject, rdfsLabel, null));
+        }
+      }
+      return sortByEntity(results);
+    }
+  }
+
+  /** Multiple Labels: an entity has more than one label. */
+  private static class MultipleLabels implements ReportRule {
+    @Override
+    public String getRuleName() {
+      return "multiple_labels";
+    }
+
+    @Override
+    public List<String[]> getResults(OWLOntology ontology) {
+      AnnotationScan scan = new AnnotationScan(ontology, false);
+      List<Result> results = new ArrayList<>();
+      for (Map.Entry<IRI, Set<OWLAnnotationValue>> entry : scan.labels.entrySet()) {
+        IRI subject = entry.getKey();
+        if (entry.getValue().size() < 2 || scan.deprecated.contains(subject)) {
+          continue;
+        }
+        for (OWLAnnotationValue value : entry.getValue()) {
+          results.add(new Result(subject, rdfsLabel, value));
+        }
+      }
+      return sortByEntity(results);
+    }
+  }
+
+  /**
+   * The annotations that the native rules need, collected in one pass over the ontology. Only
+   * named subjects are collected, because the report queries skip blank nodes.
+   */
+  private static class AnnotationScan {
+    /** The IRI of the ontology, or null. */
+    private final IRI ontologyIRI;
+
+    /** Distinct label values by subject. */
+    private final Map<IRI, Set<OWLAnnotationValue>> labels = new HashMap<>();
+
+    /** Subjects that are deprecated. */
+    private final Set<IRI> deprecated = new HashSet<>();
+
+    /** Subjects with a definition or elucidation. */
+    private final Set<IRI> defined = new HashSet<>();
+
+    /** Properties that are sub-properties of oboInOwl:SubsetProperty. */
+    private final Set<IRI> subsetProperties = new HashSet<>();
+
+    /**
+     * Subjects of at least one triple whose predicate is not rdf:type or one of the OWL
+     * equivalence, disjointness, sameness, or inverse predicates.
+     */
+    private final Set<IRI> described = new HashSet<>();
+
+    /**
+     * Scan the ontology. When allAxioms is false, only annotation assertions are scanned and the
+     * subset properties and described subjects are not collected.
+     *
+     * @param ontology OWLOntology to scan
+     * @param allAxioms if true, scan all axioms
+     */
+    private AnnotationScan(OWLOntology ontology, boolean allAxioms) {
+      OWLOntologyID id = ontology.getOntologyID();
+      ontologyIRI = id.getOntologyIRI().isPresent() ? id.getOntologyIRI().get() : null;
+      Collection<? extends OWLAxiom> axioms =
+          allAxioms ? ontology.getAxioms() : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION);
+      for (OWLAxiom axiom : axioms) {
+        if (axiom instanceof OWLAnnotationAssertionAxiom) {
+          addAnnotation((OWLAnnotationAssertionAxiom) axiom);
+        } else {
+          addAxiom(axiom);
+        }
+      }
+    }
+
+    /**
+     * Add the details of an annotation assertion.
+     *
+     * @param axiom OWLAnnotationAssertionAxiom
+     */
+    private void addAnnotation(OWLAnnotationAssertionAxiom axiom) {
+      if (!(axiom.getSubject() instanceof IRI)) {
+        return;
+      }
+      IRI subject = (IRI) axiom.getSubject();
+      IRI property = axiom.getProperty().getIRI();
+      OWLAnnotationValue value = axiom.getValue();
+      described.add(subject);
+      if (property.equals(rdfsLabel)) {
+        labels.computeIfAbsent(subject, s -> new HashSet<>()).add(value);
+      } else if (property.equals(owlDeprecated)) {
+        // Literals are matched by value, so "1"^^xsd:boolean is also true
+        if (value instanceof OWLLiteral) {
+          OWLLiteral literal = (OWLLiteral) value;
+          if (literal.isBoolean() && literal.parseBoolean()) {
+            deprecated.add(subject);
+          }
+        }
+      } else if (property.equals(definition) || property.equals(elucidation)) {
+        defined.add(subject);
+      }
+    }
+
+    /**
+     * Add the named subjects that an axiom other than an annotation assertion is rendered with in
+     * RDF, when the predicate is not one that the report queries ignore, and any sub-properties of
+     * oboInOwl:SubsetProperty.
+     *
+     * @param axiom OWLAxiom
+     */
+    private void addAxiom(OWLAxiom axiom) {
+      if (axiom instanceof OWLSubClassOfAxiom) {
+        addSubject(((OWLSubClassOfAxiom) axiom).getSubClass());
+      } else if (axiom instanceof OWLDisjointUnionAxiom) {
+        addSubject(((OWLDisjointUnionAxiom) axiom).getOWLClass());
+      } else if (axiom instanceof OWLSubAnnotationPropertyOfAxiom) {
+        OWLSubAnnotationPropertyOfAxiom ax = (OWLSubAnnotationPropertyOfAxiom) axiom;
+        addSubProperty(ax.getSubProperty(), ax.getSuperProperty());
+      } else if (axiom instanceof OWLSubPropertyAxiom) {
+        OWLSubPropertyAxiom<?> ax = (OWLSubPropertyAxiom<?>) axiom;
+        addSubProperty(ax.getSubProperty(), ax.getSuperProperty());
+      } else if (axiom instanceof OWLSubPropertyChainOfAxiom) {
+        addSubject(((OWLSubPropertyChainOfAxiom) axiom).getSuperProperty());
+      } else if (axiom instanceof OWLUnaryPropertyAxiom
+          && (axiom.isOfType(AxiomType.OBJECT_PROPERTY_DOMAIN)
+              || axiom.isOfType(AxiomType.OBJECT_PROPERTY_RANGE)
+              || axiom.isOfType(AxiomType.DATA_PROPERTY_DOMAIN)
+              || axiom.isOfType(AxiomType.DATA_PROPERTY_RANGE))) {
+        addSubject(((OWLUnaryPropertyAxiom<?>) axiom).getProperty());
+      } else if (axiom instanceof OWLAnnotationPropertyDomainAxiom) {
+        addSubject(((OWLAnnotationPropertyDomainAxiom) axiom).getProperty());
+      } else if (axiom instanceof OWLAnnotationPropertyRangeAxiom) {
+        addSubject(((OWLAnnotationPropertyRangeAxiom) axiom).getProperty());
+      } else if (axiom instanceof OWLObjectPropertyAssertionAxiom) {
+        // Assertions on inverse properties are rendered with subject and object swapped
+        addSubject(((OWLObjectPropertyAssertionAxiom) axiom).getSimplified().getSubject());
+      } else if (axiom instanceof OWLDataPropertyAssertionAxiom) {
+        addSubject(((OWLDataPropertyAssertionAxiom) axiom).getSubject());
+      } else if (axiom instanceof OWLHasKeyAxiom) {
+        addSubject(((OWLHasKeyAxiom) axiom).getClassExpression());
+      } else if (axiom instanceof OWLNaryPropertyAxiom
+          && (axiom.isOfType(AxiomType.DISJOINT_OBJECT_PROPERTIES)
+              || axiom.isOfType(AxiomType.DISJOINT_DATA_PROPERTIES))) {
+        // Two disjoint properties are rendered with owl:propertyDisjointWith, more than two are
+        // rendered with a blank node
+        Set<? extends OWLObject> properties = ((OWLNaryPropertyAxiom<?>) axiom).getProperties();
+        if (properties.size() == 2) {
+          addSubject(properties.iterator().next());
+        }
+      }
+    }
+
+    /**
+     * Add a sub-property as a described subject, and as a subset property when the super-property
+     * is oboInOwl:SubsetProperty.
+     *
+     * @param subProperty sub-property
+     * @param superProperty super-property
+     */
+    private void addSubProperty(OWLObject subProperty, OWLObject superProperty) {
+      addSubject(subProperty);
+      if (subProperty instanceof OWLEntity
+          && superProperty instanceof OWLEntity
+          && ((OWLEntity) superProperty).getIRI().equals(subsetProperty)) {
+        subsetProperties.add(((OWLEntity) subProperty).getIRI());
+      }
+    }
+
+    /**
+     * Add an object as a described subject if it is named.
+     *
+     * @param object OWLObject subject of a triple
+     */
+    private void addSubject(OWLObject object) {
+      if (object instanceof OWLEntity) {
+        described.add(((OWLEntity) object).getIRI());
+      }
+    }
+
+    /**
+     * Return true if a subject is never reported by the missing label and missing definition
+     * rules: the ontology itself, deprecated subjects, and subset properties.
+     *
+     * @param subject IRI of subject
+     * @return true if excluded
+     */
+    private boolean isExcluded(IRI subject) {
+      return subject.equals(ontologyIRI)
+          || deprecated.contains(subject)
+          || subsetProperties.contains(subject);
+    }
+  }
+
+  /** One result of a native rule. */
+  private static class Result {
+    private final String entity;
+    private final String property;
+    private final OWLAnnotationValue value;
+    private final String str;
+
+    /**
+     * Create a new result.
+     *
+     * @param entity IRI of entity
+     * @param property IRI of property
+     * @param value value, or null
+     */
+    private Result(IRI entity, IRI property, OWLAnnotationValue value) {
+      this.entity = entity.toString();
+      this.property = property.toString();
+      this.value = value;
+      this.str = value == null ? "" : str(value);
+    }
+  }
+
+  /**
+   * Given a list of results, sort them by entity (ORDER BY ?entity) and render them.
+   *
+   * @param results list of results
+   * @return rendered results
+   */
+  private static List<String[]> sortByEntity(List<Result> results) {
+    results.sort(Comparator.comparing((Result r) -> r.entity).thenComparing(r -> r.str));
+    return render(results);
+  }
+
+  /**
+   * Given a list of results, render each one as an array of entity, property, and value.
+   *
+   * @param results list of results
+   * @return rendered results
+   */
+  private static List<String[]> render(List<Result> results) {
+    List<String[]> rendered = new ArrayList<>();
+    for (Result r : results) {
+      String value = r.value == null ? null : render(r.value);
+      rendered.add(new String[] {r.entity, r.property, value});
+    }
+    return rendered;
+  }
+
+  /**
+   * Given an annotation value, render it the same way as a query result for that value.
+   *
+   * @param value OWLAnnotationValue
+   * @return rendered value
+   */
+  private static String render(OWLAnnotationValue value) {
+    if (!(value instanceof OWLLiteral)) {
+      return str(value);
+    }
+    OWLLiteral literal = (OWLLiteral) value;
+    Literal jenaLiteral;
+    if (literal.hasLang()) {
+      jenaLiteral = ResourceFactory.createLangLiteral(literal.getLiteral(), literal.getLang());
+    } else if (literal.getDatatype().isBuiltIn()
+        && (literal.getDatatype().getBuiltInDatatype() == OWL2Datatype.RDF_PLAIN_LITERAL
+            || literal.getDatatype().getBuiltInDatatype() == OWL2Datatype.XSD_STRING)) {
+      jenaLiteral = ResourceFactory.createPlainLiteral(literal.getLiteral());
+    } else {
+      jenaLiteral =
+          ResourceFactory.createTypedLiteral(
+              literal.getLiteral(),
+              TypeMapper.getInstance()
+                  .getSafeTypeByName(literal.getDatatype().getIRI().toString()));
+    }
+    return jenaLiteral.toString();
+  }
+
+  /**
+   * Given an annotation value, return its string value, as the SPARQL str() function would.
+   *
+   * @param value OWLAnnotationValue
+   * @return string value
+   */
+  private static String str(OWLAnnotationValue value) {
+    if (value instanceof OWLLiteral) {
+      return ((OWLLiteral) value).getLiteral();
+    } else if (value instanceof IRI) {
+      return value.toString();
+    }
+    return ((OWLAnonymousIndividual) value).getID().toString();
+  }
+}
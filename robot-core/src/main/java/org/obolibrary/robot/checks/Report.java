@@ -8,6 +8,7 @@ import com.google.gson.GsonBuilder;
 import java.io.IOException;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 import org.obolibrary.robot.IOHelper;
 import org.obolibrary.robot.OntologyHelper;
 import org.obolibrary.robot.QuotedEntityChecker;
@@ -296,12 +297,7 @@ public class Report {
    */
   public Table toTable(String format) {
     ShortFormProvider provider = getProvider();
-
-    Table table = new Table(format);
-    for (String h : header) {
-      Column c = new Column(h, provider);
-      table.addColumn(c);
-    }
+    Table table = createTable(format, provider);
 
     // Sort results
     errorViolations.sort(new ReportQueryComparator());
@@ -315,6 +311,22 @@ public class Report {
     return table;
   }
 
+  /**
+   * Create an empty Table with the report headers.
+   *
+   * @param format String output format
+   * @param provider ShortFormProvider used to render objects
+   * @return export Table object with columns and no rows
+   */
+  Table createTable(String format, ShortFormProvider provider) {
+    Table table = new Table(format);
+    for (String h : header) {
+      Column c = new Column(h, provider);
+      table.addColumn(c);
+    }
+    return table;
+  }
+
   /**
    * Return the report in JSON format. This converts the YAML format of the report to JSON.
    *
@@ -355,105 +367,123 @@ public class Report {
    */
   private void addToTable(
       Table table, ShortFormProvider provider, String level, List<ReportQuery> reportQueries) {
+    for (ReportQuery rq : reportQueries) {
+      addRows(table, provider, level, rq, rq.getViolations(), table::addRow);
+    }
+  }
+
+  /**
+   * Given violations of a ReportQuery, create the Table rows for those violations and pass each
+   * row to a consumer. The rows are not added to the Table, which is only used for its columns and
+   * display renderer.
+   *
+   * @param table Table with report columns
+   * @param provider ShortFormProvider used to render objects
+   * @param level String violation level
+   * @param rq ReportQuery that the violations belong to
+   * @param violations collection of Violations to create rows for
+   * @param rows consumer of the created rows
+   */
+  void addRows(
+      Table table,
+      ShortFormProvider provider,
+      String level,
+      ReportQuery rq,
+      Collection<Violation> violations,
+      Consumer<Row> rows) {
     List<Column> columns = table.getColumns();
     RendererType displayRenderer = table.getDisplayRendererType();
-    for (ReportQuery rq : reportQueries) {
-      // Create a reusable cell for the violation level
-      Cell levelCell = new Cell(columns.get(0), level);
 
-      // Create a reusable cell for the name of the rule, maybe adding a link if we have one
-      String ruleName = rq.getRuleName();
-      Cell ruleCell = new Cell(columns.get(1), ruleName);
-      String ruleURL = rq.getRuleURL();
-      if (ruleURL != null) {
-        ruleCell.setHref(ruleURL);
+    // Create a reusable cell for the violation level
+    Cell levelCell = new Cell(columns.get(0), level);
+
+    // Create a reusable cell for the name of the rule, maybe adding a link if we have one
+    String ruleName = rq.getRuleName();
+    Cell ruleCell = new Cell(columns.get(1), ruleName);
+    String ruleURL = rq.getRuleURL();
+    if (ruleURL != null) {
+      ruleCell.setHref(ruleURL);
+    }
+
+    // Add a row for each violation
+    for (Violation v : violations) {
+      // Subject of the violation for the following rows
+      String subject;
+      if (ontologyIRI != null
+          && v.entity != null
+          && !v.entity.isAnonymous()
+          && v.entity.getIRI().toString().equals(ontologyIRI.toString())) {
+        // If the IRI is the ontology IRI, keep this as the full string
+        subject = ontologyIRI.toString();
+      } else {
+        // Otherwise, render the subject based on the display renderer
+        if (v.entity != null) {
+          subject = OntologyHelper.renderManchester(v.entity, provider, displayRenderer);
+        } else {
+          subject = v.subject;
+        }
       }
+      Cell subjectCell = new Cell(columns.get(2), subject);
+      for (Entry<OWLEntity, List<OWLEntity>> statement : v.entityStatements.entrySet()) {
+        // Property of the violation for the following rows
+        String property = "";
+        if (statement.getKey() != null) {
+          property = OntologyHelper.renderManchester(statement.getKey(), provider, displayRenderer);
+        }
+        Cell propertyCell = new Cell(columns.get(3), property);
 
-      // Add a row for each violation
-      for (Violation v : rq.getViolations()) {
-        // Subject of the violation for the following rows
-        String subject;
-        if (ontologyIRI != null
-            && v.entity != null
-            && !v.entity.isAnonymous()
-            && v.entity.getIRI().toString().equals(ontologyIRI.toString())) {
-          // If the IRI is the ontology IRI, keep this as the full string
-          subject = ontologyIRI.toString();
+        if (statement.getValue().isEmpty()) {
+          Cell valueCell = new Cell(columns.get(4), "");
+          addRowToTable(rows, level, levelCell, ruleCell, subjectCell, propertyCell, valueCell);
         } else {
-          // Otherwise, render the subject based on the display renderer
-          if (v.entity != null) {
-            subject = OntologyHelper.renderManchester(v.entity, provider, displayRenderer);
-          } else {
-            subject = v.subject;
+          for (OWLEntity e : statement.getValue()) {
+            String value = OntologyHelper.renderManchester(e, provider, displayRenderer);
+            Cell valueCell = new Cell(columns.get(4), value);
+            addRowToTable(rows, level, levelCell, ruleCell, subjectCell, propertyCell, valueCell);
           }
         }
-        Cell subjectCell = new Cell(columns.get(2), subject);
-        for (Entry<OWLEntity, List<OWLEntity>> statement : v.entityStatements.entrySet()) {
-          // Property of the violation for the following rows
-          String property = "";
-          if (statement.getKey() != null) {
-            property =
-                OntologyHelper.renderManchester(statement.getKey(), provider, displayRenderer);
-          }
-          Cell propertyCell = new Cell(columns.get(3), property);
-
-          if (statement.getValue().isEmpty()) {
-            Cell valueCell = new Cell(columns.get(4), "");
-            addRowToTable(table, level, levelCell, ruleCell, subjectCell, propertyCell, valueCell);
-          } else {
-            for (OWLEntity e : statement.getValue()) {
-              String value = OntologyHelper.renderManchester(e, provider, displayRenderer);
-              Cell valueCell = new Cell(columns.get(4), value);
-              addRowToTable(
-                  table, level, levelCell, ruleCell, subjectCell, propertyCell, valueCell);
-            }
-          }
+      }
+
+      for (Entry<OWLEntity, List<String>> statement : v.literalStatements.entrySet()) {
+        // Property of the violation for the following rows
+        String property = "";
+        if (statement.getKey() != null) {
+          property = OntologyHelper.renderManchester(statement.getKey(), provider, displayRenderer);
         }
+        Cell propertyCell = new Cell(columns.get(3), property);
 
-        for (Entry<OWLEntity, List<String>> statement : v.literalStatements.entrySet()) {
-          // Property of the violation for the following rows
-          String property = "";
-          if (statement.getKey() != null) {
-            property =
-                OntologyHelper.renderManchester(statement.getKey(), provider, displayRenderer);
-          }
-          Cell propertyCell = new Cell(columns.get(3), property);
-
-          if (statement.getValue().isEmpty()) {
-            Cell valueCell = new Cell(columns.get(4), "");
-            addRowToTable(table, level, levelCell, ruleCell, subjectCell, propertyCell, valueCell);
-          } else {
-            for (String value : statement.getValue()) {
-              if (value == null) {
-                value = "";
-              }
-              Cell valueCell = new Cell(columns.get(4), value);
-              addRowToTable(
-                  table, level, levelCell, ruleCell, subjectCell, propertyCell, valueCell);
+        if (statement.getValue().isEmpty()) {
+          Cell valueCell = new Cell(columns.get(4), "");
+          addRowToTable(rows, level, levelCell, ruleCell, subjectCell, propertyCell, valueCell);
+        } else {
+          for (String value : statement.getValue()) {
+            if (value == null) {
+              value = "";
             }
+            Cell valueCell = new Cell(columns.get(4), value);
+            addRowToTable(rows, level, levelCell, ruleCell, subjectCell, propertyCell, valueCell);
           }
         }
+      }
 
-        // Support for old statements method
-        for (Entry<String, List<String>> statement : v.statements.entrySet()) {
-          String property = statement.getKey();
-          if (property == null) {
-            property = "";
-          }
-          Cell propertyCell = new Cell(columns.get(3), property);
-
-          if (statement.getValue().isEmpty()) {
-            Cell valueCell = new Cell(columns.get(4), "");
-            addRowToTable(table, level, levelCell, ruleCell, subjectCell, propertyCell, valueCell);
-          } else {
-            for (String value : statement.getValue()) {
-              if (value == null) {
-                continue;
-              }
-              Cell valueCell = new Cell(columns.get(4), value);
-              addRowToTable(
-                  table, level, levelCell, ruleCell, subjectCell, propertyCell, valueCell);
+      // Support for old statements method
+      for (Entry<String, List<String>> statement : v.statements.entrySet()) {
+        String property = statement.getKey();
+        if (property == null) {
+          property = "";
+        }
+        Cell propertyCell = new Cell(columns.get(3), property);
+
+        if (statement.getValue().isEmpty()) {
+          Cell valueCell = new Cell(columns.get(4), "");
+          addRowToTable(rows, level, levelCell, ruleCell, subjectCell, propertyCell, valueCell);
+        } else {
+          for (String value : statement.getValue()) {
+            if (value == null) {
+              continue;
             }
+            Cell valueCell = new Cell(columns.get(4), value);
+            addRowToTable(rows, level, levelCell, ruleCell, subjectCell, propertyCell, valueCell);
           }
         }
       }
@@ -461,9 +491,9 @@ public class Report {
   }
 
   /**
-   * Add a row to a table.
+   * Add a row to a consumer of rows.
    *
-   * @param table Table to add row to
+   * @param rows consumer of rows to add row to
    * @param level String violation level
    * @param levelCell Cell for level
    * @param ruleCell Cell for rule
@@ -472,7 +502,7 @@ public class Report {
    * @param valueCell Cell for value
    */
   private void addRowToTable(
-      Table table,
+      Consumer<Row> rows,
       String level,
       Cell levelCell,
       Cell ruleCell,
@@ -485,7 +515,7 @@ public class Report {
     row.add(subjectCell);
     row.add(propertyCell);
     row.add(valueCell);
-    table.addRow(row);
+    rows.accept(row);
   }
 
   /**
@@ -493,7 +523,7 @@ public class Report {
    *
    * @return ShortFormProvider that either uses names (labels or CURIEs) or CURIEs
    */
-  private ShortFormProvider getProvider() {
+  ShortFormProvider getProvider() {
     CURIEShortFormProvider curieProvider = new CURIEShortFormProvider(ioHelper.getPrefixes());
     QuotedAnnotationValueShortFormProvider nameProvider =
         new QuotedAnnotationValueShortFormProvider(
@@ -535,54 +565,65 @@ public class Report {
       sb.append("  - ").append(ruleName).append(":");
       sb.append("\n");
       for (Violation v : rq.getViolations()) {
-        String subject =
-            OntologyHelper.renderManchester(v.entity, provider, RendererType.OBJECT_RENDERER);
-        sb.append("    - subject: \"").append(subject).append("\"");
-        sb.append("\n");
-        for (Entry<OWLEntity, List<OWLEntity>> statement : v.entityStatements.entrySet()) {
-          String property =
-              OntologyHelper.renderManchester(
-                  statement.getKey(), provider, RendererType.OBJECT_RENDERER);
-          sb.append("      property: \"").append(property).append("\"");
-          sb.append("\n");
-          if (statement.getValue().isEmpty()) {
-            continue;
-          }
-          sb.append("      values:");
-          sb.append("\n");
-          for (OWLEntity value : statement.getValue()) {
-            String display = "";
-            if (value != null) {
-              display =
-                  OntologyHelper.renderManchester(value, provider, RendererType.OBJECT_RENDERER);
-            }
-            sb.append("        - \"").append(display).append("\"");
-            sb.append("\n");
-          }
+        appendYAML(sb, provider, v);
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Given a StringBuilder, a ShortFormProvider, and a violation, append the YAML for that violation
+   * to the StringBuilder, as an item of a rule's list of violations.
+   *
+   * @param sb StringBuilder to append to
+   * @param provider ShortFormProvider used to render objects
+   * @param v Violation to append
+   */
+  void appendYAML(StringBuilder sb, ShortFormProvider provider, Violation v) {
+    String subject =
+        OntologyHelper.renderManchester(v.entity, provider, RendererType.OBJECT_RENDERER);
+    sb.append("    - subject: \"").append(subject).append("\"");
+    sb.append("\n");
+    for (Entry<OWLEntity, List<OWLEntity>> statement : v.entityStatements.entrySet()) {
+      String property =
+          OntologyHelper.renderManchester(
+              statement.getKey(), provider, RendererType.OBJECT_RENDERER);
+      sb.append("      property: \"").append(property).append("\"");
+      sb.append("\n");
+      if (statement.getValue().isEmpty()) {
+        continue;
+      }
+      sb.append("      values:");
+      sb.append("\n");
+      for (OWLEntity value : statement.getValue()) {
+        String display = "";
+        if (value != null) {
+          display = OntologyHelper.renderManchester(value, provider, RendererType.OBJECT_RENDERER);
         }
-        for (Entry<String, List<String>> statement : v.statements.entrySet()) {
-          String property = statement.getKey();
-          if (property == null) {
-            property = "";
-          }
-          sb.append("      property: \"").append(property).append("\"");
-          sb.append("\n");
-          if (statement.getValue().isEmpty()) {
-            continue;
-          }
-          sb.append("      values:");
-          sb.append("\n");
-          for (String value : statement.getValue()) {
-            if (value == null) {
-              value = "";
-            }
-            sb.append("        - \"").append(value).append("\"");
-            sb.append("\n");
-          }
+        sb.append("        - \"").append(display).append("\"");
+        sb.append("\n");
+      }
+    }
+    for (Entry<String, List<String>> statement : v.statements.entrySet()) {
+      String property = statement.getKey();
+      if (property == null) {
+        property = "";
+      }
+      sb.append("      property: \"").append(property).append("\"");
+      sb.append("\n");
+      if (statement.getValue().isEmpty()) {
+        continue;
+      }
+      sb.append("      values:");
+      sb.append("\n");
+      for (String value : statement.getValue()) {
+        if (value == null) {
+          value = "";
         }
+        sb.append("        - \"").append(value).append("\"");
+        sb.append("\n");
       }
     }
-    return sb.toString();
   }
 
   /**
@@ -0,0 +1,28 @@
+package org.obolibrary.robot.checks;
+
+import java.util.List;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * A report rule that is checked directly on an OWLOntology, as an alternative to running a
+ * ReportQuery over the ontology as a dataset.
+ */
+public interface ReportRule {
+
+  /**
+   * Return the name of the rule, which is the same as the name of the report query it implements.
+   *
+   * @return String rule name
+   */
+  String getRuleName();
+
+  /**
+   * Given an ontology, return the results of this rule. Each result is an array of entity,
+   * property, and value (which may be null), rendered the same way as the ?entity, ?property, and
+   * ?value bindings of the report query.
+   *
+   * @param ontology OWLOntology to check
+   * @return list of results
+   */
+  List<String[]> getResults(OWLOntology ontology);
+}
@@ -0,0 +1,302 @@
+package org.obolibrary.robot.checks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+import com.opencsv.CSVWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import org.obolibrary.robot.export.Row;
+import org.obolibrary.robot.export.Table;
+import org.semanticweb.owlapi.util.ShortFormProvider;
+
+/**
+ * Write report violations as soon as they are found, instead of collecting them in a Report. Only
+ * the number of violations at each level is kept in memory. Rules must be started in the same
+ * order that a Report sorts them (ERROR, WARN, then INFO, each by rule name) for the output to
+ * match the TSV, CSV, or JSON output of a Report.
+ */
+public class ReportWriter implements Closeable {
+
+  /** Reporting level INFO. */
+  private static final String INFO = "INFO";
+
+  /** Reporting level WARN. */
+  private static final String WARN = "WARN";
+
+  /** Reporting level ERROR. */
+  private static final String ERROR = "ERROR";
+
+  /** Report used to render violations. */
+  private final Report report;
+
+  /** ShortFormProvider used to render violations. */
+  private final ShortFormProvider provider;
+
+  /** Table with the report columns, used to render rows. */
+  private final Table table;
+
+  /** Writer for TSV and CSV output, or null. */
+  private CSVWriter csvWriter = null;
+
+  /** Writer for JSON output, or null. */
+  private JsonWriter jsonWriter = null;
+
+  /** Mapper to read the YAML of each violation for JSON output. */
+  private final ObjectMapper yamlMapper = new ObjectMapper(new YAMLFactory());
+
+  /** Gson to write each violation for JSON output. */
+  private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+  /** Count of violations for each level. */
+  private final Map<String, Integer> counts = new HashMap<>();
+
+  /** The ReportQuery that violations are currently added to. */
+  private ReportQuery currentRule = null;
+
+  /** True when the JSON violations of the current level have been started. */
+  private boolean levelStarted = false;
+
+  /** True when the JSON violations of the current rule have been started. */
+  private boolean ruleStarted = false;
+
+  /** Number of rows to keep for printing. */
+  private int print = 0;
+
+  /** The header and the first rows, for printing. */
+  private final List<String[]> printRows = new ArrayList<>();
+
+  /**
+   * Create a new ReportWriter that writes to a writer in the given format. The Report is only used
+   * to render the violations, and its own violations are not written.
+   *
+   * @param report Report used to render violations
+   * @param format output format: tsv, csv, or json
+   * @param writer Writer to write to, which is not closed by this ReportWriter
+   * @throws IOException on problem writing
+   */
+  public ReportWriter(Report report, String format, Writer writer) throws IOException {
+    this.report = report;
+    this.provider = report.getProvider();
+    counts.put(ERROR, 0);
+    counts.put(WARN, 0);
+    counts.put(INFO, 0);
+
+    switch (format.toLowerCase()) {
+      case "json":
+        table = report.createTable("tsv", provider);
+        jsonWriter = new JsonWriter(writer);
+        jsonWriter.setIndent("  ");
+        jsonWriter.setHtmlSafe(true);
+        jsonWriter.beginArray();
+        break;
+      case "csv":
+        table = report.createTable(format, provider);
+        csvWriter = createCSVWriter(writer, ',');
+        break;
+      case "tsv":
+        table = report.createTable(format, provider);
+        csvWriter = createCSVWriter(writer, '\t');
+        break;
+      default:
+        throw new IllegalArgumentException("Report violations cannot be written as " + format);
+    }
+
+    String[] header = getHeader();
+    printRows.add(header);
+    if (csvWriter != null) {
+      csvWriter.writeNext(header, false);
+    }
+  }
+
+  /**
+   * Set the number of rows to keep for printing.
+   *
+   * @param print number of rows
+   */
+  public void setPrint(int print) {
+    this.print = print;
+  }
+
+  /**
+   * Return the header and the first rows that were written, up to the print number. For JSON, the
+   * rows are in TSV format.
+   *
+   * @return list of rows, starting with the header
+   */
+  public List<String[]> getPrintRows() {
+    return printRows;
+  }
+
+  /**
+   * Start writing the violations of a ReportQuery. Any violations added after this belong to this
+   * ReportQuery.
+   *
+   * @param rq ReportQuery to start
+   * @throws IOException on problem writing
+   */
+  public void startRule(ReportQuery rq) throws IOException {
+    String level = rq.getLevel();
+    if (!counts.containsKey(level)) {
+      throw new IllegalArgumentException(
+          String.format("Unknown violation level for '%s': %s", rq.getRuleName(), level));
+    }
+    if (jsonWriter != null) {
+      endRule();
+      if (currentRule == null || !currentRule.getLevel().equals(level)) {
+        endLevel();
+        jsonWriter.beginObject();
+        jsonWriter.name("level").value(level);
+      }
+    }
+    currentRule = rq;
+  }
+
+  /**
+   * Write a violation of the current ReportQuery.
+   *
+   * @param v Violation to write
+   * @throws IOException on problem writing
+   */
+  public void addViolation(Violation v) throws IOException {
+    if (currentRule == null) {
+      throw new IllegalStateException("A rule must be started before adding violations");
+    }
+    String level = currentRule.getLevel();
+    counts.put(level, counts.get(level) + 1);
+
+    List<Row> rows = new ArrayList<>();
+    report.addRows(table, provider, level, currentRule, Collections.singletonList(v), rows::add);
+    for (Row row : rows) {
+      String[] array = row.toArray(table.getColumns(), "");
+      if (printRows.size() <= print) {
+        printRows.add(array);
+      }
+      if (csvWriter != null) {
+        csvWriter.writeNext(array, false);
+      }
+    }
+    if (jsonWriter != null) {
+      writeJSON(v);
+    }
+  }
+
+  /**
+   * Return the number of violations written at a level.
+   *
+   * @param level reporting level
+   * @return number of violations
+   */
+  public Integer getTotalViolations(String level) {
+    return counts.getOrDefault(level, 0);
+  }
+
+  /**
+   * Return the number of violations written.
+   *
+   * @return number of violations
+   */
+  public Integer getTotalViolations() {
+    return counts.get(ERROR) + counts.get(WARN) + counts.get(INFO);
+  }
+
+  /**
+   * Finish the output and flush the writer. The writer is not closed.
+   *
+   * @throws IOException on problem writing
+   */
+  @Override
+  public void close() throws IOException {
+    if (jsonWriter != null) {
+      endRule();
+      endLevel();
+      jsonWriter.endArray();
+      jsonWriter.flush();
+    }
+    if (csvWriter != null) {
+      csvWriter.flush();
+    }
+  }
+
+  /**
+   * Return the names of the report columns.
+   *
+   * @return array of column names
+   */
+  private String[] getHeader() {
+    return table.toList("").get(0);
+  }
+
+  /**
+   * Create a CSVWriter with the same settings as IOHelper.writeTable.
+   *
+   * @param writer Writer to write to
+   * @param separator table separator
+   * @return new CSVWriter
+   */
+  private static CSVWriter createCSVWriter(Writer writer, char separator) {
+    return new CSVWriter(
+        writer,
+        separator,
+        CSVWriter.DEFAULT_QUOTE_CHARACTER,
+        CSVWriter.DEFAULT_ESCAPE_CHARACTER,
+        CSVWriter.DEFAULT_LINE_END);
+  }
+
+  /**
+   * End the JSON violations of the current rule, if they were started.
+   *
+   * @throws IOException on problem writing
+   */
+  private void endRule() throws IOException {
+    if (ruleStarted) {
+      jsonWriter.endArray();
+      jsonWriter.endObject();
+      ruleStarted = false;
+    }
+  }
+
+  /**
+   * End the JSON object of the current level, if there is one.
+   *
+   * @throws IOException on problem writing
+   */
+  private void endLevel() throws IOException {
+    if (currentRule == null) {
+      return;
+    }
+    if (levelStarted) {
+      jsonWriter.endArray();
+      levelStarted = false;
+    }
+    jsonWriter.endObject();
+  }
+
+  /**
+   * Write a violation of the current rule as JSON, with the same content as Report.toJSON.
+   *
+   * @param v Violation to write
+   * @throws IOException on problem writing
+   */
+  private void writeJSON(Violation v) throws IOException {
+    if (!levelStarted) {
+      jsonWriter.name("violations").beginArray();
+      levelStarted = true;
+    }
+    if (!ruleStarted) {
+      jsonWriter.beginObject();
+      jsonWriter.name(currentRule.getRuleName()).beginArray();
+      ruleStarted = true;
+    }
+
+    // Convert the YAML of the violation, like Report.toJSON
+    StringBuilder sb = new StringBuilder();
+    report.appendYAML(sb, provider, v);
+    List<?> yaml = yamlMapper.readValue(sb.toString(), List.class);
+    gson.toJson(yaml.get(0), Object.class, jsonWriter);
+  }
+}
@@ -182,6 +182,28 @@ public class Column {
     this.shortFormProvider = shortFormProvider;
   }
 
+  /**
+   * Init a new column with the same settings as another column, but with a different provider.
+   *
+   * @param column Column to copy
+   * @param shortFormProvider ShortFormProvider to use when rendering values
+   */
+  public Column(@Nonnull Column column, ShortFormProvider shortFormProvider) {
+    this.name = column.name;
+    this.displayName = column.displayName;
+    this.iri = column.iri;
+    this.annotationProperty = column.annotationProperty;
+    this.dataProperty = column.dataProperty;
+    this.objectProperty = column.objectProperty;
+    this.rules = column.rules;
+    this.displayRule = column.displayRule;
+    this.shortFormProvider = shortFormProvider;
+    this.sortOrder = column.sortOrder;
+    this.reverseSort = column.reverseSort;
+    this.includeNamed = column.includeNamed;
+    this.includeAnonymous = column.includeAnonymous;
+  }
+
   /**
    * Get the display name of a column.
    *
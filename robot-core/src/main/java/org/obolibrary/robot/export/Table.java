@@ -7,11 +7,14 @@ import com.google.common.collect.Sets;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
+import com.google.gson.stream.JsonWriter;
+import com.opencsv.CSVWriter;
 import java.io.*;
 import java.util.*;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.obolibrary.robot.IOHelper;
 import org.slf4j.Logger;
@@ -37,11 +40,16 @@ public class Table {
   private RendererType displayRenderer;
   private RendererType sortRenderer = null;
 
+  // Number of XLSX rows kept in memory when streaming
+  private static final int XLSX_ROW_WINDOW = 100;
+
   private static final Set<String> BASIC_FORMATS = Sets.newHashSet("tsv", "csv", "json", "xlsx");
   private static final String BOOTSTRAP_CSS =
       "https://stackpath.bootstrapcdn.com/bootstrap/4.5.2/css/bootstrap.min.css";
   private static final String BOOTSTRAP_JS =
       "https://stackpath.bootstrapcdn.com/bootstrap/4.5.2/js/bootstrap.min.js";
+  private static final String HTML_LIST_START =
+      "<head>\n  <link rel=\"stylesheet\" href=\"" + BOOTSTRAP_CSS + "\">\n</head>\n<body>\n";
 
   /** Init a new Table. */
   public Table() {
@@ -99,6 +107,29 @@ public class Table {
    */
   public Workbook asWorkbook(String split) {
     Workbook wb = new XSSFWorkbook();
+    addWorkbookHeaders(wb);
+
+    // Add rows
+    for (Row row : rows) {
+      row.addToWorkbook(wb, columns, split);
+    }
+
+    // Set auto sizing
+    // TODO - this takes up, relatively, a lot of time.
+    /* for (int idx = 0; idx < columns.size(); idx++) {
+      sheet.autoSizeColumn(idx);
+    } */
+
+    return wb;
+  }
+
+  /**
+   * Create the sheet of a Workbook and add the header row, and the rules row if any Column has a
+   * display rule.
+   *
+   * @param wb Workbook to add headers to
+   */
+  private void addWorkbookHeaders(Workbook wb) {
     wb.createSheet();
 
     // Add headers
@@ -129,19 +160,6 @@ public class Table {
         }
       }
     }
-
-    // Add rows
-    for (Row row : rows) {
-      row.addToWorkbook(wb, columns, split);
-    }
-
-    // Set auto sizing
-    // TODO - this takes up, relatively, a lot of time.
-    /* for (int idx = 0; idx < columns.size(); idx++) {
-      sheet.autoSizeColumn(idx);
-    } */
-
-    return wb;
   }
 
   /**
@@ -203,6 +221,15 @@ public class Table {
     }
   }
 
+  /**
+   * Get the Columns to sort on, in the order that they are used to sort the Rows.
+   *
+   * @return List of Columns
+   */
+  public List<Column> getSortColumns() {
+    return sortColumns;
+  }
+
   /** Once all Rows have been added to a Table, sort Rows based on the sort Columns. */
   public void sortRows() {
     for (Column sc : sortColumns) {
@@ -210,14 +237,8 @@ public class Table {
       String sortName = sc.getDisplayName();
       logger.info("Sorting on column " + sortName);
       Comparator<Row> rowComparator =
-          (r1, r2) -> {
-            String o1 = r1.getSortValueString(sortName);
-            String o2 = r2.getSortValueString(sortName);
-            if (o1.trim().isEmpty() && o2.trim().isEmpty()) return 0;
-            else if (o1.trim().isEmpty()) return 1;
-            else if (o2.trim().isEmpty()) return -1;
-            else return o1.compareTo(o2);
-          };
+          (r1, r2) ->
+              compareSortValues(r1.getSortValueString(sortName), r2.getSortValueString(sortName));
       if (sc.isReverseSort()) {
         rows.sort(Collections.reverseOrder(rowComparator));
       } else {
@@ -226,6 +247,57 @@ public class Table {
     }
   }
 
+  /**
+   * Given a Row that has cells for (at least) the sort Columns, return its sort key: the sort value
+   * strings of the sort Columns, in order. Sort keys take much less memory than full Rows.
+   *
+   * @param row Row to get sort key of
+   * @return array of sort value strings
+   */
+  public String[] getSortKey(Row row) {
+    String[] key = new String[sortColumns.size()];
+    for (int i = 0; i < key.length; i++) {
+      key[i] = row.getSortValueString(sortColumns.get(i).getDisplayName());
+    }
+    return key;
+  }
+
+  /**
+   * Return a comparator for sort keys that orders them the same way that sortRows orders Rows.
+   * sortRows sorts on each sort Column in turn with a stable sort, so the last sort Column is
+   * compared first and ties are broken by the Columns before it.
+   *
+   * @return comparator for sort keys from getSortKey
+   */
+  public Comparator<String[]> getSortKeyComparator() {
+    return (k1, k2) -> {
+      for (int i = sortColumns.size() - 1; i >= 0; i--) {
+        int result = compareSortValues(k1[i], k2[i]);
+        if (sortColumns.get(i).isReverseSort()) {
+          result = -result;
+        }
+        if (result != 0) {
+          return result;
+        }
+      }
+      return 0;
+    };
+  }
+
+  /**
+   * Compare two sort values. Empty values are sorted after all other values.
+   *
+   * @param o1 first sort value
+   * @param o2 second sort value
+   * @return comparison result
+   */
+  private static int compareSortValues(String o1, String o2) {
+    if (o1.trim().isEmpty() && o2.trim().isEmpty()) return 0;
+    else if (o1.trim().isEmpty()) return 1;
+    else if (o2.trim().isEmpty()) return -1;
+    else return o1.compareTo(o2);
+  }
+
   /**
    * Render the Table as List of Arrays for writing to CSV/TSV.
    *
@@ -234,12 +306,7 @@ public class Table {
    */
   public List<String[]> toList(String split) {
     List<String[]> table = new ArrayList<>();
-    String[] header = new String[columns.size()];
-    Iterator<Column> iterator = columns.iterator();
-    for (int i = 0; i < header.length; i++) {
-      header[i] = iterator.next().getDisplayName();
-    }
-    table.add(header);
+    table.add(getHeader());
 
     for (Row row : rows) {
       String[] rowArray = row.toArray(columns, split);
@@ -248,6 +315,20 @@ public class Table {
     return table;
   }
 
+  /**
+   * Get the display names of the Columns.
+   *
+   * @return array of column names
+   */
+  private String[] getHeader() {
+    String[] header = new String[columns.size()];
+    Iterator<Column> iterator = columns.iterator();
+    for (int i = 0; i < header.length; i++) {
+      header[i] = iterator.next().getDisplayName();
+    }
+    return header;
+  }
+
   /**
    * Render the Table as an HTML string.
    *
@@ -278,6 +359,26 @@ public class Table {
    * @return HTML string
    */
   public String toHTML(String split, boolean standalone, boolean includeJS) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(getHTMLStart(standalone, includeJS));
+
+    // Add all table rows
+    for (Row row : rows) {
+      sb.append(row.toHTML(columns, split));
+    }
+
+    sb.append(getHTMLEnd(standalone, includeJS));
+    return sb.toString();
+  }
+
+  /**
+   * Render the start of the Table as an HTML string, up to the first row.
+   *
+   * @param standalone if true, include header
+   * @param includeJS if true and standalone, include JS script for tooltips
+   * @return HTML string
+   */
+  private String getHTMLStart(boolean standalone, boolean includeJS) {
     StringBuilder sb = new StringBuilder();
     if (standalone) {
       // Add opening tags, style, and maybe js scripts
@@ -305,12 +406,18 @@ public class Table {
       sb.append("  <th>").append(c.getDisplayName()).append("</th>\n");
     }
     sb.append("</tr>\n").append("</thead>\n");
+    return sb.toString();
+  }
 
-    // Add all table rows
-    for (Row row : rows) {
-      sb.append(row.toHTML(columns, split));
-    }
-
+  /**
+   * Render the end of the Table as an HTML string, after the last row.
+   *
+   * @param standalone if true, include header
+   * @param includeJS if true and standalone, include JS script for tooltips
+   * @return HTML string
+   */
+  private String getHTMLEnd(boolean standalone, boolean includeJS) {
+    StringBuilder sb = new StringBuilder();
     sb.append("</table>\n");
 
     if (standalone) {
@@ -329,12 +436,7 @@ public class Table {
 
   public String toHTMLList() {
     StringBuilder sb = new StringBuilder();
-    sb.append("<head>\n")
-        .append("  <link rel=\"stylesheet\" href=\"")
-        .append(BOOTSTRAP_CSS)
-        .append("\">\n")
-        .append("</head>\n")
-        .append("<body>\n");
+    sb.append(HTML_LIST_START);
     for (Row row : rows) {
       sb.append(row.toHTMLList(columns));
     }
@@ -427,4 +529,90 @@ public class Table {
     }
     return true;
   }
+
+  /**
+   * Given a path, a split character, boolean if standalone, and an iterator over Rows, write the
+   * Columns of this table and the given Rows to a path, instead of the Rows of this table. Each Row
+   * is written as soon as it is read from the iterator, so the Rows do not need to be held in
+   * memory. XLSX is written with a streaming workbook that only keeps a window of rows in memory.
+   *
+   * @param path path to write to
+   * @param split split character for multiple cell values
+   * @param standalone if true, include HTML headers for HTML output
+   * @param rows iterator over Rows to write, in order
+   * @return true on success, false if the format cannot be streamed
+   * @throws IOException on any problem opening or writing file
+   */
+  public boolean write(String path, String split, boolean standalone, Iterator<Row> rows)
+      throws IOException {
+    File f = new File(path);
+    if (format == null) {
+      throw new IOException(
+          String.format("Unable to write table to path '%s' with null format", path));
+    }
+    switch (format) {
+      case "tsv":
+      case "csv":
+        try (CSVWriter csv =
+            new CSVWriter(
+                new FileWriter(f),
+                format.equals("tsv") ? '\t' : ',',
+                CSVWriter.DEFAULT_QUOTE_CHARACTER,
+                CSVWriter.DEFAULT_ESCAPE_CHARACTER,
+                CSVWriter.DEFAULT_LINE_END)) {
+          csv.writeNext(getHeader(), false);
+          while (rows.hasNext()) {
+            csv.writeNext(rows.next().toArray(columns, split), false);
+          }
+        }
+        break;
+      case "html":
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(f)))) {
+          out.print(getHTMLStart(standalone, false));
+          while (rows.hasNext()) {
+            out.print(rows.next().toHTML(columns, split));
+          }
+          out.print(getHTMLEnd(standalone, false));
+        }
+        break;
+      case "html-list":
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(f)))) {
+          out.print(HTML_LIST_START);
+          while (rows.hasNext()) {
+            out.print(rows.next().toHTMLList(columns));
+          }
+          out.print("</body>");
+        }
+        break;
+      case "json":
+        Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+        try (JsonWriter out = new JsonWriter(new BufferedWriter(new FileWriter(f)))) {
+          out.setIndent("  ");
+          out.setHtmlSafe(false);
+          out.beginArray();
+          while (rows.hasNext()) {
+            gson.toJson(rows.next().toJSON(columns), out);
+          }
+          out.endArray();
+        }
+        break;
+      case "xlsx":
+        SXSSFWorkbook wb = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        try (FileOutputStream fos = new FileOutputStream(f)) {
+          addWorkbookHeaders(wb);
+          while (rows.hasNext()) {
+            rows.next().addToWorkbook(wb, columns, split);
+          }
+          wb.write(fos);
+        } finally {
+          // Remove the temporary files that hold the rows outside the window
+          wb.dispose();
+          wb.close();
+        }
+        break;
+      default:
+        return false;
+    }
+    return true;
+  }
 }
@@ -0,0 +1,499 @@
+package org.obolibrary.robot.metrics;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import org.obolibrary.robot.ThreadHelper;
+import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.util.OWLObjectVisitorExAdapter;
+import org.semanticweb.owlapi.util.OWLObjectWalker;
+
+/**
+ * Counters for the axiom metrics of an ontology, filled in one walk over the axioms of its imports
+ * closure. Each axiom is looked at once, and counted both for the imports closure and, if the
+ * ontology itself contains it, for the ontology without imports. The walk can be split over
+ * several threads: each thread fills its own counters, which are then added up.
+ */
+public class AxiomMetrics {
+
+  private static final Set<AxiomType<?>> logicalAxiomTypes = new HashSet<>();
+
+  static {
+    logicalAxiomTypes.addAll(AxiomType.TBoxAxiomTypes);
+    logicalAxiomTypes.addAll(AxiomType.RBoxAxiomTypes);
+    logicalAxiomTypes.addAll(AxiomType.ABoxAxiomTypes);
+  }
+
+  private static final Set<AxiomType<?>> tboxRboxAxiomTypes = MetricsUtils.getTBoxAxiomTypes(true);
+
+  /** If true, also find tautologies, axiom lengths, and class frequencies. */
+  private final boolean all;
+
+  private final Counts excluded = new Counts();
+  private final Counts included = new Counts();
+
+  /** Counts to add an axiom of the ontology itself to. */
+  private final List<Counts> both = Arrays.asList(included, excluded);
+
+  /** Counts to add an axiom that is only in an import to. */
+  private final List<Counts> onlyIncluded = Collections.singletonList(included);
+
+  /**
+   * Create new, empty counters.
+   *
+   * @param all if true, also count the metrics that are only part of 'all' metrics, which are
+   *     more expensive: tautologies (with a reasoner), axiom lengths, and class frequencies
+   */
+  public AxiomMetrics(boolean all) {
+    this.all = all;
+  }
+
+  /**
+   * Walk the axioms of an ontology and its imports closure once and return their metrics.
+   *
+   * @param ontology the ontology to measure
+   * @param all if true, also count the metrics that are only part of 'all' metrics
+   * @param threads maximum number of threads to split the walk over
+   * @return AxiomMetrics for the ontology
+   */
+  public static AxiomMetrics measure(OWLOntology ontology, boolean all, int threads) {
+    List<OWLAxiom> axioms = new ArrayList<>(ontology.getAxioms(Imports.INCLUDED));
+    List<Callable<AxiomMetrics>> tasks = new ArrayList<>();
+    for (List<OWLAxiom> chunk : ThreadHelper.partition(axioms, threads)) {
+      tasks.add(
+          () -> {
+            AxiomMetrics metrics = new AxiomMetrics(all);
+            for (OWLAxiom axiom : chunk) {
+              metrics.add(axiom, ontology.containsAxiom(axiom));
+            }
+            return metrics;
+          });
+    }
+    AxiomMetrics metrics = new AxiomMetrics(all);
+    for (AxiomMetrics chunkMetrics : ThreadHelper.invokeAllUnchecked(tasks, threads)) {
+      metrics.addAll(chunkMetrics);
+    }
+    return metrics;
+  }
+
+  /**
+   * Count one axiom.
+   *
+   * @param axiom the axiom to count
+   * @param own true if the ontology itself (not only an import) contains the axiom
+   */
+  public void add(OWLAxiom axiom, boolean own) {
+    List<Counts> targets = own ? both : onlyIncluded;
+    AxiomType<?> type = axiom.getAxiomType();
+    for (Counts counts : targets) {
+      counts.axiomCount++;
+      counts.axiomTypes.add(type);
+      countKeyUp(type.getName(), counts.axiomTypeCounts, 1);
+      if (AxiomType.TBoxAxiomTypes.contains(type)) {
+        counts.tboxSize++;
+      }
+      if (AxiomType.RBoxAxiomTypes.contains(type)) {
+        counts.rboxSize++;
+      }
+      if (AxiomType.ABoxAxiomTypes.contains(type)) {
+        counts.aboxSize++;
+      }
+      if (tboxRboxAxiomTypes.contains(type)) {
+        counts.tboxRboxSize++;
+      }
+    }
+
+    Set<OWLClassExpression> nested = axiom.getNestedClassExpressions();
+    for (OWLClassExpression exp : nested) {
+      String name = exp.getClassExpressionType().getName();
+      for (Counts counts : targets) {
+        countKeyUp(name, counts.classExpressionCounts, 1);
+      }
+    }
+    for (OWLEntity entity : axiom.getSignature()) {
+      String dtname = null;
+      if (entity.isOWLDatatype()) {
+        OWLDatatype datatype = entity.asOWLDatatype();
+        dtname = datatype.toString();
+        if (datatype.isBuiltIn()) {
+          dtname = datatype.getBuiltInDatatype().toString();
+        }
+      }
+      for (Counts counts : targets) {
+        countKeyUp(entity, counts.entityOccurrences, 1);
+        if (dtname != null) {
+          countKeyUp(dtname, counts.datatypeCounts, 1);
+        }
+      }
+    }
+
+    if (!axiom.isLogicalAxiom()) {
+      return;
+    }
+    if (!isRDFS(axiom)) {
+      for (Counts counts : targets) {
+        counts.rdfs = false;
+      }
+    }
+    if (!logicalAxiomTypes.contains(type)) {
+      return;
+    }
+    if (isComplexRHS(axiom)) {
+      for (Counts counts : targets) {
+        counts.complexRHSCount++;
+      }
+    }
+    if (type.toString().equals("Rule")) {
+      for (Counts counts : targets) {
+        counts.ruleCount++;
+      }
+      return;
+    }
+
+    // Logical axioms that are not rules
+    boolean nominals = false;
+    for (OWLClassExpression cl : nested) {
+      if (cl instanceof OWLObjectOneOf || cl instanceof OWLObjectHasValue) {
+        nominals = true;
+        break;
+      }
+    }
+    for (Counts counts : targets) {
+      counts.logicalAxiomCount++;
+      if (nominals && tboxRboxAxiomTypes.contains(type)) {
+        counts.tboxContainsNominals = true;
+      }
+      if (nominals && AxiomType.ABoxAxiomTypes.contains(type)) {
+        counts.aboxContainsNominals = true;
+      }
+    }
+    if (!all) {
+      return;
+    }
+
+    boolean tautology = TautologyChecker.isTautology(axiom);
+    int length = EntityCounter.countAll(axiom.getAxiomWithoutAnnotations());
+    Map<String, Integer> frequencies = new HashMap<>();
+    if (axiom instanceof OWLSubClassOfAxiom) {
+      EntityCounter counter = new EntityCounter();
+      counter.count(((OWLSubClassOfAxiom) axiom).getSuperClass());
+      counter.getClassCounts().forEach((k, v) -> countKeyUp(k.getIRI().toString(), frequencies, v));
+    }
+    for (Counts counts : targets) {
+      if (tautology) {
+        counts.tautologyCount++;
+      }
+      counts.totalAxiomLength += length;
+      counts.longestAxiomLength = Math.max(counts.longestAxiomLength, length);
+      frequencies.forEach((k, v) -> countKeyUp(k, counts.classFrequencies, v));
+    }
+  }
+
+  /**
+   * Add the counts of other counters to these counters.
+   *
+   * @param other AxiomMetrics to add
+   */
+  public void addAll(AxiomMetrics other) {
+    excluded.addAll(other.excluded);
+    included.addAll(other.included);
+  }
+
+  /**
+   * @param imports whether to get the counts for the imports closure
+   * @return the counts for the ontology with or without its imports closure
+   */
+  public Counts get(Imports imports) {
+    return imports == Imports.INCLUDED ? included : excluded;
+  }
+
+  /**
+   * @param axiom a logical axiom
+   * @return true if the axiom can be expressed in RDFS
+   */
+  private static boolean isRDFS(OWLAxiom axiom) {
+    if (axiom.isOfType(AxiomType.SUBCLASS_OF)) {
+      OWLSubClassOfAxiom subAx = (OWLSubClassOfAxiom) axiom;
+      return !subAx.getSubClass().isAnonymous() && !subAx.getSuperClass().isAnonymous();
+    } else if (axiom.isOfType(AxiomType.SUB_OBJECT_PROPERTY)) {
+      OWLSubObjectPropertyOfAxiom subProp = (OWLSubObjectPropertyOfAxiom) axiom;
+      return !subProp.getSubProperty().isAnonymous() && !subProp.getSuperProperty().isAnonymous();
+    } else if (axiom.isOfType(AxiomType.OBJECT_PROPERTY_DOMAIN)
+        || axiom.isOfType(AxiomType.OBJECT_PROPERTY_RANGE)
+        || axiom.isOfType(AxiomType.DATA_PROPERTY_ASSERTION)
+        || axiom.isOfType(AxiomType.OBJECT_PROPERTY_ASSERTION)
+        || axiom.isOfType(AxiomType.DATA_PROPERTY_DOMAIN)
+        || axiom.isOfType(AxiomType.DATA_PROPERTY_RANGE)) {
+      return true;
+    } else if (axiom.isOfType(AxiomType.CLASS_ASSERTION)) {
+      return !((OWLClassAssertionAxiom) axiom).getClassExpression().isAnonymous();
+    }
+    return false;
+  }
+
+  /**
+   * @param axiom a logical axiom
+   * @return true if the right hand side of a subclass or equivalent classes axiom is complex
+   */
+  private static boolean isComplexRHS(OWLAxiom axiom) {
+    // complex: RHS does not only contain nested conjuctions / atomic classnames
+    if (axiom instanceof OWLSubClassOfAxiom) {
+      return isComplex(((OWLSubClassOfAxiom) axiom).getSuperClass());
+    } else if (axiom instanceof OWLEquivalentClassesAxiom) {
+      for (OWLClassExpression ex : ((OWLEquivalentClassesAxiom) axiom).getClassExpressions()) {
+        if (isComplex(ex)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param ex a class expression
+   * @return true if a nested class expression is neither a class, its negation, nor an
+   *     intersection
+   */
+  static boolean isComplex(OWLClassExpression ex) {
+    for (OWLClassExpression exnested : ex.getNestedClassExpressions()) {
+      if (!exnested.isClassExpressionLiteral()) {
+        if (!(exnested instanceof OWLObjectIntersectionOf)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static <K> void countKeyUp(K key, Map<K, Integer> map, int count) {
+    map.merge(key, count, Integer::sum);
+  }
+
+  /**
+   * Counts the uses of entities in an OWL object by walking its structure once. Each use is
+   * counted, so an entity that is used twice is counted twice.
+   */
+  private static class EntityCounter extends OWLObjectVisitorExAdapter<Object> {
+    private final Map<OWLClass, Integer> classCounts = new HashMap<>();
+    private int count = 0;
+
+    /**
+     * @param object OWL object to count the entities of
+     * @return number of uses of entities in the object
+     */
+    static int countAll(OWLObject object) {
+      EntityCounter counter = new EntityCounter();
+      counter.count(object);
+      return counter.count;
+    }
+
+    /**
+     * Count the uses of entities in an OWL object and add them to the counts.
+     *
+     * @param object OWL object to count the entities of
+     */
+    void count(OWLObject object) {
+      new OWLObjectWalker<>(Collections.singleton(object), true).walkStructure(this);
+    }
+
+    /** @return map from each class to the number of times it was used */
+    Map<OWLClass, Integer> getClassCounts() {
+      return classCounts;
+    }
+
+    @Override
+    public Object visit(OWLClass cls) {
+      classCounts.merge(cls, 1, Integer::sum);
+      count++;
+      return null;
+    }
+
+    @Override
+    public Object visit(OWLObjectProperty property) {
+      count++;
+      return null;
+    }
+
+    @Override
+    public Object visit(OWLDataProperty property) {
+      count++;
+      return null;
+    }
+
+    @Override
+    public Object visit(OWLAnnotationProperty property) {
+      count++;
+      return null;
+    }
+
+    @Override
+    public Object visit(OWLNamedIndividual individual) {
+      count++;
+      return null;
+    }
+
+    @Override
+    public Object visit(OWLDatatype datatype) {
+      count++;
+      return null;
+    }
+  }
+
+  /** The axiom counts for an ontology, either with or without its imports closure. */
+  public static class Counts {
+    private int axiomCount = 0;
+    private int logicalAxiomCount = 0;
+    private int ruleCount = 0;
+    private int tboxSize = 0;
+    private int rboxSize = 0;
+    private int aboxSize = 0;
+    private int tboxRboxSize = 0;
+    private int complexRHSCount = 0;
+    private int tautologyCount = 0;
+    private long totalAxiomLength = 0;
+    private int longestAxiomLength = 0;
+    private boolean tboxContainsNominals = false;
+    private boolean aboxContainsNominals = false;
+    private boolean rdfs = true;
+    private final Set<AxiomType<?>> axiomTypes = new HashSet<>();
+    private final Map<String, Integer> axiomTypeCounts = new HashMap<>();
+    private final Map<String, Integer> classExpressionCounts = new HashMap<>();
+    private final Map<String, Integer> datatypeCounts = new HashMap<>();
+    private final Map<OWLEntity, Integer> entityOccurrences = new HashMap<>();
+    private final Map<String, Integer> classFrequencies = new HashMap<>();
+
+    /**
+     * Add other counts to these counts.
+     *
+     * @param other Counts to add
+     */
+    private void addAll(Counts other) {
+      axiomCount += other.axiomCount;
+      logicalAxiomCount += other.logicalAxiomCount;
+      ruleCount += other.ruleCount;
+      tboxSize += other.tboxSize;
+      rboxSize += other.rboxSize;
+      aboxSize += other.aboxSize;
+      tboxRboxSize += other.tboxRboxSize;
+      complexRHSCount += other.complexRHSCount;
+      tautologyCount += other.tautologyCount;
+      totalAxiomLength += other.totalAxiomLength;
+      longestAxiomLength = Math.max(longestAxiomLength, other.longestAxiomLength);
+      tboxContainsNominals |= other.tboxContainsNominals;
+      aboxContainsNominals |= other.aboxContainsNominals;
+      rdfs &= other.rdfs;
+      axiomTypes.addAll(other.axiomTypes);
+      other.axiomTypeCounts.forEach((k, v) -> countKeyUp(k, axiomTypeCounts, v));
+      other.classExpressionCounts.forEach((k, v) -> countKeyUp(k, classExpressionCounts, v));
+      other.datatypeCounts.forEach((k, v) -> countKeyUp(k, datatypeCounts, v));
+      other.entityOccurrences.forEach((k, v) -> countKeyUp(k, entityOccurrences, v));
+      other.classFrequencies.forEach((k, v) -> countKeyUp(k, classFrequencies, v));
+    }
+
+    /** @return number of axioms */
+    public int getAxiomCount() {
+      return axiomCount;
+    }
+
+    /** @return number of logical TBox, RBox, and ABox axioms, not counting rules */
+    public int getLogicalAxiomCount() {
+      return logicalAxiomCount;
+    }
+
+    /** @return number of rules */
+    public int getRuleCount() {
+      return ruleCount;
+    }
+
+    /** @return number of TBox axioms */
+    public int getTBoxSize() {
+      return tboxSize;
+    }
+
+    /** @return number of RBox axioms */
+    public int getRBoxSize() {
+      return rboxSize;
+    }
+
+    /** @return number of ABox axioms */
+    public int getABoxSize() {
+      return aboxSize;
+    }
+
+    /** @return number of TBox and RBox axioms */
+    public int getTBoxRBoxSize() {
+      return tboxRboxSize;
+    }
+
+    /** @return number of subclass and equivalent classes axioms with a complex right hand side */
+    public int getComplexRHSCount() {
+      return complexRHSCount;
+    }
+
+    /** @return number of logical axioms that are tautologies, if all metrics were counted */
+    public int getTautologyCount() {
+      return tautologyCount;
+    }
+
+    /** @return length of the longest logical axiom, if all metrics were counted */
+    public int getLongestAxiomLength() {
+      return longestAxiomLength;
+    }
+
+    /** @return average length of the logical axioms, if all metrics were counted */
+    public double getAverageAxiomLength() {
+      if (logicalAxiomCount == 0) {
+        return 0;
+      }
+      return ((double) totalAxiomLength) / logicalAxiomCount;
+    }
+
+    /** @return true if a logical TBox or RBox axiom contains a nominal */
+    public boolean isTBoxContainsNominals() {
+      return tboxContainsNominals;
+    }
+
+    /** @return true if a logical ABox axiom contains a nominal */
+    public boolean isABoxContainsNominals() {
+      return aboxContainsNominals;
+    }
+
+    /** @return true if all the logical axioms can be expressed in RDFS */
+    public boolean isRDFS() {
+      return rdfs;
+    }
+
+    /** @return the types of the axioms */
+    public Set<AxiomType<?>> getAxiomTypes() {
+      return axiomTypes;
+    }
+
+    /** @return map from axiom type name to number of axioms */
+    public Map<String, Integer> getAxiomTypeCounts() {
+      return axiomTypeCounts;
+    }
+
+    /** @return map from class expression type name to number of nested class expressions */
+    public Map<String, Integer> getClassExpressionCounts() {
+      return classExpressionCounts;
+    }
+
+    /** @return map from datatype name to number of axioms that use it */
+    public Map<String, Integer> getDatatypeCounts() {
+      return datatypeCounts;
+    }
+
+    /** @return map from entity to number of axioms that use it */
+    public Map<OWLEntity, Integer> getEntityOccurrences() {
+      return entityOccurrences;
+    }
+
+    /**
+     * @return map from class IRI to number of times the class occurs in the superclasses of
+     *     logical subclass axioms, if all metrics were counted
+     */
+    public Map<String, Integer> getClassFrequencies() {
+      return classFrequencies;
+    }
+  }
+}
@@ -94,6 +94,8 @@ public class MetricsLabels {
   public static final String DATATYPES_INCL = "datatypes_builtin_incl";
   public static final String MAX_AXIOMLENGTH = "axiom_length_max";
   public static final String MAX_AXIOMLENGTH_INCL = "axiom_length_max_incl";
+  public static final String AVG_AXIOMLENGTH = "axiom_length_avg";
+  public static final String AVG_AXIOMLENGTH_INCL = "axiom_length_avg_incl";
   public static final String DATATYPES_NOT_BUILT_IN = "datatypes_not_built_in";
   public static final String DATATYPES_NOT_BUILT_IN_INCL = "datatypes_not_built_in_incl";
   public static final String DATATYPE_AXIOMCOUNT = "datatypes_axiom_count";
@@ -141,6 +143,8 @@ public class MetricsLabels {
   public static final String TAUTOLOGYCOUNT_INCL = "tautology_count_incl";
   public static final String CYCLE = "certain_cycle";
   public static final String CYCLE_INCL = "certain_cycle_incl";
+  public static final String CYCLE_CLASSES = "cycle_classes";
+  public static final String CYCLE_CLASSES_INCL = "cycle_classes_incl";
   public static final String EXPORT_EXCEPTION = "export_exception";
   public static final String FIXED_VIOLATIONS = "fixed_profile_violations";
   public static final String STRIPPED_AXIOMTYPES = "stripped_axiomtypes";
@@ -3,8 +3,6 @@ package org.obolibrary.robot.metrics;
 import java.util.*;
 import org.semanticweb.owlapi.model.*;
 import org.semanticweb.owlapi.model.parameters.Imports;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 public class OntologyCycleDetector {
 
@@ -13,98 +11,146 @@ public class OntologyCycleDetector {
    */
 
   /*
-   * Sound, but maybe incomplete (may miss some cycles).
+   * The definition of a class is the set of superclasses of the subclass axioms for the class and
+   * the other class expressions of the equivalent classes axioms for the class. A class is in a
+   * cycle if it depends on itself through the classes used in these definitions.
    */
 
-  /** Logger. */
-  private static final Logger LOGGER = LoggerFactory.getLogger(OntologyCycleDetector.class);
-
   /**
    * @param ontology the ontology to be checked for cycles
    * @param includeImports whether imports closure should be considered
    * @return True if there is certainly a cycle, otherwise False.
    */
   public static boolean containsCycle(OWLOntology ontology, Imports includeImports) {
-    final Set<OWLClass> Classes = ontology.getClassesInSignature(includeImports);
-    for (OWLClass Class : Classes) {
-      Queue<OWLClass> Queue = new LinkedList<>();
-      Set<OWLClass> Visited = new HashSet<>();
-      Queue.add(Class);
-      // System.out.println("DeCycler.processOntology() Class " + Class);
-      while (Queue.peek() != null) {
-        OWLClass current = Queue.poll();
-        if (current == Class && !Queue.isEmpty()) {
-          LOGGER.warn(
-              "Cycle detector encountered a potential problem - results may be unreliable.");
-        }
-        // no need to check the same entry more than once
-        if (Visited.contains(current)) continue;
-        Visited.add(current);
-
-        Set<OWLAxiom> Defs = getReferencingAxioms(ontology, current, includeImports);
-        Set<OWLClassExpression> ces = getDefinition(current, Defs);
-
-        // no definition for a class -- fine!
-        OWLClassExpression C =
-            ontology.getOWLOntologyManager().getOWLDataFactory().getOWLObjectIntersectionOf(ces);
+    return !getCycles(ontology, includeImports).isEmpty();
+  }
 
-        // check the signature of that axiom
-        Set<OWLClass> AxSig = C.getClassesInSignature();
+  /**
+   * Find every cycle in the class definitions of an ontology. The dependencies between the classes
+   * are collected once from the subclass and equivalent classes axioms, and the strongly connected
+   * components of the dependency graph are then found in one pass with Tarjan's algorithm.
+   *
+   * @param ontology the ontology to be checked for cycles
+   * @param includeImports whether imports closure should be considered
+   * @return list of cycles, each one the set of classes that depend on each other
+   */
+  public static List<Set<OWLClass>> getCycles(OWLOntology ontology, Imports includeImports) {
+    Map<OWLClass, Set<OWLClass>> dependencies = getDependencies(ontology, includeImports);
+    return new ComponentSearch(dependencies).search();
+  }
 
-        if (AxSig.contains(Class)) {
-          return true;
-        } else {
-          AxSig.remove(current);
-          Queue.addAll(AxSig);
+  /**
+   * @param ontology the ontology to get the class definitions from
+   * @param includeImports whether imports closure should be considered
+   * @return map from each defined class to the classes used in its definition
+   */
+  private static Map<OWLClass, Set<OWLClass>> getDependencies(
+      OWLOntology ontology, Imports includeImports) {
+    Map<OWLClass, Set<OWLClass>> dependencies = new HashMap<>();
+    for (OWLSubClassOfAxiom axiom : ontology.getAxioms(AxiomType.SUBCLASS_OF, includeImports)) {
+      if (!axiom.getSubClass().isAnonymous()) {
+        addDependencies(dependencies, axiom.getSubClass().asOWLClass(), axiom.getSuperClass());
+      }
+    }
+    for (OWLEquivalentClassesAxiom axiom :
+        ontology.getAxioms(AxiomType.EQUIVALENT_CLASSES, includeImports)) {
+      for (OWLClass cls : axiom.getNamedClasses()) {
+        for (OWLClassExpression ce : axiom.getClassExpressions()) {
+          if (!ce.equals(cls)) {
+            addDependencies(dependencies, cls, ce);
+          }
         }
       }
     }
-    return false;
+    return dependencies;
   }
 
-  private static Set<OWLAxiom> getReferencingAxioms(
-      OWLOntology ontology, OWLClass current, Imports includeImports) {
-    Set<OWLAxiom> refs = new HashSet<>();
-    if (includeImports == Imports.INCLUDED) {
-      for (OWLOntology o : ontology.getImportsClosure()) {
-        refs.addAll(o.getReferencingAxioms(current));
-      }
-    } else {
-      refs.addAll(ontology.getReferencingAxioms(current));
-    }
-    return refs;
+  private static void addDependencies(
+      Map<OWLClass, Set<OWLClass>> dependencies, OWLClass cls, OWLClassExpression definition) {
+    dependencies
+        .computeIfAbsent(cls, k -> new HashSet<>())
+        .addAll(definition.getClassesInSignature());
   }
 
-  private static Set<OWLClassExpression> getDescription(OWLClass current, OWLAxiom ax) {
-    Set<OWLClassExpression> ces = new HashSet<>();
-    if (ax.isOfType(AxiomType.SUBCLASS_OF)) {
-      OWLSubClassOfAxiom axiom = (OWLSubClassOfAxiom) ax;
-      return Collections.singleton(axiom.getSuperClass());
-    } else if (ax.isOfType(AxiomType.EQUIVALENT_CLASSES)) {
-      OWLEquivalentClassesAxiom axiom = (OWLEquivalentClassesAxiom) ax;
-      ces.addAll(axiom.getClassExpressions());
-      ces.remove(current);
+  /**
+   * Tarjan's strongly connected components algorithm over a dependency graph. The depth-first
+   * search keeps its own stack instead of recursing, so long chains of definitions do not overflow
+   * the call stack.
+   */
+  private static class ComponentSearch {
+    private final Map<OWLClass, Set<OWLClass>> dependencies;
+    private final Map<OWLClass, Integer> index = new HashMap<>();
+    private final Map<OWLClass, Integer> lowLink = new HashMap<>();
+    private final Deque<OWLClass> component = new ArrayDeque<>();
+    private final Set<OWLClass> inComponent = new HashSet<>();
+    private final Deque<OWLClass> path = new ArrayDeque<>();
+    private final Deque<Iterator<OWLClass>> pathDependencies = new ArrayDeque<>();
+
+    /** @param dependencies map from each class to the classes it depends on */
+    ComponentSearch(Map<OWLClass, Set<OWLClass>> dependencies) {
+      this.dependencies = dependencies;
     }
-    return ces;
-  }
 
-  private static Set<OWLClassExpression> getDefinition(OWLClass current, Set<OWLAxiom> defs) {
-    Set<OWLClassExpression> sce = new HashSet<>();
-    for (OWLAxiom ax : defs) {
-      if (ax.isOfType(AxiomType.SUBCLASS_OF)) {
-        OWLSubClassOfAxiom axiom = (OWLSubClassOfAxiom) ax;
-        if (current.equals(axiom.getSubClass())) {
-          sce.addAll(getDescription(current, ax));
+    /** @return list of the strongly connected components that are cycles */
+    List<Set<OWLClass>> search() {
+      List<Set<OWLClass>> cycles = new ArrayList<>();
+      for (OWLClass root : dependencies.keySet()) {
+        if (index.containsKey(root)) {
+          continue;
         }
-      } else if (ax.isOfType(AxiomType.EQUIVALENT_CLASSES)) {
-        OWLEquivalentClassesAxiom axiom = (OWLEquivalentClassesAxiom) ax;
-        for (OWLClassExpression cl : axiom.getClassExpressions()) {
-          if (!cl.isAnonymous() && current.equals(cl.asOWLClass())) {
-            sce.addAll(getDescription(current, ax));
+        visit(root);
+        while (!path.isEmpty()) {
+          OWLClass cls = path.peek();
+          Iterator<OWLClass> iterator = pathDependencies.peek();
+          if (iterator.hasNext()) {
+            OWLClass dependency = iterator.next();
+            if (!index.containsKey(dependency)) {
+              visit(dependency);
+            } else if (inComponent.contains(dependency)) {
+              lowLink.put(cls, Math.min(lowLink.get(cls), index.get(dependency)));
+            }
+            continue;
+          }
+          path.pop();
+          pathDependencies.pop();
+          if (!path.isEmpty()) {
+            OWLClass parent = path.peek();
+            lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(cls)));
+          }
+          if (lowLink.get(cls).equals(index.get(cls))) {
+            Set<OWLClass> members = new HashSet<>();
+            OWLClass member;
+            do {
+              member = component.pop();
+              inComponent.remove(member);
+              members.add(member);
+            } while (!member.equals(cls));
+            if (members.size() > 1 || getDependencies(cls).contains(cls)) {
+              cycles.add(members);
+            }
           }
         }
       }
+      return cycles;
+    }
+
+    /** @param cls class to start searching from */
+    private void visit(OWLClass cls) {
+      int i = index.size();
+      index.put(cls, i);
+      lowLink.put(cls, i);
+      component.push(cls);
+      inComponent.add(cls);
+      path.push(cls);
+      pathDependencies.push(getDependencies(cls).iterator());
+    }
+
+    /**
+     * @param cls class to get dependencies of
+     * @return classes that the class depends on
+     */
+    private Set<OWLClass> getDependencies(OWLClass cls) {
+      return dependencies.getOrDefault(cls, Collections.emptySet());
     }
-    return sce;
   }
 }
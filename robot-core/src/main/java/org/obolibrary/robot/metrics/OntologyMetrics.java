@@ -2,9 +2,8 @@ package org.obolibrary.robot.metrics;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.obolibrary.robot.IOHelper;
+import org.obolibrary.robot.ProfileHelper;
 import org.obolibrary.robot.providers.CURIEShortFormProvider;
 import org.semanticweb.owlapi.metrics.AbstractOWLMetric;
 import org.semanticweb.owlapi.metrics.AverageAssertedNamedSuperclassCount;
@@ -21,28 +20,18 @@ import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClass;
-import org.semanticweb.owlapi.model.OWLClassAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLDataProperty;
 import org.semanticweb.owlapi.model.OWLDatatype;
 import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
 import org.semanticweb.owlapi.model.OWLImportsDeclaration;
-import org.semanticweb.owlapi.model.OWLObjectHasValue;
-import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
 import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyID;
 import org.semanticweb.owlapi.model.OWLOntologyManager;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
-import org.semanticweb.owlapi.model.OWLSubObjectPropertyOfAxiom;
 import org.semanticweb.owlapi.model.parameters.Imports;
-import org.semanticweb.owlapi.profiles.OWL2DLProfile;
-import org.semanticweb.owlapi.profiles.OWL2ELProfile;
-import org.semanticweb.owlapi.profiles.OWL2Profile;
-import org.semanticweb.owlapi.profiles.OWL2QLProfile;
-import org.semanticweb.owlapi.profiles.OWL2RLProfile;
-import org.semanticweb.owlapi.profiles.OWLProfile;
 import org.semanticweb.owlapi.profiles.OWLProfileReport;
 import org.semanticweb.owlapi.profiles.OWLProfileViolation;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
@@ -50,7 +39,6 @@ import org.semanticweb.owlapi.util.Construct;
 import org.semanticweb.owlapi.util.DLExpressivityChecker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import uk.ac.manchester.cs.owl.owlapi.OWLObjectOneOfImpl;
 
 @SuppressWarnings("unused")
 public class OntologyMetrics {
@@ -62,6 +50,10 @@ public class OntologyMetrics {
   private final Map<String, String> prefixmapUsed = new HashMap<>();
   private final List<OWLProfileViolation> owlProfileViolations = new ArrayList<>();
   private CURIEShortFormProvider curieProvider;
+  private int threads = 1;
+  private AxiomMetrics axiomMetrics = null;
+  private boolean axiomMetricsAll = false;
+  private Map<String, OWLProfileReport> profileReports = null;
   private static final Logger LOGGER = LoggerFactory.getLogger(OntologyMetrics.class);
 
   public OntologyMetrics(OWLOntology ontology) {
@@ -282,6 +274,8 @@ public class OntologyMetrics {
    * @return all metrics
    */
   public MeasureResult getAllMetrics(String prefix) {
+    // Walk the axioms once for both the extended metrics and the metrics below
+    getAllAxiomCounts(Imports.EXCLUDED);
     MeasureResult csvData = new MeasureResult();
     MeasureResult extendedData = getExtendedMetrics(prefix);
     csvData.importMetrics(extendedData);
@@ -289,6 +283,9 @@ public class OntologyMetrics {
     csvData.put(prefix + MetricsLabels.MAX_AXIOMLENGTH, getLongestAxiomLength(Imports.EXCLUDED));
     csvData.put(
         prefix + MetricsLabels.MAX_AXIOMLENGTH_INCL, getLongestAxiomLength(Imports.INCLUDED));
+    csvData.put(prefix + MetricsLabels.AVG_AXIOMLENGTH, getAverageAxiomLength(Imports.EXCLUDED));
+    csvData.put(
+        prefix + MetricsLabels.AVG_AXIOMLENGTH_INCL, getAverageAxiomLength(Imports.INCLUDED));
 
     csvData.put(
         prefix + MetricsLabels.AVG_ASSERT_N_SUBCLASS_INCL,
@@ -367,14 +364,12 @@ public class OntologyMetrics {
 
     csvData.put(prefix + MetricsLabels.TAUTOLOGYCOUNT, getTautologyCount(Imports.EXCLUDED));
     csvData.put(prefix + MetricsLabels.TAUTOLOGYCOUNT_INCL, getTautologyCount(Imports.INCLUDED));
-    csvData.put(prefix + MetricsLabels.CYCLE, surelyContainsCycle(Imports.EXCLUDED));
-    csvData.put(prefix + MetricsLabels.CYCLE_INCL, surelyContainsCycle(Imports.INCLUDED));
-
-    if (surelyContainsCycle(Imports.EXCLUDED)) {
-      csvData.put(prefix + MetricsLabels.CYCLE, true);
-    } else {
-      csvData.put(prefix + MetricsLabels.CYCLE, false);
-    }
+    Set<String> cycleClasses = getCycleClasses(Imports.EXCLUDED);
+    Set<String> cycleClassesIncl = getCycleClasses(Imports.INCLUDED);
+    csvData.put(prefix + MetricsLabels.CYCLE, !cycleClasses.isEmpty());
+    csvData.put(prefix + MetricsLabels.CYCLE_INCL, !cycleClassesIncl.isEmpty());
+    csvData.putSet(prefix + MetricsLabels.CYCLE_CLASSES, cycleClasses);
+    csvData.putSet(prefix + MetricsLabels.CYCLE_CLASSES_INCL, cycleClassesIncl);
 
     csvData.putMap(
         prefix + MetricsLabels.DATATYPE_AXIOMCOUNT,
@@ -402,26 +397,6 @@ public class OntologyMetrics {
 
   // ENTITIES
 
-  private static int getLengthOfAxiom(OWLAxiom axiom) {
-    int length = 0;
-
-    String axiomstring = axiom.getAxiomWithoutAnnotations().toString();
-    for (OWLEntity e : axiom.getSignature()) {
-      length += getNumberOfOccurences(axiomstring, e.toString());
-    }
-    return length;
-  }
-
-  private static int getNumberOfOccurences(String haystack, String needle) {
-    int length = 0;
-    Pattern p = Pattern.compile(needle);
-    Matcher m = p.matcher(haystack);
-    while (m.find()) {
-      length++;
-    }
-    return length;
-  }
-
   private int getSignatureSize(Imports includeImportsClosure) {
     return getOntology().getSignature(includeImportsClosure).size();
   }
@@ -437,31 +412,11 @@ public class OntologyMetrics {
   }
 
   private boolean isTBoxContainsNominals(Imports b) {
-    for (OWLAxiom ax : MetricsUtils.getTBoxAxioms(getLogicalAxioms(b, true))) {
-      for (OWLClassExpression cl : ax.getNestedClassExpressions()) {
-        if (cl instanceof OWLObjectOneOfImpl) {
-          // System.out.println(ax);
-          return true;
-        } else if (cl instanceof OWLObjectHasValue) {
-          // System.out.println(ax);
-          return true;
-        }
-      }
-    }
-    return false;
+    return getAxiomCounts(b).isTBoxContainsNominals();
   }
 
   private boolean isABoxContainsNominals(Imports b) {
-    for (OWLAxiom ax : MetricsUtils.getABoxAxioms(getLogicalAxioms(b, true))) {
-      for (OWLClassExpression cl : ax.getNestedClassExpressions()) {
-        if (cl instanceof OWLObjectOneOfImpl) {
-          return true;
-        } else if (cl instanceof OWLObjectHasValue) {
-          return true;
-        }
-      }
-    }
-    return false;
+    return getAxiomCounts(b).isABoxContainsNominals();
   }
 
   private int getClassCount(Imports includeImportsClosure) {
@@ -481,25 +436,7 @@ public class OntologyMetrics {
   }
 
   private Map<String, Integer> getDatatypesWithAxiomOccurrenceCount(Imports includeImportsClosure) {
-    Map<String, Integer> map = new HashMap<>();
-    Set<OWLAxiom> axioms = getAxioms(includeImportsClosure);
-    for (OWLAxiom axiom : axioms) {
-      Set<OWLDatatype> dtypes = axiom.getDatatypesInSignature();
-      for (OWLDatatype datatype : dtypes) {
-        String dtname = datatype.toString();
-        if (datatype.isBuiltIn()) {
-          dtname = datatype.getBuiltInDatatype().toString();
-        }
-        if (map.containsKey(dtname)) {
-          Integer itemp = map.get(dtname);
-          itemp++;
-          map.put(dtname, itemp);
-        } else {
-          map.put(dtname, 1);
-        }
-      }
-    }
-    return map;
+    return getAxiomCounts(includeImportsClosure).getDatatypeCounts();
   }
 
   private void countKeyUpInMap(String key, Map<String, Integer> map) {
@@ -536,13 +473,11 @@ public class OntologyMetrics {
 
   private Map<String, Integer> getAxiomUsageMap(Imports includeImportsClosure) {
     Map<String, Integer> map = new HashMap<>();
-    Set<OWLAxiom> axioms = getAxioms(includeImportsClosure);
-    for (OWLAxiom axiom : axioms) {
-      Set<OWLEntity> entities = axiom.getSignature();
-      for (OWLEntity e : entities) {
-        String iri_pre = extractPrefixForEntityOrOtherIfUnknown(e);
-        countKeyUpInMap(iri_pre, map);
-      }
+    Map<OWLEntity, Integer> occurrences =
+        getAxiomCounts(includeImportsClosure).getEntityOccurrences();
+    for (Map.Entry<OWLEntity, Integer> entry : occurrences.entrySet()) {
+      String iri_pre = extractPrefixForEntityOrOtherIfUnknown(entry.getKey());
+      map.merge(iri_pre, entry.getValue(), Integer::sum);
     }
     return map;
   }
@@ -584,41 +519,13 @@ public class OntologyMetrics {
   }
 
   private int getNumberOfRules(Imports includeImportsClosure) {
-    int ct = 0;
-    Set<OWLAxiom> logicalaxiom = getLogicalAxioms(includeImportsClosure, false);
-    for (OWLAxiom ax : logicalaxiom) {
-      if (ax.isLogicalAxiom()) {
-        if (ax.getAxiomType().toString().equals("Rule")) {
-          ct++;
-        }
-      }
-    }
-    return ct;
+    return getAxiomCounts(includeImportsClosure).getRuleCount();
   }
 
   private int getAxiomsWithComplexRHS(Imports included) {
     // complex: RHS does not only contain nested conjuctions / atomic
     // classnames
-    int ct = 0;
-    Set<OWLAxiom> logicalaxiom = getLogicalAxioms(included, false);
-    for (OWLAxiom ax : logicalaxiom) {
-      if (ax instanceof OWLSubClassOfAxiom) {
-        OWLSubClassOfAxiom scax = (OWLSubClassOfAxiom) ax;
-        OWLClassExpression RHS = scax.getSuperClass();
-        if (isComplex(RHS)) {
-          ct++;
-        }
-      } else if (ax instanceof OWLEquivalentClassesAxiom) {
-        OWLEquivalentClassesAxiom scax = (OWLEquivalentClassesAxiom) ax;
-        for (OWLClassExpression ex : scax.getClassExpressions()) {
-          if (isComplex(ex)) {
-            ct++;
-            break;
-          }
-        }
-      }
-    }
-    return ct;
+    return getAxiomCounts(included).getComplexRHSCount();
   }
 
   private double getAVGSizeOfRHS(Imports included) {
@@ -631,11 +538,11 @@ public class OntologyMetrics {
       if (ax instanceof OWLSubClassOfAxiom) {
         OWLSubClassOfAxiom scax = (OWLSubClassOfAxiom) ax;
         OWLClassExpression RHS = scax.getSuperClass();
-        if (isComplex(RHS)) {
+        if (AxiomMetrics.isComplex(RHS)) {
           // System.out.println(RHS);
           ct_complex++;
           for (OWLClassExpression ex : RHS.getNestedClassExpressions()) {
-            if (isComplex(ex)) {
+            if (AxiomMetrics.isComplex(ex)) {
               ct++;
             }
           }
@@ -643,10 +550,10 @@ public class OntologyMetrics {
       } else if (ax instanceof OWLEquivalentClassesAxiom) {
         OWLEquivalentClassesAxiom scax = (OWLEquivalentClassesAxiom) ax;
         for (OWLClassExpression oper : scax.getClassExpressions()) {
-          if (isComplex(oper)) {
+          if (AxiomMetrics.isComplex(oper)) {
             ct_complex++;
             for (OWLClassExpression ex : oper.getNestedClassExpressions()) {
-              if (isComplex(ex)) {
+              if (AxiomMetrics.isComplex(ex)) {
                 ct++;
               }
             }
@@ -657,17 +564,6 @@ public class OntologyMetrics {
     return (ct / ct_complex);
   }
 
-  private boolean isComplex(OWLClassExpression ex) {
-    for (OWLClassExpression exnested : ex.getNestedClassExpressions()) {
-      if (!exnested.isClassExpressionLiteral()) {
-        if (!(exnested instanceof OWLObjectIntersectionOf)) {
-          return true;
-        }
-      }
-    }
-    return false;
-  }
-
   private Set<OWLAxiom> getLogicalAxioms(Imports includeImportsClosure, boolean skiprules) {
     Set<AxiomType<?>> at = new HashSet<>();
     at.addAll(AxiomType.TBoxAxiomTypes);
@@ -676,172 +572,90 @@ public class OntologyMetrics {
     return MetricsUtils.getLogicalAxioms(getOntology(), includeImportsClosure, skiprules, at);
   }
 
-  private Set<OWLAxiom> getAxioms(Imports included) {
-    return new HashSet<>(getOntology().getAxioms(included));
-  }
-
   private int getAxiomCount(Imports includeImportsClosure) {
-    return getAxioms(includeImportsClosure).size();
+    return getAxiomCounts(includeImportsClosure).getAxiomCount();
   }
 
   private int getLogicalAxiomCount(Imports includeImportsClosure) {
-    return getLogicalAxioms(includeImportsClosure, true).size();
+    return getAxiomCounts(includeImportsClosure).getLogicalAxiomCount();
   }
 
   private int getTBoxSize(Imports useImportsClosure) {
-    return getOntology().getTBoxAxioms(useImportsClosure).size();
+    return getAxiomCounts(useImportsClosure).getTBoxSize();
   }
 
   private int getTBoxRboxSize(Imports useImportsClosure) {
-    int i = 0;
-    Set<AxiomType<?>> axty = MetricsUtils.getTBoxAxiomTypes(true);
-    for (AxiomType<?> at : axty) {
-      i += getOntology().getAxioms(at, useImportsClosure).size();
-    }
-    return i;
+    return getAxiomCounts(useImportsClosure).getTBoxRBoxSize();
   }
 
   private int getABoxSize(Imports useImportsClosure) {
-    return getOntology().getABoxAxioms(useImportsClosure).size();
+    return getAxiomCounts(useImportsClosure).getABoxSize();
   }
 
   private int getRBoxSize(Imports useImportsClosure) {
-    return getOntology().getRBoxAxioms(useImportsClosure).size();
+    return getAxiomCounts(useImportsClosure).getRBoxSize();
   }
 
   private Map<String, Integer> getOWLClassExpressionCounts(Imports includeImportsClosure) {
-    Map<String, Integer> map = new HashMap<>();
-    Set<OWLAxiom> axioms = getAxioms(includeImportsClosure);
-
-    for (OWLAxiom ax : axioms) {
-      for (OWLClassExpression exp : ax.getNestedClassExpressions()) {
-        String type = exp.getClassExpressionType().getName();
-        if (map.containsKey(type)) {
-          Integer i = map.get(type);
-          map.put(type, (i + 1));
-        } else {
-          map.put(type, 1);
-        }
-      }
-    }
-
-    return map;
+    return getAxiomCounts(includeImportsClosure).getClassExpressionCounts();
   }
 
   private Map<String, Integer> getAxiomTypeCounts(Imports includeImportsClosure) {
-    Map<String, Integer> map = new HashMap<>();
-    Set<OWLAxiom> axioms = getAxioms(includeImportsClosure);
-
-    for (OWLAxiom ax : axioms) {
-      String type = ax.getAxiomType().getName();
-      if (map.containsKey(type)) {
-        Integer i = map.get(type);
-        map.put(type, (i + 1));
-      } else {
-        map.put(type, 1);
-      }
-    }
-
-    return map;
+    return getAxiomCounts(includeImportsClosure).getAxiomTypeCounts();
   }
 
   private int getTautologyCount(Imports includeImports) {
-    int tautologies = 0;
-    for (OWLAxiom ax : getLogicalAxioms(includeImports, true)) {
-      if (TautologyChecker.isTautology(ax)) {
-        tautologies++;
-      }
-    }
-    return tautologies;
+    return getAllAxiomCounts(includeImports).getTautologyCount();
   }
 
   private Set<AxiomType<?>> getAxiomTypes(Imports includeImportsClosure) {
-    Set<AxiomType<?>> axtypes = new HashSet<>();
-    for (OWLAxiom ax : getAxioms(includeImportsClosure)) {
-      axtypes.add(ax.getAxiomType());
-    }
-    return axtypes;
+    return getAxiomCounts(includeImportsClosure).getAxiomTypes();
   }
 
   private boolean isOWL2Profile() {
-    OWLProfile profile = new OWL2Profile();
-    return profile.checkOntology(getOntology()).isInProfile();
+    return getProfileReport("FULL").isInProfile();
   }
 
   private boolean isOWL2ELProfile() {
-    OWLProfile profile = new OWL2ELProfile();
-    return profile.checkOntology(getOntology()).isInProfile();
+    return getProfileReport("EL").isInProfile();
   }
 
   private boolean isOWL2DLProfile() {
-    OWLProfile profile = new OWL2DLProfile();
-    OWLProfileReport report = profile.checkOntology(getOntology());
-    for (OWLProfileViolation vio : report.getViolations()) {
-      String s = vio.getClass().getSimpleName();
-      owlProfileViolationsList.add(s);
-      owlProfileViolations.add(vio);
-    }
-    return report.isInProfile();
+    return getProfileReport("DL").isInProfile();
   }
 
   private boolean isOWL2RLProfile() {
-    OWLProfile profile = new OWL2RLProfile();
-    return profile.checkOntology(getOntology()).isInProfile();
+    return getProfileReport("RL").isInProfile();
   }
 
   private boolean isOWL2QLProfile() {
-    OWLProfile profile = new OWL2QLProfile();
-    return profile.checkOntology(getOntology()).isInProfile();
+    return getProfileReport("QL").isInProfile();
+  }
+
+  /**
+   * Return the report for a profile. All the profiles are checked together, and at the same time
+   * when there are several threads, the first time that a report is needed.
+   *
+   * @param profile name of the profile
+   * @return OWLProfileReport for the profile
+   */
+  private OWLProfileReport getProfileReport(String profile) {
+    if (profileReports == null) {
+      profileReports = ProfileHelper.checkProfiles(getOntology(), ProfileHelper.PROFILES, threads);
+      for (OWLProfileViolation vio : profileReports.get("DL").getViolations()) {
+        String s = vio.getClass().getSimpleName();
+        owlProfileViolationsList.add(s);
+        owlProfileViolations.add(vio);
+      }
+    }
+    return profileReports.get(profile);
   }
 
   // REFERENCED CLASSES AND PROPERTIES
 
   private boolean isRDFS() {
     // TODO: verify
-    boolean isRDFS = true;
-
-    for (OWLAxiom ax : getAxioms(Imports.INCLUDED)) {
-      if (ax.isLogicalAxiom()) {
-        if (ax.isOfType(AxiomType.SUBCLASS_OF)) {
-          OWLSubClassOfAxiom subAx = (OWLSubClassOfAxiom) ax;
-          if (subAx.getSubClass().isAnonymous() || subAx.getSuperClass().isAnonymous()) {
-            isRDFS = false;
-            // System.out.println("SubClassAx: " + ax);
-            break;
-          }
-        } else if (ax.isOfType(AxiomType.SUB_OBJECT_PROPERTY)) {
-          OWLSubObjectPropertyOfAxiom subProp = (OWLSubObjectPropertyOfAxiom) ax;
-          if (subProp.getSubProperty().isAnonymous() || subProp.getSuperProperty().isAnonymous()) {
-            isRDFS = false;
-            // System.out.println("SupPropertyAx: " + ax);
-            break;
-          }
-        } else //noinspection StatementWithEmptyBody
-        if (ax.isOfType(AxiomType.OBJECT_PROPERTY_DOMAIN)
-            || ax.isOfType(AxiomType.OBJECT_PROPERTY_RANGE)
-            || ax.isOfType(AxiomType.DATA_PROPERTY_ASSERTION)
-            || ax.isOfType(AxiomType.OBJECT_PROPERTY_ASSERTION)
-            || ax.isOfType(AxiomType.DATA_PROPERTY_DOMAIN)
-            || ax.isOfType(AxiomType.DATA_PROPERTY_RANGE)) {
-          // do nothing
-          // System.out.println(ax.getAxiomType().getName()+" axiom: "
-          // + ax);
-        } else if (ax.isOfType(AxiomType.CLASS_ASSERTION)) {
-          OWLClassAssertionAxiom assAx = (OWLClassAssertionAxiom) ax;
-          if (assAx.getClassExpression().isAnonymous()) {
-            isRDFS = false;
-            // System.out.println("Class Assertion: " + ax);
-            break;
-          }
-        } else {
-          // System.out.println("Some other axiom: " + ax);
-          isRDFS = false;
-          break;
-        }
-      }
-    }
-
-    return isRDFS;
+    return getAxiomCounts(Imports.INCLUDED).isRDFS();
   }
 
   private Set<String> getValidImports(boolean direct) {
@@ -1014,8 +828,14 @@ public class OntologyMetrics {
     return constructs;
   }
 
-  private boolean surelyContainsCycle(Imports includeImports) {
-    return OntologyCycleDetector.containsCycle(getOntology(), includeImports);
+  private Set<String> getCycleClasses(Imports includeImports) {
+    Set<String> classes = new TreeSet<>();
+    for (Set<OWLClass> cycle : OntologyCycleDetector.getCycles(getOntology(), includeImports)) {
+      for (OWLClass cls : cycle) {
+        classes.add(cls.getIRI().toString());
+      }
+    }
+    return classes;
   }
 
   /** @return Ontology used for metrics computation */
@@ -1023,6 +843,48 @@ public class OntologyMetrics {
     return this.ontology;
   }
 
+  /**
+   * Set the maximum number of threads for the walk over the axioms and the profile checks.
+   *
+   * @param threads maximum number of threads, at least 1
+   */
+  public void setThreads(int threads) {
+    this.threads = Math.max(1, threads);
+  }
+
+  /**
+   * Return the axiom counts that do not need a reasoner. All the axioms are walked once, the first
+   * time that any axiom count is needed, and the result is reused.
+   *
+   * @param includeImportsClosure whether to get the counts for the imports closure
+   * @return counts for the ontology with or without its imports closure
+   */
+  private AxiomMetrics.Counts getAxiomCounts(Imports includeImportsClosure) {
+    if (axiomMetrics == null) {
+      axiomMetrics = measureAxioms(false);
+    }
+    return axiomMetrics.get(includeImportsClosure);
+  }
+
+  /**
+   * Return the axiom counts including tautologies, axiom lengths, and class frequencies. The axioms
+   * are walked again if the earlier walk left these out.
+   *
+   * @param includeImportsClosure whether to get the counts for the imports closure
+   * @return counts for the ontology with or without its imports closure
+   */
+  private AxiomMetrics.Counts getAllAxiomCounts(Imports includeImportsClosure) {
+    if (axiomMetrics == null || !axiomMetricsAll) {
+      axiomMetrics = measureAxioms(true);
+    }
+    return axiomMetrics.get(includeImportsClosure);
+  }
+
+  private AxiomMetrics measureAxioms(boolean all) {
+    axiomMetricsAll = all;
+    return AxiomMetrics.measure(getOntology(), all, threads);
+  }
+
   private Optional<CURIEShortFormProvider> getCurieProvider() {
     if (this.curieProvider != null) {
       return Optional.of(this.curieProvider);
@@ -1044,24 +906,8 @@ public class OntologyMetrics {
   }
 
   private String getMostFrequentlyUsedClassInLogicalAxioms(Imports includeImportsClosure) {
-    Map<String, Integer> classCountMap = new HashMap<>();
-    for (OWLAxiom eachAxiom : getLogicalAxioms(includeImportsClosure, true)) {
-      if (!(eachAxiom instanceof OWLSubClassOfAxiom)) {
-        continue;
-      }
-      OWLSubClassOfAxiom sax = (OWLSubClassOfAxiom) eachAxiom;
-      String saxrhs = sax.getSuperClass().toString();
-      for (OWLClass eachClass : eachAxiom.getClassesInSignature()) {
-        int frequency = getNumberOfOccurences(saxrhs, eachClass.toString());
-        String class_sf = eachClass.getIRI().toString();
-        if (classCountMap.containsKey(eachClass.toString())) {
-          Integer currentClassCount = classCountMap.get(eachClass.toString());
-          classCountMap.put(class_sf, currentClassCount + frequency);
-        } else {
-          classCountMap.put(class_sf, frequency);
-        }
-      }
-    }
+    Map<String, Integer> classCountMap =
+        getAllAxiomCounts(includeImportsClosure).getClassFrequencies();
     int max = 0;
     String maxClassString = "";
     for (String eachKey : classCountMap.keySet()) {
@@ -1075,15 +921,11 @@ public class OntologyMetrics {
   }
 
   private int getLongestAxiomLength(Imports includeImportsClosure) {
-    int longestAxiomLength = 0;
+    return getAllAxiomCounts(includeImportsClosure).getLongestAxiomLength();
+  }
 
-    for (OWLAxiom eachAxiom : getLogicalAxioms(includeImportsClosure, true)) {
-      int eachLength = getLengthOfAxiom(eachAxiom);
-      if (eachLength > longestAxiomLength) {
-        longestAxiomLength = eachLength;
-      }
-    }
-    return longestAxiomLength;
+  private double getAverageAxiomLength(Imports includeImportsClosure) {
+    return getAllAxiomCounts(includeImportsClosure).getAverageAxiomLength();
   }
 
   private int getDatatypesNotBuiltinCount(Imports included) {
@@ -1112,7 +954,7 @@ public class OntologyMetrics {
   }
 
   private List<OWLProfileViolation> getOWLDLProfileViolations() {
-    isOWL2DLProfile();
+    getProfileReport("DL");
     return owlProfileViolations;
   }
 }
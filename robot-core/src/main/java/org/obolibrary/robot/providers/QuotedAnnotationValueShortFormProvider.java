@@ -16,6 +16,12 @@ import org.semanticweb.owlapi.util.ShortFormProvider;
  */
 public class QuotedAnnotationValueShortFormProvider extends AnnotationValueShortFormProvider {
 
+  private final OWLOntologySetProvider ontologySetProvider;
+  private final ShortFormProvider alternateShortFormProvider;
+  private final IRIShortFormProvider alternateIRIShortFormProvider;
+  private final List<OWLAnnotationProperty> annotationProperties;
+  private final Map<OWLAnnotationProperty, List<String>> preferredLanguageMap;
+
   private boolean quoting = false;
 
   /**
@@ -41,6 +47,26 @@ public class QuotedAnnotationValueShortFormProvider extends AnnotationValueShort
         alternateIRIShortFormProvider,
         annotationProperties,
         preferredLanguageMap);
+    this.ontologySetProvider = ontologySetProvider;
+    this.alternateShortFormProvider = alternateShortFormProvider;
+    this.alternateIRIShortFormProvider = alternateIRIShortFormProvider;
+    this.annotationProperties = annotationProperties;
+    this.preferredLanguageMap = preferredLanguageMap;
+  }
+
+  /**
+   * Return a new provider with the same settings and quoting turned off. Quoting is toggled while
+   * rendering, so a provider must not be shared between threads; each thread can use its own copy.
+   *
+   * @return new QuotedAnnotationValueShortFormProvider
+   */
+  public QuotedAnnotationValueShortFormProvider copy() {
+    return new QuotedAnnotationValueShortFormProvider(
+        ontologySetProvider,
+        alternateShortFormProvider,
+        alternateIRIShortFormProvider,
+        annotationProperties,
+        preferredLanguageMap);
   }
 
   /** Turn quoting on or off. */
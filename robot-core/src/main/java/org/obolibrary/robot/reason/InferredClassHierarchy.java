@@ -0,0 +1,256 @@
+package org.obolibrary.robot.reason;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.reasoner.Node;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+/**
+ * The inferred class hierarchy of a reasoner, taken from the reasoner once and stored as a DAG over
+ * dense node ids with its transitive closure. Each node of satisfiable classes gets an id, and the
+ * ids of its direct parents and of all its proper ancestors are stored as sorted arrays, so
+ * superclass tests do not go back to the reasoner. Lookups are thread-safe.
+ *
+ * <p>Classes that are not in the hierarchy below owl:Thing (e.g. unsatisfiable classes) are looked
+ * up with the reasoner on first use, so that the results are always the same as asking the
+ * reasoner directly.
+ */
+public class InferredClassHierarchy {
+
+  /** Empty array of node ids. */
+  private static final int[] NO_IDS = new int[0];
+
+  /** Reasoner for classes that are not in the hierarchy. */
+  private final OWLReasoner reasoner;
+
+  /** Map from class to the id of its node. */
+  private final Map<OWLClass, Integer> classIds = new HashMap<>();
+
+  /** List of the classes of each node, by node id. */
+  private final List<Set<OWLClass>> nodeClasses = new ArrayList<>();
+
+  /** Sorted ids of the direct parents of each node, by node id. */
+  private final List<int[]> parents = new ArrayList<>();
+
+  /** Sorted ids of the proper ancestors of each node, by node id. */
+  private final List<int[]> ancestors = new ArrayList<>();
+
+  /** Proper superclasses of classes that are not in the hierarchy, from the reasoner. */
+  private final Map<OWLClass, Set<OWLClass>> otherSuperClasses = new ConcurrentHashMap<>();
+
+  /** Direct superclasses of classes that are not in the hierarchy, from the reasoner. */
+  private final Map<OWLClass, Set<OWLClass>> otherDirectSuperClasses = new ConcurrentHashMap<>();
+
+  /**
+   * Create a new hierarchy from the class hierarchy of a reasoner. The reasoner should already be
+   * classified.
+   *
+   * @param reasoner OWLReasoner to get the hierarchy from
+   */
+  public InferredClassHierarchy(OWLReasoner reasoner) {
+    this.reasoner = reasoner;
+
+    // Walk down from the top node, giving each node an id and recording its direct parents
+    Map<Node<OWLClass>, Integer> nodeIds = new HashMap<>();
+    List<List<Integer>> children = new ArrayList<>();
+    List<Set<Integer>> parentSets = new ArrayList<>();
+    Deque<Node<OWLClass>> queue = new ArrayDeque<>();
+    Node<OWLClass> top = reasoner.getTopClassNode();
+    addNode(top, nodeIds, children, parentSets);
+    queue.add(top);
+    while (!queue.isEmpty()) {
+      Node<OWLClass> node = queue.remove();
+      int id = nodeIds.get(node);
+      for (Node<OWLClass> child :
+          reasoner.getSubClasses(node.getRepresentativeElement(), true).getNodes()) {
+        if (child.isBottomNode()) {
+          continue;
+        }
+        Integer childId = nodeIds.get(child);
+        if (childId == null) {
+          childId = addNode(child, nodeIds, children, parentSets);
+          queue.add(child);
+        }
+        children.get(id).add(childId);
+        parentSets.get(childId).add(id);
+      }
+    }
+
+    // Visit the nodes in topological order, so that the ancestors of all parents are known
+    List<Set<Integer>> ancestorSets = new ArrayList<>();
+    int[] parentCounts = new int[nodeClasses.size()];
+    for (int i = 0; i < nodeClasses.size(); i++) {
+      ancestorSets.add(new HashSet<>());
+      parents.add(toSortedArray(parentSets.get(i)));
+      ancestors.add(NO_IDS);
+      parentCounts[i] = parents.get(i).length;
+    }
+    Deque<Integer> ready = new ArrayDeque<>();
+    ready.add(nodeIds.get(top));
+    while (!ready.isEmpty()) {
+      int id = ready.remove();
+      Set<Integer> nodeAncestors = ancestorSets.get(id);
+      ancestors.set(id, toSortedArray(nodeAncestors));
+      for (int childId : children.get(id)) {
+        Set<Integer> childAncestors = ancestorSets.get(childId);
+        childAncestors.add(id);
+        childAncestors.addAll(nodeAncestors);
+        parentCounts[childId]--;
+        if (parentCounts[childId] == 0) {
+          ready.add(childId);
+        }
+      }
+      // Only the sorted array is needed from now on
+      ancestorSets.set(id, null);
+    }
+  }
+
+  /**
+   * Return true if a class is a proper inferred superclass of another class. This is the same as
+   * <code>reasoner.getSuperClasses(subClass, false).containsEntity(superClass)</code>.
+   *
+   * @param superClass the possible superclass
+   * @param subClass the subclass
+   * @return true if superClass is a proper superclass of subClass
+   */
+  public boolean isSuperClass(OWLClass superClass, OWLClass subClass) {
+    return isSuperClass(superClass, subClass, false);
+  }
+
+  /**
+   * Return true if a class is a direct inferred superclass of another class. This is the same as
+   * <code>reasoner.getSuperClasses(subClass, true).containsEntity(superClass)</code>.
+   *
+   * @param superClass the possible superclass
+   * @param subClass the subclass
+   * @return true if superClass is a direct superclass of subClass
+   */
+  public boolean isDirectSuperClass(OWLClass superClass, OWLClass subClass) {
+    return isSuperClass(superClass, subClass, true);
+  }
+
+  /**
+   * Return true if two classes are inferred to be equivalent. This is the same as
+   * <code>reasoner.getEquivalentClasses(cls).contains(other)</code>.
+   *
+   * @param cls the first class
+   * @param other the second class
+   * @return true if the classes are equivalent
+   */
+  public boolean isEquivalentClass(OWLClass cls, OWLClass other) {
+    Integer id = classIds.get(cls);
+    if (id != null) {
+      return id.equals(classIds.get(other));
+    }
+    synchronized (reasoner) {
+      return reasoner.getEquivalentClasses(cls).contains(other);
+    }
+  }
+
+  /**
+   * Return the proper inferred superclasses of a class, direct and indirect. This is the same as
+   * <code>reasoner.getSuperClasses(cls, false).getFlattened()</code>.
+   *
+   * @param cls the class to get superclasses of
+   * @return set of superclasses
+   */
+  public Set<OWLClass> getSuperClasses(OWLClass cls) {
+    Integer id = classIds.get(cls);
+    if (id == null) {
+      return getOtherSuperClasses(cls, false);
+    }
+    Set<OWLClass> superClasses = new HashSet<>();
+    for (int ancestorId : ancestors.get(id)) {
+      superClasses.addAll(nodeClasses.get(ancestorId));
+    }
+    return superClasses;
+  }
+
+  /**
+   * Return true if a class is a proper inferred superclass of another class, either direct or
+   * direct and indirect.
+   *
+   * @param superClass the possible superclass
+   * @param subClass the subclass
+   * @param direct if true, only check direct superclasses
+   * @return true if superClass is a superclass of subClass
+   */
+  private boolean isSuperClass(OWLClass superClass, OWLClass subClass, boolean direct) {
+    Integer subId = classIds.get(subClass);
+    if (subId == null) {
+      return getOtherSuperClasses(subClass, direct).contains(superClass);
+    }
+    Integer superId = classIds.get(superClass);
+    if (superId == null) {
+      // Only satisfiable classes are superclasses of a satisfiable class
+      return false;
+    }
+    int[] ids = direct ? parents.get(subId) : ancestors.get(subId);
+    return Arrays.binarySearch(ids, superId) >= 0;
+  }
+
+  /**
+   * Add a node to the hierarchy and return its new id.
+   *
+   * @param node Node to add
+   * @param nodeIds map from node to id
+   * @param children list of child ids, by node id
+   * @param parentSets list of parent ids, by node id
+   * @return id of the node
+   */
+  private int addNode(
+      Node<OWLClass> node,
+      Map<Node<OWLClass>, Integer> nodeIds,
+      List<List<Integer>> children,
+      List<Set<Integer>> parentSets) {
+    int id = nodeClasses.size();
+    nodeIds.put(node, id);
+    nodeClasses.add(node.getEntities());
+    children.add(new ArrayList<>());
+    parentSets.add(new HashSet<>());
+    for (OWLClass cls : node.getEntities()) {
+      classIds.put(cls, id);
+    }
+    return id;
+  }
+
+  /**
+   * Return the proper superclasses of a class that is not in the hierarchy, from the reasoner. The
+   * reasoner is only asked once for each class.
+   *
+   * @param cls the class to get superclasses of
+   * @param direct if true, only return direct superclasses
+   * @return set of superclasses
+   */
+  private Set<OWLClass> getOtherSuperClasses(OWLClass cls, boolean direct) {
+    Map<OWLClass, Set<OWLClass>> cache = direct ? otherDirectSuperClasses : otherSuperClasses;
+    return cache.computeIfAbsent(
+        cls,
+        c -> {
+          // Reasoners are not thread-safe
+          synchronized (reasoner) {
+            return reasoner.getSuperClasses(c, direct).getFlattened();
+          }
+        });
+  }
+
+  /**
+   * Return a set of ids as a sorted array.
+   *
+   * @param ids set of ids
+   * @return sorted array of ids
+   */
+  private static int[] toSortedArray(Set<Integer> ids) {
+    if (ids.isEmpty()) {
+      return NO_IDS;
+    }
+    int[] array = new int[ids.size()];
+    int i = 0;
+    for (int id : ids) {
+      array[i++] = id;
+    }
+    Arrays.sort(array);
+    return array;
+  }
+}
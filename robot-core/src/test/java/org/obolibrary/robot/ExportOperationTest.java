@@ -2,16 +2,21 @@ package org.obolibrary.robot;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.apache.commons.io.FileUtils;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Test;
 import org.obolibrary.robot.export.Table;
 import org.semanticweb.owlapi.apibinding.OWLManager;
@@ -282,4 +287,101 @@ public class ExportOperationTest extends CoreTest {
       assert (foundHeader.equals(expectedHeader));
     }
   }
+
+  /**
+   * Test that a streamed export writes the same output as an export from a table in memory.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testStreamExport() throws Exception {
+    OWLOntology ontology = loadOntology("/simple_parts.owl");
+    IOHelper ioHelper = new IOHelper();
+    List<String> columns = Arrays.asList("ID", "LABEL", "SubClass Of", "Type");
+    for (String format : new String[] {"tsv", "csv", "json", "html", "xlsx"}) {
+      File expected = File.createTempFile("export", "." + format);
+      File actual = File.createTempFile("export-stream", "." + format);
+      Map<String, String> options = ExportOperation.getDefaultOptions();
+      options.put("format", format);
+      options.put("sort", "^LABEL|ID");
+      Table t = ExportOperation.createExportTable(ontology, ioHelper, columns, options);
+      ExportOperation.saveTable(t, expected.getPath(), options);
+      options.put("stream", "true");
+      ExportOperation.export(ontology, ioHelper, columns, actual.getPath(), options);
+      if (format.equals("xlsx")) {
+        try (FileInputStream ein = new FileInputStream(expected);
+            FileInputStream ain = new FileInputStream(actual);
+            Workbook e = new XSSFWorkbook(ein);
+            Workbook a = new XSSFWorkbook(ain)) {
+          Sheet es = e.getSheetAt(0);
+          Sheet as = a.getSheetAt(0);
+          assertEquals(es.getLastRowNum(), as.getLastRowNum());
+          for (int i = 0; i <= es.getLastRowNum(); i++) {
+            for (int j = 0; j < columns.size(); j++) {
+              Cell ec = es.getRow(i).getCell(j);
+              Cell ac = as.getRow(i).getCell(j);
+              assertEquals(ec.getStringCellValue(), ac.getStringCellValue());
+            }
+          }
+        }
+      } else {
+        assertEquals(
+            FileUtils.readFileToString(expected, StandardCharsets.UTF_8),
+            FileUtils.readFileToString(actual, StandardCharsets.UTF_8));
+      }
+      expected.delete();
+      actual.delete();
+    }
+  }
+
+  /**
+   * Test that creating the rows on several threads gives the same export as a single thread.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testParallelExport() throws Exception {
+    OWLOntology ontology = loadOntology("/axioms.owl");
+    IOHelper ioHelper = new IOHelper();
+    ioHelper.addPrefix("ax", "https://http://robot.obolibrary.org/export_test/");
+    List<String> columns =
+        new ArrayList<>(
+            Arrays.asList(
+                "ID",
+                "LABEL",
+                "SUBCLASSES",
+                "SubClass Of",
+                "SubClass Of [ID]",
+                "Equivalent Class",
+                "Disjoint With"));
+    for (OWLObjectProperty op : ontology.getObjectPropertiesInSignature(Imports.EXCLUDED)) {
+      columns.add(ioHelper.getPrefixManager().getShortForm(op.getIRI()));
+    }
+
+    Map<String, String> options = ExportOperation.getDefaultOptions();
+    options.put("include", "classes individuals properties");
+    Table expected = ExportOperation.createExportTable(ontology, ioHelper, columns, options);
+    options.put("threads", "3");
+    Table actual = ExportOperation.createExportTable(ontology, ioHelper, columns, options);
+    List<String> expectedRows = new ArrayList<>();
+    for (String[] row : expected.toList("|")) {
+      expectedRows.add(String.join("\t", row));
+    }
+    List<String> actualRows = new ArrayList<>();
+    for (String[] row : actual.toList("|")) {
+      actualRows.add(String.join("\t", row));
+    }
+    assertEquals(expectedRows, actualRows);
+
+    File expectedFile = File.createTempFile("export", ".tsv");
+    File actualFile = File.createTempFile("export-stream", ".tsv");
+    ExportOperation.saveTable(expected, expectedFile.getPath(), options);
+    options.put("stream", "true");
+    ExportOperation.export(ontology, ioHelper, columns, actualFile.getPath(), options);
+    assertEquals(
+        FileUtils.readFileToString(expectedFile, StandardCharsets.UTF_8),
+        FileUtils.readFileToString(actualFile, StandardCharsets.UTF_8));
+    expectedFile.delete();
+    actualFile.delete();
+  }
 }
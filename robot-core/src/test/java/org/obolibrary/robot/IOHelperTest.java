@@ -1,22 +1,32 @@
 package org.obolibrary.robot;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 import com.github.jsonldjava.core.Context;
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.IOUtils;
 import org.geneontology.obographs.owlapi.OboGraphJsonDocumentFormat;
 import org.junit.Test;
+import org.semanticweb.owlapi.formats.OBODocumentFormat;
 import org.semanticweb.owlapi.formats.RDFXMLDocumentFormat;
 import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLDocumentFormat;
 import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.UnloadableImportException;
@@ -345,6 +355,36 @@ public class IOHelperTest extends CoreTest {
     assertIdentical(ontology, ontology2);
   }
 
+  /**
+   * Tests that compressed OBO and OBO Graphs JSON files, which are streamed through gzip, contain
+   * the same document as uncompressed files.
+   *
+   * @throws IOException on any error
+   */
+  @Test
+  public void testSaveCompressedFormats() throws IOException {
+    OWLOntology ontology = loadOntology("/simple.owl");
+    IOHelper ioHelper = new IOHelper();
+    OWLDocumentFormat[] formats = {new OBODocumentFormat(), new OboGraphJsonDocumentFormat()};
+    for (OWLDocumentFormat format : formats) {
+      File plainFile = File.createTempFile("simple-plain", ".txt");
+      plainFile.deleteOnExit();
+      File compressedFile = File.createTempFile("simple-compressed", ".txt.gz");
+      compressedFile.deleteOnExit();
+
+      EnumSet<OBOWriteOption> cleanOBO = EnumSet.of(OBOWriteOption.DROP_EXTRA_LABELS);
+      ioHelper.saveOntology(ontology, format, IRI.create(plainFile), null, false, cleanOBO);
+      ioHelper.saveOntology(ontology, format, IRI.create(compressedFile), null, false, cleanOBO);
+
+      String expected = new String(Files.readAllBytes(plainFile.toPath()), StandardCharsets.UTF_8);
+      String actual;
+      try (InputStream is = new GZIPInputStream(new FileInputStream(compressedFile))) {
+        actual = IOUtils.toString(is, StandardCharsets.UTF_8);
+      }
+      assertEquals(expected, actual);
+    }
+  }
+
   /**
    * Test loading RDF reification with strict mode turned on. Loading this string should result in
    * an IOException.
@@ -452,4 +492,50 @@ public class IOHelperTest extends CoreTest {
     }
     assert error;
   }
+
+  /**
+   * Test loading an ontology through the ontology cache. The second load should come from the
+   * cache and be identical to the parsed ontology.
+   *
+   * @throws IOException on any error
+   */
+  @Test
+  public void testOntologyCache() throws IOException {
+    File cacheDir = Files.createTempDirectory("robot-cache").toFile();
+    cacheDir.deleteOnExit();
+    OntologyCache cache = new OntologyCache(cacheDir);
+
+    IOHelper ioHelper = new IOHelper();
+    ioHelper.setCache(cache);
+    File ontologyFile = new File("src/test/resources/simple.owl");
+    OWLOntology parsed = ioHelper.loadOntology(ontologyFile, false);
+
+    String key = cache.getKey(ontologyFile, null, null, false);
+    OWLOntology cached = cache.get(key, ontologyFile);
+    assertNotNull(cached);
+    assertIdentical(parsed, cached);
+    assertEquals(parsed.getOntologyID(), cached.getOntologyID());
+    assertEquals(parsed.getAnnotations(), cached.getAnnotations());
+
+    // Loading again uses the cache entry
+    assertIdentical(parsed, ioHelper.loadOntology(ontologyFile, false));
+
+    // A different input format uses a different entry
+    assertNull(cache.get(cache.getKey(ontologyFile, null, "owl", false), ontologyFile));
+
+    // Entries that do not match their checksum are not parsed
+    File entry = new File(cacheDir, key + ".ofn");
+    Files.write(entry.toPath(), "Ontology()".getBytes(StandardCharsets.UTF_8));
+    assertNull(cache.get(key, ontologyFile));
+    assertFalse(entry.exists());
+
+    // Loading again stores a new entry
+    assertIdentical(parsed, ioHelper.loadOntology(ontologyFile, false));
+    assertNotNull(cache.get(key, ontologyFile));
+
+    // Entries older than the maximum age are removed
+    cache.setMaxAge(-1);
+    assertNull(cache.get(key, ontologyFile));
+    cache.clear();
+  }
 }
@@ -2,15 +2,28 @@ package org.obolibrary.robot;
 
 import static org.junit.Assert.*;
 
+import com.google.common.collect.Sets;
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import org.junit.Test;
+import org.obolibrary.robot.metrics.AxiomMetrics;
 import org.obolibrary.robot.metrics.MeasureResult;
 import org.obolibrary.robot.metrics.MetricsLabels;
+import org.obolibrary.robot.metrics.OntologyCycleDetector;
 import org.obolibrary.robot.providers.CURIEShortFormProvider;
 import org.semanticweb.elk.io.FileUtils;
 import org.semanticweb.elk.owlapi.ElkReasonerFactory;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+import org.semanticweb.owlapi.model.parameters.Imports;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 
 /**
@@ -64,6 +77,81 @@ public class MeasureOperationTest extends CoreTest {
     assertEquals(0, result.getSimpleMetricValue(MetricsLabels.GCI_COUNT_INCL));
   }
 
+  /**
+   * Tests that splitting the walk over the axioms over threads gives the same metrics.
+   *
+   * @throws IOException on IO error
+   */
+  @Test
+  public void testParallelMetrics() throws IOException {
+    OWLOntology ontology = loadOntology("/" + TESTONTOLOGY);
+    CURIEShortFormProvider curieProvider = new CURIEShortFormProvider(new IOHelper().getPrefixes());
+    MeasureResult serial = MeasureOperation.getMetrics(ontology, "all", curieProvider, 1);
+    MeasureResult parallel = MeasureOperation.getMetrics(ontology, "all", curieProvider, 3);
+    assertEquals(313, parallel.getSimpleMetricValue(MetricsLabels.AXIOM_COUNT));
+    assertEquals(serial.getData(), parallel.getData());
+    assertEquals(serial.getMapData(), parallel.getMapData());
+  }
+
+  /**
+   * Tests that all the classes in cycles of subclass and equivalent class definitions are found.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testCycles() throws Exception {
+    OWLOntology ontology = OWLManager.createOWLOntologyManager().createOntology();
+    OWLClass a = dataFactory.getOWLClass(IRI.create(base + "A"));
+    OWLClass b = dataFactory.getOWLClass(IRI.create(base + "B"));
+    OWLClass c = dataFactory.getOWLClass(IRI.create(base + "C"));
+    OWLClass d = dataFactory.getOWLClass(IRI.create(base + "D"));
+    OWLClass e = dataFactory.getOWLClass(IRI.create(base + "E"));
+    OWLObjectProperty p = dataFactory.getOWLObjectProperty(IRI.create(base + "p"));
+    OWLOntologyManager manager = ontology.getOWLOntologyManager();
+    manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(a, b));
+    manager.addAxiom(
+        ontology,
+        dataFactory.getOWLSubClassOfAxiom(b, dataFactory.getOWLObjectSomeValuesFrom(p, c)));
+    manager.addAxiom(ontology, dataFactory.getOWLEquivalentClassesAxiom(c, a));
+    manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(d, c));
+    assertTrue(OntologyCycleDetector.containsCycle(ontology, Imports.EXCLUDED));
+
+    List<Set<OWLClass>> cycles = OntologyCycleDetector.getCycles(ontology, Imports.EXCLUDED);
+    assertEquals(1, cycles.size());
+    assertEquals(Sets.newHashSet(a, b, c), cycles.get(0));
+
+    manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(e, e));
+    cycles = OntologyCycleDetector.getCycles(ontology, Imports.EXCLUDED);
+    assertEquals(2, cycles.size());
+    assertTrue(cycles.contains(Collections.singleton(e)));
+  }
+
+  /**
+   * Tests that axiom lengths and class frequencies count each use of an entity, including entities
+   * with IRIs that contain regular expression characters.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testAxiomLength() throws Exception {
+    OWLOntology ontology = OWLManager.createOWLOntologyManager().createOntology();
+    OWLClass a = dataFactory.getOWLClass(IRI.create(base + "A(1)"));
+    OWLClass b = dataFactory.getOWLClass(IRI.create(base + "B"));
+    OWLObjectProperty p = dataFactory.getOWLObjectProperty(IRI.create(base + "p+"));
+    OWLOntologyManager manager = ontology.getOWLOntologyManager();
+    OWLClassExpression some = dataFactory.getOWLObjectSomeValuesFrom(p, a);
+    manager.addAxiom(
+        ontology,
+        dataFactory.getOWLSubClassOfAxiom(b, dataFactory.getOWLObjectIntersectionOf(a, some)));
+    manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(a, b));
+
+    AxiomMetrics.Counts counts = AxiomMetrics.measure(ontology, true, 1).get(Imports.EXCLUDED);
+    assertEquals(4, counts.getLongestAxiomLength());
+    assertEquals(3.0, counts.getAverageAxiomLength(), 0.0);
+    assertEquals(Integer.valueOf(2), counts.getClassFrequencies().get(a.getIRI().toString()));
+    assertEquals(Integer.valueOf(1), counts.getClassFrequencies().get(b.getIRI().toString()));
+  }
+
   /**
    * Tests all metrics generation.
    *
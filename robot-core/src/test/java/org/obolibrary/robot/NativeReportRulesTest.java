@@ -0,0 +1,222 @@
+package org.obolibrary.robot;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import org.apache.commons.io.IOUtils;
+import org.apache.jena.query.Dataset;
+import org.junit.Assert;
+import org.junit.Test;
+import org.obolibrary.robot.checks.NativeReportRules;
+import org.obolibrary.robot.checks.ReportRule;
+import org.obolibrary.robot.checks.Violation;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/** Tests that native report rules give the same violations as their report queries. */
+public class NativeReportRulesTest extends CoreTest {
+
+  /** Input ontologies to check each rule against. */
+  private static final String[] inputs = {
+    "/report-rules.ofn", "/1017-empty-label-input.owl", "/1016-report-json-failure/input.owl"
+  };
+
+  /**
+   * Test that each native rule gives the same violations as the SPARQL query for that rule.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testNativeRulesMatchQueries() throws Exception {
+    IOHelper ioHelper = new IOHelper();
+    for (String input : inputs) {
+      OWLOntology ontology = loadOntology(input);
+      Dataset dataset = QueryOperation.loadOntologyAsDataset(ontology, false);
+      for (String ruleName : NativeReportRules.getRuleNames()) {
+        InputStream is = getClass().getResourceAsStream("/report_queries/" + ruleName + ".rq");
+        assert is != null;
+        String query = IOUtils.toString(is, StandardCharsets.UTF_8);
+        List<Violation> expected =
+            ReportOperation.getViolations(
+                ioHelper, dataset, ruleName, query, Collections.emptyMap());
+        ReportRule rule = NativeReportRules.getRule(ruleName);
+        List<Violation> actual =
+            ReportOperation.getViolations(ioHelper, ontology, rule, Collections.emptyMap());
+        Assert.assertNotNull(expected);
+        Assert.assertEquals(ruleName + " on " + input, expected.size(), actual.size());
+        Assert.assertEquals(
+            ruleName + " on " + input, inOrder(ruleName, expected), inOrder(ruleName, actual));
+      }
+    }
+  }
+
+  /**
+   * Test that each native rule gives the same first violations as the SPARQL query for that rule
+   * when the report is limited, since the limit keeps the violations that come first in the ORDER
+   * BY of the query.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testNativeRulesWithLimit() throws Exception {
+    IOHelper ioHelper = new IOHelper();
+    for (String input : inputs) {
+      OWLOntology ontology = loadOntology(input);
+      Dataset dataset = QueryOperation.loadOntologyAsDataset(ontology, false);
+      for (String ruleName : NativeReportRules.getRuleNames()) {
+        InputStream is = getClass().getResourceAsStream("/report_queries/" + ruleName + ".rq");
+        assert is != null;
+        String query = IOUtils.toString(is, StandardCharsets.UTF_8);
+        ReportRule rule = NativeReportRules.getRule(ruleName);
+        List<String> all =
+            render(
+                ReportOperation.getViolations(
+                    ioHelper, dataset, ruleName, query, Collections.emptyMap()));
+        for (int limit = 1; limit <= 3; limit++) {
+          Map<String, String> options = new HashMap<>();
+          options.put("limit", String.valueOf(limit));
+          List<Violation> expected =
+              ReportOperation.getViolations(ioHelper, dataset, ruleName, query, options);
+          List<Violation> actual = ReportOperation.getViolations(ioHelper, ontology, rule, options);
+          String message = ruleName + " on " + input + " with limit " + limit;
+          Assert.assertNotNull(expected);
+          Assert.assertEquals(message, expected.size(), actual.size());
+          Assert.assertEquals(message, orderKeys(ruleName, expected), orderKeys(ruleName, actual));
+          // Violations that tie in the ORDER BY may be cut off in a different order
+          Assert.assertTrue(message, all.containsAll(render(actual)));
+        }
+      }
+    }
+  }
+
+  /**
+   * Test that the native rules find the violations in the test ontology.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testNativeRules() throws Exception {
+    OWLOntology ontology = loadOntology("/report-rules.ofn");
+    String ns = "http://test.org/report#";
+    assertEntities(ontology, "duplicate_label", ns + "A", ns + "B", ns + "G");
+    assertEntities(ontology, "label_whitespace", ns + "C", ns + "D");
+    assertEntities(
+        ontology,
+        "missing_definition",
+        ns + "B",
+        ns + "C",
+        ns + "D",
+        ns + "E",
+        ns + "J",
+        ns + "L",
+        ns + "O",
+        ns + "p");
+    assertEntities(ontology, "missing_label", ns + "E", ns + "J", ns + "K", ns + "i", ns + "p");
+    assertEntities(ontology, "multiple_labels", ns + "C", ns + "L", ns + "O");
+  }
+
+  /**
+   * Assert that a native rule reports exactly the given entities.
+   *
+   * @param ontology ontology to check
+   * @param ruleName name of the rule
+   * @param entities expected entity IRIs
+   * @throws Exception on any problem
+   */
+  private static void assertEntities(OWLOntology ontology, String ruleName, String... entities)
+      throws Exception {
+    List<Violation> violations =
+        ReportOperation.getViolations(
+            new IOHelper(), ontology, NativeReportRules.getRule(ruleName), Collections.emptyMap());
+    Set<String> actual = new TreeSet<>();
+    for (Violation v : violations) {
+      actual.add(v.entity.getIRI().toString());
+    }
+    Assert.assertEquals(ruleName, new TreeSet<>(Arrays.asList(entities)), actual);
+  }
+
+  /**
+   * Render each violation as a string with its subject and statements.
+   *
+   * @param violations list of violations
+   * @return list of strings
+   */
+  private static List<String> render(List<Violation> violations) {
+    List<String> rendered = new ArrayList<>();
+    for (Violation v : violations) {
+      String subject = v.entity != null ? v.entity.getIRI().toString() : v.subject;
+      rendered.add(
+          subject
+              + " "
+              + new TreeMap<>(v.entityStatements)
+              + " "
+              + new TreeMap<>(v.literalStatements));
+    }
+    return rendered;
+  }
+
+  /**
+   * Given a rule name and a violation, return the value that the query for the rule orders the
+   * violation by: the label in upper case for duplicate_label, and otherwise the entity.
+   *
+   * @param ruleName name of the rule
+   * @param v violation
+   * @return order key
+   */
+  private static String orderKey(String ruleName, Violation v) {
+    if (ruleName.equals("duplicate_label")) {
+      for (List<String> values : v.literalStatements.values()) {
+        for (String value : values) {
+          // Drop the language tag or datatype, like str()
+          return value.replaceFirst("(@[A-Za-z0-9-]+|\\^\\^\\S+)$", "").toUpperCase(Locale.ROOT);
+        }
+      }
+      for (List<OWLEntity> values : v.entityStatements.values()) {
+        for (OWLEntity value : values) {
+          return value.getIRI().toString().toUpperCase(Locale.ROOT);
+        }
+      }
+      return "";
+    }
+    return v.entity != null ? v.entity.getIRI().toString() : v.subject;
+  }
+
+  /**
+   * Return the order key of each violation, in order.
+   *
+   * @param ruleName name of the rule
+   * @param violations list of violations
+   * @return list of order keys
+   */
+  private static List<String> orderKeys(String ruleName, List<Violation> violations) {
+    List<String> keys = new ArrayList<>();
+    for (Violation v : violations) {
+      keys.add(orderKey(ruleName, v));
+    }
+    return keys;
+  }
+
+  /**
+   * Render violations in their original order. Violations that tie in the ORDER BY of the query
+   * for the rule may come in any order, so each run of tied violations is sorted.
+   *
+   * @param ruleName name of the rule
+   * @param violations list of violations
+   * @return list of strings, one for each run of tied violations
+   */
+  private static List<String> inOrder(String ruleName, List<Violation> violations) {
+    List<String> runs = new ArrayList<>();
+    List<String> keys = orderKeys(ruleName, violations);
+    List<String> rendered = render(violations);
+    int start = 0;
+    for (int i = 1; i <= violations.size(); i++) {
+      if (i == violations.size() || !keys.get(i).equals(keys.get(start))) {
+        List<String> run = new ArrayList<>(rendered.subList(start, i));
+        Collections.sort(run);
+        runs.add(keys.get(start) + " " + run);
+        start = i;
+      }
+    }
+    return runs;
+  }
+}
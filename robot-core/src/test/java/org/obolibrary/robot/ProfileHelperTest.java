@@ -0,0 +1,42 @@
+package org.obolibrary.robot;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.Test;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.profiles.OWLProfileReport;
+
+/** Tests for ProfileHelper. */
+public class ProfileHelperTest extends CoreTest {
+
+  /**
+   * Test checking several profiles at once on more than one thread.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testCheckProfiles() throws Exception {
+    OWLOntology ontology = loadOntology("/simple.owl");
+    Map<String, OWLProfileReport> reports =
+        ProfileHelper.checkProfiles(ontology, Arrays.asList("el", "DL", "Full", "EL"), 2);
+    assertEquals(Arrays.asList("EL", "DL", "FULL"), new ArrayList<>(reports.keySet()));
+    for (Map.Entry<String, OWLProfileReport> entry : reports.entrySet()) {
+      OWLProfileReport expected = ProfileHelper.getProfile(entry.getKey()).checkOntology(ontology);
+      assertEquals(expected.isInProfile(), entry.getValue().isInProfile());
+      assertEquals(expected.getViolations().size(), entry.getValue().getViolations().size());
+    }
+  }
+
+  /**
+   * Test that an unknown profile is an error.
+   *
+   * @throws Exception on any problem
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownProfile() throws Exception {
+    ProfileHelper.checkProfiles(loadOntology("/simple.owl"), Arrays.asList("DL", "XL"), 1);
+  }
+}
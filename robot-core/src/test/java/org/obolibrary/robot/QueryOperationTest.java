@@ -6,6 +6,10 @@ import com.google.common.collect.Lists;
 import java.io.*;
 import java.net.URISyntaxException;
 import java.util.Map;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.ResultSet;
 import org.apache.jena.query.ResultSetFactory;
@@ -241,4 +245,37 @@ public class QueryOperationTest extends CoreTest {
 
     assertEquals(inputPrefixMap, outputPrefixMap);
   }
+
+  /**
+   * Test that the ontology graph view contains the same triples as the converted model, and that
+   * find patterns return the same triples.
+   *
+   * @throws IOException on IO error
+   * @throws OWLOntologyStorageException on ontology error
+   */
+  @Test
+  public void testOntologyGraph() throws IOException, OWLOntologyStorageException {
+    OWLOntology ontology = loadOntology("/bot.owl");
+    Graph expected = QueryOperation.loadOntologyAsModel(ontology).getGraph();
+    Graph graph = new OntologyGraph(ontology);
+    assertEquals(expected.size(), graph.size());
+    assertTrue(expected.isIsomorphicWith(graph));
+
+    Node subClassOf = NodeFactory.createURI("http://www.w3.org/2000/01/rdf-schema#subClassOf");
+    Node label = NodeFactory.createURI("http://www.w3.org/2000/01/rdf-schema#label");
+    Node uberon = NodeFactory.createURI("http://purl.obolibrary.org/obo/UBERON_0000062");
+    assertEquals(
+        expected.find(Node.ANY, subClassOf, Node.ANY).toList().size(),
+        graph.find(Node.ANY, subClassOf, Node.ANY).toList().size());
+    assertEquals(
+        expected.find(uberon, Node.ANY, Node.ANY).toList().size(),
+        graph.find(uberon, Node.ANY, Node.ANY).toList().size());
+    assertEquals(
+        expected.find(Node.ANY, Node.ANY, uberon).toList().size(),
+        graph.find(Node.ANY, Node.ANY, uberon).toList().size());
+    for (Triple t : expected.find(uberon, label, Node.ANY).toList()) {
+      assertTrue(graph.contains(Node.ANY, label, t.getObject()));
+    }
+    assertFalse(graph.contains(uberon, label, NodeFactory.createLiteral("not a label")));
+  }
 }
@@ -86,4 +86,34 @@ public class QuotedEntityCheckerTest extends CoreTest {
     // checker.add(cls, "%");
     // assertEquals("", parser.parse("%"));
   }
+
+  /**
+   * Test that checkers share the label index of an ontology, and that it is rebuilt when the
+   * ontology changes.
+   *
+   * @throws Exception if entities cannot be found
+   */
+  @Test
+  public void testSharedLabelIndex() throws Exception {
+    OWLOntology simpleParts = loadOntology("/simple_parts.owl");
+    QuotedEntityChecker first = new QuotedEntityChecker();
+    first.addProperty(dataFactory.getRDFSLabel());
+    first.addAll(simpleParts);
+    Assert.assertSame(LabelIndex.getIndex(simpleParts), LabelIndex.getIndex(simpleParts));
+
+    IRI iri = IRI.create(base + "simple.owl#test1");
+    OWLClass cls = dataFactory.getOWLClass(iri);
+    simpleParts
+        .getOWLOntologyManager()
+        .addAxiom(
+            simpleParts,
+            dataFactory.getOWLAnnotationAssertionAxiom(
+                dataFactory.getRDFSLabel(), iri, dataFactory.getOWLLiteral("new label")));
+    QuotedEntityChecker second = new QuotedEntityChecker();
+    second.addProperty(dataFactory.getRDFSLabel());
+    second.addAll(simpleParts);
+    Assert.assertEquals(cls, second.getOWLClass("new label"));
+    Assert.assertEquals(cls, second.getOWLClass("test one"));
+    Assert.assertNull(first.getOWLClass("new label"));
+  }
 }
@@ -2,15 +2,15 @@ package org.obolibrary.robot;
 
 import static org.junit.Assert.*;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 import org.geneontology.reasoner.ExpressionMaterializingReasonerFactory;
 import org.geneontology.whelk.owlapi.WhelkOWLReasonerFactory;
 import org.junit.Test;
 import org.semanticweb.HermiT.ReasonerFactory;
 import org.semanticweb.elk.owlapi.ElkReasonerFactory;
+import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
 import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
 import org.semanticweb.owlapi.search.EntitySearcher;
 import uk.ac.manchester.cs.jfact.JFactFactory;
@@ -165,6 +165,36 @@ public class ReasonOperationTest extends CoreTest {
     assertIdentical("/without_redundant_subclasses.owl", reasoned);
   }
 
+  /**
+   * Test removing redundant subclass axioms on several threads, keeping reciprocal subclass axioms
+   * between equivalent classes.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testRemoveRedundantSubClassAxiomsParallel() throws Exception {
+    OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+    OWLOntology ontology = manager.createOntology();
+    String ns = "http://example.org/";
+    OWLClass a = dataFactory.getOWLClass(IRI.create(ns + "A"));
+    OWLClass b = dataFactory.getOWLClass(IRI.create(ns + "B"));
+    OWLClass c = dataFactory.getOWLClass(IRI.create(ns + "C"));
+    OWLClass d = dataFactory.getOWLClass(IRI.create(ns + "D"));
+    OWLAxiom ab = dataFactory.getOWLSubClassOfAxiom(a, b);
+    OWLAxiom ba = dataFactory.getOWLSubClassOfAxiom(b, a);
+    OWLAxiom ac = dataFactory.getOWLSubClassOfAxiom(a, c);
+    OWLAxiom cd = dataFactory.getOWLSubClassOfAxiom(c, d);
+    OWLAxiom ad = dataFactory.getOWLSubClassOfAxiom(a, d);
+    manager.addAxioms(ontology, new HashSet<>(Arrays.asList(ab, ba, ac, cd, ad)));
+
+    OWLReasoner reasoner = new ElkReasonerFactory().createReasoner(ontology);
+    Map<String, String> options = new HashMap<>();
+    options.put("threads", "4");
+    ReasonOperation.removeRedundantSubClassAxioms(reasoner, options);
+    reasoner.dispose();
+    assertEquals(new HashSet<>(Arrays.asList(ab, ba, ac, cd)), ontology.getAxioms());
+  }
+
   @Test
   public void testExcludeTautologies() throws Exception {
     OWLOntology input = loadOntology("/reason_exclude_tautologies.ofn");
@@ -178,6 +208,52 @@ public class ReasonOperationTest extends CoreTest {
             .contains(dataFactory.getOWLThing()));
   }
 
+  /**
+   * Test that checking tautologies in a batch gives the same result as checking each axiom.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testGetTautologies() throws Exception {
+    String ns = "http://example.org/";
+    OWLClass a = dataFactory.getOWLClass(IRI.create(ns + "A"));
+    OWLClass b = dataFactory.getOWLClass(IRI.create(ns + "B"));
+    OWLObjectProperty r = dataFactory.getOWLObjectProperty(IRI.create(ns + "r"));
+    OWLNamedIndividual i = dataFactory.getOWLNamedIndividual(IRI.create(ns + "i"));
+    OWLClassExpression rb = dataFactory.getOWLObjectSomeValuesFrom(r, b);
+    OWLClassExpression arb = dataFactory.getOWLObjectIntersectionOf(a, rb);
+    OWLAnnotation annotation =
+        dataFactory.getOWLAnnotation(dataFactory.getRDFSComment(), dataFactory.getOWLLiteral("x"));
+    List<OWLAxiom> axioms =
+        Arrays.asList(
+            dataFactory.getOWLSubClassOfAxiom(a, dataFactory.getOWLThing()),
+            dataFactory.getOWLSubClassOfAxiom(a, b),
+            dataFactory.getOWLSubClassOfAxiom(a, a),
+            dataFactory.getOWLSubClassOfAxiom(arb, rb),
+            dataFactory.getOWLSubClassOfAxiom(arb, rb, Collections.singleton(annotation)),
+            dataFactory.getOWLSubClassOfAxiom(rb, a),
+            dataFactory.getOWLSubClassOfAxiom(
+                dataFactory.getOWLObjectSomeValuesFrom(r, dataFactory.getOWLNothing()),
+                dataFactory.getOWLNothing()),
+            dataFactory.getOWLEquivalentClassesAxiom(a, b),
+            dataFactory.getOWLClassAssertionAxiom(a, i),
+            dataFactory.getOWLClassAssertionAxiom(dataFactory.getOWLObjectUnionOf(a, rb), i),
+            dataFactory.getOWLDeclarationAxiom(a),
+            dataFactory.getOWLDeclarationAxiom(dataFactory.getOWLThing()));
+
+    for (boolean structural : new boolean[] {true, false}) {
+      OWLReasoner tautologyChecker = ReasonOperation.getTautologyChecker(structural);
+      Set<OWLAxiom> expected = new HashSet<>();
+      for (OWLAxiom axiom : axioms) {
+        if (ReasonOperation.isTautological(axiom, tautologyChecker, structural)) {
+          expected.add(axiom);
+        }
+      }
+      assertEquals(expected, ReasonOperation.getTautologies(axioms, structural, 1));
+      assertEquals(expected, ReasonOperation.getTautologies(axioms, structural, 3));
+    }
+  }
+
   /**
    * Test reasoning with Expression Materializing Reasoner.
    *
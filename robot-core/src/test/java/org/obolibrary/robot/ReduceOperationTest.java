@@ -189,4 +189,26 @@ public class ReduceOperationTest extends CoreTest {
     ReduceOperation.reduce(ontologyB, reasonerFactory, optionsB);
     assertIdentical("/reduce-named-only-test-named-only-false-reduced.ofn", ontologyB);
   }
+
+  /**
+   * Test that testing axioms on several threads gives the same result as on one thread.
+   *
+   * @throws OWLOntologyCreationException if ontology cannot be created
+   * @throws IOException on file problem
+   */
+  @Test
+  public void testReduceParallel() throws OWLOntologyCreationException, IOException {
+    OWLReasonerFactory reasonerFactory = new org.semanticweb.elk.owlapi.ElkReasonerFactory();
+
+    Map<String, String> options = new HashMap<String, String>();
+    options.put("threads", "4");
+
+    OWLOntology reasoned = loadOntology("/reduce_gci_test.obo");
+    ReduceOperation.reduce(reasoned, reasonerFactory, options);
+    assertIdentical("/reduce_gci_reduced.obo", reasoned);
+
+    reasoned = loadOntology("/reduce-edgecase-cnd.obo");
+    ReduceOperation.reduce(reasoned, reasonerFactory, options);
+    assertIdentical("/reduce-edgecase-cnd-reduced.obo", reasoned);
+  }
 }
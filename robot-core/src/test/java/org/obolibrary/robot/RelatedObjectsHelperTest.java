@@ -4,9 +4,12 @@ import static org.junit.Assert.*;
 
 import com.google.common.collect.Sets;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import org.junit.Test;
 import org.semanticweb.owlapi.apibinding.OWLManager;
@@ -66,6 +69,88 @@ public class RelatedObjectsHelperTest extends CoreTest {
     assertEquals(2, axioms.size());
   }
 
+  /**
+   * Test that filtering the axioms of an ontology with its AxiomIndex gives the same axioms as
+   * filtering all the axioms, and that the index is rebuilt when the ontology changes.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testFilterAxiomsWithIndex() throws Exception {
+    String base = "https://github.com/ontodev/robot/robot-core/src/test/resources/simple.owl#";
+    OWLOntology ontology = loadOntology("/simple.owl");
+    OWLClass test1 = df.getOWLClass(IRI.create(base + "test1"));
+    Set<OWLObject> objects = new HashSet<>();
+    objects.add(test1);
+    objects.add(df.getRDFSLabel());
+    List<String> selectors = Collections.singletonList("all");
+    List<String> namespaces = Collections.emptyList();
+
+    for (boolean partial : new boolean[] {true, false}) {
+      for (boolean namedOnly : new boolean[] {true, false}) {
+        assertEquals(
+            RelatedObjectsHelper.filterAxioms(
+                ontology.getAxioms(), objects, selectors, namespaces, partial, namedOnly),
+            RelatedObjectsHelper.filterAxioms(
+                ontology, objects, selectors, namespaces, partial, namedOnly));
+      }
+    }
+
+    OWLAxiom axiom = df.getOWLSubClassOfAxiom(test1, df.getOWLThing());
+    ontology.getOWLOntologyManager().addAxiom(ontology, axiom);
+    assertTrue(
+        RelatedObjectsHelper.filterAxioms(ontology, objects, selectors, namespaces, true, false)
+            .contains(axiom));
+  }
+
+  /**
+   * Test that the indexes and closures of an ontology are reused until the ontology changes, and
+   * that one change drops all of them.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testOntologyIndexCache() throws Exception {
+    OWLOntology ontology = loadOntology("/simple.owl");
+    AxiomIndex index = AxiomIndex.getIndex(ontology);
+    HierarchyClosure closure = HierarchyClosure.getClosure(ontology);
+    LabelIndex labels = LabelIndex.getIndex(ontology);
+    assertSame(index, AxiomIndex.getIndex(ontology));
+    assertSame(closure, HierarchyClosure.getClosure(ontology));
+    assertSame(labels, LabelIndex.getIndex(ontology));
+
+    OWLClass test = df.getOWLClass(IRI.create("http://example.com/test"));
+    ontology.getOWLOntologyManager().addAxiom(ontology, df.getOWLDeclarationAxiom(test));
+    assertNotSame(index, AxiomIndex.getIndex(ontology));
+    assertNotSame(closure, HierarchyClosure.getClosure(ontology));
+    assertNotSame(labels, LabelIndex.getIndex(ontology));
+  }
+
+  /**
+   * Test that the indexes and closures of an ontology do not keep it from being collected once it
+   * is no longer referenced.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testOntologyIndexCacheCollected() throws Exception {
+    String base = "https://github.com/ontodev/robot/robot-core/src/test/resources/simple.owl#";
+    OWLClass test1 = df.getOWLClass(IRI.create(base + "test1"));
+    OWLOntology ontology = loadOntology("/simple.owl");
+    AxiomIndex.getIndex(ontology);
+    assertFalse(HierarchyClosure.getClosure(ontology).getDescendants(test1).isEmpty());
+    LabelIndex labels = LabelIndex.getIndex(ontology);
+    assertEquals(2, labels.getValues(df.getRDFSLabel(), test1.getIRI()).size());
+
+    WeakReference<OWLOntology> reference = new WeakReference<>(ontology);
+    ontology = null;
+    for (int i = 0; i < 100 && reference.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertNull(reference.get());
+  }
+
   /**
    * Test filtering for partial axioms.
    *
@@ -176,6 +261,51 @@ public class RelatedObjectsHelperTest extends CoreTest {
     assert relatedObjects.size() == patoRole.getClassesInSignature().size();
   }
 
+  /**
+   * Test selecting ancestors and descendants in a hierarchy too deep to recurse through, and that
+   * the selection is updated when the ontology changes.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testSelectDeepHierarchy() throws Exception {
+    IOHelper ioHelper = new IOHelper();
+    OWLOntology ontology = manager.createOntology();
+    int depth = 20000;
+    List<OWLClass> classes = new ArrayList<>();
+    for (int i = 0; i < depth; i++) {
+      classes.add(df.getOWLClass(IRI.create("http://example.com/class-" + i)));
+    }
+    for (int i = 1; i < depth; i++) {
+      manager.addAxiom(ontology, df.getOWLSubClassOfAxiom(classes.get(i), classes.get(i - 1)));
+    }
+    OWLAnnotationProperty p0 = df.getOWLAnnotationProperty(IRI.create("http://example.com/p0"));
+    OWLAnnotationProperty p1 = df.getOWLAnnotationProperty(IRI.create("http://example.com/p1"));
+    OWLAnnotationProperty p2 = df.getOWLAnnotationProperty(IRI.create("http://example.com/p2"));
+    manager.addAxiom(ontology, df.getOWLSubAnnotationPropertyOfAxiom(p1, p0));
+    manager.addAxiom(ontology, df.getOWLSubAnnotationPropertyOfAxiom(p2, p1));
+
+    Set<OWLObject> objects = Sets.newHashSet(classes.get(0), classes.get(depth / 2), p0);
+    Set<OWLObject> descendants =
+        RelatedObjectsHelper.select(ontology, ioHelper, objects, "descendants");
+    assertEquals(depth + 1, descendants.size());
+    assertTrue(descendants.containsAll(Sets.newHashSet(p1, p2)));
+    assertFalse(descendants.contains(p0));
+
+    objects = Sets.newHashSet(classes.get(depth - 1), p2);
+    Set<OWLObject> ancestors =
+        RelatedObjectsHelper.select(ontology, ioHelper, objects, "ancestors");
+    assertEquals(depth + 1, ancestors.size());
+    assertFalse(ancestors.contains(classes.get(depth - 1)));
+
+    // A new superclass of the root is found after the ontology changes
+    OWLClass root = df.getOWLClass(IRI.create("http://example.com/root"));
+    manager.addAxiom(ontology, df.getOWLSubClassOfAxiom(classes.get(0), root));
+    ancestors = RelatedObjectsHelper.select(ontology, ioHelper, objects, "ancestors");
+    assertEquals(depth + 2, ancestors.size());
+    assertTrue(ancestors.contains(root));
+  }
+
   /** @throws Exception */
   private OWLOntology getOntology() throws Exception {
     OWLOntology ontology = manager.createOntology();
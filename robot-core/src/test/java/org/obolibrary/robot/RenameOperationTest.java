@@ -1,8 +1,14 @@
 package org.obolibrary.robot;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 import java.util.HashMap;
 import java.util.Map;
 import org.junit.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLOntology;
 
 /** Tests for RenameOperation. */
@@ -43,4 +49,69 @@ public class RenameOperationTest extends CoreTest {
 
     assertIdentical("/rename_partial.owl", ont);
   }
+
+  /**
+   * Test swapping two IRIs, which only works when all the renames are applied at once.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testSwapRename() throws Exception {
+    String base = "https://github.com/ontodev/robot/robot-core/src/test/resources/simple.owl#";
+    OWLOntology ont = loadOntology("/simple.owl");
+    Map<String, String> mappings = new HashMap<>();
+    mappings.put(base + "test1", base + "test2");
+    mappings.put(base + "test2", base + "test1");
+
+    RenameOperation.renameFull(ont, new IOHelper(), mappings, new HashMap<>(), false, 2);
+
+    OWLDataFactory df = ont.getOWLOntologyManager().getOWLDataFactory();
+    OWLClass test1 = df.getOWLClass(IRI.create(base + "test1"));
+    OWLClass test2 = df.getOWLClass(IRI.create(base + "test2"));
+    assertTrue(ont.containsAxiom(df.getOWLSubClassOfAxiom(test1, test2)));
+    assertFalse(ont.containsAxiom(df.getOWLSubClassOfAxiom(test2, test1)));
+  }
+
+  /**
+   * Test that chained mappings do not cascade: when test1 is renamed to test2 and test2 to test3,
+   * test1 becomes test2, not test3.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testChainedRename() throws Exception {
+    String base = "https://github.com/ontodev/robot/robot-core/src/test/resources/simple.owl#";
+    OWLOntology ont = loadOntology("/simple.owl");
+    Map<String, String> mappings = new HashMap<>();
+    mappings.put(base + "test1", base + "test2");
+    mappings.put(base + "test2", base + "test3");
+
+    RenameOperation.renameFull(ont, new IOHelper(), mappings, new HashMap<>(), false, 2);
+
+    OWLDataFactory df = ont.getOWLOntologyManager().getOWLDataFactory();
+    OWLClass test1 = df.getOWLClass(IRI.create(base + "test1"));
+    OWLClass test2 = df.getOWLClass(IRI.create(base + "test2"));
+    OWLClass test3 = df.getOWLClass(IRI.create(base + "test3"));
+    assertTrue(ont.containsAxiom(df.getOWLSubClassOfAxiom(test3, test2)));
+    assertFalse(ont.containsAxiom(df.getOWLSubClassOfAxiom(test3, test3)));
+    assertFalse(ont.containsClassInSignature(test1.getIRI()));
+  }
+
+  /**
+   * Test renaming of partial IRIs on more than one thread.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testParallelPartialRename() throws Exception {
+    OWLOntology ont = loadOntology("/simple.owl");
+    Map<String, String> mappings = new HashMap<>();
+    mappings.put(
+        "https://github.com/ontodev/robot/robot-core/src/test/resources/simple.owl#",
+        "http://foo.bar/");
+
+    RenameOperation.renamePrefixes(ont, new IOHelper(), mappings, 3);
+
+    assertIdentical("/rename_partial.owl", ont);
+  }
 }
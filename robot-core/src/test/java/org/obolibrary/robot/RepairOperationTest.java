@@ -1,13 +1,26 @@
 package org.obolibrary.robot;
 
+import static org.junit.Assert.*;
+
 import java.io.IOException;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import org.junit.Test;
+import org.obolibrary.robot.checks.InvalidReferenceChecker;
+import org.obolibrary.robot.checks.InvalidReferenceViolation;
+import org.obolibrary.robot.checks.InvalidReferenceViolation.Category;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
 import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAnnotationSubject;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.parameters.Imports;
 
 /** Tests for MergeOperation. */
 public class RepairOperationTest extends CoreTest {
@@ -38,4 +51,45 @@ public class RepairOperationTest extends CoreTest {
     RepairOperation.repair(ontology, iohelper, true, Collections.singleton(hasDbXref));
     assertIdentical("/xref-repaired.obo", ontology);
   }
+
+  /**
+   * Test that invalid references found with the indexed check on several threads are the same as
+   * the ones found by checking each entity of each axiom.
+   *
+   * @throws IOException on file problem
+   */
+  @Test
+  public void testInvalidReferences() throws IOException {
+    OWLOntology ontology = loadOntology("/need-of-repair.owl");
+    Set<String> expected = new HashSet<>();
+    for (OWLAxiom axiom : ontology.getAxioms(Imports.INCLUDED)) {
+      Set<OWLEntity> signature = axiom.getSignature();
+      if (axiom instanceof OWLAnnotationAssertionAxiom) {
+        OWLAnnotationSubject subject = ((OWLAnnotationAssertionAxiom) axiom).getSubject();
+        if (subject.isIRI()) {
+          signature.addAll(ontology.getEntitiesInSignature((IRI) subject));
+        }
+      }
+      for (OWLEntity entity : signature) {
+        if (InvalidReferenceChecker.isDangling(ontology, entity)) {
+          expected.add(
+              InvalidReferenceViolation.create(axiom, entity, Category.DANGLING).toString());
+        }
+        if (InvalidReferenceChecker.isDeprecated(ontology, entity)
+            && !(axiom instanceof OWLDeclarationAxiom)) {
+          expected.add(
+              InvalidReferenceViolation.create(axiom, entity, Category.DEPRECATED).toString());
+        }
+      }
+    }
+    assertFalse(expected.isEmpty());
+    for (int threads : new int[] {1, 3}) {
+      Set<String> actual = new HashSet<>();
+      for (InvalidReferenceViolation violation :
+          InvalidReferenceChecker.getInvalidReferenceViolations(ontology, false, threads)) {
+        actual.add(violation.toString());
+      }
+      assertEquals(expected, actual);
+    }
+  }
 }
@@ -7,9 +7,12 @@ import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Map;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Test;
+import org.obolibrary.robot.checks.Report;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
 import org.yaml.snakeyaml.error.YAMLException;
@@ -63,6 +66,123 @@ public class ReportOperationTest extends CoreTest {
     }
   }
 
+  /**
+   * Test that running report queries on several threads gives the same report as running them on
+   * one thread.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testParallelReport() throws Exception {
+    final OWLOntology ontology = loadOntology("/1016-report-json-failure/input.owl");
+    final IOHelper iohelper = new IOHelper();
+    final Map<String, String> options = ReportOperation.getDefaultOptions();
+    final Report sequential = ReportOperation.getReport(ontology, iohelper, options);
+    options.put("threads", "4");
+    final Report parallel = ReportOperation.getReport(ontology, iohelper, options);
+    Assert.assertEquals(sequential.getTotalViolations(), parallel.getTotalViolations());
+    Assert.assertEquals(sequential.toJSON(), parallel.toJSON());
+  }
+
+  /**
+   * Test that an incremental report gives the same report as a full run, before and after the
+   * ontology changes.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testIncrementalReport() throws Exception {
+    final OWLOntology ontology = loadOntology("/report-rules.ofn");
+    final IOHelper iohelper = new IOHelper();
+    final File stateFile = File.createTempFile("report-state", ".json");
+    Assert.assertTrue(stateFile.delete());
+    final Map<String, String> options = ReportOperation.getDefaultOptions();
+    final Map<String, String> incrementalOptions = ReportOperation.getDefaultOptions();
+    incrementalOptions.put("incremental", stateFile.getPath());
+
+    // First run has no state, so it is a full run
+    String expected = ReportOperation.getReport(ontology, iohelper, options).toYAML();
+    String actual = ReportOperation.getReport(ontology, iohelper, incrementalOptions).toYAML();
+    Assert.assertEquals(expected, actual);
+    Assert.assertTrue(stateFile.exists());
+
+    // Change some entities and run again from the stored state
+    final OWLOntologyManager m = ontology.getOWLOntologyManager();
+    final OWLDataFactory f = m.getOWLDataFactory();
+    final String ns = "http://test.org/report#";
+    final IRI iriE = IRI.create(ns + "E");
+    final IRI iriD = IRI.create(ns + "D");
+    final OWLAnnotationProperty xref =
+        f.getOWLAnnotationProperty(IRI.create(oboInOwl + "hasDbXref"));
+    m.addAxiom(ontology, f.getOWLAnnotationAssertionAxiom(xref, iriE, f.getOWLLiteral("bad xref")));
+    m.addAxiom(
+        ontology, f.getOWLAnnotationAssertionAxiom(f.getRDFSLabel(), iriE, f.getOWLLiteral("E\t")));
+    m.removeAxioms(ontology, ontology.getAnnotationAssertionAxioms(iriD));
+
+    expected = ReportOperation.getReport(ontology, iohelper, options).toYAML();
+    actual = ReportOperation.getReport(ontology, iohelper, incrementalOptions).toYAML();
+    Assert.assertEquals(expected, actual);
+    stateFile.delete();
+  }
+
+  /**
+   * Test that an incremental report re-checks changed entities whose IRIs cannot be written in
+   * SPARQL syntax, such as IRIs with spaces, which the invalid_entity_uri rule reports.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testIncrementalReportInvalidIRI() throws Exception {
+    final OWLOntology ontology = loadOntology("/report-rules.ofn");
+    final IOHelper iohelper = new IOHelper();
+    final File stateFile = File.createTempFile("report-state", ".json");
+    Assert.assertTrue(stateFile.delete());
+    final Map<String, String> options = ReportOperation.getDefaultOptions();
+    final Map<String, String> incrementalOptions = ReportOperation.getDefaultOptions();
+    incrementalOptions.put("incremental", stateFile.getPath());
+    ReportOperation.getReport(ontology, iohelper, incrementalOptions);
+
+    final OWLOntologyManager m = ontology.getOWLOntologyManager();
+    final OWLDataFactory f = m.getOWLDataFactory();
+    final OWLClass bad = f.getOWLClass(IRI.create("http://test.org/report#bad {\"entity\"}>\\"));
+    m.addAxiom(ontology, f.getOWLDeclarationAxiom(bad));
+    m.addAxiom(
+        ontology,
+        f.getOWLAnnotationAssertionAxiom(f.getRDFSLabel(), bad.getIRI(), f.getOWLLiteral("bad")));
+
+    String expected = ReportOperation.getReport(ontology, iohelper, options).toYAML();
+    String actual = ReportOperation.getReport(ontology, iohelper, incrementalOptions).toYAML();
+    Assert.assertEquals(expected, actual);
+    stateFile.delete();
+  }
+
+  /**
+   * Test that a streamed report writes the same TSV and JSON output as a collected report.
+   *
+   * @throws Exception on any problem
+   */
+  @Test
+  public void testStreamReport() throws Exception {
+    final OWLOntology ontology = loadOntology("/1016-report-json-failure/input.owl");
+    final IOHelper iohelper = new IOHelper();
+    for (String format : new String[] {"tsv", "json"}) {
+      final File expected = File.createTempFile("report", "." + format);
+      final File actual = File.createTempFile("report-stream", "." + format);
+      final Map<String, String> options = ReportOperation.getDefaultOptions();
+      options.put("fail-on", "info");
+      boolean expectedResult =
+          ReportOperation.report(ontology, iohelper, expected.getPath(), options);
+      options.put("stream", "true");
+      boolean actualResult = ReportOperation.report(ontology, iohelper, actual.getPath(), options);
+      Assert.assertEquals(expectedResult, actualResult);
+      Assert.assertEquals(
+          FileUtils.readFileToString(expected, StandardCharsets.UTF_8),
+          FileUtils.readFileToString(actual, StandardCharsets.UTF_8));
+      expected.delete();
+      actual.delete();
+    }
+  }
+
   private OWLOntology generateOntologyWithLotsOfViolations() throws OWLOntologyCreationException {
     final OWLOntologyManager m = OWLManager.createOWLOntologyManager();
     final OWLDataFactory f = m.getOWLDataFactory();
@@ -1,8 +1,12 @@
 package org.obolibrary.robot;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.Lists;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.util.*;
 import org.junit.Test;
 import org.semanticweb.owlapi.apibinding.OWLManager;
@@ -33,6 +37,116 @@ public class TemplateTest extends CoreTest {
     assertIdentical("/template.owl", template);
   }
 
+  /**
+   * Test that processing the rows on several threads gives the same ontology.
+   *
+   * @throws Exception if entities cannot be found
+   */
+  @Test
+  public void testTemplateCSVParallel() throws Exception {
+    String path = "/template.csv";
+    List<List<String>> rows = TemplateHelper.readCSV(this.getClass().getResourceAsStream(path));
+    OWLOntology simpleParts = loadOntology("/simple_parts.owl");
+
+    Template t = new Template(path, rows, simpleParts);
+    t.setThreads(3);
+    OWLOntology template = t.generateOutputOntology("http://test.com/template.owl", false, null);
+    assertIdentical("/template.owl", template);
+  }
+
+  /**
+   * Test that processing rows with errors and undeclared properties on several threads gives the
+   * same axioms and the same errors, in the same order, as one thread.
+   *
+   * @throws Exception if entities cannot be found
+   */
+  @Test
+  public void testTemplateErrorsParallel() throws Exception {
+    List<List<String>> rows = new ArrayList<>();
+    rows.add(Arrays.asList("ID", "Label", "Parent"));
+    rows.add(Arrays.asList("ID", "LABEL", "SC %"));
+    for (int i = 0; i < 40; i++) {
+      String parent = "GO:0000001";
+      if (i % 7 == 3) {
+        parent = "GO:0000001 and";
+      } else if (i % 10 == 5) {
+        parent = "GO:0000050 some GO:0000002";
+      } else if (i % 10 == 8) {
+        parent = "GO:0000050 some xsd:string";
+      }
+      rows.add(Arrays.asList(String.format("GO:%07d", 100 + i), "test " + i, parent));
+    }
+
+    List<Set<OWLAxiom>> axioms = new ArrayList<>();
+    List<List<List<String>>> errors = new ArrayList<>();
+    for (int threads : new int[] {1, 3}) {
+      File errorsFile = File.createTempFile("template-errors", ".tsv");
+      errorsFile.deleteOnExit();
+      Template t = new Template("errors.tsv", rows);
+      t.setThreads(threads);
+      axioms.add(t.generateOutputOntology(null, true, errorsFile.getPath()).getAxioms());
+      errors.add(TemplateHelper.readTSV(errorsFile.getPath()));
+    }
+    assertTrue(errors.get(0).size() > 1);
+    assertEquals(axioms.get(0), axioms.get(1));
+    assertEquals(errors.get(0), errors.get(1));
+  }
+
+  /**
+   * Test that streaming the rows in batches to OFN gives the same axioms.
+   *
+   * @throws Exception if entities cannot be found
+   */
+  @Test
+  public void testTemplateCSVStream() throws Exception {
+    String path = "/template.csv";
+    List<List<String>> rows = TemplateHelper.readCSV(this.getClass().getResourceAsStream(path));
+    OWLOntology simpleParts = loadOntology("/simple_parts.owl");
+    OWLOntology expected = new Template(path, rows, simpleParts).generateOutputOntology();
+
+    List<List<String>> tableRows = rows.subList(2, rows.size());
+    Template t = new Template(path, rows.subList(0, 2), simpleParts);
+    t.addEntities(tableRows.iterator());
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    IRI iri = IRI.create("http://test.com/template.owl");
+    try (AxiomStreamWriter writer = new AxiomStreamWriter(output, "ofn", iri, null, null)) {
+      t.streamOutputAxioms(tableRows.iterator(), writer, 2, false, null);
+    }
+    OWLOntology actual =
+        OWLManager.createOWLOntologyManager()
+            .loadOntologyFromOntologyDocument(new ByteArrayInputStream(output.toByteArray()));
+    assertEquals(iri, actual.getOntologyID().getOntologyIRI().orNull());
+    assertEquals(expected.getAxioms(), actual.getAxioms());
+  }
+
+  /**
+   * Test that streaming the rows in batches to N-Triples on several threads gives the same axioms.
+   *
+   * @throws Exception if entities cannot be found
+   */
+  @Test
+  public void testTemplateCSVStreamNTriples() throws Exception {
+    String path = "/template.csv";
+    List<List<String>> rows = TemplateHelper.readCSV(this.getClass().getResourceAsStream(path));
+    OWLOntology simpleParts = loadOntology("/simple_parts.owl");
+    OWLOntology expected = new Template(path, rows, simpleParts).generateOutputOntology();
+
+    List<List<String>> tableRows = rows.subList(2, rows.size());
+    Template t = new Template(path, rows.subList(0, 2), simpleParts);
+    t.addEntities(tableRows.iterator());
+    t.setThreads(2);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    IRI iri = IRI.create("http://test.com/template.owl");
+    try (AxiomStreamWriter writer = new AxiomStreamWriter(output, "nt", iri, null, null)) {
+      assertTrue(t.streamOutputAxioms(tableRows.iterator(), writer, 1, false, null).isEmpty());
+    }
+    OWLOntology actual =
+        OWLManager.createOWLOntologyManager()
+            .loadOntologyFromOntologyDocument(new ByteArrayInputStream(output.toByteArray()));
+    assertEquals(iri, actual.getOntologyID().getOntologyIRI().orNull());
+    assertEquals(expected.getAxioms(), actual.getAxioms());
+  }
+
   /**
    * Test legacy templating.
    *
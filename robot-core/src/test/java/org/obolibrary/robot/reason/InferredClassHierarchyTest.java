@@ -0,0 +1,47 @@
+package org.obolibrary.robot.reason;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import org.obolibrary.robot.CoreTest;
+import org.semanticweb.elk.owlapi.ElkReasonerFactory;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+/** Tests for InferredClassHierarchy. */
+public class InferredClassHierarchyTest extends CoreTest {
+
+  /**
+   * Test that the hierarchy gives the same superclasses as the reasoner, including for equivalent
+   * and unsatisfiable classes.
+   *
+   * @throws IOException on error
+   */
+  @Test
+  public void testSuperClasses() throws IOException {
+    for (String path : new String[] {"/inferred-equiv.owl", "/reduce-edgecase-cnd.obo"}) {
+      OWLOntology ontology = loadOntology(path);
+      OWLReasoner reasoner = new ElkReasonerFactory().createReasoner(ontology);
+      InferredClassHierarchy hierarchy = new InferredClassHierarchy(reasoner);
+      Set<OWLClass> classes = new HashSet<>(ontology.getClassesInSignature(Imports.INCLUDED));
+      classes.add(dataFactory.getOWLThing());
+      classes.add(dataFactory.getOWLNothing());
+      for (OWLClass subClass : classes) {
+        Set<OWLClass> expected = reasoner.getSuperClasses(subClass, false).getFlattened();
+        assertEquals(subClass.toString(), expected, hierarchy.getSuperClasses(subClass));
+        for (OWLClass superClass : classes) {
+          assertEquals(
+              subClass + " " + superClass,
+              expected.contains(superClass),
+              hierarchy.isSuperClass(superClass, subClass));
+        }
+      }
+      reasoner.dispose();
+    }
+  }
+}